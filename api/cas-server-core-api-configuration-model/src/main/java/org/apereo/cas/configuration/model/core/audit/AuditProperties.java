@@ -78,6 +78,13 @@ public class AuditProperties implements Serializable {
      */
     private boolean useServerHostAddress;
 
+    /**
+     * Settings that control the queue of audit records
+     * that are recorded asynchronously.
+     */
+    @NestedConfigurationProperty
+    private AuditQueueProperties queue = new AuditQueueProperties();
+
     /**
      * Family of sub-properties pertaining to Jdbc-based audit destinations.
      */
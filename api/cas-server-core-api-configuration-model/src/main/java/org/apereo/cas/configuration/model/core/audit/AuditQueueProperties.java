@@ -0,0 +1,53 @@
+package org.apereo.cas.configuration.model.core.audit;
+
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link AuditQueueProperties}. Controls the queue used by audit managers
+ * that record audit records asynchronously.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@RequiresModule(name = "cas-server-core-audit", automated = true)
+@Getter
+@Setter
+public class AuditQueueProperties implements Serializable {
+
+    private static final long serialVersionUID = 2180531416738469362L;
+
+    /**
+     * Maximum number of audit records that may wait in the queue
+     * before the overflow policy kicks in.
+     */
+    private int capacity = 10_000;
+
+    /**
+     * Maximum number of audit records that are written to the audit storage
+     * together, in a single operation if the storage supports it.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Maximum amount of time a partial batch of audit records
+     * waits in the queue before it is written to the audit storage.
+     */
+    private String flushInterval = "PT1S";
+
+    /**
+     * Determine what should happen to audit records when the queue is full.
+     * Accepted values are:
+     * <ul>
+     * <li>{@code DISCARD}: Discard the new audit record.</li>
+     * <li>{@code DISCARD_OLDEST}: Discard the oldest queued audit record.</li>
+     * <li>{@code CALLER_RUNS}: Write the new audit record on the calling thread.</li>
+     * </ul>
+     * Discarded audit records are counted, and a warning is logged as they are discarded.
+     */
+    private String overflowPolicy = "CALLER_RUNS";
+}
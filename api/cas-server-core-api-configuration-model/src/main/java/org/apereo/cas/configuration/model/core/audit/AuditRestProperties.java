@@ -23,4 +23,11 @@ public class AuditRestProperties extends RestEndpointProperties {
      * Make storage requests asynchronously.
      */
     private boolean asynchronous = true;
+
+    /**
+     * Post batches of audit records to the endpoint as a JSON array in a single request,
+     * instead of posting each audit record as a JSON object in its own request.
+     * The endpoint must be able to accept arrays of audit records.
+     */
+    private boolean batched;
 }
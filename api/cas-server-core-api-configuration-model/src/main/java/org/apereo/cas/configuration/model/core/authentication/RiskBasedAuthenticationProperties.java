@@ -61,6 +61,19 @@ public class RiskBasedAuthenticationProperties implements Serializable {
      */
     private long daysInRecentHistory = 30;
 
+    /**
+     * Maximum number of principal risk profiles, aggregated from
+     * authentication history, that are kept in memory.
+     */
+    private long profileCacheMaximumSize = 10_000;
+
+    /**
+     * Duration after which principal risk profiles kept in memory are
+     * rebuilt from the authentication history, so that older events age out
+     * and events recorded by other nodes are observed.
+     */
+    private String profileCacheExpiration = "PT30M";
+
     @Getter
     @Setter
     public static class IpAddress implements Serializable {
@@ -63,6 +63,31 @@ public class EventsProperties implements Serializable {
      */
     private CouchDb couchDb = new CouchDb();
 
+    /**
+     * Track authentication events in memory.
+     */
+    private Memory memory = new Memory();
+
+    @RequiresModule(name = "cas-server-support-events-memory")
+    @Getter
+    @Setter
+    public static class Memory implements Serializable {
+
+        private static final long serialVersionUID = 3918436901491275541L;
+
+        /**
+         * How long events are kept in memory, measured from the event creation time.
+         * Events older than this period are evicted.
+         */
+        private String retention = "P30D";
+
+        /**
+         * Maximum number of events kept in memory.
+         * Once exceeded, the oldest events are evicted first.
+         */
+        private long maximumSize = 1_000_000;
+    }
+
     @RequiresModule(name = "cas-server-support-events-jpa")
     @Getter
     @Setter
@@ -143,6 +143,13 @@ public class ServiceRegistryProperties implements Serializable {
      */
     private ServiceManagementTypes managementType = ServiceManagementTypes.DEFAULT;
 
+    /**
+     * Maximum number of service lookup results (service identifier to matching registered service)
+     * that are remembered by the services manager. The cache is discarded whenever service definitions
+     * are saved, deleted or reloaded. Set to zero to disable.
+     */
+    private long cacheSize = 10_000L;
+
     /**
      * Types of service managers that one can control.
      */
@@ -46,6 +46,14 @@ public class ViewProperties implements Serializable {
      */
     private List<String> templatePrefixes = new ArrayList<>();
 
+    /**
+     * Whether service validation success responses for the CAS v2 and v3 protocols,
+     * in XML or JSON, should be written directly to the response stream
+     * instead of being rendered through the configured templates.
+     * Customized success templates are ignored when this setting is turned on.
+     */
+    private boolean validationResponseStreamingEnabled;
+
     /**
      * CAS1 views and locations.
      */
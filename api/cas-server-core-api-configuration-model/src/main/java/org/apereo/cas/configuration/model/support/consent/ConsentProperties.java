@@ -42,6 +42,18 @@ public class ConsentProperties implements Serializable {
      */
     private ChronoUnit reminderTimeUnit = ChronoUnit.DAYS;
 
+    /**
+     * Maximum number of consent decisions kept in memory, keyed by principal and service,
+     * so that repeated logins do not look up and decode decisions again.
+     */
+    private long decisionCacheMaximumSize = 10_000;
+
+    /**
+     * Duration after which consent decisions kept in memory expire,
+     * so that changes made by other nodes are eventually observed.
+     */
+    private String decisionCacheExpiration = "PT5M";
+
     /**
      * Keep consent decisions stored via REST.
      */
@@ -45,6 +45,13 @@ public class DynamoDbTicketRegistryProperties extends AbstractDynamoDbProperties
      */
     private String transientSessionTicketsTableName = "transientSessionTicketsTable";
 
+    /**
+     * Number of segments into which a table scan is divided.
+     * Segments are scanned in parallel, each one paging through
+     * its share of the table.
+     */
+    private int scanSegments = 4;
+
     /**
      * Crypto settings for the registry.
      */
@@ -24,4 +24,22 @@ public abstract class BaseGeoLocationProperties implements Serializable {
      * for geo locations. See <a href="http://ipstack.com">this link</a> for more info.
      */
     private String ipStackApiAccessKey;
+
+    /**
+     * Maximum number of geo location results to keep in memory,
+     * keyed by ip address or by latitude/longitude.
+     */
+    private long cacheMaximumSize = 10_000;
+
+    /**
+     * How long geo location results are kept in memory before they are looked up again.
+     */
+    private String cacheExpiration = "PT1H";
+
+    /**
+     * How long lookups that produce no geo location are kept in memory before they are looked up again.
+     * Such lookups may be caused by transient failures of the geo location provider,
+     * and are therefore retried sooner than successful ones.
+     */
+    private String cacheMissExpiration = "PT1M";
 }
@@ -22,6 +22,35 @@ public class JmsTicketRegistryProperties implements Serializable {
 
     private static final long serialVersionUID = -2600525447128979994L;
 
+    /**
+     * When positive, changes to tickets are replicated to other nodes asynchronously, in batches sent
+     * on this interval or as soon as a batch is full. Changes made to the same ticket within the interval
+     * are coalesced into a single message that carries the latest state of the ticket.
+     * Since a ticket issued by one node is unknown to the others until its batch is sent, batching requires
+     * requests for a ticket to reach the node that issued it, such as via sticky sessions.
+     * A zero or negative interval, which is the default, replicates each change immediately on the calling thread.
+     */
+    private String flushInterval = "PT0S";
+
+    /**
+     * Maximum number of ticket changes that are replicated together in a single message.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Whether a node, once started, should request a snapshot of tickets
+     * from its peers and load it before it begins to accept requests.
+     * Disabled by default, since a node with no peers waits for the entire bootstrap timeout.
+     */
+    private boolean bootstrapEnabled;
+
+    /**
+     * Maximum amount of time a node waits for a peer to send it a snapshot of tickets.
+     * The node starts with an empty registry if no snapshot arrives in time,
+     * which is always the case for the first node of the cluster.
+     */
+    private String bootstrapTimeout = "PT5S";
+
     /**
      * Crypto settings for the registry.
      */
@@ -40,6 +40,12 @@ public class JpaTicketRegistryProperties extends AbstractJpaProperties {
      */
     private String jpaLockingTimeout = DEFAULT_LOCK_TIMEOUT;
 
+    /**
+     * Maximum number of expired tickets that are selected and removed
+     * by the ticket registry cleaner in a single database operation.
+     */
+    private int cleanerBatchSize = 500;
+
     /**
      * Crypto settings for the registry.
      */
@@ -26,6 +26,26 @@ public class RedisTicketRegistryProperties extends BaseRedisProperties {
     @NestedConfigurationProperty
     private EncryptionRandomizedSigningJwtCryptographyProperties crypto = new EncryptionRandomizedSigningJwtCryptographyProperties();
 
+    /**
+     * Maintain sorted-set indexes per ticket type, scored by ticket expiration,
+     * so that fetching, counting and removing tickets does not require
+     * scanning the entire keyspace.
+     */
+    private boolean indexEnabled;
+
+    /**
+     * Number of ticket keys that are fetched or removed in a single batch
+     * when tickets are streamed or deleted in bulk.
+     */
+    private long batchSize = 100;
+
+    /**
+     * Record tickets granted by a ticket-granting ticket in a separate hash
+     * next to the ticket-granting ticket, so that issuing a service or proxy ticket
+     * does not rewrite the ticket-granting ticket.
+     */
+    private boolean grantedTicketsEnabled;
+
     public RedisTicketRegistryProperties() {
         this.crypto.setEnabled(false);
     }
@@ -43,6 +43,11 @@ public class ThrottleProperties implements Serializable {
      */
     private Jdbc jdbc = new Jdbc();
 
+    /**
+     * Track failures in memory and reconcile them periodically with the audit store.
+     */
+    private Local local = new Local();
+
     /**
      * Settings related to throttling requests using bucket4j.
      */
@@ -106,6 +111,31 @@ public class ThrottleProperties implements Serializable {
         private int rangeSeconds = -1;
     }
 
+    /**
+     * Local failure tracking.
+     */
+    @RequiresModule(name = "cas-server-support-throttle", automated = true)
+    @Getter
+    @Setter
+    public static class Local implements Serializable {
+
+        private static final long serialVersionUID = 4513281763921438527L;
+
+        /**
+         * Whether throttlers that are backed by the audit store should track
+         * failures in memory, rather than querying the audit store on every request.
+         * Failures are reconciled with the audit store based on the throttling
+         * scheduler settings, so that failures recorded by other nodes are taken into account.
+         */
+        private boolean enabled;
+
+        /**
+         * Maximum number of client address and username combinations
+         * for which failures are tracked in memory.
+         */
+        private long maximumSize = 100_000;
+    }
+
     @RequiresModule(name = "cas-server-support-throttle-jdbc")
     @Getter
     @Setter
@@ -117,6 +147,12 @@ public class ThrottleProperties implements Serializable {
         private static final String SQL_AUDIT_QUERY = "SELECT AUD_DATE FROM COM_AUDIT_TRAIL WHERE AUD_CLIENT_IP = ? AND AUD_USER = ? "
             + "AND AUD_ACTION = ? AND APPLIC_CD = ? AND AUD_DATE >= ? ORDER BY AUD_DATE DESC";
 
+        /**
+         * SQL query to fetch all recent failures.
+         */
+        private static final String SQL_FAILURES_QUERY = "SELECT AUD_CLIENT_IP, AUD_USER, AUD_DATE FROM COM_AUDIT_TRAIL "
+            + "WHERE AUD_ACTION = ? AND APPLIC_CD = ? AND AUD_DATE >= ?";
+
         private static final long serialVersionUID = -9199878384425691919L;
 
         /**
@@ -125,5 +161,13 @@ public class ThrottleProperties implements Serializable {
          * an application code along with the relevant audit action.
          */
         private String auditQuery = SQL_AUDIT_QUERY;
+
+        /**
+         * Audit query to execute against the database
+         * to locate all audit records that match the relevant audit action
+         * and application code since the given date. Used to reconcile
+         * failures tracked in memory, if enabled.
+         */
+        private String failuresQuery = SQL_FAILURES_QUERY;
     }
 }
@@ -91,6 +91,8 @@ public class X509Properties implements Serializable {
      * <li>{@code CRL}: The CRL URI(s) mentioned in the certificate cRLDistributionPoints extension field.
      * Caches are available to prevent excessive IO against CRL endpoints; CRL data is fetched if does not exist in the cache or if it is expired.</li>
      * <li>{@code RESOURCE}: A CRL hosted at a fixed location. The CRL is fetched at periodic intervals and cached.</li>
+     * <li>{@code OCSP}: The OCSP responder mentioned in the certificate authority information access extension, or
+     * the responder that is explicitly configured. Responses are cached until their next update.</li>
      * </ul>
      */
     private String revocationChecker = "NONE";
@@ -174,6 +176,34 @@ public class X509Properties implements Serializable {
      * </ul>
      */
     private String crlExpiredPolicy = "DENY";
+    /**
+     * If the OCSP responder is unavailable, or the status of the certificate is unknown, activate the this policy.
+     * Activated if {@link #revocationChecker} is {@code OCSP}.
+     * Accepted values are:
+     * <ul>
+     * <li>{@code ALLOW}: Allow authentication to proceed.</li>
+     * <li>{@code DENY}: Deny authentication and block.</li>
+     * </ul>
+     */
+    private String ocspUnavailablePolicy = "DENY";
+    /**
+     * OCSP responder to query instead of the responder mentioned in certificates.
+     */
+    private String ocspResponderUrl;
+    /**
+     * Timeout when connecting to and reading from OCSP responders.
+     */
+    private String ocspTimeout = "PT5S";
+    /**
+     * Certificates of the issuers whose certificates are checked via OCSP.
+     * Issuer certificates that are not listed are fetched via the authority
+     * information access extension of certificates, if present.
+     */
+    private List<String> ocspIssuerCertificates = new ArrayList<>();
+    /**
+     * Maximum number of OCSP responses that are cached.
+     */
+    private long ocspCacheMaxElements = 10_000;
     /**
      * Principal resolution properties.
      */
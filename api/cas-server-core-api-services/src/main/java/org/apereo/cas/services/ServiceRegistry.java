@@ -4,6 +4,8 @@ import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -154,6 +156,31 @@ public interface ServiceRegistry {
         return load().size();
     }
 
+    /**
+     * Get the version of each service definition held in this registry, keyed by the service numeric id.
+     * A version is an opaque watermark (i.e. a last-modified timestamp) that changes whenever the definition
+     * is modified, which allows callers to only fetch definitions that have changed since a previous load.
+     * Registries that are unable to track changes return an empty result, in which case callers
+     * are expected to fall back onto {@link #load()}. Registries that keep definitions in memory report
+     * the versions of what they have loaded; see {@link #reloadChangedServices()}.
+     *
+     * @return the service versions, if change tracking is supported.
+     * @since 6.1.0
+     */
+    default Optional<Map<Long, Long>> getServiceVersions() {
+        return Optional.empty();
+    }
+
+    /**
+     * Reload the service definitions that have changed in the underlying store since they were last loaded,
+     * for registries that keep definitions in memory rather than reading them from the store on every lookup.
+     * Callers that pick up changes incrementally are expected to invoke this before {@link #getServiceVersions()}.
+     *
+     * @since 6.1.0
+     */
+    default void reloadChangedServices() {
+    }
+
     /**
      * Returns the friendly name of this registry.
      *
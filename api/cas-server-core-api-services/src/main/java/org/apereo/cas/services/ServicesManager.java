@@ -136,6 +136,18 @@ public interface ServicesManager {
      */
     Collection<RegisteredService> load();
 
+    /**
+     * Inform the ServicesManager to only load service definitions that have changed
+     * since the previous load. Managers whose service registry is unable to track changes
+     * fall back onto a full {@link #load()}.
+     *
+     * @return the collection of loaded services
+     * @since 6.1.0
+     */
+    default Collection<RegisteredService> loadChanges() {
+        return load();
+    }
+
     /**
      * Return a count of loaded services by this manager.
      *
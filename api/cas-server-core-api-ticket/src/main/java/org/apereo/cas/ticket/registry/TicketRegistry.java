@@ -1,8 +1,11 @@
 package org.apereo.cas.ticket.registry;
 
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketState;
 
 import java.util.Collection;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -98,6 +101,25 @@ public interface TicketRegistry {
         return getTicketsStream().filter(predicate);
     }
 
+    /**
+     * Gets the ticket-granting tickets that are issued to the given principal and have not expired.
+     * Principal ids are compared ignoring case.
+     * <p>
+     * The default implementation examines every ticket in the registry. Registries are expected
+     * to override it with a lookup that is backed by an index of ticket-granting tickets by principal.
+     * <p>
+     * The returning stream may be bound to an IO channel (such as database connection),
+     * so it should be properly closed after usage.
+     *
+     * @param principalId the principal id
+     * @return the ticket-granting tickets
+     */
+    default Stream<? extends TicketGrantingTicket> getSessionsFor(final String principalId) {
+        return getTickets(ticket -> ticket instanceof TicketGrantingTicket && !ticket.isExpired()
+            && TicketGrantingTicket.class.cast(ticket).getAuthentication().getPrincipal().getId().equalsIgnoreCase(principalId))
+            .map(TicketGrantingTicket.class::cast);
+    }
+
     /**
      * Update the received ticket.
      *
@@ -106,6 +128,61 @@ public interface TicketRegistry {
      */
     Ticket updateTicket(Ticket ticket);
 
+    /**
+     * Record the changes made to a ticket-granting ticket as a result of granting the given ticket;
+     * that is, the granted ticket being tracked as a service session of the ticket-granting ticket,
+     * and the usage state of the ticket-granting ticket being updated.
+     * <p>
+     * The default implementation updates the ticket-granting ticket as a whole. Registries may instead
+     * store the changes as a separate, smaller record that is applied back onto the ticket-granting ticket
+     * when it is retrieved, so that granting a ticket does not rewrite the ticket-granting ticket.
+     *
+     * @param ticketGrantingTicket the ticket-granting ticket, after it has granted the ticket
+     * @param grantedTicket        the granted ticket
+     * @param untrackedTicketIds   ids of tickets that the ticket-granting ticket no longer tracks as a result
+     */
+    default void addGrantedTicket(final TicketGrantingTicket ticketGrantingTicket, final Ticket grantedTicket,
+                                  final Collection<String> untrackedTicketIds) {
+        updateTicket(ticketGrantingTicket);
+    }
+
+    /**
+     * Consume a single use of a ticket, such that concurrent attempts to consume the same
+     * ticket observe each other's effects. The validator is handed the current state of
+     * the ticket and may reject it by throwing an exception, in which case the ticket
+     * is left untouched unless it has expired. Otherwise, the usage of the ticket is recorded,
+     * and the ticket is either updated or removed from the registry if that use caused it to expire.
+     * <p>
+     * The default implementation is not atomic; registries are expected to override it
+     * with an implementation that is atomic at least within the JVM, and preferably across
+     * all nodes that share the registry.
+     *
+     * @param <T>       the ticket type
+     * @param ticketId  the ticket id
+     * @param clazz     the expected ticket type
+     * @param validator checks to run against the ticket before it is consumed
+     * @return the consumed ticket, or null if the ticket could not be found or was consumed concurrently
+     */
+    default <T extends Ticket> T consumeTicket(final String ticketId, final Class<T> clazz, final Consumer<T> validator) {
+        final T ticket = getTicket(ticketId, clazz);
+        if (ticket == null) {
+            return null;
+        }
+        var consumed = false;
+        try {
+            validator.accept(ticket);
+            TicketState.class.cast(ticket).update();
+            consumed = true;
+        } finally {
+            if (ticket.isExpired()) {
+                deleteTicket(ticket.getId());
+            } else if (consumed) {
+                updateTicket(ticket);
+            }
+        }
+        return ticket;
+    }
+
     /**
      * Computes the number of SSO sessions stored in the ticket registry.
      *
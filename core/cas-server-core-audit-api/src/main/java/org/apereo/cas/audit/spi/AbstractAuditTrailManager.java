@@ -1,18 +1,34 @@
 package org.apereo.cas.audit.spi;
 
-import lombok.AllArgsConstructor;
+import org.apereo.cas.configuration.model.core.audit.AuditQueueProperties;
+import org.apereo.cas.configuration.support.Beans;
+
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.inspektr.audit.AuditActionContext;
 import org.apereo.inspektr.audit.AuditTrailManager;
+import org.springframework.beans.factory.DisposableBean;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * This is {@link AbstractAuditTrailManager}.
+ * <p>
+ * When operating asynchronously, audit records are placed onto a bounded queue
+ * and are drained by a single background worker in batches. A batch is handed off to
+ * {@link #saveAuditRecords(List)} once it reaches the configured batch size, or once the
+ * flush interval has passed since its first record was taken off the queue, whichever comes first.
+ * Records that cannot be queued are handled according to the configured {@link OverflowPolicy}.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
@@ -20,23 +36,140 @@ import java.util.concurrent.Executors;
 @Slf4j
 @Setter
 @Getter
-@NoArgsConstructor
-@AllArgsConstructor
-public abstract class AbstractAuditTrailManager implements AuditTrailManager {
+public abstract class AbstractAuditTrailManager implements AuditTrailManager, DisposableBean {
+
+    /**
+     * Default capacity of the audit queue.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+    /**
+     * Default number of records saved together.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * Default interval after which a partial batch is saved.
+     */
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    private static final long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long MIN_SHUTDOWN_WAIT_MILLIS = 10_000;
+
+    private static final long DROPPED_RECORDS_WARNING_INTERVAL = 1_000;
 
     /**
      * Save records asynchronously.
      */
     protected boolean asynchronous;
 
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    /**
+     * Maximum number of records waiting to be saved.
+     */
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    /**
+     * Maximum number of records saved together.
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Maximum amount of time a partial batch waits before it is saved.
+     */
+    private Duration flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+    /**
+     * What to do with records when the queue is full.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.CALLER_RUNS;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder droppedRecords = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Object lock = new Object();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile BlockingQueue<AuditActionContext> queue;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile Thread worker;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile boolean running;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile boolean shutdown;
+
+    protected AbstractAuditTrailManager() {
+    }
+
+    protected AbstractAuditTrailManager(final boolean asynchronous) {
+        this.asynchronous = asynchronous;
+    }
+
+    /**
+     * Configure the asynchronous audit queue from the given settings.
+     * Changes only take effect if applied before the first record is queued.
+     *
+     * @param properties the queue properties
+     */
+    public void configureQueue(final AuditQueueProperties properties) {
+        setQueueCapacity(properties.getCapacity());
+        setBatchSize(properties.getBatchSize());
+        setFlushInterval(Beans.newDuration(properties.getFlushInterval()));
+        setOverflowPolicy(OverflowPolicy.valueOf(StringUtils.upperCase(properties.getOverflowPolicy())));
+    }
 
     @Override
     public void record(final AuditActionContext audit) {
-        if (this.asynchronous) {
-            this.executorService.execute(() -> saveAuditRecord(audit));
-        } else {
+        if (!this.asynchronous || this.shutdown) {
             saveAuditRecord(audit);
+            return;
+        }
+        val auditQueue = getOrCreateQueue();
+        if (!auditQueue.offer(audit)) {
+            handleQueueOverflow(auditQueue, audit);
+        }
+    }
+
+    /**
+     * Number of records waiting to be saved.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        val auditQueue = this.queue;
+        return auditQueue == null ? 0 : auditQueue.size();
+    }
+
+    /**
+     * Number of records discarded because the queue was full.
+     *
+     * @return the dropped record count
+     */
+    public long getDroppedRecordCount() {
+        return this.droppedRecords.sum();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        this.shutdown = true;
+        this.running = false;
+        val thread = this.worker;
+        if (thread != null) {
+            thread.join(Math.max(MIN_SHUTDOWN_WAIT_MILLIS, this.flushInterval.multipliedBy(2).toMillis()));
+            if (thread.isAlive()) {
+                LOGGER.warn("Audit worker [{}] did not finish in time; [{}] audit record(s) may not be saved",
+                    thread.getName(), getQueueDepth());
+            }
         }
     }
 
@@ -45,4 +178,131 @@ public abstract class AbstractAuditTrailManager implements AuditTrailManager {
      * @param audit Audit record to be saved.
      */
     protected abstract void saveAuditRecord(AuditActionContext audit);
+
+    /**
+     * Save a batch of audit records. Implementations that are able to write
+     * multiple records in a single operation should override this method.
+     *
+     * @param audits audit records to be saved
+     */
+    protected void saveAuditRecords(final List<AuditActionContext> audits) {
+        audits.forEach(this::saveAuditRecord);
+    }
+
+    private BlockingQueue<AuditActionContext> getOrCreateQueue() {
+        var auditQueue = this.queue;
+        if (auditQueue == null) {
+            synchronized (this.lock) {
+                auditQueue = this.queue;
+                if (auditQueue == null) {
+                    auditQueue = new ArrayBlockingQueue<>(Math.max(1, this.queueCapacity));
+                    this.queue = auditQueue;
+                    this.running = true;
+                    val thread = new Thread(this::processQueue, getClass().getSimpleName() + "-worker");
+                    thread.setDaemon(true);
+                    thread.start();
+                    this.worker = thread;
+                }
+            }
+        }
+        return auditQueue;
+    }
+
+    private void handleQueueOverflow(final BlockingQueue<AuditActionContext> auditQueue, final AuditActionContext audit) {
+        switch (this.overflowPolicy) {
+            case CALLER_RUNS:
+                saveAuditRecord(audit);
+                break;
+            case DISCARD_OLDEST:
+                while (!auditQueue.offer(audit)) {
+                    val dropped = auditQueue.poll();
+                    if (dropped != null) {
+                        recordDroppedRecord(dropped);
+                    }
+                }
+                break;
+            case DISCARD:
+            default:
+                recordDroppedRecord(audit);
+                break;
+        }
+        LOGGER.trace("Audit queue is full; applied overflow policy [{}]", this.overflowPolicy);
+    }
+
+    private void recordDroppedRecord(final AuditActionContext audit) {
+        this.droppedRecords.increment();
+        val total = this.droppedRecords.sum();
+        LOGGER.debug("Audit queue is full; dropped audit record [{}]", audit);
+        if (total % DROPPED_RECORDS_WARNING_INTERVAL == 1) {
+            LOGGER.warn("Audit queue is full and overflow policy [{}] has dropped [{}] audit record(s) so far; "
+                + "consider increasing the queue capacity or using the CALLER_RUNS policy", this.overflowPolicy, total);
+        }
+    }
+
+    private void processQueue() {
+        val auditQueue = this.queue;
+        val size = Math.max(1, this.batchSize);
+        val interval = this.flushInterval.toNanos();
+        val batch = new ArrayList<AuditActionContext>(size);
+        while (this.running) {
+            try {
+                val first = auditQueue.poll(MAX_POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                val deadline = System.nanoTime() + interval;
+                while (batch.size() < size && this.running) {
+                    auditQueue.drainTo(batch, size - batch.size());
+                    val remaining = deadline - System.nanoTime();
+                    if (batch.size() >= size || remaining <= 0) {
+                        break;
+                    }
+                    val next = auditQueue.poll(Math.min(remaining, MAX_POLL_NANOS), TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.running = false;
+            }
+            flush(batch);
+        }
+        while (auditQueue.drainTo(batch, size) > 0) {
+            flush(batch);
+        }
+    }
+
+    private void flush(final List<AuditActionContext> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            LOGGER.trace("Saving [{}] audit record(s)", batch.size());
+            saveAuditRecords(new ArrayList<>(batch));
+        } catch (final Exception e) {
+            LOGGER.error("Unable to save [{}] audit record(s): [{}]", batch.size(), e.getMessage(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * Policies that determine how audit records are handled once the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Discard the new audit record.
+         */
+        DISCARD,
+        /**
+         * Discard the oldest queued audit record to make room for the new one.
+         */
+        DISCARD_OLDEST,
+        /**
+         * Save the new audit record on the calling thread.
+         */
+        CALLER_RUNS
+    }
 }
@@ -0,0 +1,184 @@
+package org.apereo.cas.audit.spi;
+
+import lombok.SneakyThrows;
+import lombok.val;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link AbstractAuditTrailManagerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public class AbstractAuditTrailManagerTests {
+
+    private static AuditActionContext getAuditActionContext(final int index) {
+        return new AuditActionContext("casuser" + index, "TEST", "TEST",
+            "CAS", new Date(), "1.2.3.4", "1.2.3.4");
+    }
+
+    @Test
+    public void verifySynchronousRecord() {
+        val mgr = new BatchRecordingAuditTrailManager(false);
+        mgr.record(getAuditActionContext(0));
+        assertEquals(1, mgr.getRecords().size());
+        assertTrue(mgr.getBatches().isEmpty());
+        assertEquals(0, mgr.getQueueDepth());
+    }
+
+    @Test
+    public void verifyRecordsSavedInBatches() throws Exception {
+        val mgr = new BatchRecordingAuditTrailManager(true);
+        mgr.setBatchSize(10);
+        mgr.setFlushInterval(Duration.ofSeconds(30));
+        for (var i = 0; i < 25; i++) {
+            mgr.record(getAuditActionContext(i));
+        }
+        mgr.destroy();
+        assertEquals(25, mgr.getRecords().size());
+        assertEquals(0, mgr.getQueueDepth());
+        assertTrue(mgr.getBatches().stream().allMatch(size -> size <= 10));
+        assertTrue(mgr.getBatches().size() < 25);
+    }
+
+    @Test
+    public void verifyPartialBatchFlushedAfterInterval() throws Exception {
+        val mgr = new BatchRecordingAuditTrailManager(true);
+        mgr.setBatchSize(100);
+        mgr.setFlushInterval(Duration.ofMillis(50));
+        mgr.record(getAuditActionContext(0));
+        mgr.record(getAuditActionContext(1));
+        val deadline = System.currentTimeMillis() + 5_000;
+        while (mgr.getRecords().size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, mgr.getRecords().size());
+        mgr.destroy();
+    }
+
+    @Test
+    public void verifyDiscardWhenQueueIsFull() throws Exception {
+        val mgr = new BatchRecordingAuditTrailManager(true);
+        mgr.setQueueCapacity(2);
+        mgr.setBatchSize(1);
+        mgr.setOverflowPolicy(AbstractAuditTrailManager.OverflowPolicy.DISCARD);
+        mgr.blockWorker();
+        for (var i = 0; i < 10; i++) {
+            mgr.record(getAuditActionContext(i));
+        }
+        assertEquals(2, mgr.getQueueDepth());
+        assertEquals(8, mgr.getDroppedRecordCount());
+        mgr.releaseWorker();
+        mgr.destroy();
+        assertEquals(3, mgr.getRecords().size());
+    }
+
+    @Test
+    public void verifyDiscardOldestWhenQueueIsFull() throws Exception {
+        val mgr = new BatchRecordingAuditTrailManager(true);
+        mgr.setQueueCapacity(2);
+        mgr.setBatchSize(1);
+        mgr.setOverflowPolicy(AbstractAuditTrailManager.OverflowPolicy.DISCARD_OLDEST);
+        mgr.blockWorker();
+        for (var i = 0; i < 10; i++) {
+            mgr.record(getAuditActionContext(i));
+        }
+        assertEquals(8, mgr.getDroppedRecordCount());
+        mgr.releaseWorker();
+        mgr.destroy();
+        val principals = new ArrayList<String>();
+        mgr.getRecords().forEach(record -> principals.add(record.getPrincipal()));
+        assertEquals(List.of("casuser0", "casuser8", "casuser9"), principals);
+    }
+
+    @Test
+    public void verifyCallerRunsWhenQueueIsFull() throws Exception {
+        val mgr = new BatchRecordingAuditTrailManager(true);
+        assertEquals(AbstractAuditTrailManager.OverflowPolicy.CALLER_RUNS, mgr.getOverflowPolicy());
+        mgr.setQueueCapacity(2);
+        mgr.setBatchSize(1);
+        mgr.blockWorker();
+        for (var i = 0; i < 10; i++) {
+            mgr.record(getAuditActionContext(i));
+        }
+        assertEquals(0, mgr.getDroppedRecordCount());
+        assertEquals(8, mgr.getRecords().size());
+        mgr.releaseWorker();
+        mgr.destroy();
+        assertEquals(11, mgr.getRecords().size());
+    }
+
+    private static class BatchRecordingAuditTrailManager extends AbstractAuditTrailManager {
+        private final List<AuditActionContext> records = new CopyOnWriteArrayList<>();
+
+        private final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        private volatile CountDownLatch release = new CountDownLatch(0);
+
+        BatchRecordingAuditTrailManager(final boolean asynchronous) {
+            super(asynchronous);
+        }
+
+        List<AuditActionContext> getRecords() {
+            return records;
+        }
+
+        List<Integer> getBatches() {
+            return batches;
+        }
+
+        /**
+         * Queue a first record and hold the worker while saving it,
+         * so that subsequent records pile up in the queue.
+         */
+        @SneakyThrows
+        void blockWorker() {
+            this.release = new CountDownLatch(1);
+            record(getAuditActionContext(0));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+        }
+
+        void releaseWorker() {
+            this.release.countDown();
+        }
+
+        @Override
+        @SneakyThrows
+        protected void saveAuditRecords(final List<AuditActionContext> audits) {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            batches.add(audits.size());
+            super.saveAuditRecords(audits);
+        }
+
+        @Override
+        protected void saveAuditRecord(final AuditActionContext audit) {
+            records.add(audit);
+        }
+
+        @Override
+        public Set<? extends AuditActionContext> getAuditRecordsSince(final LocalDate localDate) {
+            return Set.of();
+        }
+
+        @Override
+        public void removeAll() {
+            records.clear();
+        }
+    }
+}
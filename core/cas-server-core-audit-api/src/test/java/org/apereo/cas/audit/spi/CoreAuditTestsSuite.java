@@ -17,6 +17,7 @@ import org.junit.runner.RunWith;
  */
 @SelectClasses({
     AuditActionContextJsonSerializerTests.class,
+    AbstractAuditTrailManagerTests.class,
     ServiceResourceResolverTests.class,
     TicketAsFirstParameterResourceResolverTests.class,
     ChainingAuditPrincipalIdProviderTests.class,
@@ -4,8 +4,6 @@ import org.apereo.cas.authentication.principal.Principal;
 import org.apereo.cas.authentication.principal.Service;
 import org.apereo.cas.util.CollectionUtils;
 import org.apereo.cas.util.ResourceUtils;
-import org.apereo.cas.util.scripting.ExecutableCompiledGroovyScript;
-import org.apereo.cas.util.scripting.GroovyShellScript;
 import org.apereo.cas.util.scripting.ScriptingUtils;
 import org.apereo.cas.util.scripting.WatchableGroovyScriptResource;
 
@@ -13,9 +11,14 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.AllArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +27,7 @@ import lombok.val;
 import javax.persistence.PostLoad;
 import javax.persistence.Transient;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -33,6 +37,11 @@ import java.util.TreeMap;
 /**
  * Return a collection of allowed attributes for the principal, but additionally,
  * offers the ability to rename attributes on a per-service level.
+ * <p>
+ * The mapping of allowed attributes is turned into a plan once, when the policy is created or loaded,
+ * and is only rebuilt once the allowed attributes are set again. Inline groovy scripts found in the plan
+ * are compiled through the shared compiled script cache, and external groovy scripts are shared by all
+ * policies that refer to the same script file, so reloading services does not compile or watch them again.
  *
  * @author Misagh Moayyed
  * @since 4.1.0
@@ -41,24 +50,52 @@ import java.util.TreeMap;
 @ToString(callSuper = true)
 @Setter
 @EqualsAndHashCode(callSuper = true)
-@AllArgsConstructor
 @NoArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class ReturnMappedAttributeReleasePolicy extends AbstractRegisteredServiceAttributeReleasePolicy {
 
+    /**
+     * Maximum number of external groovy scripts shared by policies.
+     */
+    public static final long MAXIMUM_CACHED_EXTERNAL_SCRIPTS = 1_000;
+
     private static final long serialVersionUID = -6249488544306639050L;
 
+    private static final Cache<String, WatchableGroovyScriptResource> EXTERNAL_SCRIPTS = Caffeine.newBuilder()
+        .maximumSize(MAXIMUM_CACHED_EXTERNAL_SCRIPTS)
+        .<String, WatchableGroovyScriptResource>removalListener((location, script, cause) -> {
+            if (script != null && cause != RemovalCause.REPLACED) {
+                script.close();
+            }
+        })
+        .build();
+
     private Map<String, Object> allowedAttributes = new TreeMap<>();
 
     @JsonIgnore
     @Transient
     @org.springframework.data.annotation.Transient
-    private transient Map<String, ExecutableCompiledGroovyScript> attributeScriptCache = new LinkedHashMap<>();
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient AttributeMappingPlan attributeMappingPlan;
 
     @JsonCreator
     public ReturnMappedAttributeReleasePolicy(@JsonProperty("allowedAttributes") final Map<String, Object> attributes) {
         this.allowedAttributes = attributes;
-        initializeWatchableScriptIfNeeded();
+        initializeAttributeMappingPlan();
+    }
+
+    private static WatchableGroovyScriptResource getExternalScript(final String location) {
+        try {
+            val resource = ResourceUtils.getRawResourceFrom(location);
+            if (ResourceUtils.doesResourceExist(resource) && ResourceUtils.isFile(resource)) {
+                return EXTERNAL_SCRIPTS.get(location, key -> new WatchableGroovyScriptResource(resource));
+            }
+            return new WatchableGroovyScriptResource(resource);
+        } catch (final Exception e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+        return null;
     }
 
     /**
@@ -70,29 +107,48 @@ public class ReturnMappedAttributeReleasePolicy extends AbstractRegisteredServic
         return new TreeMap<>(this.allowedAttributes);
     }
 
+    /**
+     * Sets the allowed attributes, and rebuilds the attribute mapping plan.
+     *
+     * @param allowedAttributes the allowed attributes
+     */
+    public void setAllowedAttributes(final Map<String, Object> allowedAttributes) {
+        this.allowedAttributes = allowedAttributes;
+        initializeAttributeMappingPlan();
+    }
 
     @PostLoad
-    private void initializeWatchableScriptIfNeeded() {
-        getAllowedAttributes().forEach((attributeName, value) -> {
-            val mappedAttributes = CollectionUtils.wrap(value);
-            mappedAttributes.forEach(mapped -> {
+    private void initializeAttributeMappingPlan() {
+        val allowed = this.allowedAttributes;
+        val mappings = new LinkedHashMap<String, List<String>>();
+        val inlineScripts = new HashMap<String, String>();
+        val externalScripts = new HashMap<String, WatchableGroovyScriptResource>();
+        new TreeMap<>(allowed == null ? Map.<String, Object>of() : allowed).forEach((attributeName, value) -> {
+            val mappedAttributeNames = new ArrayList<String>();
+            CollectionUtils.wrap(value).forEach(mapped -> {
                 val mappedAttributeName = mapped.toString();
-                if (!attributeScriptCache.containsKey(mappedAttributeName)) {
-                    val matcherInline = ScriptingUtils.getMatcherForInlineGroovyScript(mappedAttributeName);
-                    val matcherFile = ScriptingUtils.getMatcherForExternalGroovyScript(mappedAttributeName);
-                    if (matcherInline.find()) {
-                        attributeScriptCache.put(mappedAttributeName, new GroovyShellScript(matcherInline.group(1)));
-                    } else if (matcherFile.find()) {
-                        try {
-                            val resource = ResourceUtils.getRawResourceFrom(matcherFile.group(2));
-                            attributeScriptCache.put(mappedAttributeName, new WatchableGroovyScriptResource(resource));
-                        } catch (final Exception e) {
-                            LOGGER.error(e.getMessage(), e);
-                        }
+                mappedAttributeNames.add(mappedAttributeName);
+                val matcherInline = ScriptingUtils.getMatcherForInlineGroovyScript(mappedAttributeName);
+                val matcherFile = ScriptingUtils.getMatcherForExternalGroovyScript(mappedAttributeName);
+                if (matcherInline.find()) {
+                    inlineScripts.put(mappedAttributeName, matcherInline.group(1));
+                } else if (matcherFile.find() && !externalScripts.containsKey(mappedAttributeName)) {
+                    val script = getExternalScript(matcherFile.group(2));
+                    if (script != null) {
+                        externalScripts.put(mappedAttributeName, script);
                     }
                 }
             });
+            mappings.put(attributeName, List.copyOf(mappedAttributeNames));
         });
+        this.attributeMappingPlan = new AttributeMappingPlan(Collections.unmodifiableMap(mappings), Map.copyOf(inlineScripts), Map.copyOf(externalScripts));
+    }
+
+    private AttributeMappingPlan getAttributeMappingPlan() {
+        if (this.attributeMappingPlan == null) {
+            initializeAttributeMappingPlan();
+        }
+        return this.attributeMappingPlan;
     }
 
     @Override
@@ -116,8 +172,7 @@ public class ReturnMappedAttributeReleasePolicy extends AbstractRegisteredServic
                                                                             final Map<String, List<Object>> attrs,
                                                                             final RegisteredService registeredService,
                                                                             final Service selectedService) {
-        initializeWatchableScriptIfNeeded();
-
+        val plan = getAttributeMappingPlan();
         val resolvedAttributes = new TreeMap<String, List<Object>>(String.CASE_INSENSITIVE_ORDER);
         resolvedAttributes.putAll(attrs);
         val attributesToRelease = new HashMap<String, List<Object>>();
@@ -126,30 +181,29 @@ public class ReturnMappedAttributeReleasePolicy extends AbstractRegisteredServic
          * by the original key, value and the original entry itself.
          * Then process the array to populate the map for allowed attributes
          */
-        getAllowedAttributes().forEach((attributeName, value) -> {
-            val mappedAttributes = CollectionUtils.wrap(value);
+        plan.getMappings().forEach((attributeName, mappedAttributes) -> {
             LOGGER.trace("Attempting to map allowed attribute name [{}]", attributeName);
             val attributeValue = resolvedAttributes.get(attributeName);
-            mappedAttributes.forEach(mapped -> {
-                val mappedAttributeName = mapped.toString();
+            mappedAttributes.forEach(mappedAttributeName -> {
                 LOGGER.debug("Mapping attribute [{}] to [{}] with value [{}]", attributeName, mappedAttributeName, attributeValue);
-                mapSingleAttributeDefinition(attributeName, mappedAttributeName,
+                mapSingleAttributeDefinition(plan, attributeName, mappedAttributeName,
                     attributeValue, resolvedAttributes, attributesToRelease);
             });
         });
         return attributesToRelease;
     }
 
-    private void mapSingleAttributeDefinition(final String attributeName,
-                                              final String mappedAttributeName,
-                                              final Object attributeValue,
-                                              final Map<String, List<Object>> resolvedAttributes,
-                                              final Map<String, List<Object>> attributesToRelease) {
-        if (attributeScriptCache.containsKey(mappedAttributeName)) {
-            val script = attributeScriptCache.get(mappedAttributeName);
-            val args = CollectionUtils.wrap("attributes", resolvedAttributes, "logger", LOGGER);
-            script.setBinding(args);
-            val result = script.execute(args.values().toArray(), Object.class);
+    private static void mapSingleAttributeDefinition(final AttributeMappingPlan plan,
+                                                     final String attributeName,
+                                                     final String mappedAttributeName,
+                                                     final Object attributeValue,
+                                                     final Map<String, List<Object>> resolvedAttributes,
+                                                     final Map<String, List<Object>> attributesToRelease) {
+        if (plan.isScripted(mappedAttributeName)) {
+            val args = CollectionUtils.<String, Object>wrap("attributes", resolvedAttributes, "logger", LOGGER);
+            val result = plan.getInlineScripts().containsKey(mappedAttributeName)
+                ? ScriptingUtils.executeGroovyScriptEngine(plan.getInlineScripts().get(mappedAttributeName), args, Object.class)
+                : plan.getExternalScripts().get(mappedAttributeName).execute(args.values().toArray(), Object.class);
             if (result != null) {
                 LOGGER.debug("Mapped attribute [{}] to [{}] from script", attributeName, result);
                 attributesToRelease.put(attributeName, CollectionUtils.wrapList(result));
@@ -177,4 +231,22 @@ public class ReturnMappedAttributeReleasePolicy extends AbstractRegisteredServic
                 attributeName, mappedAttributeName);
         }
     }
+
+    /**
+     * Immutable mapping of allowed attributes to the names they are released under,
+     * along with the groovy scripts that produce the values of scripted attributes.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class AttributeMappingPlan {
+        private final Map<String, List<String>> mappings;
+
+        private final Map<String, String> inlineScripts;
+
+        private final Map<String, WatchableGroovyScriptResource> externalScripts;
+
+        boolean isScripted(final String mappedAttributeName) {
+            return inlineScripts.containsKey(mappedAttributeName) || externalScripts.containsKey(mappedAttributeName);
+        }
+    }
 }
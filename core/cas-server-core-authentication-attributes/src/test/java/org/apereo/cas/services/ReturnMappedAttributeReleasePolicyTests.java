@@ -2,6 +2,7 @@ package org.apereo.cas.services;
 
 import org.apereo.cas.CoreAttributesTestUtils;
 import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.util.serialization.SerializationUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ArrayListMultimap;
@@ -17,6 +18,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -149,4 +151,28 @@ public class ReturnMappedAttributeReleasePolicyTests {
         assertTrue(result.containsKey(mappedAttribute));
         assertEquals(List.of("user@example.org"), result.get(mappedAttribute));
     }
+
+    @Test
+    public void verifyMappingPlanFollowsAllowedAttributes() {
+        val policy = new ReturnMappedAttributeReleasePolicy(Map.of("uid", "username",
+            "cn", "groovy { return attributes['uid'][0] + '-cn' }"));
+        val registeredService = CoreAttributesTestUtils.getRegisteredService();
+        when(registeredService.getAttributeReleasePolicy()).thenReturn(policy);
+        val principal = CoreAttributesTestUtils.getPrincipal(CoreAttributesTestUtils.CONST_USERNAME,
+            Map.of("uid", List.of(CoreAttributesTestUtils.CONST_USERNAME)));
+
+        var result = policy.getAttributes(principal, CoreAttributesTestUtils.getService(), registeredService);
+        assertEquals(List.of(CoreAttributesTestUtils.CONST_USERNAME), result.get("username"));
+        assertEquals(List.of(CoreAttributesTestUtils.CONST_USERNAME + "-cn"), result.get("cn"));
+
+        val deserialized = SerializationUtils.deserializeAndCheckObject(SerializationUtils.serialize(policy),
+            ReturnMappedAttributeReleasePolicy.class);
+        assertEquals(result, deserialized.getAttributes(principal, CoreAttributesTestUtils.getService(), registeredService));
+
+        policy.setAllowedAttributes(Map.of("uid", "user"));
+        result = policy.getAttributes(principal, CoreAttributesTestUtils.getService(), registeredService);
+        assertEquals(List.of(CoreAttributesTestUtils.CONST_USERNAME), result.get("user"));
+        assertFalse(result.containsKey("username"));
+        assertFalse(result.containsKey("cn"));
+    }
 }
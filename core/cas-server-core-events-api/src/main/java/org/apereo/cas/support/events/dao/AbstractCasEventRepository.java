@@ -32,18 +32,17 @@ public abstract class AbstractCasEventRepository implements CasEventRepository {
 
     @Override
     public Collection<? extends CasEvent> getEventsOfType(final String type) {
-        val events = load();
-        return events.stream().filter(event -> event.getType().equals(type)).collect(Collectors.toSet());
+        return load()
+            .stream()
+            .filter(event -> event.getType().equals(type))
+            .collect(Collectors.toSet());
     }
 
     @Override
     public Collection<? extends CasEvent> getEventsOfType(final String type, final ZonedDateTime dateTime) {
-        return getEventsOfType(type)
+        return load(dateTime)
             .stream()
-            .filter(e -> {
-                val dt = convertEventCreationTime(e);
-                return dt.isEqual(dt) || dt.isAfter(dt);
-            })
+            .filter(event -> event.getType().equals(type))
             .collect(Collectors.toSet());
     }
 
@@ -57,12 +56,9 @@ public abstract class AbstractCasEventRepository implements CasEventRepository {
 
     @Override
     public Collection<? extends CasEvent> getEventsOfTypeForPrincipal(final String type, final String principal, final ZonedDateTime dateTime) {
-        return getEventsOfTypeForPrincipal(type, principal)
+        return getEventsForPrincipal(principal, dateTime)
             .stream()
-            .filter(e -> {
-                val dt = convertEventCreationTime(e);
-                return dt.isEqual(dateTime) || dt.isAfter(dateTime);
-            })
+            .filter(event -> event.getType().equals(type))
             .collect(Collectors.toSet());
     }
 
@@ -70,10 +66,7 @@ public abstract class AbstractCasEventRepository implements CasEventRepository {
     public Collection<? extends CasEvent> load(final ZonedDateTime dateTime) {
         return load()
             .stream()
-            .filter(e -> {
-                val dt = convertEventCreationTime(e);
-                return dt.isEqual(dateTime) || dt.isAfter(dateTime);
-            })
+            .filter(e -> isCreatedOnOrAfter(e, dateTime))
             .collect(Collectors.toSet());
     }
 
@@ -81,10 +74,7 @@ public abstract class AbstractCasEventRepository implements CasEventRepository {
     public Collection<? extends CasEvent> getEventsForPrincipal(final String id, final ZonedDateTime dateTime) {
         return getEventsForPrincipal(id)
             .stream()
-            .filter(e -> {
-                val dt = convertEventCreationTime(e);
-                return dt.isEqual(dateTime) || dt.isAfter(dateTime);
-            })
+            .filter(e -> isCreatedOnOrAfter(e, dateTime))
             .collect(Collectors.toSet());
     }
 
@@ -96,7 +86,25 @@ public abstract class AbstractCasEventRepository implements CasEventRepository {
             .collect(Collectors.toSet());
     }
 
-    private static ZonedDateTime convertEventCreationTime(final CasEvent event) {
+    /**
+     * Is the event created on or after the given date?
+     *
+     * @param event    the event
+     * @param dateTime the date time
+     * @return true/false
+     */
+    protected static boolean isCreatedOnOrAfter(final CasEvent event, final ZonedDateTime dateTime) {
+        val dt = convertEventCreationTime(event);
+        return dt != null && !dt.isBefore(dateTime);
+    }
+
+    /**
+     * Convert event creation time.
+     *
+     * @param event the event
+     * @return the zoned date time
+     */
+    protected static ZonedDateTime convertEventCreationTime(final CasEvent event) {
         return DateTimeUtils.convertToZonedDateTime(event.getCreationTime());
     }
 
@@ -1,5 +1,6 @@
 package org.apereo.cas.services;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import lombok.EqualsAndHashCode;
@@ -51,7 +52,7 @@ import java.util.Map;
 @ToString
 @Getter
 @Setter
-@EqualsAndHashCode(exclude = "id")
+@EqualsAndHashCode(exclude = {"id", "lastModified"})
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public abstract class AbstractRegisteredService implements RegisteredService {
 
@@ -160,6 +161,14 @@ public abstract class AbstractRegisteredService implements RegisteredService {
     @OrderColumn
     private List<DefaultRegisteredServiceContact> contacts = new ArrayList<>();
 
+    /**
+     * Version of this definition as assigned by the service registry when it was last saved.
+     * Registries that track changes use this to only reload modified definitions.
+     */
+    @JsonIgnore
+    @Column(name = "last_modified")
+    private Long lastModified;
+
     @Override
     public void initialize() {
         this.proxyPolicy = ObjectUtils.defaultIfNull(this.proxyPolicy, new RefuseRegisteredServiceProxyPolicy());
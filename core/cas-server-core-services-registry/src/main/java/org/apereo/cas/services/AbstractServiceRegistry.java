@@ -7,6 +7,7 @@ import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This is {@link AbstractServiceRegistry}, that acts as the base parent class
@@ -20,6 +21,8 @@ import java.util.Collection;
 @Getter
 public abstract class AbstractServiceRegistry implements ServiceRegistry {
 
+    private static final AtomicLong LAST_SERVICE_VERSION = new AtomicLong();
+
     /**
      * The Event publisher.
      */
@@ -67,6 +70,16 @@ public abstract class AbstractServiceRegistry implements ServiceRegistry {
         return registeredService;
     }
 
+    /**
+     * Calculate the next version of a service definition that is about to be saved.
+     * Versions are based on the current time and are strictly increasing within this JVM.
+     *
+     * @return the version
+     */
+    protected static long nextServiceVersion() {
+        return LAST_SERVICE_VERSION.updateAndGet(last -> Math.max(System.currentTimeMillis(), last + 1));
+    }
+
     @Override
     public String getName() {
         return this.getClass().getSimpleName();
@@ -3,13 +3,15 @@ package org.apereo.cas.services;
 import org.apereo.cas.authentication.principal.Service;
 import org.apereo.cas.support.events.service.CasRegisteredServiceDeletedEvent;
 import org.apereo.cas.support.events.service.CasRegisteredServiceExpiredEvent;
+import org.apereo.cas.support.events.service.CasRegisteredServiceLoadedEvent;
 import org.apereo.cas.support.events.service.CasRegisteredServicePreDeleteEvent;
 import org.apereo.cas.support.events.service.CasRegisteredServicePreSaveEvent;
 import org.apereo.cas.support.events.service.CasRegisteredServiceSavedEvent;
 import org.apereo.cas.support.events.service.CasRegisteredServicesDeletedEvent;
 import org.apereo.cas.support.events.service.CasRegisteredServicesLoadedEvent;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
@@ -36,15 +38,45 @@ import java.util.stream.Stream;
  * @since 5.2.0
  */
 @Slf4j
-@RequiredArgsConstructor
 public abstract class AbstractServicesManager implements ServicesManager {
 
+    /**
+     * Default number of service lookup results to remember.
+     */
+    public static final long DEFAULT_SERVICE_MATCH_CACHE_SIZE = 10_000L;
+
     private final ServiceRegistry serviceRegistry;
     private final transient ApplicationEventPublisher eventPublisher;
     private final Set<String> environments;
+    private final long serviceMatchCacheSize;
 
     private Map<Long, RegisteredService> services = new ConcurrentHashMap<>();
 
+    private volatile Cache<String, Optional<RegisteredService>> serviceMatchCache;
+
+    /**
+     * Versions of the service definitions as reported by the service registry
+     * during the last load, or {@code null} if the registry does not track changes.
+     */
+    private volatile Map<Long, Long> serviceVersions;
+
+    public AbstractServicesManager(final ServiceRegistry serviceRegistry,
+                                   final ApplicationEventPublisher eventPublisher,
+                                   final Set<String> environments) {
+        this(serviceRegistry, eventPublisher, environments, DEFAULT_SERVICE_MATCH_CACHE_SIZE);
+    }
+
+    public AbstractServicesManager(final ServiceRegistry serviceRegistry,
+                                   final ApplicationEventPublisher eventPublisher,
+                                   final Set<String> environments,
+                                   final long serviceMatchCacheSize) {
+        this.serviceRegistry = serviceRegistry;
+        this.eventPublisher = eventPublisher;
+        this.environments = environments;
+        this.serviceMatchCacheSize = serviceMatchCacheSize;
+        this.serviceMatchCache = buildServiceMatchCache();
+    }
+
     @Override
     public Collection<RegisteredService> getAllServices() {
         return this.services.values()
@@ -78,11 +110,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
             return null;
         }
 
-        val service = getCandidateServicesToMatch(serviceId)
-            .stream()
-            .filter(r -> r.matches(serviceId))
-            .findFirst()
-            .orElse(null);
+        val service = this.serviceMatchCache.get(serviceId, this::findMatchingService).orElse(null);
 
         if (service != null) {
             service.initialize();
@@ -144,6 +172,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
             this.serviceRegistry.delete(service);
             this.services.remove(service.getId());
             deleteInternal(service);
+            invalidateServiceMatchCache();
             publishEvent(new CasRegisteredServiceDeletedEvent(this, service));
         }
         return service;
@@ -166,6 +195,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
         val r = this.serviceRegistry.save(registeredService);
         this.services.put(r.getId(), r);
         saveInternal(registeredService);
+        invalidateServiceMatchCache();
 
         if (publishEvent) {
             publishEvent(new CasRegisteredServiceSavedEvent(this, r));
@@ -179,6 +209,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
     @Override
     public Collection<RegisteredService> load() {
         LOGGER.trace("Loading services from [{}]", serviceRegistry.getName());
+        val versions = this.serviceRegistry.getServiceVersions();
         this.services = this.serviceRegistry.load()
             .stream()
             .collect(Collectors.toConcurrentMap(r -> {
@@ -186,19 +217,105 @@ public abstract class AbstractServicesManager implements ServicesManager {
                 return r.getId();
             }, Function.identity(), (r, s) -> s));
         loadInternal();
+        invalidateServiceMatchCache();
         publishEvent(new CasRegisteredServicesLoadedEvent(this, getAllServices()));
         evaluateExpiredServiceDefinitions();
+        this.serviceVersions = versions.orElse(null);
         LOGGER.info("Loaded [{}] service(s) from [{}].", this.services.size(), this.serviceRegistry.getName());
         return services.values();
     }
 
+    /**
+     * Load only the services whose version, as reported by the service registry, has changed since
+     * the previous load. Changes are applied to a copy of the loaded services which then replaces
+     * the current set, so lookups never observe a partially updated state.
+     *
+     * @return the loaded services
+     */
+    @Override
+    public synchronized Collection<RegisteredService> loadChanges() {
+        val previousVersions = this.serviceVersions;
+        if (previousVersions == null) {
+            LOGGER.trace("No service versions are known from [{}]; loading all services", serviceRegistry.getName());
+            return load();
+        }
+        this.serviceRegistry.reloadChangedServices();
+        val result = this.serviceRegistry.getServiceVersions();
+        if (result.isEmpty()) {
+            LOGGER.trace("Service registry [{}] does not track changes; loading all services", serviceRegistry.getName());
+            return load();
+        }
+        val versions = result.get();
+        val changed = versions.entrySet()
+            .stream()
+            .filter(entry -> !entry.getValue().equals(previousVersions.get(entry.getKey())))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+        val removed = previousVersions.keySet()
+            .stream()
+            .filter(id -> !versions.containsKey(id))
+            .collect(Collectors.toList());
+
+        if (!changed.isEmpty() || !removed.isEmpty()) {
+            val updatedServices = new ConcurrentHashMap<Long, RegisteredService>(this.services);
+            removed.forEach(updatedServices::remove);
+            changed.forEach(id -> {
+                val service = this.serviceRegistry.findServiceById(id);
+                if (service == null) {
+                    updatedServices.remove(id);
+                } else {
+                    LOGGER.debug("Reloading changed registered service [{}]", service.getServiceId());
+                    updatedServices.put(id, service);
+                    publishEvent(new CasRegisteredServiceLoadedEvent(this, service));
+                }
+            });
+            this.services = updatedServices;
+            loadInternal();
+            invalidateServiceMatchCache();
+            LOGGER.info("Reloaded [{}] changed and removed [{}] service(s) from [{}].", changed.size(), removed.size(), serviceRegistry.getName());
+        } else {
+            LOGGER.trace("No service definitions have changed in [{}]", serviceRegistry.getName());
+        }
+        this.serviceVersions = versions;
+        evaluateExpiredServiceDefinitions();
+        return services.values();
+    }
+
     @Override
     public synchronized void deleteAll() {
         this.services.forEach((k, v) -> delete(v));
         this.services.clear();
+        invalidateServiceMatchCache();
         publishEvent(new CasRegisteredServicesDeletedEvent(this));
     }
 
+    /**
+     * Find the first candidate service that matches the service id, in evaluation order.
+     *
+     * @param serviceId the service id
+     * @return the matching service, if any
+     */
+    private Optional<RegisteredService> findMatchingService(final String serviceId) {
+        return getCandidateServicesToMatch(serviceId)
+            .stream()
+            .filter(r -> r.matches(serviceId))
+            .findFirst();
+    }
+
+    /**
+     * Discard all remembered service lookup results. The cache is swapped rather than cleared
+     * so that lookups still in flight against the previous set of services cannot repopulate it.
+     */
+    private void invalidateServiceMatchCache() {
+        this.serviceMatchCache = buildServiceMatchCache();
+    }
+
+    private Cache<String, Optional<RegisteredService>> buildServiceMatchCache() {
+        return Caffeine.newBuilder()
+            .maximumSize(Math.max(0, this.serviceMatchCacheSize))
+            .build();
+    }
+
     private void evaluateExpiredServiceDefinitions() {
         this.services.values()
             .stream()
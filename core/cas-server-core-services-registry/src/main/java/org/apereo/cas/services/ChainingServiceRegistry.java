@@ -8,8 +8,11 @@ import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -101,6 +104,30 @@ public class ChainingServiceRegistry extends AbstractServiceRegistry {
             .orElse(null);
     }
 
+    /**
+     * Service versions are only reported if all registries in the chain are able to track changes.
+     * Versions of definitions found in more than one registry are combined.
+     *
+     * @return the service versions
+     */
+    @Override
+    public Optional<Map<Long, Long>> getServiceVersions() {
+        val versions = new HashMap<Long, Long>();
+        for (val registry : serviceRegistries) {
+            val result = registry.getServiceVersions();
+            if (result.isEmpty()) {
+                return Optional.empty();
+            }
+            result.get().forEach((id, version) -> versions.merge(id, version, (v1, v2) -> 31 * v1 + v2));
+        }
+        return Optional.of(versions);
+    }
+
+    @Override
+    public void reloadChangedServices() {
+        serviceRegistries.forEach(ServiceRegistry::reloadChangedServices);
+    }
+
     @Override
     public long size() {
         val filter = Predicates.not(Predicates.instanceOf(ImmutableServiceRegistry.class));
@@ -3,40 +3,47 @@ package org.apereo.cas.services;
 import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentSkipListSet;
 
 /**
  * Default implementation of the {@link ServicesManager} interface.
+ * Registered services are kept in a {@link RegisteredServiceCandidateIndex} so that
+ * only definitions whose literal prefix matches the requested service are evaluated.
  *
  * @author Scott Battaglia
  * @since 3.1
  */
 public class DefaultServicesManager extends AbstractServicesManager {
 
-    private Set<RegisteredService> orderedServices = new ConcurrentSkipListSet<>();
+    private volatile RegisteredServiceCandidateIndex candidateIndex = new RegisteredServiceCandidateIndex(List.of());
 
     public DefaultServicesManager(final ServiceRegistry serviceRegistry, final ApplicationEventPublisher eventPublisher, final Set<String> environments) {
         super(serviceRegistry, eventPublisher, environments);
     }
 
+    public DefaultServicesManager(final ServiceRegistry serviceRegistry, final ApplicationEventPublisher eventPublisher,
+                                  final Set<String> environments, final long serviceMatchCacheSize) {
+        super(serviceRegistry, eventPublisher, environments, serviceMatchCacheSize);
+    }
+
     @Override
     protected Collection<RegisteredService> getCandidateServicesToMatch(final String serviceId) {
-        return this.orderedServices;
+        return this.candidateIndex.getCandidates(serviceId);
     }
 
     @Override
     protected void deleteInternal(final RegisteredService service) {
-        this.orderedServices.remove(service);
+        this.candidateIndex = new RegisteredServiceCandidateIndex(getAllServices());
     }
 
     @Override
     protected void saveInternal(final RegisteredService service) {
-        this.orderedServices = new ConcurrentSkipListSet<>(getAllServices());
+        this.candidateIndex = new RegisteredServiceCandidateIndex(getAllServices());
     }
 
     @Override
     protected void loadInternal() {
-        this.orderedServices = new ConcurrentSkipListSet<>(getAllServices());
+        this.candidateIndex = new RegisteredServiceCandidateIndex(getAllServices());
     }
 }
@@ -10,7 +10,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -24,6 +29,8 @@ public class InMemoryServiceRegistry extends AbstractServiceRegistry {
 
     private final List<RegisteredService> registeredServices;
 
+    private final Map<Long, Long> serviceVersions = new ConcurrentHashMap<>();
+
     public InMemoryServiceRegistry(final ApplicationEventPublisher eventPublisher) {
         this(eventPublisher, new ArrayList<>(), new ArrayList<>());
     }
@@ -37,6 +44,7 @@ public class InMemoryServiceRegistry extends AbstractServiceRegistry {
 
     @Override
     public boolean delete(final RegisteredService registeredService) {
+        this.serviceVersions.remove(registeredService.getId());
         return this.registeredServices.remove(registeredService);
     }
 
@@ -70,9 +78,19 @@ public class InMemoryServiceRegistry extends AbstractServiceRegistry {
             this.registeredServices.remove(svc);
         }
         this.registeredServices.add(registeredService);
+        this.serviceVersions.put(registeredService.getId(), nextServiceVersion());
         return registeredService;
     }
 
+    @Override
+    public Optional<Map<Long, Long>> getServiceVersions() {
+        return Optional.of(this.registeredServices
+            .stream()
+            .map(RegisteredService::getId)
+            .distinct()
+            .collect(Collectors.toMap(Function.identity(), id -> this.serviceVersions.computeIfAbsent(id, k -> nextServiceVersion()))));
+    }
+
     /**
      * This isn't super-fast but we don't expect thousands of services.
      *
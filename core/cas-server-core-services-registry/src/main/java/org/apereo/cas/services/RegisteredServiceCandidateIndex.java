@@ -0,0 +1,159 @@
+package org.apereo.cas.services;
+
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is {@link RegisteredServiceCandidateIndex}. It narrows down the set of registered services
+ * that need to be evaluated against a given service identifier. The literal prefix of each service
+ * definition pattern (i.e. scheme, host and path characters that must appear verbatim at the start of
+ * every matching service identifier) is extracted and stored in a character trie. A lookup walks
+ * the trie along the requested service identifier and only returns those definitions whose literal prefix
+ * is a prefix of the service identifier, along with all definitions for which no such prefix
+ * could be determined. Candidates are always returned in the original (evaluation) order of the services.
+ * The actual regular expression evaluation is left to the caller and is only carried out for the surviving candidates.
+ * <p>
+ * Instances are immutable and should be rebuilt once the collection of services changes.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public class RegisteredServiceCandidateIndex {
+    private static final String REGEX_METACHARACTERS = ".[]{}()*+?^$|";
+
+    private static final String REGEX_OPTIONAL_QUANTIFIERS = "?*{";
+
+    private final RegisteredService[] services;
+
+    private final Node root = new Node();
+
+    public RegisteredServiceCandidateIndex(final Collection<RegisteredService> services) {
+        this.services = services.toArray(RegisteredService[]::new);
+        for (var i = 0; i < this.services.length; i++) {
+            val prefix = getLiteralPrefix(this.services[i]);
+            var node = root;
+            for (var j = 0; j < prefix.length(); j++) {
+                node = node.children.computeIfAbsent(prefix.charAt(j), c -> new Node());
+            }
+            node.add(i);
+        }
+    }
+
+    /**
+     * Gets the literal prefix of the service definition pattern, lower-cased.
+     * Service definitions that are not backed by a regular expression, or whose pattern
+     * contains alternations, receive an empty prefix and as such are always considered candidates.
+     *
+     * @param service the service
+     * @return the literal prefix
+     */
+    static String getLiteralPrefix(final RegisteredService service) {
+        if (!(service instanceof RegexRegisteredService) || StringUtils.isBlank(service.getServiceId())) {
+            return StringUtils.EMPTY;
+        }
+        val pattern = service.getServiceId();
+        if (pattern.indexOf('|') >= 0) {
+            return StringUtils.EMPTY;
+        }
+        val builder = new StringBuilder();
+        var i = pattern.charAt(0) == '^' ? 1 : 0;
+        while (i < pattern.length()) {
+            val c = pattern.charAt(i);
+            final char literal;
+            final int next;
+            if (c == '\\') {
+                if (i + 1 >= pattern.length() || Character.isLetterOrDigit(pattern.charAt(i + 1))) {
+                    break;
+                }
+                literal = pattern.charAt(i + 1);
+                next = i + 2;
+            } else if (REGEX_METACHARACTERS.indexOf(c) >= 0) {
+                break;
+            } else {
+                literal = c;
+                next = i + 1;
+            }
+            if (next < pattern.length() && REGEX_OPTIONAL_QUANTIFIERS.indexOf(pattern.charAt(next)) >= 0) {
+                break;
+            }
+            builder.append(Character.toLowerCase(literal));
+            if (next < pattern.length() && pattern.charAt(next) == '+') {
+                break;
+            }
+            i = next;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets candidate services that may match the given service identifier, in evaluation order.
+     *
+     * @param serviceId the service id
+     * @return the candidate services
+     */
+    public List<RegisteredService> getCandidates(final String serviceId) {
+        val nodes = new ArrayList<Node>();
+        var node = root;
+        var count = collect(node, nodes, 0);
+        if (serviceId != null) {
+            for (var i = 0; i < serviceId.length(); i++) {
+                node = node.children.get(Character.toLowerCase(serviceId.charAt(i)));
+                if (node == null) {
+                    break;
+                }
+                count = collect(node, nodes, count);
+            }
+        }
+        val indexes = new int[count];
+        var offset = 0;
+        for (val entry : nodes) {
+            System.arraycopy(entry.positions, 0, indexes, offset, entry.size);
+            offset += entry.size;
+        }
+        Arrays.sort(indexes);
+        val candidates = new ArrayList<RegisteredService>(count);
+        for (val index : indexes) {
+            candidates.add(services[index]);
+        }
+        return candidates;
+    }
+
+    /**
+     * Total number of indexed services.
+     *
+     * @return the count
+     */
+    public int size() {
+        return services.length;
+    }
+
+    private static int collect(final Node node, final List<Node> nodes, final int count) {
+        if (node.size == 0) {
+            return count;
+        }
+        nodes.add(node);
+        return count + node.size;
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>(2);
+
+        private int[] positions = new int[0];
+
+        private int size;
+
+        void add(final int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(2, size * 2));
+            }
+            positions[size++] = position;
+        }
+    }
+}
@@ -5,7 +5,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 
 /**
- * This is {@link ServicesManagerScheduledLoader}.
+ * This is {@link ServicesManagerScheduledLoader}. Periodically asks the services manager
+ * to load service definitions that have changed since the previous run.
  *
  * @author Misagh Moayyed
  * @since 6.0.0
@@ -31,6 +32,6 @@ public class ServicesManagerScheduledLoader implements Runnable {
     )
     @Override
     public void run() {
-        servicesManager.load();
+        servicesManager.loadChanges();
     }
 }
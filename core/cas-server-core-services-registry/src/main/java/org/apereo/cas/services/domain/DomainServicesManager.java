@@ -28,7 +28,7 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 public class DomainServicesManager extends AbstractServicesManager {
-    private final Map<String, TreeSet<RegisteredService>> domains = new ConcurrentHashMap<>();
+    private volatile Map<String, TreeSet<RegisteredService>> domains = new ConcurrentHashMap<>();
 
     private final RegisteredServiceDomainExtractor registeredServiceDomainExtractor;
 
@@ -36,7 +36,15 @@ public class DomainServicesManager extends AbstractServicesManager {
                                  final ApplicationEventPublisher eventPublisher,
                                  final RegisteredServiceDomainExtractor registeredServiceDomainExtractor,
                                  final Set<String> environments) {
-        super(serviceRegistry, eventPublisher, environments);
+        this(serviceRegistry, eventPublisher, registeredServiceDomainExtractor, environments, DEFAULT_SERVICE_MATCH_CACHE_SIZE);
+    }
+
+    public DomainServicesManager(final ServiceRegistry serviceRegistry,
+                                 final ApplicationEventPublisher eventPublisher,
+                                 final RegisteredServiceDomainExtractor registeredServiceDomainExtractor,
+                                 final Set<String> environments,
+                                 final long serviceMatchCacheSize) {
+        super(serviceRegistry, eventPublisher, environments, serviceMatchCacheSize);
         this.registeredServiceDomainExtractor = registeredServiceDomainExtractor;
     }
 
@@ -75,8 +83,7 @@ public class DomainServicesManager extends AbstractServicesManager {
     protected void loadInternal() {
         val localDomains = new ConcurrentHashMap<String, TreeSet<RegisteredService>>();
         getAllServices().forEach(r -> addToDomain(r, localDomains));
-        this.domains.clear();
-        this.domains.putAll(localDomains);
+        this.domains = localDomains;
     }
 
     @Override
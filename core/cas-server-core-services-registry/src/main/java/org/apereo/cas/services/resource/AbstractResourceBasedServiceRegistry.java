@@ -16,6 +16,7 @@ import org.apereo.cas.util.io.PathWatcherService;
 import org.apereo.cas.util.serialization.StringSerializer;
 
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
@@ -36,9 +37,11 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
@@ -86,6 +89,12 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
 
     private Pattern serviceFileNamePattern;
 
+    /**
+     * Versions of the service definition files that have been loaded, along with the services they define,
+     * or {@code null} if no files have been loaded yet.
+     */
+    private Map<File, ResourceVersion> resourceVersions;
+
     public AbstractResourceBasedServiceRegistry(final Resource configDirectory,
                                                 final Collection<StringSerializer<RegisteredService>> serializers,
                                                 final ApplicationEventPublisher eventPublisher,
@@ -224,20 +233,77 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
         val files = FileUtils.listFiles(this.serviceRegistryDirectory.toFile(), getExtensions(), true);
         LOGGER.trace("Located [{}] files from [{}] are [{}]", getExtensions(), this.serviceRegistryDirectory, files);
 
+        val versions = new HashMap<File, ResourceVersion>();
         this.services = files
             .stream()
-            .map(this::load)
+            .map(file -> {
+                val loaded = load(file);
+                versions.put(file, new ResourceVersion(getResourceVersion(file), getServiceIdentifiers(loaded)));
+                return loaded;
+            })
             .filter(Objects::nonNull)
             .flatMap(Collection::stream)
             .sorted()
             .collect(Collectors.toMap(RegisteredService::getId, Function.identity(),
                 LOG_DUPLICATE_AND_RETURN_FIRST_ONE, LinkedHashMap::new));
+        this.resourceVersions = versions;
         val listedServices = new ArrayList<RegisteredService>(this.services.values());
         val results = this.registeredServiceReplicationStrategy.updateLoadedRegisteredServicesFromCache(listedServices, this);
         results.forEach(service -> publishEvent(new CasRegisteredServiceLoadedEvent(this, service)));
         return results;
     }
 
+    /**
+     * Service versions are derived from the contents of the definition files as they were last loaded,
+     * so that edits made outside of CAS are noticed even if they leave the modification time and size unchanged.
+     *
+     * @return the service versions, or empty if no definition files have been loaded yet
+     */
+    @Override
+    public synchronized Optional<Map<Long, Long>> getServiceVersions() {
+        if (this.resourceVersions == null) {
+            return Optional.empty();
+        }
+        val versions = new HashMap<Long, Long>();
+        this.resourceVersions.values().forEach(resource -> resource.getServiceIds().forEach(id -> versions.put(id, resource.getVersion())));
+        return Optional.of(versions);
+    }
+
+    /**
+     * Definition files are compared by content with the previous scan. Only files that have changed are parsed again,
+     * and the services they define are refreshed in place; services whose definition files have disappeared are removed.
+     */
+    @Override
+    public synchronized void reloadChangedServices() {
+        val previousVersions = ObjectUtils.defaultIfNull(this.resourceVersions, new HashMap<File, ResourceVersion>(0));
+        val files = FileUtils.listFiles(this.serviceRegistryDirectory.toFile(), getExtensions(), true);
+        val currentVersions = new HashMap<File, ResourceVersion>();
+        files.forEach(file -> {
+            val version = getResourceVersion(file);
+            val previous = previousVersions.get(file);
+            if (previous != null && previous.getVersion() == version) {
+                currentVersions.put(file, previous);
+                return;
+            }
+            if (previous != null) {
+                previous.getServiceIds().forEach(this.services::remove);
+            }
+            LOGGER.debug("Service definition file [{}] has changed and will be loaded", file);
+            val loaded = load(file);
+            loaded.forEach(service -> this.services.put(service.getId(), service));
+            currentVersions.put(file, new ResourceVersion(version, getServiceIdentifiers(loaded)));
+        });
+        previousVersions
+            .entrySet()
+            .stream()
+            .filter(entry -> !currentVersions.containsKey(entry.getKey()))
+            .forEach(entry -> {
+                LOGGER.debug("Service definition file [{}] has been removed", entry.getKey());
+                entry.getValue().getServiceIds().forEach(this.services::remove);
+            });
+        this.resourceVersions = currentVersions;
+    }
+
     @Override
     @SneakyThrows
     public Collection<RegisteredService> load(final File file) {
@@ -379,10 +445,33 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
         return this.services.values().stream();
     }
 
+    private static long getResourceVersion(final File file) {
+        try {
+            return 31 * FileUtils.checksumCRC32(file) + file.length();
+        } catch (final IOException e) {
+            LOGGER.debug("Unable to calculate the version of [{}]: [{}]", file, e.getMessage());
+            return -1;
+        }
+    }
+
+    private static Collection<Long> getServiceIdentifiers(final Collection<RegisteredService> services) {
+        return services == null
+            ? new ArrayList<>(0)
+            : services.stream().map(RegisteredService::getId).collect(Collectors.toList());
+    }
+
     /**
      * Gets extension associated with files in the given resource directory.
      *
      * @return the extension
      */
     protected abstract String[] getExtensions();
+
+    @RequiredArgsConstructor
+    @Getter
+    private static class ResourceVersion {
+        private final long version;
+
+        private final Collection<Long> serviceIds;
+    }
 }
@@ -16,6 +16,7 @@ import org.junit.runner.RunWith;
  */
 @SelectClasses({
     ServiceRegistryInitializerTests.class,
+    RegisteredServiceCandidateIndexTests.class,
     DeleteResourceBasedRegisteredServiceWatcherTests.class,
     CreateResourceBasedRegisteredServiceWatcherTests.class,
     ModifyResourceBasedRegisteredServiceWatcherTests.class
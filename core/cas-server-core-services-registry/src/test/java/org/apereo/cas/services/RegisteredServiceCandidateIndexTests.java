@@ -0,0 +1,75 @@
+package org.apereo.cas.services;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link RegisteredServiceCandidateIndexTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public class RegisteredServiceCandidateIndexTests {
+
+    private static RegexRegisteredService newService(final long id, final String serviceId, final int order) {
+        val service = new RegexRegisteredService();
+        service.setId(id);
+        service.setName("Service" + id);
+        service.setServiceId(serviceId);
+        service.setEvaluationOrder(order);
+        return service;
+    }
+
+    @Test
+    public void verifyLiteralPrefix() {
+        assertEquals("https://app.example.org/", RegisteredServiceCandidateIndex.getLiteralPrefix(
+            newService(1, "^https://app\\.example\\.org/.*", 0)));
+        assertEquals("https://app", RegisteredServiceCandidateIndex.getLiteralPrefix(
+            newService(1, "https://app.example.org/.*", 0)));
+        assertEquals("http", RegisteredServiceCandidateIndex.getLiteralPrefix(
+            newService(1, "^https?://.*", 0)));
+        assertEquals("https://a", RegisteredServiceCandidateIndex.getLiteralPrefix(
+            newService(1, "^HTTPS://A+.*", 0)));
+        assertEquals("", RegisteredServiceCandidateIndex.getLiteralPrefix(
+            newService(1, "^(https|imaps)://.*", 0)));
+        assertEquals("", RegisteredServiceCandidateIndex.getLiteralPrefix(
+            newService(1, "https://app\\.example\\.org|https://other\\.org", 0)));
+        assertEquals("", RegisteredServiceCandidateIndex.getLiteralPrefix(
+            newService(1, "\\Qhttps://app\\E.*", 0)));
+    }
+
+    @Test
+    public void verifyCandidatesInEvaluationOrder() {
+        val catchAll = newService(1, "^(https|imaps)://.*", 100);
+        val app = newService(2, "^https://app\\.example\\.org/.*", 1);
+        val appAdmin = newService(3, "^https://app\\.example\\.org/admin/.*", 0);
+        val other = newService(4, "^https://other\\.example\\.org/.*", 2);
+        val services = List.<RegisteredService>of(appAdmin, app, other, catchAll);
+
+        val index = new RegisteredServiceCandidateIndex(services);
+        assertEquals(4, index.size());
+        assertEquals(List.of(appAdmin, app, catchAll), index.getCandidates("https://app.example.org/admin/page"));
+        assertEquals(List.of(app, catchAll), index.getCandidates("HTTPS://APP.EXAMPLE.ORG/page"));
+        assertEquals(List.of(other, catchAll), index.getCandidates("https://other.example.org/"));
+        assertEquals(List.of(catchAll), index.getCandidates("https://unknown.example.org"));
+        assertEquals(List.of(catchAll), index.getCandidates(null));
+    }
+
+    @Test
+    public void verifyCandidatesIncludeAllMatches() {
+        val services = List.<RegisteredService>of(
+            newService(1, "https://app.example.org/.*", 0),
+            newService(2, "^https?://app\\.example\\.org:8443/.*", 1),
+            newService(3, "^http://.*", 2));
+        val index = new RegisteredServiceCandidateIndex(services);
+        val serviceId = "https://app.example.org:8443/cas";
+        val expected = services.stream().filter(s -> s.matches(serviceId)).toArray();
+        val actual = index.getCandidates(serviceId).stream().filter(s -> s.matches(serviceId)).toArray();
+        assertArrayEquals(expected, actual);
+        assertEquals(2, actual.length);
+    }
+}
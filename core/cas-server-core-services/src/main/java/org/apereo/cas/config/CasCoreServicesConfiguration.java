@@ -138,14 +138,15 @@ public class CasCoreServicesConfiguration {
     @RefreshScope
     public ServicesManager servicesManager() {
         val managementType = casProperties.getServiceRegistry().getManagementType();
+        val cacheSize = casProperties.getServiceRegistry().getCacheSize();
         val activeProfiles = Arrays.stream(environment.getActiveProfiles()).collect(Collectors.toSet());
         if (managementType == ServiceRegistryProperties.ServiceManagementTypes.DOMAIN) {
             LOGGER.trace("Managing CAS service definitions via domains");
             return new DomainServicesManager(serviceRegistry(), eventPublisher,
                 new DefaultRegisteredServiceDomainExtractor(),
-                activeProfiles);
+                activeProfiles, cacheSize);
         }
-        return new DefaultServicesManager(serviceRegistry(), eventPublisher, activeProfiles);
+        return new DefaultServicesManager(serviceRegistry(), eventPublisher, activeProfiles, cacheSize);
     }
 
     @Bean
@@ -9,6 +9,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.core.io.ClassPathResource;
 
+import java.nio.charset.StandardCharsets;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,6 +45,29 @@ public abstract class AbstractResourceBasedServiceRegistryTests extends Abstract
         assertThrows(IllegalArgumentException.class, () -> this.dao.save(r));
     }
 
+    @ParameterizedTest
+    @MethodSource("getParameters")
+    @SneakyThrows
+    public void verifyExternalChangesAreReloaded(final Class<? extends RegisteredService> registeredServiceClass) {
+        val r = buildRegisteredServiceInstance(RandomUtils.nextInt(), registeredServiceClass);
+        r.setDescription("Original description");
+        val saved = this.dao.save(r);
+        this.dao.reloadChangedServices();
+        val version = this.dao.getServiceVersions().orElseThrow().get(saved.getId());
+
+        for (val file : FileUtils.listFiles(RESOURCE.getFile(), null, true)) {
+            val contents = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+            if (contents.contains("Original description")) {
+                val lastModified = file.lastModified();
+                FileUtils.write(file, contents.replace("Original description", "Modified description"), StandardCharsets.UTF_8);
+                assertTrue(file.setLastModified(lastModified));
+            }
+        }
+        this.dao.reloadChangedServices();
+        assertNotEquals(version, this.dao.getServiceVersions().orElseThrow().get(saved.getId()));
+        assertEquals("Modified description", this.dao.findServiceById(saved.getId()).getDescription());
+    }
+
     @Override
     public ServiceRegistry getNewServiceRegistry() {
         return this.dao;
@@ -459,6 +459,32 @@ public abstract class AbstractServiceRegistryTests {
         }));
     }
 
+    @ParameterizedTest
+    @MethodSource(GET_PARAMETERS)
+    public void verifyServiceVersions(final Class<? extends RegisteredService> registeredServiceClass) {
+        this.serviceRegistry.reloadChangedServices();
+        if (this.serviceRegistry.getServiceVersions().isEmpty()) {
+            return;
+        }
+        val r = buildRegisteredServiceInstance(RandomUtils.nextInt(), registeredServiceClass);
+        val saved = this.serviceRegistry.save(r);
+        this.serviceRegistry.reloadChangedServices();
+        val versions = this.serviceRegistry.getServiceVersions().get();
+        assertTrue(versions.containsKey(saved.getId()));
+        assertEquals(versions, this.serviceRegistry.getServiceVersions().get());
+
+        saved.setDescription("Updated description for " + saved.getName());
+        this.serviceRegistry.save(saved);
+        this.serviceRegistry.reloadChangedServices();
+        val updatedVersions = this.serviceRegistry.getServiceVersions().get();
+        assertNotEquals(versions.get(saved.getId()), updatedVersions.get(saved.getId()));
+        assertEquals(saved.getDescription(), this.serviceRegistry.findServiceById(saved.getId()).getDescription());
+
+        this.serviceRegistry.delete(saved);
+        this.serviceRegistry.reloadChangedServices();
+        assertFalse(this.serviceRegistry.getServiceVersions().get().containsKey(saved.getId()));
+    }
+
     @ParameterizedTest
     @MethodSource(GET_PARAMETERS)
     public void checkForAuthorizationStrategy(final Class<? extends RegisteredService> registeredServiceClass) {
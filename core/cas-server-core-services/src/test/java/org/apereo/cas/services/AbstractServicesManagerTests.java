@@ -70,4 +70,49 @@ public abstract class AbstractServicesManagerTests {
         this.servicesManager.delete(r);
         assertNull(this.servicesManager.findServiceBy(r.getId()));
     }
+
+    @Test
+    public void verifyLookupAfterChanges() {
+        val serviceId = "https://app.example.org/cas";
+        assertNull(this.servicesManager.findServiceBy(serviceId));
+
+        val r = new RegexRegisteredService();
+        r.setId(3000);
+        r.setName(TEST);
+        r.setServiceId("^https://app\\.example\\.org/.*");
+        this.servicesManager.save(r);
+        assertEquals(r, this.servicesManager.findServiceBy(serviceId));
+
+        val preferred = new RegexRegisteredService();
+        preferred.setId(3001);
+        preferred.setName(TEST);
+        preferred.setServiceId("^https://app\\.example\\.org/c.*");
+        preferred.setEvaluationOrder(-1);
+        this.servicesManager.save(preferred);
+        assertEquals(preferred, this.servicesManager.findServiceBy(serviceId));
+
+        this.servicesManager.delete(preferred);
+        this.servicesManager.delete(r);
+        assertNull(this.servicesManager.findServiceBy(serviceId));
+    }
+
+    @Test
+    public void verifyLoadChanges() {
+        val r = new RegexRegisteredService();
+        r.setId(4000);
+        r.setName(TEST);
+        r.setServiceId("^https://changes\\.example\\.org/.*");
+        this.serviceRegistry.save(r);
+        assertNull(this.servicesManager.findServiceBy(r.getId()));
+
+        this.servicesManager.loadChanges();
+        assertNotNull(this.servicesManager.findServiceBy(r.getId()));
+        assertNotNull(this.servicesManager.findServiceBy("https://changes.example.org/cas"));
+
+        this.serviceRegistry.delete(r);
+        this.servicesManager.loadChanges();
+        assertNull(this.servicesManager.findServiceBy(r.getId()));
+        assertNull(this.servicesManager.findServiceBy("https://changes.example.org/cas"));
+        assertEquals(listOfDefaultServices.size(), this.servicesManager.count());
+    }
 }
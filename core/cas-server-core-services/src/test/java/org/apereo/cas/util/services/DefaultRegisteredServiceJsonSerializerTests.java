@@ -53,4 +53,29 @@ public class DefaultRegisteredServiceJsonSerializerTests {
         val read = zer.from(results);
         assertEquals(s, read);
     }
+
+    @Test
+    public void verifyStrictJsonAndHjson() {
+        val zer = new RegisteredServiceJsonSerializer();
+        val hjson = "{\n"
+            + "  # Hjson service definition\n"
+            + "  @class: org.apereo.cas.services.RegexRegisteredService\n"
+            + "  serviceId: ^https://hjson.*\n"
+            + "  name: HJSON\n"
+            + "  id: 1000\n"
+            + "}";
+        val fromHjson = zer.from(hjson);
+        assertNotNull(fromHjson);
+        assertEquals("^https://hjson.*", fromHjson.getServiceId());
+
+        val s = new RegexRegisteredService();
+        s.setServiceId("^https://json.*");
+        s.setName("JSON");
+        s.setId(Long.MAX_VALUE - 1);
+        val json = zer.toString(s);
+        assertTrue(json.contains("\"serviceId\""));
+        val read = zer.from(json);
+        assertEquals(s, read);
+        assertEquals(s.getId(), read.getId());
+    }
 }
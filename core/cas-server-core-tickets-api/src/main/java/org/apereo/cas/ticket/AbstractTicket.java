@@ -98,6 +98,15 @@ public abstract class AbstractTicket implements Ticket, TicketState {
     @Column(name = "EXPIRED", nullable = false)
     private Boolean expired = Boolean.FALSE;
 
+    /**
+     * The instant at which this ticket is estimated to expire,
+     * recorded by ticket registries that index tickets by expiration.
+     */
+    @Column(name = "EXPIRATION_TIME")
+    @JsonIgnore
+    @Getter
+    private ZonedDateTime expirationTime;
+
 
     public AbstractTicket(final String id, final ExpirationPolicy expirationPolicy) {
         this.id = id;
@@ -18,6 +18,7 @@ import javax.persistence.Column;
 import javax.persistence.DiscriminatorColumn;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
@@ -37,7 +38,10 @@ import java.util.List;
  * @since 3.0.0
  */
 @Entity
-@Table(name = "TICKETGRANTINGTICKET")
+@Table(name = "TICKETGRANTINGTICKET", indexes = {
+    @Index(name = "IDX_TGT_EXPIRATION", columnList = "EXPIRATION_TIME"),
+    @Index(name = "IDX_TGT_PRINCIPAL", columnList = "PRINCIPAL_ID")
+})
 @DiscriminatorColumn(name = "TYPE")
 @DiscriminatorValue(TicketGrantingTicket.PREFIX)
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -58,6 +62,14 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
     @Column(name = "AUTHENTICATION", nullable = false, length = Integer.MAX_VALUE)
     private Authentication authentication;
 
+    /**
+     * The id of the authenticated principal in lower case,
+     * allowing ticket registries to look up tickets by principal.
+     */
+    @Column(name = "PRINCIPAL_ID")
+    @JsonIgnore
+    private String principalId;
+
     /**
      * Service that produced a proxy-granting ticket.
      */
@@ -113,6 +125,7 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
         }
         this.ticketGrantingTicket = parentTicketGrantingTicket;
         this.authentication = authentication;
+        this.principalId = StringUtils.lowerCase(authentication.getPrincipal().getId());
         this.proxiedBy = proxiedBy;
     }
 
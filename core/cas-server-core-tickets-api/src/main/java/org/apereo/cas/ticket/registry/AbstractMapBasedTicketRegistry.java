@@ -1,6 +1,8 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.util.crypto.CipherExecutor;
 
 import lombok.NoArgsConstructor;
@@ -10,11 +12,22 @@ import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * This is {@link AbstractMapBasedTicketRegistry}.
+ * <p>
+ * The registry keeps striped counters of the ticket-granting and service tickets
+ * held in the map, so that session and service ticket counts never need to iterate
+ * over (and possibly decode) the stored tickets. Ticket-granting tickets are also
+ * indexed by principal, so that the sessions of a principal are found without
+ * scanning the map.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
@@ -23,6 +36,12 @@ import java.util.function.Predicate;
 @NoArgsConstructor
 public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegistry {
 
+    private final LongAdder ticketGrantingTicketCount = new LongAdder();
+
+    private final LongAdder serviceTicketCount = new LongAdder();
+
+    private final Map<String, Set<String>> ticketGrantingTicketsByPrincipal = new ConcurrentHashMap<>();
+
     /**
      * Creates a new, empty registry with the cipher.
      *
@@ -36,7 +55,10 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
     public void addTicket(final @NonNull Ticket ticket) {
         val encTicket = encodeTicket(ticket);
         LOGGER.debug("Added ticket [{}] to registry.", ticket.getId());
-        getMapInstance().put(encTicket.getId(), encTicket);
+        val previous = getMapInstance().put(encTicket.getId(), encTicket);
+        if (previous == null) {
+            updateTicketIndexes(ticket, 1);
+        }
     }
 
     @Override
@@ -63,16 +85,50 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
         val encTicketId = encodeTicketId(ticketId);
-        return !StringUtils.isBlank(encTicketId) && getMapInstance().remove(encTicketId) != null;
+        if (StringUtils.isBlank(encTicketId)) {
+            return false;
+        }
+        val removed = getMapInstance().remove(encTicketId);
+        if (removed == null) {
+            return false;
+        }
+        updateTicketIndexes(decodeTicket(removed), -1);
+        return true;
     }
 
     @Override
     public long deleteAll() {
         val size = getMapInstance().size();
         getMapInstance().clear();
+        this.ticketGrantingTicketCount.reset();
+        this.serviceTicketCount.reset();
+        this.ticketGrantingTicketsByPrincipal.clear();
         return size;
     }
 
+    @Override
+    public long sessionCount() {
+        return this.ticketGrantingTicketCount.sum();
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return this.serviceTicketCount.sum();
+    }
+
+    @Override
+    public Stream<? extends TicketGrantingTicket> getSessionsFor(final String principalId) {
+        val ticketIds = this.ticketGrantingTicketsByPrincipal.get(getPrincipalIndexKey(principalId));
+        if (ticketIds == null) {
+            return Stream.empty();
+        }
+        return List.copyOf(ticketIds)
+            .stream()
+            .map(id -> getTicket(id, ticket -> true))
+            .filter(ticket -> isSessionFor(ticket, principalId))
+            .map(TicketGrantingTicket.class::cast);
+    }
+
     @Override
     public Collection<? extends Ticket> getTickets() {
         return decodeTickets(getMapInstance().values());
@@ -84,6 +140,33 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
         return ticket;
     }
 
+    /**
+     * Adjust the ticket counters and the principal index for a ticket that has been added to or removed from the map.
+     * Registries whose map may evict tickets on its own should call this method when notified of the removal.
+     *
+     * @param ticket the ticket, decoded
+     * @param delta  the delta
+     */
+    protected void updateTicketIndexes(final Ticket ticket, final int delta) {
+        if (ticket instanceof TicketGrantingTicket) {
+            this.ticketGrantingTicketCount.add(delta);
+            val principalId = getPrincipalId(ticket);
+            if (principalId != null) {
+                val key = getPrincipalIndexKey(principalId);
+                if (delta > 0) {
+                    this.ticketGrantingTicketsByPrincipal.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(ticket.getId());
+                } else {
+                    this.ticketGrantingTicketsByPrincipal.computeIfPresent(key, (k, ids) -> {
+                        ids.remove(ticket.getId());
+                        return ids.isEmpty() ? null : ids;
+                    });
+                }
+            }
+        } else if (ticket instanceof ServiceTicket) {
+            this.serviceTicketCount.add(delta);
+        }
+    }
+
     /**
      * Create map instance, which must ben created during initialization phases
      * and always be the same instance.
@@ -2,6 +2,7 @@ package org.apereo.cas.ticket.registry;
 
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
 import org.apereo.cas.util.DigestUtils;
@@ -18,10 +19,15 @@ import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -38,11 +44,62 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
 
     private static final String MESSAGE = "Ticket encryption is not enabled. Falling back to default behavior";
 
+    private static final int CONSUME_LOCK_STRIPES = 256;
+
     /**
      * The cipher executor for ticket objects.
      */
     protected CipherExecutor cipherExecutor;
 
+    private final Object[] consumeLocks = IntStream.range(0, CONSUME_LOCK_STRIPES).mapToObj(i -> new Object()).toArray();
+
+    /**
+     * Gets the names of the storage that holds the tickets of the definition identified by the prefix,
+     * including tickets whose type is a subtype of the definition's implementation class.
+     * Registries that keep each storage apart may count these tickets by the size of their storage,
+     * without reading them. Nothing is returned if any of the storage also holds other tickets.
+     *
+     * @param ticketCatalog the ticket catalog
+     * @param prefix        the ticket prefix
+     * @return the storage names, if the storage holds no other tickets
+     */
+    protected static Optional<Set<String>> getTicketStorageNames(final TicketCatalog ticketCatalog, final String prefix) {
+        val definition = ticketCatalog.find(prefix);
+        if (definition == null) {
+            return Optional.empty();
+        }
+        val storageNames = new LinkedHashSet<String>();
+        val otherStorageNames = new HashSet<String>();
+        ticketCatalog.findAll().forEach(defn -> {
+            val storageName = defn.getProperties().getStorageName();
+            if (definition.getImplementationClass().isAssignableFrom(defn.getImplementationClass())) {
+                storageNames.add(storageName);
+            } else {
+                otherStorageNames.add(storageName);
+            }
+        });
+        if (storageNames.contains(null) || !Collections.disjoint(storageNames, otherStorageNames)) {
+            LOGGER.trace("Storage of [{}] tickets is shared with other tickets", prefix);
+            return Optional.empty();
+        }
+        return Optional.of(storageNames);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Attempts to consume the same ticket within this JVM are serialized by a lock
+     * picked from a fixed set of locks by ticket id, so that attempts to consume
+     * different tickets rarely contend with each other. Registries that are shared
+     * by several nodes should layer their own atomic operations on top.
+     */
+    @Override
+    public <T extends Ticket> T consumeTicket(final String ticketId, final Class<T> clazz, final Consumer<T> validator) {
+        synchronized (this.consumeLocks[Math.floorMod(StringUtils.defaultString(ticketId).hashCode(), CONSUME_LOCK_STRIPES)]) {
+            return TicketRegistry.super.consumeTicket(ticketId, clazz, validator);
+        }
+    }
+
     @Override
     public Ticket getTicket(final String ticketId) {
         return getTicket(ticketId, ticket -> {
@@ -208,6 +265,52 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         return encodedId;
     }
 
+    /**
+     * Gets the key under which ticket-granting tickets of the given principal are indexed.
+     * Principal ids are indexed in lower case, and are digested if ticket encryption is enabled
+     * so that the index does not reveal the principal.
+     *
+     * @param principalId the principal id
+     * @return the index key
+     */
+    protected String getPrincipalIndexKey(final String principalId) {
+        if (StringUtils.isBlank(principalId)) {
+            return principalId;
+        }
+        val key = principalId.toLowerCase();
+        return isCipherExecutorEnabled() ? DigestUtils.sha512(key) : key;
+    }
+
+    /**
+     * Gets the principal id of the ticket-granting ticket.
+     *
+     * @param ticket the ticket
+     * @return the principal id, or null if the ticket is not a ticket-granting ticket
+     */
+    protected static String getPrincipalId(final Ticket ticket) {
+        if (ticket instanceof TicketGrantingTicket) {
+            val authentication = ((TicketGrantingTicket) ticket).getAuthentication();
+            if (authentication != null && authentication.getPrincipal() != null) {
+                return authentication.getPrincipal().getId();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the ticket is an unexpired ticket-granting ticket issued to the given principal.
+     * Used to verify the tickets found in principal indexes, which may be stale or,
+     * when digested, may collide.
+     *
+     * @param ticket      the ticket
+     * @param principalId the principal id
+     * @return true/false
+     */
+    protected static boolean isSessionFor(final Ticket ticket, final String principalId) {
+        return ticket instanceof TicketGrantingTicket && !ticket.isExpired()
+            && StringUtils.equalsIgnoreCase(getPrincipalId(ticket), principalId);
+    }
+
     /**
      * Encode ticket.
      *
@@ -227,7 +330,10 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         LOGGER.debug("Encoding ticket [{}]", ticket);
         val encodedTicketObject = SerializationUtils.serializeAndEncodeObject(this.cipherExecutor, ticket);
         val encodedTicketId = encodeTicketId(ticket.getId());
-        val encodedTicket = new EncodedTicket(encodedTicketId, ByteSource.wrap(encodedTicketObject).read());
+        val encodedTicket = new EncodedTicket(encodedTicketId, ByteSource.wrap(encodedTicketObject).read(), ticket.getPrefix());
+        if (ticket instanceof TicketGrantingTicket) {
+            encodedTicket.setPrincipalId(getPrincipalIndexKey(getPrincipalId(ticket)));
+        }
         LOGGER.debug("Created encoded ticket [{}]", encodedTicket);
         return encodedTicket;
     }
@@ -283,6 +389,32 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         return items.map(this::decodeTicket);
     }
 
+    /**
+     * Encode a granted ticket record for storage, encrypting it if ticket encryption is enabled.
+     *
+     * @param record the record
+     * @return the encoded record
+     */
+    protected byte[] encodeGrantedTicketRecord(final GrantedTicketRecord record) {
+        if (!isCipherExecutorEnabled()) {
+            return SerializationUtils.serialize(record);
+        }
+        return SerializationUtils.serializeAndEncodeObject(this.cipherExecutor, record);
+    }
+
+    /**
+     * Decode a granted ticket record produced by {@link #encodeGrantedTicketRecord(GrantedTicketRecord)}.
+     *
+     * @param value the encoded record
+     * @return the record
+     */
+    protected GrantedTicketRecord decodeGrantedTicketRecord(final byte[] value) {
+        if (!isCipherExecutorEnabled()) {
+            return SerializationUtils.deserialize(value, GrantedTicketRecord.class);
+        }
+        return SerializationUtils.decodeAndDeserializeObject(value, this.cipherExecutor, GrantedTicketRecord.class);
+    }
+
     protected boolean isCipherExecutorEnabled() {
         return this.cipherExecutor != null && this.cipherExecutor.isEnabled();
     }
@@ -34,5 +34,6 @@ public class DefaultTicketRegistry extends AbstractMapBasedTicketRegistry {
     public DefaultTicketRegistry(final Map<String, Ticket> storageMap, final CipherExecutor cipherExecutor) {
         super(cipherExecutor);
         this.mapInstance = storageMap;
+        storageMap.values().forEach(ticket -> updateTicketIndexes(decodeTicket(ticket), 1));
     }
 }
@@ -8,10 +8,10 @@ import org.apereo.cas.util.EncodingUtils;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +20,7 @@ import org.apache.commons.lang3.StringUtils;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Lob;
 import javax.persistence.Table;
 
@@ -37,9 +38,12 @@ import java.time.ZonedDateTime;
 @Getter
 @NoArgsConstructor
 @EqualsAndHashCode(of = "id")
-@AllArgsConstructor
 @Entity
-@Table(name = "ENCODEDTICKET")
+@Table(name = "ENCODEDTICKET", indexes = {
+    @Index(name = "IDX_ENCODEDTICKET_EXPIRATION", columnList = "EXPIRATION_TIME"),
+    @Index(name = "IDX_ENCODEDTICKET_PREFIX", columnList = "PREFIX"),
+    @Index(name = "IDX_ENCODEDTICKET_PRINCIPAL", columnList = "PRINCIPAL_ID")
+})
 public class EncodedTicket implements Ticket {
 
     private static final long serialVersionUID = -7078771807487764116L;
@@ -52,6 +56,42 @@ public class EncodedTicket implements Ticket {
     @Column(name = "ENCODED_TICKET", length = Integer.MAX_VALUE, nullable = false)
     private byte[] encodedTicket;
 
+    /**
+     * The prefix of the original ticket, allowing encoded tickets
+     * to be counted by type without decoding them.
+     */
+    @JsonIgnore
+    @Setter
+    @Column(name = "PREFIX")
+    private String prefix;
+
+    /**
+     * The instant at which the encoded ticket is estimated to expire.
+     */
+    @JsonIgnore
+    @Setter
+    @Column(name = "EXPIRATION_TIME")
+    private ZonedDateTime expirationTime;
+
+    /**
+     * The digest of the principal id, if the original ticket is a ticket-granting ticket,
+     * allowing encoded tickets to be looked up by principal without decoding them.
+     */
+    @JsonIgnore
+    @Setter
+    @Column(name = "PRINCIPAL_ID")
+    private String principalId;
+
+    public EncodedTicket(final String id, final byte[] encodedTicket) {
+        this(id, encodedTicket, null);
+    }
+
+    public EncodedTicket(final String id, final byte[] encodedTicket, final String prefix) {
+        this.id = id;
+        this.encodedTicket = encodedTicket;
+        this.prefix = prefix;
+    }
+
     /**
      * Instantiates a new Encoded ticket.
      *
@@ -86,7 +126,7 @@ public class EncodedTicket implements Ticket {
     @JsonIgnore
     @Override
     public String getPrefix() {
-        return StringUtils.EMPTY;
+        return StringUtils.defaultString(this.prefix);
     }
 
     @Override
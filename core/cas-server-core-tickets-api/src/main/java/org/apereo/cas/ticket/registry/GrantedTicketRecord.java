@@ -0,0 +1,95 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.principal.Service;
+import org.apereo.cas.ticket.AbstractTicket;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.val;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+
+/**
+ * This is {@link GrantedTicketRecord}. It captures the changes made to a ticket-granting ticket
+ * when it grants a ticket, so that registries can store them as a small record next to the
+ * ticket-granting ticket rather than updating the ticket-granting ticket as a whole.
+ * Records are applied back onto the ticket-granting ticket, in the order they were granted,
+ * once it is retrieved from the registry.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class GrantedTicketRecord implements Serializable {
+
+    private static final long serialVersionUID = 4466206291409208146L;
+
+    private final String ticketId;
+
+    private final Service service;
+
+    private final ZonedDateTime grantedAt;
+
+    private final HashSet<String> untrackedTicketIds;
+
+    /**
+     * Build a record from the state of the ticket-granting ticket right after it has granted the given ticket.
+     *
+     * @param ticketGrantingTicket the ticket granting ticket
+     * @param grantedTicket        the granted ticket
+     * @param untrackedTicketIds   the ids of tickets that are no longer tracked as a result
+     * @return the record
+     */
+    public static GrantedTicketRecord of(final TicketGrantingTicket ticketGrantingTicket, final Ticket grantedTicket,
+                                         final Collection<String> untrackedTicketIds) {
+        val grantedAt = ticketGrantingTicket instanceof AbstractTicket
+            ? ((AbstractTicket) ticketGrantingTicket).getLastTimeUsed()
+            : null;
+        return new GrantedTicketRecord(grantedTicket.getId(), ticketGrantingTicket.getServices().get(grantedTicket.getId()),
+            grantedAt, new HashSet<>(untrackedTicketIds));
+    }
+
+    /**
+     * Apply the given records onto the ticket-granting ticket, in the order they were granted.
+     *
+     * @param ticketGrantingTicket the ticket granting ticket
+     * @param records              the records
+     */
+    public static void apply(final TicketGrantingTicket ticketGrantingTicket, final Collection<GrantedTicketRecord> records) {
+        val sorted = new ArrayList<GrantedTicketRecord>(records);
+        sorted.sort(Comparator.comparing(GrantedTicketRecord::getGrantedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(GrantedTicketRecord::getTicketId));
+        sorted.forEach(record -> record.applyTo(ticketGrantingTicket));
+    }
+
+    /**
+     * Apply this record onto the ticket-granting ticket.
+     *
+     * @param ticketGrantingTicket the ticket granting ticket
+     */
+    public void applyTo(final TicketGrantingTicket ticketGrantingTicket) {
+        val services = ticketGrantingTicket.getServices();
+        services.keySet().removeAll(this.untrackedTicketIds);
+        if (this.service != null) {
+            services.put(this.ticketId, this.service);
+        }
+        if (this.grantedAt != null && ticketGrantingTicket instanceof AbstractTicket) {
+            val ticket = (AbstractTicket) ticketGrantingTicket;
+            ticket.setPreviousTimeUsed(ticket.getLastTimeUsed());
+            ticket.setLastTimeUsed(this.grantedAt);
+            ticket.setCountOfUses(ticket.getCountOfUses() + 1);
+        }
+    }
+}
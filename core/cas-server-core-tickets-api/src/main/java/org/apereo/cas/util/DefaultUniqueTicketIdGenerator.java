@@ -5,6 +5,7 @@ import org.apereo.cas.util.gen.Base64RandomStringGenerator;
 import org.apereo.cas.util.gen.DefaultLongNumericGenerator;
 import org.apereo.cas.util.gen.NumericGenerator;
 import org.apereo.cas.util.gen.RandomStringGenerator;
+import org.apereo.cas.util.gen.StripedSecureRandom;
 
 import lombok.Setter;
 import lombok.val;
@@ -17,6 +18,11 @@ import org.apache.commons.lang3.StringUtils;
  * <p>
  * Tickets are of the form [PREFIX]-[SEQUENCE NUMBER]-[RANDOM STRING]-[SUFFIX]
  * </p>
+ * <p>
+ * Unless a random string generator is supplied, the random part is produced from
+ * a {@link StripedSecureRandom} so that concurrent requests for ticket ids do not
+ * all contend on a single source of randomness.
+ * </p>
  *
  * @author Scott Battaglia
  * @since 3.0.0
@@ -116,7 +122,7 @@ public class DefaultUniqueTicketIdGenerator implements UniqueTicketIdGenerator {
      * @param maxLength the max length
      */
     public void setMaxLength(final int maxLength) {
-        this.randomStringGenerator = new Base64RandomStringGenerator(maxLength);
+        this.randomStringGenerator = new Base64RandomStringGenerator(maxLength, new StripedSecureRandom());
         this.numericGenerator = new DefaultLongNumericGenerator(1);
     }
 }
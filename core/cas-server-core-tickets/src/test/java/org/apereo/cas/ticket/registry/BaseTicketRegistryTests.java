@@ -16,6 +16,7 @@ import org.apereo.cas.ticket.TicketGrantingTicketImpl;
 import org.apereo.cas.ticket.TransientSessionTicket;
 import org.apereo.cas.ticket.TransientSessionTicketImpl;
 import org.apereo.cas.ticket.expiration.AlwaysExpiresExpirationPolicy;
+import org.apereo.cas.ticket.expiration.MultiTimeUseOrTimeoutExpirationPolicy;
 import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
 import org.apereo.cas.util.CollectionUtils;
@@ -38,6 +39,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -220,6 +224,29 @@ public abstract class BaseTicketRegistryTests {
         assertNull(ticketRegistry.getTicket(ticketGrantingTicketId), TICKET_SHOULD_BE_NULL_USE_ENCRYPTION + useEncryption + ']');
     }
 
+    @RepeatedTest(2)
+    @Transactional
+    public void verifySessionsForPrincipal() {
+        assumeTrue(isIterableRegistry());
+        ticketRegistry.addTicket(new TicketGrantingTicketImpl(ticketGrantingTicketId + "-1",
+            CoreAuthenticationTestUtils.getAuthentication("casuser"), NeverExpiresExpirationPolicy.INSTANCE));
+        ticketRegistry.addTicket(new TicketGrantingTicketImpl(ticketGrantingTicketId + "-2",
+            CoreAuthenticationTestUtils.getAuthentication("CASUser"), NeverExpiresExpirationPolicy.INSTANCE));
+        ticketRegistry.addTicket(new TicketGrantingTicketImpl(ticketGrantingTicketId + "-3",
+            CoreAuthenticationTestUtils.getAuthentication("someone"), NeverExpiresExpirationPolicy.INSTANCE));
+        try (val sessions = ticketRegistry.getSessionsFor("CasUser")) {
+            assertEquals(2, sessions.count(), "Wrong session count. useEncryption[" + useEncryption + ']');
+        }
+        ticketRegistry.deleteTicket(ticketGrantingTicketId + "-1");
+        try (val sessions = ticketRegistry.getSessionsFor("casuser")) {
+            val ids = sessions.map(Ticket::getId).collect(Collectors.toList());
+            assertEquals(List.of(ticketGrantingTicketId + "-2"), ids, "Wrong sessions. useEncryption[" + useEncryption + ']');
+        }
+        try (val sessions = ticketRegistry.getSessionsFor("nobody")) {
+            assertEquals(0, sessions.count());
+        }
+    }
+
     @RepeatedTest(2)
     @Transactional
     public void verifyTransientSessionTickets() {
@@ -438,6 +465,60 @@ public abstract class BaseTicketRegistryTests {
         assertEquals(6, c);
     }
 
+    @RepeatedTest(2)
+    @Transactional
+    public void verifyConsumeServiceTicket() {
+        val tgt = new TicketGrantingTicketImpl(ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        ticketRegistry.addTicket(tgt);
+        val st = tgt.grantServiceTicket(serviceTicketId, RegisteredServiceTestUtils.getService("TGT_CONSUME_TEST"),
+            new MultiTimeUseOrTimeoutExpirationPolicy(1, 60), false, true);
+        ticketRegistry.addTicket(st);
+        ticketRegistry.updateTicket(tgt);
+
+        assertThrows(IllegalArgumentException.class, () -> ticketRegistry.consumeTicket(serviceTicketId, ServiceTicket.class, ticket -> {
+            throw new IllegalArgumentException("Rejected");
+        }));
+        assertNotNull(ticketRegistry.getTicket(serviceTicketId, ServiceTicket.class));
+
+        val consumed = ticketRegistry.consumeTicket(serviceTicketId, ServiceTicket.class,
+            ticket -> assertEquals(serviceTicketId, ticket.getId()));
+        assertNotNull(consumed);
+        assertTrue(consumed.isExpired());
+        assertNull(ticketRegistry.getTicket(serviceTicketId, ServiceTicket.class));
+        assertNull(ticketRegistry.consumeTicket(serviceTicketId, ServiceTicket.class, ticket -> fail("Ticket must not be consumed twice")));
+    }
+
+    @RepeatedTest(2)
+    public void verifyAddGrantedTicket() {
+        val tgt = new TicketGrantingTicketImpl(ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        ticketRegistry.addTicket(tgt);
+        val service = RegisteredServiceTestUtils.getService("TGT_GRANTED_TEST");
+        val firstId = serviceTicketId + "-1";
+        val first = tgt.grantServiceTicket(firstId, service, NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        ticketRegistry.addTicket(first);
+        ticketRegistry.addGrantedTicket(tgt, first, List.of());
+
+        val secondId = serviceTicketId + "-2";
+        val second = tgt.grantServiceTicket(secondId, service, NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        ticketRegistry.addTicket(second);
+        ticketRegistry.addGrantedTicket(tgt, second, List.of(firstId));
+
+        val result = ticketRegistry.getTicket(ticketGrantingTicketId, TicketGrantingTicket.class);
+        assertNotNull(result);
+        assertEquals(tgt.getCountOfUses(), result.getCountOfUses());
+        assertEquals(Set.of(secondId), result.getServices().keySet());
+
+        ticketRegistry.updateTicket(result);
+        val updated = ticketRegistry.getTicket(ticketGrantingTicketId, TicketGrantingTicket.class);
+        assertEquals(tgt.getCountOfUses(), updated.getCountOfUses());
+        assertEquals(Set.of(secondId), updated.getServices().keySet());
+
+        assertTrue(ticketRegistry.deleteTicket(ticketGrantingTicketId) > 0);
+        assertNull(ticketRegistry.getTicket(secondId, ServiceTicket.class));
+    }
+
     protected static ExpirationPolicyBuilder neverExpiresExpirationPolicyBuilder() {
         return new ExpirationPolicyBuilder() {
             private static final long serialVersionUID = -9043565995104313970L;
@@ -1,8 +1,26 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.configuration.model.core.util.EncryptionRandomizedSigningJwtCryptographyProperties;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.expiration.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.CoreTicketUtils;
 import org.apereo.cas.util.crypto.CipherExecutor;
 
+import lombok.val;
+import org.junit.jupiter.api.RepeatedTest;
+
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Test case to test the DefaultTicketRegistry based on test cases to test all
@@ -17,4 +35,58 @@ public class DefaultTicketRegistryTests extends BaseTicketRegistryTests {
     public TicketRegistry getNewTicketRegistry() {
         return new DefaultTicketRegistry(new ConcurrentHashMap<>(10, 10, 5), CipherExecutor.noOp());
     }
+
+    @RepeatedTest(2)
+    public void verifyTicketCountsWithEncryption() {
+        val cipher = CoreTicketUtils.newTicketRegistryCipherExecutor(
+            new EncryptionRandomizedSigningJwtCryptographyProperties(), "[tests]");
+        val registry = new DefaultTicketRegistry(cipher);
+        val tgt = new TicketGrantingTicketImpl(ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        val st = tgt.grantServiceTicket(serviceTicketId, RegisteredServiceTestUtils.getService(),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        registry.addTicket(tgt);
+        registry.addTicket(st);
+        registry.updateTicket(tgt);
+        assertEquals(1, registry.sessionCount());
+        assertEquals(1, registry.serviceTicketCount());
+
+        registry.deleteTicket(tgt.getId());
+        assertEquals(0, registry.sessionCount());
+        assertEquals(0, registry.serviceTicketCount());
+    }
+
+    @RepeatedTest(2)
+    public void verifyServiceTicketIsConsumedOnceConcurrently() throws Exception {
+        val registry = new DefaultTicketRegistry(CipherExecutor.noOp());
+        val tgt = new TicketGrantingTicketImpl(ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        val st = tgt.grantServiceTicket(serviceTicketId, RegisteredServiceTestUtils.getService(),
+            new MultiTimeUseOrTimeoutExpirationPolicy(1, 60), false, true);
+        registry.addTicket(tgt);
+        registry.addTicket(st);
+
+        val consumed = new AtomicInteger();
+        val start = new CountDownLatch(1);
+        val executor = Executors.newFixedThreadPool(8);
+        try {
+            IntStream.range(0, 8).forEach(i -> executor.execute(() -> {
+                try {
+                    start.await();
+                    if (registry.consumeTicket(serviceTicketId, ServiceTicket.class, ticket -> {
+                    }) != null) {
+                        consumed.incrementAndGet();
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+        assertEquals(1, consumed.get());
+        assertNull(registry.getTicket(serviceTicketId));
+    }
 }
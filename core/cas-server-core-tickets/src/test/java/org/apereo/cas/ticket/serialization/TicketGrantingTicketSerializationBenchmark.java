@@ -0,0 +1,100 @@
+package org.apereo.cas.ticket.serialization;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
+import org.apereo.cas.ticket.serialization.serializers.TicketGrantingTicketStringSerializer;
+
+import lombok.val;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hjson.JsonValue;
+import org.hjson.Stringify;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link TicketGrantingTicketSerializationBenchmark}. It compares the single-pass
+ * Jackson serialization of ticket-granting tickets with the previous approach that
+ * round-tripped every payload through Hjson, for tickets carrying attribute maps of various sizes.
+ * Run via {@code ./gradlew :core:cas-server-core-tickets:jmh}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketGrantingTicketSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int attributeCount;
+
+    private TicketGrantingTicketStringSerializer serializer;
+
+    private TicketGrantingTicketImpl ticket;
+
+    private String json;
+
+    private String hjson;
+
+    @Setup
+    public void setup() throws Exception {
+        val attributes = new HashMap<String, List<Object>>();
+        for (var i = 0; i < attributeCount; i++) {
+            val values = new ArrayList<Object>();
+            values.add(RandomStringUtils.randomAlphanumeric(32));
+            values.add(RandomStringUtils.randomAlphanumeric(64));
+            attributes.put("attribute" + i, values);
+        }
+        val principal = CoreAuthenticationTestUtils.getPrincipal("casuser", attributes);
+        val authentication = CoreAuthenticationTestUtils.getAuthentication(principal, attributes);
+        this.ticket = new TicketGrantingTicketImpl("TGT-1-" + RandomStringUtils.randomAlphanumeric(32),
+            authentication, NeverExpiresExpirationPolicy.INSTANCE);
+        this.serializer = new TicketGrantingTicketStringSerializer();
+        this.json = serializer.toString(ticket);
+        this.hjson = serializeWithHjson();
+    }
+
+    @Benchmark
+    public String serializeStrictJson() {
+        return serializer.toString(ticket);
+    }
+
+    @Benchmark
+    public String serializeWithHjson() throws Exception {
+        try (val writer = new StringWriter(); val out = new StringWriter()) {
+            serializer.getObjectMapper().writer(serializer.getPrettyPrinter()).writeValue(writer, ticket);
+            JsonValue.readHjson(writer.toString()).writeTo(out, Stringify.PLAIN);
+            return out.toString();
+        }
+    }
+
+    @Benchmark
+    public TicketGrantingTicketImpl deserializeStrictJson() {
+        return serializer.from(json);
+    }
+
+    @Benchmark
+    public TicketGrantingTicketImpl deserializeWithHjson() throws Exception {
+        val content = JsonValue.readHjson(hjson).toString();
+        return serializer.getObjectMapper().readValue(content, serializer.getTypeToSerialize());
+    }
+}
@@ -0,0 +1,59 @@
+package org.apereo.cas.util;
+
+import org.apereo.cas.ticket.UniqueTicketIdGenerator;
+import org.apereo.cas.util.gen.Base64RandomStringGenerator;
+import org.apereo.cas.util.gen.DefaultLongNumericGenerator;
+import org.apereo.cas.util.gen.StripedSecureRandom;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link UniqueTicketIdGeneratorBenchmark}. It measures the throughput of ticket id
+ * generation from many threads at once, comparing a single shared native {@link java.security.SecureRandom}
+ * with a {@link StripedSecureRandom}.
+ * Run via {@code ./gradlew :core:cas-server-core-tickets:jmh}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class UniqueTicketIdGeneratorBenchmark {
+
+    @Param({"native", "striped"})
+    private String randomizer;
+
+    private UniqueTicketIdGenerator generator;
+
+    @Setup
+    public void setup() {
+        val randomStringGenerator = "striped".equals(randomizer)
+            ? new Base64RandomStringGenerator(UniqueTicketIdGenerator.TICKET_SIZE, new StripedSecureRandom())
+            : new Base64RandomStringGenerator(UniqueTicketIdGenerator.TICKET_SIZE, RandomUtils.getNativeInstance());
+        this.generator = new DefaultUniqueTicketIdGenerator(new DefaultLongNumericGenerator(1), randomStringGenerator, null);
+    }
+
+    @Benchmark
+    public String generateTicketId() {
+        return generator.getNewTicketId("ST");
+    }
+}
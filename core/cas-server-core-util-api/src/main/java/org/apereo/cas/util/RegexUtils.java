@@ -1,5 +1,7 @@
 package org.apereo.cas.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -12,6 +14,11 @@ import java.util.stream.Collectors;
 
 /**
  * Utility class to assist with regex operations.
+ * <p>
+ * Patterns created here are compiled once and kept in a shared, bounded cache keyed
+ * by the expression and its flags. Registered services, attribute filters and access strategies
+ * that ask for the same expression repeatedly, or again after services are reloaded,
+ * receive the same compiled and immutable {@link Pattern}.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -25,6 +32,15 @@ public class RegexUtils {
      */
     public static final Pattern MATCH_NOTHING_PATTERN = Pattern.compile("a^");
 
+    /**
+     * Maximum number of compiled patterns kept in the cache.
+     */
+    public static final long MAXIMUM_CACHED_PATTERNS = 10_000;
+
+    private static final Cache<String, Pattern> PATTERN_CACHE = Caffeine.newBuilder()
+        .maximumSize(MAXIMUM_CACHED_PATTERNS)
+        .build();
+
     /**
      * Check to see if the specified pattern is a valid regular expression.
      *
@@ -82,6 +98,10 @@ public class RegexUtils {
             LOGGER.debug("Pattern cannot be null");
             return MATCH_NOTHING_PATTERN;
         }
+        return PATTERN_CACHE.get(flags + ":" + pattern, key -> compilePattern(pattern, flags));
+    }
+
+    private static Pattern compilePattern(final String pattern, final int flags) {
         try {
             return Pattern.compile(pattern, flags);
         } catch (final PatternSyntaxException exception) {
@@ -22,7 +22,7 @@ public abstract class AbstractRandomStringGenerator implements RandomStringGener
     /**
      * An instance of secure random to ensure randomness is secure.
      */
-    protected final SecureRandom randomizer = RandomUtils.getNativeInstance();
+    protected final SecureRandom randomizer;
 
     /**
      * Default string length before encoding.
@@ -34,7 +34,7 @@ public abstract class AbstractRandomStringGenerator implements RandomStringGener
      * with length set to {@link RandomStringGenerator#DEFAULT_LENGTH}.
      */
     public AbstractRandomStringGenerator() {
-        this.defaultLength = DEFAULT_LENGTH;
+        this(DEFAULT_LENGTH);
     }
 
     /**
@@ -43,7 +43,18 @@ public abstract class AbstractRandomStringGenerator implements RandomStringGener
      * @param defaultLength the max random length
      */
     public AbstractRandomStringGenerator(final int defaultLength) {
+        this(defaultLength, RandomUtils.getNativeInstance());
+    }
+
+    /**
+     * Instantiates a new default random string generator.
+     *
+     * @param defaultLength the max random length
+     * @param randomizer    the source of random bytes
+     */
+    public AbstractRandomStringGenerator(final int defaultLength, final SecureRandom randomizer) {
         this.defaultLength = defaultLength;
+        this.randomizer = randomizer;
     }
 
     @Override
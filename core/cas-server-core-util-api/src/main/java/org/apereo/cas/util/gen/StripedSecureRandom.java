@@ -0,0 +1,201 @@
+package org.apereo.cas.util.gen;
+
+import org.apereo.cas.util.RandomUtils;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This is {@link StripedSecureRandom}.
+ * <p>
+ * A {@link SecureRandom} that spreads requests for random bytes across a fixed number of
+ * independently seeded DRBG instances, selected by the identifier of the calling thread.
+ * A single shared instance serializes all callers, which becomes a point of contention
+ * when many threads generate identifiers at once; here threads only contend when they
+ * map onto the same stripe. Stripes are created lazily and each is reseeded once the reseed
+ * interval has passed since it was last seeded. Reseeding draws fresh seed material from a
+ * non-blocking seed source and runs in the background, so that callers asking for random bytes
+ * never wait on the seed source; the stripe keeps serving bytes from its current state meanwhile.
+ * If DRBG is not available, stripes fall back onto {@link RandomUtils#getNativeInstance()}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Slf4j
+public class StripedSecureRandom extends SecureRandom {
+
+    /**
+     * Default interval after which a stripe is reseeded.
+     */
+    public static final Duration DEFAULT_RESEED_INTERVAL = Duration.ofMinutes(10);
+
+    private static final long serialVersionUID = -2838221427506458416L;
+
+    private static final String DRBG_ALGORITHM = "DRBG";
+
+    private static final long STRIPE_HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private static final int STRIPE_HASH_SHIFT = 32;
+
+    private static final int SEED_LENGTH = 32;
+
+    private static final ExecutorService RESEED_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        val thread = new Thread(r, "StripedSecureRandomReseedThread");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final transient AtomicReferenceArray<Stripe> stripes;
+
+    private final int mask;
+
+    private final long reseedIntervalNanos;
+
+    private final SecureRandom seedSource;
+
+    private final transient Executor reseedExecutor;
+
+    public StripedSecureRandom() {
+        this(Runtime.getRuntime().availableProcessors() * 2, DEFAULT_RESEED_INTERVAL);
+    }
+
+    public StripedSecureRandom(final int concurrency, final Duration reseedInterval) {
+        this(concurrency, reseedInterval, RandomUtils.getNativeInstance(), RESEED_EXECUTOR);
+    }
+
+    public StripedSecureRandom(final int concurrency, final Duration reseedInterval,
+                               final SecureRandom seedSource, final Executor reseedExecutor) {
+        val size = concurrency <= 1 ? 1 : Integer.highestOneBit(concurrency - 1) << 1;
+        this.stripes = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.reseedIntervalNanos = reseedInterval.toNanos();
+        this.seedSource = seedSource;
+        this.reseedExecutor = reseedExecutor;
+    }
+
+    /**
+     * Number of stripes.
+     *
+     * @return the stripe count
+     */
+    public int getStripeCount() {
+        return this.stripes.length();
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return getStripe().getRandom().getAlgorithm();
+    }
+
+    @Override
+    public void nextBytes(final byte[] bytes) {
+        val stripe = getStripe();
+        if (stripe.isReseedDue(this.reseedIntervalNanos)) {
+            this.reseedExecutor.execute(() -> stripe.reseed(this.seedSource));
+        }
+        stripe.getRandom().nextBytes(bytes);
+    }
+
+    @Override
+    public byte[] generateSeed(final int numBytes) {
+        return getStripe().getRandom().generateSeed(numBytes);
+    }
+
+    @Override
+    public void setSeed(final byte[] seed) {
+        if (this.stripes != null) {
+            getStripe().getRandom().setSeed(seed);
+        }
+    }
+
+    @Override
+    public void setSeed(final long seed) {
+        if (this.stripes != null) {
+            getStripe().getRandom().setSeed(seed);
+        }
+    }
+
+    @Override
+    public void reseed() {
+        for (var i = 0; i < this.stripes.length(); i++) {
+            val stripe = this.stripes.get(i);
+            if (stripe != null) {
+                stripe.reseed(this.seedSource);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + '[' + this.stripes.length() + " stripes]";
+    }
+
+    private Stripe getStripe() {
+        val index = (int) mix(Thread.currentThread().getId()) & this.mask;
+        var stripe = this.stripes.get(index);
+        if (stripe == null) {
+            stripe = new Stripe(newRandom());
+            if (!this.stripes.compareAndSet(index, null, stripe)) {
+                stripe = this.stripes.get(index);
+            }
+        }
+        return stripe;
+    }
+
+    private static long mix(final long value) {
+        val hash = value * STRIPE_HASH_MULTIPLIER;
+        return hash ^ (hash >>> STRIPE_HASH_SHIFT);
+    }
+
+    private static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance(DRBG_ALGORITHM);
+        } catch (final NoSuchAlgorithmException e) {
+            LOGGER.trace(e.getMessage(), e);
+            return RandomUtils.getNativeInstance();
+        }
+    }
+
+    private static class Stripe {
+        private final SecureRandom random;
+
+        private final AtomicLong seededAt = new AtomicLong(System.nanoTime());
+
+        Stripe(final SecureRandom random) {
+            this.random = random;
+        }
+
+        SecureRandom getRandom() {
+            return this.random;
+        }
+
+        /**
+         * Whether the stripe is due for reseeding. Only one caller is told so
+         * per reseed interval, and the interval restarts from that moment.
+         */
+        boolean isReseedDue(final long reseedIntervalNanos) {
+            val seeded = this.seededAt.get();
+            val now = System.nanoTime();
+            return now - seeded >= reseedIntervalNanos && this.seededAt.compareAndSet(seeded, now);
+        }
+
+        void reseed(final SecureRandom seedSource) {
+            try {
+                this.random.setSeed(seedSource.generateSeed(SEED_LENGTH));
+                this.seededAt.set(System.nanoTime());
+            } catch (final Exception e) {
+                LOGGER.warn("Unable to reseed [{}]: [{}]", this.random.getAlgorithm(), e.getMessage());
+                LOGGER.debug(e.getMessage(), e);
+            }
+        }
+    }
+}
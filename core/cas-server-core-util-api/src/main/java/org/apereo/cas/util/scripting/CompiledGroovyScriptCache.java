@@ -0,0 +1,241 @@
+package org.apereo.cas.util.scripting;
+
+import org.apereo.cas.util.DigestUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyCodeSource;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link CompiledGroovyScriptCache}. It compiles inline groovy scripts once per distinct
+ * script body and hands out new {@link Script} instances of the compiled class, so that services and
+ * policies sharing the same script share one generated class, no matter how often they are reloaded.
+ * <p>
+ * Compiled classes are kept in a bounded cache keyed by the SHA-256 digest of the script body. Each script
+ * is compiled by a class loader of its own, which is only reachable through the cached class, so that once
+ * an entry is evicted and its script instances are gone, the class and its loader may be unloaded.
+ * The cache also keeps execution statistics per script, and notifies registered listeners as scripts
+ * are cached and removed so that the statistics may be published, for example as metrics.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Slf4j
+public class CompiledGroovyScriptCache {
+    /**
+     * Default maximum number of compiled scripts.
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private static final String SCRIPT_CLASS_PREFIX = "CasScript";
+
+    private static final CompiledGroovyScriptCache INSTANCE = new CompiledGroovyScriptCache(DEFAULT_MAXIMUM_SIZE);
+
+    private final List<StatisticsListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final Cache<String, CompiledScript> scripts;
+
+    private final CompilerConfiguration configuration = new CompilerConfiguration();
+
+    public CompiledGroovyScriptCache(final long maximumSize) {
+        this.scripts = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .executor(Runnable::run)
+            .removalListener((String key, CompiledScript value, RemovalCause cause) ->
+                this.listeners.forEach(listener -> listener.scriptRemoved(key)))
+            .build();
+    }
+
+    /**
+     * Gets the cache shared by the running process.
+     *
+     * @return the instance
+     */
+    public static CompiledGroovyScriptCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Create a new script instance for the given script body, compiling the script if needed.
+     *
+     * @param script the script body
+     * @return the script
+     */
+    public Script createScript(final String script) {
+        val key = DigestUtils.sha256(script);
+        val compiled = this.scripts.get(key, k -> compile(k, script));
+        return InvokerHelper.createScript(compiled.getScriptClass(), new Binding());
+    }
+
+    /**
+     * Run the given script and record how long it took.
+     *
+     * @param <T>    the type parameter
+     * @param script the script
+     * @param action the action that runs the script
+     * @return the result
+     */
+    public <T> T execute(final Script script, final Supplier<T> action) {
+        val start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            val elapsed = System.nanoTime() - start;
+            val compiled = getCompiledScript(script);
+            if (compiled != null) {
+                compiled.getStatistics().record(elapsed);
+                LOGGER.trace("Executed groovy script [{}] in [{}] ns", script.getClass().getName(), elapsed);
+            }
+        }
+    }
+
+    /**
+     * Execution statistics of cached scripts, keyed by the digest of the script body.
+     *
+     * @return the statistics
+     */
+    public Map<String, ExecutionStatistics> getStatistics() {
+        return this.scripts.asMap().entrySet()
+            .stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getStatistics()));
+    }
+
+    /**
+     * Register a listener to be notified of the scripts that are cached from now on,
+     * and of those that are cached already.
+     *
+     * @param listener the listener
+     */
+    public void addStatisticsListener(final StatisticsListener listener) {
+        this.listeners.add(listener);
+        this.scripts.asMap().forEach((key, compiled) -> listener.scriptCached(key, compiled.getStatistics()));
+    }
+
+    /**
+     * Number of compiled scripts in the cache.
+     *
+     * @return the size
+     */
+    public long size() {
+        this.scripts.cleanUp();
+        return this.scripts.estimatedSize();
+    }
+
+    /**
+     * Remove all compiled scripts.
+     */
+    public void clear() {
+        this.scripts.invalidateAll();
+    }
+
+    private CompiledScript getCompiledScript(final Script script) {
+        val name = script.getClass().getName();
+        if (!name.startsWith(SCRIPT_CLASS_PREFIX)) {
+            return null;
+        }
+        return this.scripts.getIfPresent(StringUtils.removeStart(name, SCRIPT_CLASS_PREFIX));
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompiledScript compile(final String key, final String script) {
+        LOGGER.debug("Compiling groovy script [{}]", script);
+        val codeSource = new GroovyCodeSource(script, SCRIPT_CLASS_PREFIX + key + ".groovy", GroovyShell.DEFAULT_CODE_BASE);
+        val classLoader = new GroovyClassLoader(CompiledGroovyScriptCache.class.getClassLoader(), this.configuration);
+        val scriptClass = (Class<? extends Script>) classLoader.parseClass(codeSource, false);
+        val statistics = new ExecutionStatistics();
+        this.listeners.forEach(listener -> listener.scriptCached(key, statistics));
+        return new CompiledScript(scriptClass, statistics);
+    }
+
+    /**
+     * Notified as compiled scripts enter and leave the cache.
+     */
+    public interface StatisticsListener {
+        /**
+         * A script is compiled and cached.
+         *
+         * @param digest     the digest of the script body
+         * @param statistics the execution statistics of the script
+         */
+        void scriptCached(String digest, ExecutionStatistics statistics);
+
+        /**
+         * A script is removed from the cache.
+         *
+         * @param digest the digest of the script body
+         */
+        void scriptRemoved(String digest);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class CompiledScript {
+        private final Class<? extends Script> scriptClass;
+
+        private final ExecutionStatistics statistics;
+    }
+
+    /**
+     * Execution statistics of a compiled script.
+     */
+    public static class ExecutionStatistics {
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        /**
+         * Record an execution.
+         *
+         * @param nanos the elapsed time in nanoseconds
+         */
+        void record(final long nanos) {
+            this.count.increment();
+            this.totalNanos.add(nanos);
+            this.maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getCount() {
+            return this.count.sum();
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return this.maxNanos.get();
+        }
+
+        /**
+         * Average execution time in nanoseconds.
+         *
+         * @return the average
+         */
+        public long getAverageNanos() {
+            val executions = getCount();
+            return executions == 0 ? 0 : getTotalNanos() / executions;
+        }
+    }
+}
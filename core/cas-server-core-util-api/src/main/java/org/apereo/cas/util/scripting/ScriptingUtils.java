@@ -6,7 +6,6 @@ import org.apereo.cas.util.ResourceUtils;
 import groovy.lang.Binding;
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyObject;
-import groovy.lang.GroovyShell;
 import groovy.lang.Script;
 import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
@@ -21,7 +20,6 @@ import org.springframework.core.io.Resource;
 
 import javax.script.Invocable;
 import javax.script.ScriptEngineManager;
-import javax.script.SimpleBindings;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.security.AccessController;
@@ -129,7 +127,7 @@ public class ScriptingUtils {
             script.setBinding(binding);
             LOGGER.debug("Executing groovy script [{}] with variables [{}]", script, binding.getVariables());
 
-            val result = script.run();
+            val result = CompiledGroovyScriptCache.getInstance().execute(script, script::run);
             return getGroovyScriptExecutionResultOrThrow(clazz, result);
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
@@ -298,7 +296,7 @@ public class ScriptingUtils {
                 binding.setVariable("logger", LOGGER);
             }
             groovyObject.setBinding(binding);
-            val result = groovyObject.run();
+            val result = CompiledGroovyScriptCache.getInstance().execute(groovyObject, groovyObject::run);
             LOGGER.trace("Results returned by the groovy script are [{}]", result);
 
             if (!clazz.equals(Void.class)) {
@@ -317,15 +315,16 @@ public class ScriptingUtils {
 
     /**
      * Parse groovy shell script script.
+     * Scripts with the same body share a single compiled class
+     * held by {@link CompiledGroovyScriptCache}.
      *
      * @param script the script
      * @return the script
      */
     public static Script parseGroovyShellScript(final String script) {
         try {
-            val shell = new GroovyShell();
             LOGGER.debug("Parsing groovy script [{}]", script);
-            return shell.parse(script);
+            return CompiledGroovyScriptCache.getInstance().createScript(script);
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
         }
@@ -451,19 +450,16 @@ public class ScriptingUtils {
                                                   final Map<String, Object> variables,
                                                   final Class<T> clazz) {
         try {
-            val engine = new ScriptEngineManager().getEngineByName("groovy");
-            if (engine == null) {
-                LOGGER.warn("Script engine is not available for Groovy");
-                return null;
-            }
-            val binding = new SimpleBindings();
+            val groovyScript = CompiledGroovyScriptCache.getInstance().createScript(script);
+            val binding = new Binding();
             if (variables != null && !variables.isEmpty()) {
-                binding.putAll(variables);
+                variables.forEach(binding::setVariable);
             }
-            if (!binding.containsKey("logger")) {
-                binding.put("logger", LOGGER);
+            if (!binding.hasVariable("logger")) {
+                binding.setVariable("logger", LOGGER);
             }
-            val result = engine.eval(script, binding);
+            groovyScript.setBinding(binding);
+            val result = CompiledGroovyScriptCache.getInstance().execute(groovyScript, groovyScript::run);
             return getGroovyScriptExecutionResultOrThrow(clazz, result);
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
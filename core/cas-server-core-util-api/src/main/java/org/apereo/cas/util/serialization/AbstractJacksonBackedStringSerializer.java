@@ -7,11 +7,14 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.PrettyPrinter;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import lombok.Getter;
@@ -22,14 +25,12 @@ import lombok.val;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.hjson.JsonValue;
-import org.hjson.Stringify;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
-import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -77,29 +78,25 @@ public abstract class AbstractJacksonBackedStringSerializer<T> implements String
         return !(this.objectMapper.getFactory() instanceof YAMLFactory);
     }
 
+    private ObjectWriter getObjectWriter() {
+        return this.objectMapper.writer(this.prettyPrinter).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
     @Override
-    @SneakyThrows
     public T from(final String json) {
-        val jsonString = isJsonFormat() ? JsonValue.readHjson(json).toString() : json;
-        return readObjectFromString(jsonString);
+        return readObjectFromString(json);
     }
 
     @Override
     @SneakyThrows
     public T from(final File json) {
-        val string = isJsonFormat()
-            ? JsonValue.readHjson(FileUtils.readFileToString(json, StandardCharsets.UTF_8)).toString()
-            : FileUtils.readFileToString(json, StandardCharsets.UTF_8);
-        return readObjectFromString(string);
+        return readObjectFromString(FileUtils.readFileToString(json, StandardCharsets.UTF_8));
     }
 
     @Override
     @SneakyThrows
     public T from(final Reader json) {
-        val string = isJsonFormat()
-            ? JsonValue.readHjson(json).toString()
-            : String.join("\n", IOUtils.readLines(json));
-        return readObjectFromString(string);
+        return readObjectFromString(IOUtils.toString(json));
     }
 
     @Override
@@ -122,63 +119,34 @@ public abstract class AbstractJacksonBackedStringSerializer<T> implements String
      * @throws IOException the io exception
      */
     protected String readJsonFrom(final InputStream json) throws IOException {
-        return isJsonFormat()
-            ? JsonValue.readHjson(IOUtils.toString(json, StandardCharsets.UTF_8)).toString()
-            : String.join("\n", IOUtils.readLines(json, StandardCharsets.UTF_8));
+        return IOUtils.toString(json, StandardCharsets.UTF_8);
     }
 
     @Override
     @SneakyThrows
     public void to(final OutputStream out, final T object) {
-        try (val writer = new StringWriter()) {
-            this.objectMapper.writer(this.prettyPrinter).writeValue(writer, object);
-            val hjsonString = isJsonFormat()
-                ? JsonValue.readHjson(writer.toString()).toString(Stringify.HJSON)
-                : writer.toString();
-            IOUtils.write(hjsonString, out, StandardCharsets.UTF_8);
-        }
+        getObjectWriter().writeValue(out, object);
     }
 
     @Override
     @SneakyThrows
     public void to(final Writer out, final T object) {
-        try (val writer = new StringWriter()) {
-            this.objectMapper.writer(this.prettyPrinter).writeValue(writer, object);
-
-            if (isJsonFormat()) {
-                val opt = this.prettyPrinter instanceof MinimalPrettyPrinter ? Stringify.PLAIN : Stringify.FORMATTED;
-                JsonValue.readHjson(writer.toString()).writeTo(out, opt);
-            } else {
-                IOUtils.write(writer.toString(), out);
-            }
-        }
+        getObjectWriter().writeValue(out, object);
     }
 
     @Override
     @SneakyThrows
     public void to(final File out, final T object) {
-        try (val writer = new StringWriter()) {
-            this.objectMapper.writer(this.prettyPrinter).writeValue(writer, object);
-
-            if (isJsonFormat()) {
-                try (val fileWriter = Files.newBufferedWriter(out.toPath(), StandardCharsets.UTF_8)) {
-                    val opt = this.prettyPrinter instanceof MinimalPrettyPrinter ? Stringify.PLAIN : Stringify.FORMATTED;
-                    JsonValue.readHjson(writer.toString()).writeTo(fileWriter, opt);
-                    fileWriter.flush();
-                }
-            } else {
-                FileUtils.write(out, writer.toString(), StandardCharsets.UTF_8);
-            }
+        try (val fileWriter = Files.newBufferedWriter(out.toPath(), StandardCharsets.UTF_8)) {
+            getObjectWriter().writeValue(fileWriter, object);
+            fileWriter.flush();
         }
     }
 
     @Override
     @SneakyThrows
     public String toString(final T object) {
-        try (val writer = new StringWriter()) {
-            to(writer, object);
-            return writer.toString();
-        }
+        return getObjectWriter().writeValueAsString(object);
     }
 
     /**
@@ -221,7 +189,8 @@ public abstract class AbstractJacksonBackedStringSerializer<T> implements String
     }
 
     /**
-     * Read object from json.
+     * Read object from json. Content is parsed as strict JSON (or YAML) in a single pass;
+     * only if that fails due to a syntax error is the content treated as Hjson and converted to JSON first.
      *
      * @param jsonString the json string
      * @return the type
@@ -229,6 +198,14 @@ public abstract class AbstractJacksonBackedStringSerializer<T> implements String
     protected T readObjectFromString(final String jsonString) {
         try {
             LOGGER.trace("Attempting to consume [{}]", jsonString);
+            if (isJsonFormat()) {
+                try {
+                    return this.objectMapper.readValue(jsonString, getTypeToSerialize());
+                } catch (final JsonParseException e) {
+                    LOGGER.trace("Unable to parse content as strict JSON; attempting to parse it as Hjson: [{}]", e.getMessage());
+                    return this.objectMapper.readValue(JsonValue.readHjson(jsonString).toString(), getTypeToSerialize());
+                }
+            }
             return this.objectMapper.readValue(jsonString, getTypeToSerialize());
         } catch (final Exception e) {
             LOGGER.error("Cannot read/parse [{}] to deserialize into type [{}]. This may be caused "
@@ -23,11 +23,13 @@ import org.apereo.cas.util.gen.ChainingPrincipalNameTransformerTests;
 import org.apereo.cas.util.gen.DefaultLongNumericGeneratorTests;
 import org.apereo.cas.util.gen.DefaultRandomStringGeneratorTests;
 import org.apereo.cas.util.gen.HexRandomStringGeneratorTests;
+import org.apereo.cas.util.gen.StripedSecureRandomTests;
 import org.apereo.cas.util.http.HttpMessageTests;
 import org.apereo.cas.util.http.SimpleHttpClientTests;
 import org.apereo.cas.util.io.CommunicationsManagerTests;
 import org.apereo.cas.util.io.GroovySmsSenderTests;
 import org.apereo.cas.util.io.RestfulSmsSenderTests;
+import org.apereo.cas.util.scripting.CompiledGroovyScriptCacheTests;
 
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.platform.suite.api.SelectClasses;
@@ -59,10 +61,12 @@ import org.junit.runner.RunWith;
     DefaultTicketCipherExecutorTests.class,
     EncodingUtilsTests.class,
     HexRandomStringGeneratorTests.class,
+    StripedSecureRandomTests.class,
     RegexUtilsTests.class,
     BinaryCipherExecutorTests.class,
     ResourceUtilsTests.class,
     ScriptingUtilsTests.class,
+    CompiledGroovyScriptCacheTests.class,
     GroovySmsSenderTests.class,
     RestfulSmsSenderTests.class,
     RandomUtilsTests.class,
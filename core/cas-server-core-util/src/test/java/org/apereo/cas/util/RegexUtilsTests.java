@@ -3,6 +3,9 @@ package org.apereo.cas.util;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.regex.Pattern;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -24,4 +27,20 @@ public class RegexUtilsTests {
     public void verifyNullRegex() {
         assertFalse(RegexUtils.isValidRegex(null));
     }
+
+    @Test
+    public void verifyPatternsAreCompiledOnce() {
+        val pattern = RegexUtils.createPattern("^cas-\\d+$");
+        assertSame(pattern, RegexUtils.createPattern("^cas-\\d+$"));
+        assertSame(pattern, RegexUtils.createPattern("^cas-\\d+$", Pattern.CASE_INSENSITIVE));
+        assertNotSame(pattern, RegexUtils.createPattern("^cas-\\d+$", 0));
+        assertTrue(RegexUtils.matches(pattern, "CAS-123"));
+    }
+
+    @Test
+    public void verifyInvalidPatternMatchesNothing() {
+        assertSame(RegexUtils.MATCH_NOTHING_PATTERN, RegexUtils.createPattern("***"));
+        assertSame(RegexUtils.MATCH_NOTHING_PATTERN, RegexUtils.createPattern(null));
+        assertSame(RegexUtils.concatenate(List.of("a", "b"), true), RegexUtils.concatenate(List.of("a", "b"), true));
+    }
 }
@@ -0,0 +1,85 @@
+package org.apereo.cas.util.gen;
+
+import org.apereo.cas.util.RandomUtils;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for {@link StripedSecureRandom}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public class StripedSecureRandomTests {
+
+    @Test
+    public void verifyStripeCountIsPowerOfTwo() {
+        assertEquals(1, new StripedSecureRandom(1, StripedSecureRandom.DEFAULT_RESEED_INTERVAL).getStripeCount());
+        assertEquals(4, new StripedSecureRandom(3, StripedSecureRandom.DEFAULT_RESEED_INTERVAL).getStripeCount());
+        assertEquals(8, new StripedSecureRandom(8, StripedSecureRandom.DEFAULT_RESEED_INTERVAL).getStripeCount());
+    }
+
+    @Test
+    public void verifyRandomStringsAreUniqueAcrossThreads() throws Exception {
+        val generator = new Base64RandomStringGenerator(RandomStringGenerator.DEFAULT_LENGTH, new StripedSecureRandom());
+        val values = Collections.synchronizedSet(new HashSet<String>());
+        val executor = Executors.newFixedThreadPool(8);
+        try {
+            IntStream.range(0, 10_000).forEach(i -> executor.execute(() -> values.add(generator.getNewString())));
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+        assertEquals(10_000, values.size());
+        assertNotNull(generator.getAlgorithm());
+    }
+
+    @Test
+    public void verifyStripesAreReseeded() {
+        val seedSource = spy(RandomUtils.getNativeInstance());
+        val random = new StripedSecureRandom(1, Duration.ZERO, seedSource, Runnable::run);
+        val bytes = new byte[32];
+        random.nextBytes(bytes);
+        random.nextBytes(bytes);
+        verify(seedSource, times(2)).generateSeed(anyInt());
+
+        random.reseed();
+        verify(seedSource, times(3)).generateSeed(anyInt());
+    }
+
+    @Test
+    public void verifyStripesAreNotReseededWithinInterval() {
+        val seedSource = spy(RandomUtils.getNativeInstance());
+        val random = new StripedSecureRandom(1, Duration.ofDays(1), seedSource, Runnable::run);
+        val bytes = new byte[32];
+        IntStream.range(0, 10).forEach(i -> random.nextBytes(bytes));
+        verify(seedSource, never()).generateSeed(anyInt());
+    }
+
+    @Test
+    public void verifyStripesAreReseededInBackground() {
+        val seedSource = spy(RandomUtils.getNativeInstance());
+        val tasks = new ArrayList<Runnable>();
+        val random = new StripedSecureRandom(1, Duration.ZERO, seedSource, tasks::add);
+        val bytes = new byte[32];
+        random.nextBytes(bytes);
+        assertEquals(1, tasks.size());
+        verify(seedSource, never()).generateSeed(anyInt());
+
+        tasks.forEach(Runnable::run);
+        verify(seedSource, times(1)).generateSeed(anyInt());
+    }
+}
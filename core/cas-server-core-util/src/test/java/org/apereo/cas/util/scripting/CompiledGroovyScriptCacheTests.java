@@ -0,0 +1,103 @@
+package org.apereo.cas.util.scripting;
+
+import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.util.DigestUtils;
+
+import groovy.lang.GroovyClassLoader;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link CompiledGroovyScriptCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public class CompiledGroovyScriptCacheTests {
+
+    @Test
+    public void verifyScriptsShareCompiledClass() {
+        val cache = new CompiledGroovyScriptCache(10);
+        val first = cache.createScript("return name.toUpperCase()");
+        val second = cache.createScript("return name.toUpperCase()");
+        assertNotSame(first, second);
+        assertSame(first.getClass(), second.getClass());
+        assertNotSame(first.getClass(), cache.createScript("return name").getClass());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void verifyEvictedScriptsAreNotRetained() {
+        val cache = new CompiledGroovyScriptCache(1);
+        val first = cache.createScript("return 1");
+        val second = cache.createScript("return 2");
+        assertEquals(1, cache.size());
+
+        val firstLoader = (GroovyClassLoader) first.getClass().getClassLoader().getParent();
+        val secondLoader = (GroovyClassLoader) second.getClass().getClassLoader().getParent();
+        assertNotSame(firstLoader, secondLoader);
+        assertFalse(Arrays.asList(firstLoader.getLoadedClasses()).contains(second.getClass()));
+        assertFalse(Arrays.asList(secondLoader.getLoadedClasses()).contains(first.getClass()));
+        cache.clear();
+        assertNotSame(first.getClass(), cache.createScript("return 1").getClass());
+    }
+
+    @Test
+    public void verifyExecutionStatistics() {
+        val script = ScriptingUtils.parseGroovyShellScript("return name + '-' + name.length()");
+        val result = ScriptingUtils.executeGroovyShellScript(script, CollectionUtils.wrap("name", "casuser"), String.class);
+        assertEquals("casuser-7", result);
+        val statistics = CompiledGroovyScriptCache.getInstance().getStatistics();
+        assertTrue(statistics.values().stream().anyMatch(s -> s.getCount() >= 1 && s.getMaxNanos() > 0));
+    }
+
+    @Test
+    public void verifyStatisticsListeners() {
+        val cache = new CompiledGroovyScriptCache(1);
+        val cached = new ArrayList<String>();
+        val removed = new ArrayList<String>();
+        cache.addStatisticsListener(new CompiledGroovyScriptCache.StatisticsListener() {
+            @Override
+            public void scriptCached(final String digest, final CompiledGroovyScriptCache.ExecutionStatistics statistics) {
+                cached.add(digest);
+            }
+
+            @Override
+            public void scriptRemoved(final String digest) {
+                removed.add(digest);
+            }
+        });
+        val script = cache.createScript("return 1");
+        cache.execute(script, script::run);
+        cache.createScript("return 2");
+        assertEquals(1, cache.size());
+        assertEquals(List.of(DigestUtils.sha256("return 1"), DigestUtils.sha256("return 2")), cached);
+        assertEquals(List.of(DigestUtils.sha256("return 1")), removed);
+
+        val replayed = new ArrayList<String>();
+        cache.addStatisticsListener(new CompiledGroovyScriptCache.StatisticsListener() {
+            @Override
+            public void scriptCached(final String digest, final CompiledGroovyScriptCache.ExecutionStatistics statistics) {
+                replayed.add(digest);
+            }
+
+            @Override
+            public void scriptRemoved(final String digest) {
+            }
+        });
+        assertEquals(List.of(DigestUtils.sha256("return 2")), replayed);
+    }
+
+    @Test
+    public void verifyInlineScriptEngine() {
+        val result = ScriptingUtils.executeGroovyScriptEngine("return attributes.get('uid')",
+            CollectionUtils.wrap("attributes", CollectionUtils.wrap("uid", "casuser")), String.class);
+        assertEquals("casuser", result);
+    }
+}
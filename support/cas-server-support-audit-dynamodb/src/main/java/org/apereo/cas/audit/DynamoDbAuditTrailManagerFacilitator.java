@@ -1,6 +1,7 @@
 package org.apereo.cas.audit;
 
 import org.apereo.cas.configuration.model.support.dynamodb.AuditDynamoDbProperties;
+import org.apereo.cas.dynamodb.DynamoDbBatchWriter;
 import org.apereo.cas.util.DateTimeUtils;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
@@ -15,8 +16,10 @@ import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
 import com.amazonaws.services.dynamodbv2.model.KeyType;
 import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
 import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
 import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
 import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 import com.amazonaws.services.dynamodbv2.util.TableUtils;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +35,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * This is {@link DynamoDbAuditTrailManagerFacilitator}.
@@ -86,6 +90,19 @@ public class DynamoDbAuditTrailManagerFacilitator {
         LOGGER.debug("Record added with result [{}]", putItemResult);
     }
 
+    /**
+     * Save records in batches, retrying items that are left unprocessed with a backoff.
+     *
+     * @param records the records
+     */
+    public void save(final List<AuditActionContext> records) {
+        val requests = records.stream()
+            .map(record -> new WriteRequest(new PutRequest(buildTableAttributeValuesMap(record))))
+            .collect(Collectors.toList());
+        val saved = new DynamoDbBatchWriter(amazonDynamoDBClient).write(dynamoDbProperties.getTableName(), requests);
+        LOGGER.debug("Saved [{}] of [{}] audit record(s)", saved, requests.size());
+    }
+
     /**
      * Remove all.
      */
@@ -33,7 +33,9 @@ public class CasSupportDynamoDbAuditConfiguration {
     @ConditionalOnMissingBean(name = "dynamoDbAuditTrailManager")
     public AuditTrailManager dynamoDbAuditTrailManager() {
         val db = casProperties.getAudit().getDynamoDb();
-        return new DynamoDbAuditTrailManager(dynamoDbAuditTrailManagerFacilitator(), db.isAsynchronous());
+        val manager = new DynamoDbAuditTrailManager(dynamoDbAuditTrailManagerFacilitator(), db.isAsynchronous());
+        manager.configureQueue(casProperties.getAudit().getQueue());
+        return manager;
     }
 
     @RefreshScope
@@ -0,0 +1,100 @@
+package org.apereo.cas.audit;
+
+import org.apereo.cas.audit.spi.AbstractAuditTrailManager;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.support.JdbcAuditTrailManager;
+import org.apereo.inspektr.common.Cleanable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This is {@link BatchingJdbcAuditTrailManager}. Writes audit records into the audit table
+ * using JDBC batch inserts, while delegating single inserts, queries and clean-up
+ * operations to the underlying {@link JdbcAuditTrailManager}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Slf4j
+@Getter
+public class BatchingJdbcAuditTrailManager extends AbstractAuditTrailManager implements Cleanable {
+    private static final String SQL_INSERT = "INSERT INTO %s "
+        + "(AUD_USER, AUD_CLIENT_IP, AUD_SERVER_IP, AUD_RESOURCE, AUD_ACTION, APPLIC_CD, AUD_DATE) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcAuditTrailManager delegate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String tableName;
+
+    private final int columnLength;
+
+    public BatchingJdbcAuditTrailManager(final JdbcAuditTrailManager delegate,
+                                         final TransactionTemplate transactionTemplate,
+                                         final DataSource dataSource,
+                                         final String tableName,
+                                         final int columnLength,
+                                         final boolean asynchronous) {
+        super(asynchronous);
+        this.delegate = delegate;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.tableName = tableName;
+        this.columnLength = columnLength;
+    }
+
+    @Override
+    protected void saveAuditRecord(final AuditActionContext audit) {
+        this.delegate.record(audit);
+    }
+
+    @Override
+    protected void saveAuditRecords(final List<AuditActionContext> audits) {
+        val sql = String.format(SQL_INSERT, this.tableName);
+        this.transactionTemplate.execute(status -> this.jdbcTemplate.batchUpdate(sql, audits, audits.size(), (ps, audit) -> {
+            ps.setString(1, trim(audit.getPrincipal()));
+            ps.setString(2, audit.getClientIpAddress());
+            ps.setString(3, audit.getServerIpAddress());
+            ps.setString(4, trim(audit.getResourceOperatedUpon()));
+            ps.setString(5, audit.getActionPerformed());
+            ps.setString(6, audit.getApplicationCode());
+            ps.setTimestamp(7, new Timestamp(audit.getWhenActionWasPerformed().getTime()));
+        }));
+        LOGGER.trace("Inserted [{}] audit record(s) into [{}]", audits.size(), this.tableName);
+    }
+
+    @Override
+    public Set<? extends AuditActionContext> getAuditRecordsSince(final LocalDate localDate) {
+        return this.delegate.getAuditRecordsSince(localDate);
+    }
+
+    @Override
+    public void removeAll() {
+        this.delegate.removeAll();
+    }
+
+    @Override
+    public void clean() {
+        this.delegate.clean();
+    }
+
+    private String trim(final String value) {
+        if (value != null && this.columnLength > 0 && value.length() > this.columnLength) {
+            return value.substring(0, this.columnLength);
+        }
+        return value;
+    }
+}
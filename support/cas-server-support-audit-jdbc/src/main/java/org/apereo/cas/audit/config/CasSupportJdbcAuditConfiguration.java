@@ -1,6 +1,7 @@
 package org.apereo.cas.audit.config;
 
 import org.apereo.cas.audit.AuditTrailExecutionPlanConfigurer;
+import org.apereo.cas.audit.BatchingJdbcAuditTrailManager;
 import org.apereo.cas.audit.spi.entity.AuditTrailEntity;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.audit.AuditJdbcProperties;
@@ -61,13 +62,17 @@ public class CasSupportJdbcAuditConfiguration {
     @Bean
     public AuditTrailManager jdbcAuditTrailManager() {
         val jdbc = casProperties.getAudit().getJdbc();
+        val tableName = getAuditTableNameFrom(jdbc);
         val t = new JdbcAuditTrailManager(inspektrAuditTransactionTemplate());
         t.setCleanupCriteria(auditCleanupCriteria());
         t.setDataSource(inspektrAuditTrailDataSource());
-        t.setAsynchronous(jdbc.isAsynchronous());
+        t.setAsynchronous(false);
         t.setColumnLength(jdbc.getColumnLength());
-        t.setTableName(getAuditTableNameFrom(jdbc));
-        return t;
+        t.setTableName(tableName);
+        val manager = new BatchingJdbcAuditTrailManager(t, inspektrAuditTransactionTemplate(),
+            inspektrAuditTrailDataSource(), tableName, jdbc.getColumnLength(), jdbc.isAsynchronous());
+        manager.configureQueue(casProperties.getAudit().getQueue());
+        return manager;
     }
 
     @ConditionalOnMissingBean(name = "jdbcAuditTrailExecutionPlanConfigurer")
@@ -18,6 +18,7 @@ import org.apereo.inspektr.audit.AuditActionContext;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -52,6 +53,30 @@ public class RestAuditTrailManager extends AbstractAuditTrailManager {
         }
     }
 
+    /**
+     * Send the batch of audit records to the REST endpoint as a JSON array, if batches are enabled;
+     * otherwise, each audit record is sent in a request of its own.
+     *
+     * @param audits audit records to be saved
+     */
+    @Override
+    protected void saveAuditRecords(final List<AuditActionContext> audits) {
+        if (!properties.isBatched() || audits.size() == 1) {
+            audits.forEach(this::saveAuditRecord);
+            return;
+        }
+        HttpResponse response = null;
+        try {
+            val auditJson = MAPPER.writeValueAsString(audits);
+            LOGGER.debug("Sending [{}] audit action contexts to REST endpoint [{}]", audits.size(), properties.getUrl());
+            response = HttpUtils.executePost(properties.getUrl(), properties.getBasicAuthUsername(), properties.getBasicAuthPassword(), auditJson);
+        } catch (final Exception e) {
+            LOGGER.error(e.getMessage(), e);
+        } finally {
+            HttpUtils.close(response);
+        }
+    }
+
     @Override
     public void removeAll() {
     }
@@ -27,7 +27,9 @@ public class CasSupportRestAuditConfiguration {
     @Bean
     public AuditTrailManager restAuditTrailManager() {
         val rest = casProperties.getAudit().getRest();
-        return new RestAuditTrailManager(rest);
+        val manager = new RestAuditTrailManager(rest);
+        manager.configureQueue(casProperties.getAudit().getQueue());
+        return manager;
     }
 
     @Bean
@@ -9,6 +9,8 @@ import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.serialization.TicketSerializationManager;
 import org.apereo.cas.util.CoreTicketUtils;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.val;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,13 +39,17 @@ public class CassandraTicketRegistryConfiguration {
     @Qualifier("ticketSerializationManager")
     private ObjectProvider<TicketSerializationManager> ticketSerializationManager;
 
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
     @Autowired
     @Bean
     public TicketRegistry ticketRegistry(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog) {
         val cassandra = casProperties.getTicket().getRegistry().getCassandra();
         val sessionFactory = cassandraTicketRegistrySessionFactory();
         val registry = new CassandraTicketRegistry(ticketCatalog, sessionFactory,
-            cassandra, ticketSerializationManager.getIfAvailable());
+            cassandra, ticketSerializationManager.getIfAvailable(),
+            meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
         registry.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(cassandra.getCrypto(), "cassandra"));
         return registry;
     }
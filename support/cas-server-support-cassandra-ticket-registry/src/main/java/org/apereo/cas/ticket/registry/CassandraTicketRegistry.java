@@ -5,25 +5,47 @@ import org.apereo.cas.configuration.model.support.cassandra.ticketregistry.Cassa
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.serialization.TicketSerializationManager;
 
 import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.DisposableBean;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 /**
  * This is {@link CassandraTicketRegistry}.
+ * <p>
+ * Statements are prepared once per ticket table and executed through the driver's
+ * asynchronous API; since bound statements carry their partition key, requests are
+ * routed directly to the replicas that own the ticket. Operations that touch many
+ * tickets, such as removing the children of a ticket-granting ticket or reading
+ * all tickets, are submitted together and awaited as a group. The latency of each
+ * kind of operation is recorded as a timer, with a percentile histogram, named
+ * {@value #METRIC_NAME} and tagged by {@code operation}.
  *
  * @author Misagh Moayyed
  * @author doomviking
@@ -31,24 +53,42 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 public class CassandraTicketRegistry extends AbstractTicketRegistry implements DisposableBean {
+    /**
+     * Name of the timers that record the latency of registry operations.
+     */
+    public static final String METRIC_NAME = "cas.ticket.registry.cassandra";
 
     private final TicketCatalog ticketCatalog;
     private final CassandraTicketRegistryProperties properties;
     private final Session cassandraSession;
     private final TicketSerializationManager ticketSerializationManager;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TicketStatements> statements = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
 
     public CassandraTicketRegistry(final TicketCatalog ticketCatalog,
                                    final CassandraSessionFactory cassandraSessionFactory,
                                    final CassandraTicketRegistryProperties properties,
-                                   final TicketSerializationManager ticketSerializationManager) {
+                                   final TicketSerializationManager ticketSerializationManager,
+                                   final MeterRegistry meterRegistry) {
         this.ticketCatalog = ticketCatalog;
         this.properties = properties;
         this.cassandraSession = cassandraSessionFactory.getSession();
         this.ticketSerializationManager = ticketSerializationManager;
+        this.meterRegistry = meterRegistry;
 
         createTablesIfNecessary();
     }
 
+    private static CassandraTicketHolder toTicketHolder(final Row row) {
+        val id = row.get("id", String.class);
+        val data = row.get("data", String.class);
+        val type = row.get("type", String.class);
+        return new CassandraTicketHolder(id, data, type);
+    }
+
     @Override
     public Ticket getTicket(final String ticketId, final Predicate<Ticket> predicate) {
         LOGGER.trace("Locating ticket  [{}]", ticketId);
@@ -65,12 +105,12 @@ public class CassandraTicketRegistry extends AbstractTicketRegistry implements D
         }
 
         val holder = findCassandraTicketBy(definition, encodedTicketId);
-        if (holder == null || holder.isEmpty()) {
+        if (holder == null) {
             LOGGER.debug("Ticket [{}] could not be found in Cassandra", encodedTicketId);
             return null;
         }
 
-        val deserialized = deserialize(holder.iterator().next());
+        val deserialized = deserialize(holder);
         val result = decodeTicket(deserialized);
         if (result != null && predicate.test(result)) {
             return result;
@@ -98,54 +138,51 @@ public class CassandraTicketRegistry extends AbstractTicketRegistry implements D
 
     @Override
     public Collection<Ticket> getTickets() {
-        return this.ticketCatalog.findAll()
+        val results = this.ticketCatalog.findAll()
             .stream()
+            .filter(definition -> StringUtils.isNotBlank(definition.getProperties().getStorageName()))
             .map(definition -> {
-                val results = findCassandraTicketBy(definition);
-                return results
-                    .stream()
-                    .map(holder -> {
-                        val deserialized = deserialize(holder);
-                        return decodeTicket(deserialized);
-                    })
-                    .collect(Collectors.toSet());
+                val select = getStatements(definition).getSelectAll().bind();
+                LOGGER.trace("Attempting to locate tickets via query [{}]", select);
+                return executeAsync("selectAll", select);
             })
-            .flatMap(Set::stream)
+            .collect(Collectors.toList());
+        return results
+            .stream()
+            .map(ResultSetFuture::getUninterruptibly)
+            .flatMap(resultSet -> StreamSupport.stream(resultSet.spliterator(), false))
+            .map(row -> decodeTicket(deserialize(toTicketHolder(row))))
             .filter(Objects::nonNull)
             .collect(Collectors.toSet());
     }
 
     @Override
     public boolean deleteSingleTicket(final String ticketIdToDelete) {
-        val ticketId = encodeTicketId(ticketIdToDelete);
-        LOGGER.debug("Deleting ticket [{}]", ticketId);
+        val delete = deleteTicketAsync(ticketIdToDelete);
+        if (delete == null) {
+            return false;
+        }
         try {
-            val definition = this.ticketCatalog.find(ticketIdToDelete);
-            if (definition == null) {
-                LOGGER.debug("Ticket definition [{}] could not be found in the ticket catalog", ticketId);
-                return false;
-            }
-            val delete = QueryBuilder.delete()
-                .from(this.properties.getKeyspace(), definition.getProperties().getStorageName())
-                .where(QueryBuilder.eq("id", ticketId))
-                .setConsistencyLevel(getConsistencyLevel());
-            LOGGER.trace("Attempting to delete ticket via query [{}]", delete);
-            cassandraSession.execute(delete);
+            delete.getUninterruptibly();
             return true;
         } catch (final Exception e) {
-            LOGGER.error("Failed deleting [{}]: [{}]", ticketId, e);
+            LOGGER.error("Failed deleting [{}]: [{}]", ticketIdToDelete, e);
         }
         return false;
     }
 
     @Override
     public long deleteAll() {
-        this.ticketCatalog.findAll()
-            .forEach(definition -> {
+        val truncates = this.ticketCatalog.findAll()
+            .stream()
+            .filter(definition -> StringUtils.isNotBlank(definition.getProperties().getStorageName()))
+            .map(definition -> {
                 val delete = QueryBuilder.truncate(this.properties.getKeyspace(), definition.getProperties().getStorageName());
                 LOGGER.trace("Attempting to delete all via query [{}]", delete);
-                cassandraSession.execute(delete);
-            });
+                return executeAsync("truncate", delete);
+            })
+            .collect(Collectors.toList());
+        truncates.forEach(ResultSetFuture::getUninterruptibly);
         return -1;
     }
 
@@ -170,29 +207,94 @@ public class CassandraTicketRegistry extends AbstractTicketRegistry implements D
         }
         return ttl;
     }
-    private Collection<CassandraTicketHolder> findCassandraTicketBy(final TicketDefinition definition) {
-        return findCassandraTicketBy(definition, null);
+
+    @Override
+    protected int deleteChildren(final TicketGrantingTicket ticket) {
+        val services = ticket.getServices();
+        if (services == null || services.isEmpty()) {
+            return 0;
+        }
+        val deletes = new ArrayList<ResultSetFuture>(services.size());
+        services.keySet().forEach(ticketId -> {
+            val delete = deleteTicketAsync(ticketId);
+            if (delete != null) {
+                deletes.add(delete);
+            }
+        });
+        return (int) deletes.stream()
+            .filter(delete -> {
+                try {
+                    delete.getUninterruptibly();
+                    return true;
+                } catch (final Exception e) {
+                    LOGGER.error("Unable to remove child ticket of [{}]: [{}]", ticket.getId(), e.getMessage());
+                    return false;
+                }
+            })
+            .count();
     }
-    
-    private Collection<CassandraTicketHolder> findCassandraTicketBy(final TicketDefinition definition, final String ticketId) {
-        val select = QueryBuilder.select().all()
-            .from(this.properties.getKeyspace(), definition.getProperties().getStorageName());
-        if (StringUtils.isNotBlank(ticketId)) {
-            select.where(QueryBuilder.eq("id", ticketId))
-                .limit(1);
+
+    private ResultSetFuture deleteTicketAsync(final String ticketIdToDelete) {
+        val ticketId = encodeTicketId(ticketIdToDelete);
+        LOGGER.debug("Deleting ticket [{}]", ticketId);
+        val definition = this.ticketCatalog.find(ticketIdToDelete);
+        if (definition == null) {
+            LOGGER.debug("Ticket definition [{}] could not be found in the ticket catalog", ticketId);
+            return null;
         }
-        select.setConsistencyLevel(getConsistencyLevel());
+        val delete = getStatements(definition).getDelete().bind().setString("id", ticketId);
+        LOGGER.trace("Attempting to delete ticket via query [{}]", delete);
+        return executeAsync("delete", delete);
+    }
+
+    private CassandraTicketHolder findCassandraTicketBy(final TicketDefinition definition, final String ticketId) {
+        val select = getStatements(definition).getSelect().bind().setString("id", ticketId);
         LOGGER.trace("Attempting to locate ticket via query [{}]", select);
-        val results = cassandraSession.execute(select);
-        return results.all()
-            .stream()
-            .map(row -> {
-                val id = row.get("id", String.class);
-                val data = row.get("data", String.class);
-                val type = row.get("type", String.class);
-                return new CassandraTicketHolder(id, data, type);
-            })
-            .collect(Collectors.toList());
+        val row = executeAsync("select", select).getUninterruptibly().one();
+        return row == null ? null : toTicketHolder(row);
+    }
+
+    private ResultSetFuture executeAsync(final String operation, final Statement statement) {
+        val timer = timers.computeIfAbsent(operation, op -> Timer.builder(METRIC_NAME)
+            .description("Latency of Cassandra ticket registry operations")
+            .tag("operation", op)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+        val start = System.nanoTime();
+        val future = cassandraSession.executeAsync(statement);
+        future.addListener(() -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS), MoreExecutors.directExecutor());
+        return future;
+    }
+
+    private TicketStatements getStatements(final TicketDefinition definition) {
+        return statements.computeIfAbsent(definition.getProperties().getStorageName(), this::prepareStatements);
+    }
+
+    private TicketStatements prepareStatements(final String tableName) {
+        val keyspace = this.properties.getKeyspace();
+        LOGGER.debug("Preparing statements for Cassandra table [{}.{}]", keyspace, tableName);
+        val insert = QueryBuilder.insertInto(keyspace, tableName)
+            .value("id", QueryBuilder.bindMarker("id"))
+            .value("data", QueryBuilder.bindMarker("data"))
+            .value("type", QueryBuilder.bindMarker("type"))
+            .using(QueryBuilder.ttl(QueryBuilder.bindMarker("ttl")));
+        val update = QueryBuilder.update(keyspace, tableName)
+            .with(QueryBuilder.set("data", QueryBuilder.bindMarker("data")))
+            .where(QueryBuilder.eq("id", QueryBuilder.bindMarker("id")))
+            .and(QueryBuilder.eq("type", QueryBuilder.bindMarker("type")))
+            .using(QueryBuilder.ttl(QueryBuilder.bindMarker("ttl")));
+        val select = QueryBuilder.select().all()
+            .from(keyspace, tableName)
+            .where(QueryBuilder.eq("id", QueryBuilder.bindMarker("id")))
+            .limit(1);
+        val selectAll = QueryBuilder.select().all().from(keyspace, tableName);
+        val delete = QueryBuilder.delete().from(keyspace, tableName)
+            .where(QueryBuilder.eq("id", QueryBuilder.bindMarker("id")));
+        return new TicketStatements(prepare(insert), prepare(update), prepare(select), prepare(selectAll), prepare(delete));
+    }
+
+    private PreparedStatement prepare(final RegularStatement statement) {
+        return cassandraSession.prepare(statement).setConsistencyLevel(getConsistencyLevel());
     }
 
     private void createTablesIfNecessary() {
@@ -249,23 +351,28 @@ public class CassandraTicketRegistry extends AbstractTicketRegistry implements D
         val encTicket = encodeTicket(ticket);
         val data = ticketSerializationManager.serializeTicket(encTicket);
         val ttl = getTimeToLive(ticket);
-        var insert = (Statement) null;
-        if (inserting) {
-            insert = QueryBuilder.insertInto(this.properties.getKeyspace(), metadata.getProperties().getStorageName())
-                .value("id", encTicket.getId())
-                .value("data", data)
-                .value("type", encTicket.getClass().getName())
-                .using(QueryBuilder.ttl(ttl))
-                .setConsistencyLevel(getConsistencyLevel());
-        } else {
-            insert = QueryBuilder.update(this.properties.getKeyspace(), metadata.getProperties().getStorageName())
-                .with(QueryBuilder.set("data", data))
-                .where(QueryBuilder.eq("id", encTicket.getId())).and(QueryBuilder.eq("type", encTicket.getClass().getName()))
-                .using(QueryBuilder.ttl(ttl))
-                .setConsistencyLevel(getConsistencyLevel());
-        }
-        LOGGER.trace("Attempting to locate ticket via query [{}]", insert);
-        cassandraSession.execute(insert);
+        val ticketStatements = getStatements(metadata);
+        val insert = (inserting ? ticketStatements.getInsert() : ticketStatements.getUpdate())
+            .bind()
+            .setString("id", encTicket.getId())
+            .setString("data", data)
+            .setString("type", encTicket.getClass().getName())
+            .setInt("ttl", ttl);
+        LOGGER.trace("Attempting to add ticket via query [{}]", insert);
+        executeAsync(inserting ? "insert" : "update", insert).getUninterruptibly();
         LOGGER.debug("Added ticket [{}]", encTicket.getId());
     }
+
+    /**
+     * Statements prepared for a ticket table.
+     */
+    @RequiredArgsConstructor
+    @Getter
+    private static class TicketStatements {
+        private final PreparedStatement insert;
+        private final PreparedStatement update;
+        private final PreparedStatement select;
+        private final PreparedStatement selectAll;
+        private final PreparedStatement delete;
+    }
 }
@@ -22,16 +22,25 @@ import org.apereo.cas.config.CassandraTicketRegistryTicketCatalogConfiguration;
 import org.apereo.cas.config.support.CasWebApplicationServiceFactoryConfiguration;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.logout.config.CasCoreLogoutConfiguration;
+import org.apereo.cas.mock.MockTicketGrantingTicket;
 import org.apereo.cas.util.junit.EnabledIfContinuousIntegration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
 import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.test.context.TestPropertySource;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * This is {@link CassandraTicketRegistryTests}.
  *
@@ -61,6 +70,7 @@ import org.springframework.test.context.TestPropertySource;
     CasCoreAuthenticationPrincipalConfiguration.class,
     CasCoreAuthenticationSupportConfiguration.class,
     CasPersonDirectoryConfiguration.class,
+    CassandraTicketRegistryTests.CassandraTicketRegistryTestConfiguration.class,
     RefreshAutoConfiguration.class
 })
 @TestPropertySource(properties = {
@@ -74,8 +84,31 @@ public class CassandraTicketRegistryTests extends BaseTicketRegistryTests {
     @Qualifier("ticketRegistry")
     private TicketRegistry ticketRegistry;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     public TicketRegistry getNewTicketRegistry() {
         return this.ticketRegistry;
     }
+
+    @Test
+    public void verifyOperationLatencyIsRecorded() {
+        val ticket = new MockTicketGrantingTicket("casuser");
+        ticketRegistry.addTicket(ticket);
+        assertNotNull(ticketRegistry.getTicket(ticket.getId()));
+        assertEquals(1, ticketRegistry.deleteTicket(ticket.getId()));
+
+        assertTrue(meterRegistry.get(CassandraTicketRegistry.METRIC_NAME).tag("operation", "insert").timer().count() > 0);
+        assertTrue(meterRegistry.get(CassandraTicketRegistry.METRIC_NAME).tag("operation", "select").timer().count() > 0);
+        assertTrue(meterRegistry.get(CassandraTicketRegistry.METRIC_NAME).tag("operation", "delete").timer().count() > 0);
+    }
+
+    @TestConfiguration
+    public static class CassandraTicketRegistryTestConfiguration {
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
 }
@@ -48,6 +48,29 @@ public interface ConsentDecisionBuilder extends Serializable {
     boolean doesAttributeReleaseRequireConsent(ConsentDecision decision,
                                                Map<String, List<Object>> attributes);
 
+    /**
+     * Is consent decision valid for attributes, given a digest of the decision?
+     *
+     * @param digest     the digest of the decision
+     * @param attributes the attributes
+     * @return true /false
+     */
+    default boolean doesAttributeReleaseRequireConsent(final ConsentDecisionDigest digest,
+                                                       final Map<String, List<Object>> attributes) {
+        return doesAttributeReleaseRequireConsent(digest.getDecision(), attributes);
+    }
+
+    /**
+     * Decode the attributes of the consent decision once and digest them,
+     * so the decision may be evaluated again without decoding.
+     *
+     * @param decision the decision
+     * @return the consent decision digest
+     */
+    default ConsentDecisionDigest digest(final ConsentDecision decision) {
+        return new ConsentDecisionDigest(decision, null, null);
+    }
+
     /**
      * Gets consentable attributes from the consent decision.
      * The operation is allowed to change attributes and/or unpack
@@ -0,0 +1,25 @@
+package org.apereo.cas.consent;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * This is {@link ConsentDecisionDigest}. It carries a consent decision along with
+ * digests of the attribute names and values that were consented to, computed once
+ * when the decision is decoded, so the decision can be evaluated again without
+ * decoding its attributes.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Getter
+@RequiredArgsConstructor
+@ToString
+public class ConsentDecisionDigest {
+    private final ConsentDecision decision;
+
+    private final String attributeNamesDigest;
+
+    private final String attributeValuesDigest;
+}
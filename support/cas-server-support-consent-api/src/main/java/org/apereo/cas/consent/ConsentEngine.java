@@ -47,6 +47,17 @@ public interface ConsentEngine extends Serializable {
                                         RegisteredService registeredService,
                                         Authentication authentication);
 
+    /**
+     * Delete consent decision.
+     *
+     * @param decisionId the decision id
+     * @param principal  the principal
+     * @return true /false
+     */
+    default boolean deleteConsentDecision(final long decisionId, final String principal) {
+        return getConsentRepository().deleteConsentDecision(decisionId, principal);
+    }
+
     /**
      * Gets consentable attributes.
      *
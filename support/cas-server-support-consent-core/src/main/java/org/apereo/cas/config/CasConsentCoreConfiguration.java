@@ -3,6 +3,7 @@ package org.apereo.cas.config;
 import org.apereo.cas.audit.AuditTrailRecordResolutionPlan;
 import org.apereo.cas.audit.AuditTrailRecordResolutionPlanConfigurer;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.consent.AttributeConsentReportEndpoint;
 import org.apereo.cas.consent.AttributeReleaseConsentCipherExecutor;
 import org.apereo.cas.consent.ConsentDecisionBuilder;
@@ -55,7 +56,9 @@ public class CasConsentCoreConfiguration implements AuditTrailRecordResolutionPl
     @Bean
     @RefreshScope
     public ConsentEngine consentEngine() {
-        return new DefaultConsentEngine(consentRepository(), consentDecisionBuilder());
+        val consent = casProperties.getConsent();
+        return new DefaultConsentEngine(consentRepository(), consentDecisionBuilder(),
+            consent.getDecisionCacheMaximumSize(), Beans.newDuration(consent.getDecisionCacheExpiration()));
     }
 
     @ConditionalOnMissingBean(name = "consentCipherExecutor")
@@ -57,7 +57,7 @@ public abstract class BaseConsentRepository implements ConsentRepository {
             .stream()
             .anyMatch(d -> d.getId() == decision.getId());
         if (consent) {
-            getConsentDecisions().remove(decision);
+            getConsentDecisions().removeIf(d -> d.getId() == decision.getId());
         } else {
             decision.setId(RandomUtils.getNativeInstance().nextInt());
         }
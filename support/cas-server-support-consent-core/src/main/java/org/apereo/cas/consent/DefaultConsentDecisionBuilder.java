@@ -57,27 +57,32 @@ public class DefaultConsentDecisionBuilder implements ConsentDecisionBuilder {
     @Override
     public boolean doesAttributeReleaseRequireConsent(final ConsentDecision decision,
                                                       final Map<String, List<Object>> attributes) {
-        val consentAttributes = getConsentableAttributesFrom(decision);
+        return doesAttributeReleaseRequireConsent(digest(decision), attributes);
+    }
 
-        if (decision.getOptions() == ConsentReminderOptions.ATTRIBUTE_NAME) {
-            val consentAttributesHash = sha512ConsentAttributeNames(consentAttributes);
-            val currentAttributesHash = sha512ConsentAttributeNames(attributes);
-            return !StringUtils.equals(consentAttributesHash, currentAttributesHash);
+    @Override
+    public boolean doesAttributeReleaseRequireConsent(final ConsentDecisionDigest digest,
+                                                      final Map<String, List<Object>> attributes) {
+        val options = digest.getDecision().getOptions();
+        if (options == ConsentReminderOptions.ATTRIBUTE_NAME) {
+            return !StringUtils.equals(digest.getAttributeNamesDigest(), sha512ConsentAttributeNames(attributes));
         }
 
-        if (decision.getOptions() == ConsentReminderOptions.ATTRIBUTE_VALUE) {
-            val consentAttributesHash = sha512ConsentAttributeNames(consentAttributes);
-            val currentAttributesHash = sha512ConsentAttributeNames(attributes);
-
-            val consentAttributeValuesHash = sha512ConsentAttributeValues(consentAttributes);
-            val currentAttributeValuesHash = sha512ConsentAttributeValues(attributes);
-
-            return !StringUtils.equals(consentAttributesHash, currentAttributesHash)
-                || !StringUtils.equals(consentAttributeValuesHash, currentAttributeValuesHash);
+        if (options == ConsentReminderOptions.ATTRIBUTE_VALUE) {
+            return !StringUtils.equals(digest.getAttributeNamesDigest(), sha512ConsentAttributeNames(attributes))
+                || !StringUtils.equals(digest.getAttributeValuesDigest(), sha512ConsentAttributeValues(attributes));
         }
         return true;
     }
 
+    @Override
+    public ConsentDecisionDigest digest(final ConsentDecision decision) {
+        val consentAttributes = getConsentableAttributesFrom(decision);
+        return new ConsentDecisionDigest(decision,
+            sha512ConsentAttributeNames(consentAttributes),
+            sha512ConsentAttributeValues(consentAttributes));
+    }
+
     @Override
     public Map<String, List<Object>> getConsentableAttributesFrom(final ConsentDecision decision) {
         try {
@@ -5,12 +5,17 @@ import org.apereo.cas.authentication.principal.Service;
 import org.apereo.cas.services.RegisteredService;
 import org.apereo.cas.util.function.FunctionUtils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.inspektr.audit.annotation.Audit;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.LinkedHashMap;
@@ -19,19 +24,60 @@ import java.util.Map;
 
 /**
  * This is {@link DefaultConsentEngine}.
+ * <p>
+ * Decisions are kept in a bounded cache keyed by principal and service, along with
+ * digests of their consented attributes, so that repeated logins do not go back to the
+ * repository or decode the decision again. Cached decisions are never changed in place: storing
+ * a decision updates a copy of the one found, and evicts it from the cache before and after it is
+ * handed to the repository, since repositories may persist a copy of the decision with its own identifier, and
+ * deleting a decision evicts all cached decisions of the principal; entries expire so that
+ * changes made to the repository by other nodes are eventually observed.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
  */
 @Slf4j
-@RequiredArgsConstructor
 @Getter
 public class DefaultConsentEngine implements ConsentEngine {
+    /**
+     * Default maximum number of cached decisions.
+     */
+    public static final long DEFAULT_CACHE_MAXIMUM_SIZE = 10_000;
+
+    /**
+     * Default expiration of cached decisions.
+     */
+    public static final Duration DEFAULT_CACHE_EXPIRATION = Duration.ofMinutes(5);
+
     private static final long serialVersionUID = -617809298856160625L;
 
     private final ConsentRepository consentRepository;
     private final ConsentDecisionBuilder consentDecisionBuilder;
 
+    @Getter(AccessLevel.NONE)
+    private final transient Cache<String, ConsentDecisionDigest> consentDecisionCache;
+
+    public DefaultConsentEngine(final ConsentRepository consentRepository,
+                                final ConsentDecisionBuilder consentDecisionBuilder) {
+        this(consentRepository, consentDecisionBuilder, DEFAULT_CACHE_MAXIMUM_SIZE, DEFAULT_CACHE_EXPIRATION);
+    }
+
+    public DefaultConsentEngine(final ConsentRepository consentRepository,
+                                final ConsentDecisionBuilder consentDecisionBuilder,
+                                final long cacheMaximumSize,
+                                final Duration cacheExpiration) {
+        this.consentRepository = consentRepository;
+        this.consentDecisionBuilder = consentDecisionBuilder;
+        this.consentDecisionCache = Caffeine.newBuilder()
+            .maximumSize(cacheMaximumSize)
+            .expireAfterWrite(cacheExpiration)
+            .build();
+    }
+
+    private static String getConsentDecisionCacheKey(final String principal, final String service) {
+        return principal + '|' + service;
+    }
+
     @Override
     public ConsentQueryResult isConsentRequiredFor(final Service service,
                                                                final RegisteredService registeredService,
@@ -44,14 +90,15 @@ public class DefaultConsentEngine implements ConsentEngine {
         }
 
         LOGGER.debug("Locating consent decision for service [{}]", service);
-        val decision = findConsentDecision(service, registeredService, authentication);
-        if (decision == null) {
+        val digest = findConsentDecisionDigest(service, registeredService, authentication);
+        if (digest == null) {
             LOGGER.debug("No consent decision found; thus attribute consent is required");
             return ConsentQueryResult.required();
         }
 
+        val decision = digest.getDecision();
         LOGGER.debug("Located consentable attributes for release [{}]", attributes.keySet());
-        if (consentDecisionBuilder.doesAttributeReleaseRequireConsent(decision, attributes)) {
+        if (consentDecisionBuilder.doesAttributeReleaseRequireConsent(digest, attributes)) {
             LOGGER.debug("Consent is required based on past decision [{}] and attribute release policy for [{}]",
                 decision, registeredService.getName());
             return ConsentQueryResult.required(decision);
@@ -89,24 +136,58 @@ public class DefaultConsentEngine implements ConsentEngine {
 
         val supplier = FunctionUtils.doIfNull(decisionFound,
             () -> consentDecisionBuilder.build(service, registeredService, principalId, attributes),
-            () -> consentDecisionBuilder.update(decisionFound, attributes));
+            () -> consentDecisionBuilder.update(SerializationUtils.clone(decisionFound), attributes));
 
         val decision = supplier.get();
         decision.setOptions(options);
         decision.setReminder(reminder);
         decision.setReminderTimeUnit(reminderTimeUnit);
 
-        if (consentRepository.storeConsentDecision(decision)) {
-            return decision;
+        val key = getConsentDecisionCacheKey(principalId, service.getId());
+        consentDecisionCache.invalidate(key);
+        try {
+            if (consentRepository.storeConsentDecision(decision)) {
+                return decision;
+            }
+        } finally {
+            consentDecisionCache.invalidate(key);
         }
         throw new IllegalArgumentException("Could not store consent decision");
     }
 
+    @Override
+    public boolean deleteConsentDecision(final long decisionId, final String principal) {
+        val result = consentRepository.deleteConsentDecision(decisionId, principal);
+        val prefix = getConsentDecisionCacheKey(principal, StringUtils.EMPTY);
+        consentDecisionCache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        return result;
+    }
+
     @Override
     public ConsentDecision findConsentDecision(final Service service,
                                                final RegisteredService registeredService,
                                                final Authentication authentication) {
-        return consentRepository.findConsentDecision(service, registeredService, authentication);
+        val digest = findConsentDecisionDigest(service, registeredService, authentication);
+        return digest == null ? null : digest.getDecision();
+    }
+
+    /**
+     * Find the consent decision along with the digest of its attributes,
+     * from the cache or from the repository.
+     *
+     * @param service           the service
+     * @param registeredService the registered service
+     * @param authentication    the authentication
+     * @return the consent decision digest, or null
+     */
+    protected ConsentDecisionDigest findConsentDecisionDigest(final Service service,
+                                                              final RegisteredService registeredService,
+                                                              final Authentication authentication) {
+        val key = getConsentDecisionCacheKey(authentication.getPrincipal().getId(), service.getId());
+        return consentDecisionCache.get(key, k -> {
+            val decision = consentRepository.findConsentDecision(service, registeredService, authentication);
+            return decision == null ? null : consentDecisionBuilder.digest(decision);
+        });
     }
 
     @Override
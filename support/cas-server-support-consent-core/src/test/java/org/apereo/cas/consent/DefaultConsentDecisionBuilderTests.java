@@ -60,6 +60,20 @@ public class DefaultConsentDecisionBuilderTests {
             CollectionUtils.wrap("attr1", List.of("value2"))));
     }
 
+    @Test
+    public void verifyDigestMatchesDecision() {
+        val consentDecision = getConsentDecision();
+        consentDecision.setOptions(ConsentReminderOptions.ATTRIBUTE_VALUE);
+        val digest = consentDecisionBuilder.digest(consentDecision);
+        assertSame(consentDecision, digest.getDecision());
+        assertNotNull(digest.getAttributeNamesDigest());
+        assertNotNull(digest.getAttributeValuesDigest());
+        assertFalse(consentDecisionBuilder.doesAttributeReleaseRequireConsent(digest,
+            CollectionUtils.wrap("attr1", List.of("value1"))));
+        assertTrue(consentDecisionBuilder.doesAttributeReleaseRequireConsent(digest,
+            CollectionUtils.wrap("attr1", List.of("value2"))));
+    }
+
     @Test
     public void verifyAttributesAreRetrieved() {
         val consentDecision = getConsentDecision();
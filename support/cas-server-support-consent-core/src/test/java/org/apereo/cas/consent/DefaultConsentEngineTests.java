@@ -8,8 +8,10 @@ import org.apereo.cas.config.CasCoreUtilConfiguration;
 import org.apereo.cas.config.CasRegisteredServicesTestConfiguration;
 import org.apereo.cas.services.ReturnAllAttributeReleasePolicy;
 import org.apereo.cas.services.consent.DefaultRegisteredServiceConsentPolicy;
+import org.apereo.cas.util.crypto.CipherExecutor;
 
 import lombok.val;
+import org.apache.commons.lang3.SerializationUtils;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -88,4 +90,92 @@ public class DefaultConsentEngineTests {
         val decision2 = this.consentEngine.findConsentDecision(service, consentService, authentication);
         assertEquals(decision, decision2);
     }
+
+    @Test
+    public void verifyConsentDecisionIsCached() {
+        val authentication = CoreAuthenticationTestUtils.getAuthentication("cacheduser");
+        val service = CoreAuthenticationTestUtils.getService();
+        val consentService = CoreAuthenticationTestUtils.getRegisteredService("consentService");
+        val policy = new ReturnAllAttributeReleasePolicy();
+        policy.setConsentPolicy(new DefaultRegisteredServiceConsentPolicy());
+        when(consentService.getAttributeReleasePolicy()).thenReturn(policy);
+
+        val repository = spy(new InMemoryConsentRepository());
+        val builder = spy(new DefaultConsentDecisionBuilder(CipherExecutor.noOp()));
+        val engine = new DefaultConsentEngine(repository, builder);
+        val decision = engine.storeConsentDecision(service, consentService,
+            authentication, 14, ChronoUnit.DAYS, ConsentReminderOptions.ATTRIBUTE_VALUE);
+        verify(repository, times(1)).findConsentDecision(any(), any(), any());
+
+        assertFalse(engine.isConsentRequiredFor(service, consentService, authentication).isRequired());
+        assertFalse(engine.isConsentRequiredFor(service, consentService, authentication).isRequired());
+        assertEquals(decision, engine.findConsentDecision(service, consentService, authentication));
+        verify(repository, times(2)).findConsentDecision(any(), any(), any());
+        verify(builder, times(1)).getConsentableAttributesFrom(any());
+
+        assertTrue(engine.deleteConsentDecision(decision.getId(), "cacheduser"));
+        assertNull(engine.findConsentDecision(service, consentService, authentication));
+        assertTrue(engine.isConsentRequiredFor(service, consentService, authentication).isRequired());
+        verify(repository, times(4)).findConsentDecision(any(), any(), any());
+    }
+
+    @Test
+    public void verifyConsentDecisionPersistedAsCopy() {
+        val authentication = CoreAuthenticationTestUtils.getAuthentication("copieduser");
+        val service = CoreAuthenticationTestUtils.getService();
+        val consentService = CoreAuthenticationTestUtils.getRegisteredService("consentService");
+        val policy = new ReturnAllAttributeReleasePolicy();
+        policy.setConsentPolicy(new DefaultRegisteredServiceConsentPolicy());
+        when(consentService.getAttributeReleasePolicy()).thenReturn(policy);
+
+        val repository = new InMemoryConsentRepository() {
+            private static final long serialVersionUID = -3425163926381029151L;
+
+            @Override
+            public boolean storeConsentDecision(final ConsentDecision decision) {
+                val copy = SerializationUtils.clone(decision);
+                if (copy.getId() == 0) {
+                    copy.setId(getConsentDecisions().size() + 1);
+                }
+                getConsentDecisions().removeIf(d -> d.getId() == copy.getId());
+                return getConsentDecisions().add(copy);
+            }
+        };
+        val engine = new DefaultConsentEngine(repository, new DefaultConsentDecisionBuilder(CipherExecutor.noOp()));
+        engine.storeConsentDecision(service, consentService, authentication, 14, ChronoUnit.DAYS, ConsentReminderOptions.ATTRIBUTE_VALUE);
+        assertFalse(engine.isConsentRequiredFor(service, consentService, authentication).isRequired());
+
+        engine.storeConsentDecision(service, consentService, authentication, 14, ChronoUnit.DAYS, ConsentReminderOptions.ATTRIBUTE_VALUE);
+        val decisions = repository.findConsentDecisions("copieduser");
+        assertEquals(1, decisions.size());
+
+        val persisted = decisions.iterator().next();
+        assertEquals(persisted.getId(), engine.findConsentDecision(service, consentService, authentication).getId());
+        assertTrue(engine.deleteConsentDecision(persisted.getId(), "copieduser"));
+        assertTrue(engine.isConsentRequiredFor(service, consentService, authentication).isRequired());
+    }
+
+    @Test
+    public void verifyCachedDecisionSurvivesFailedStore() {
+        val authentication = CoreAuthenticationTestUtils.getAuthentication("faileduser");
+        val service = CoreAuthenticationTestUtils.getService();
+        val consentService = CoreAuthenticationTestUtils.getRegisteredService("consentService");
+        val policy = new ReturnAllAttributeReleasePolicy();
+        policy.setConsentPolicy(new DefaultRegisteredServiceConsentPolicy());
+        when(consentService.getAttributeReleasePolicy()).thenReturn(policy);
+
+        val repository = spy(new InMemoryConsentRepository());
+        val engine = new DefaultConsentEngine(repository, new DefaultConsentDecisionBuilder(CipherExecutor.noOp()));
+        engine.storeConsentDecision(service, consentService, authentication, 14, ChronoUnit.DAYS, ConsentReminderOptions.ATTRIBUTE_VALUE);
+        assertFalse(engine.isConsentRequiredFor(service, consentService, authentication).isRequired());
+
+        doThrow(new IllegalStateException("Repository is unavailable")).when(repository).storeConsentDecision(any());
+        assertThrows(IllegalStateException.class, () -> engine.storeConsentDecision(service, consentService,
+            authentication, 0, ChronoUnit.DAYS, ConsentReminderOptions.ALWAYS));
+
+        val decision = engine.findConsentDecision(service, consentService, authentication);
+        assertEquals(ConsentReminderOptions.ATTRIBUTE_VALUE, decision.getOptions());
+        assertEquals(14L, decision.getReminder().longValue());
+        assertFalse(engine.isConsentRequiredFor(service, consentService, authentication).isRequired());
+    }
 }
@@ -0,0 +1,158 @@
+package org.apereo.cas.dynamodb;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This is {@link DynamoDbBatchWriter}. It submits write requests, and the reads that
+ * precede them, to a table in batches of the size DynamoDb accepts, and retries items that
+ * DynamoDb leaves unprocessed with an exponential backoff, up to a maximum number of attempts per batch.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DynamoDbBatchWriter {
+    /**
+     * Maximum number of items DynamoDb accepts in a single batch write request.
+     */
+    public static final int MAX_BATCH_WRITE_ITEMS = 25;
+
+    /**
+     * Maximum number of items DynamoDb accepts in a single batch get request.
+     */
+    public static final int MAX_BATCH_GET_ITEMS = 100;
+
+    /**
+     * Default maximum number of attempts made to write a batch.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 8;
+
+    /**
+     * Default amount of time to wait before the first retry.
+     */
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(50);
+
+    private static final long MAX_BACKOFF_MILLIS = Duration.ofSeconds(5).toMillis();
+
+    private final AmazonDynamoDB amazonDynamoDBClient;
+
+    private final int maxAttempts;
+
+    private final Duration initialBackoff;
+
+    public DynamoDbBatchWriter(final AmazonDynamoDB amazonDynamoDBClient) {
+        this(amazonDynamoDBClient, DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF);
+    }
+
+    /**
+     * Submit the write requests to the table.
+     * Items still unprocessed once the attempts are exhausted are given up on and logged.
+     *
+     * @param tableName the table name
+     * @param requests  the write requests
+     * @return the number of write requests that were processed
+     */
+    public int write(final String tableName, final List<WriteRequest> requests) {
+        var processed = 0;
+        for (var i = 0; i < requests.size(); i += MAX_BATCH_WRITE_ITEMS) {
+            val batch = new ArrayList<>(requests.subList(i, Math.min(requests.size(), i + MAX_BATCH_WRITE_ITEMS)));
+            processed += batch.size() - writeBatch(tableName, batch);
+        }
+        return processed;
+    }
+
+    /**
+     * Read the items with the given keys from the table, returning only the requested attributes.
+     * Items that do not exist are not returned, and neither are items still unprocessed
+     * once the attempts are exhausted.
+     *
+     * @param tableName      the table name
+     * @param keys           the keys of the items
+     * @param attributeNames the attribute names to return
+     * @return the items found
+     */
+    public List<Map<String, AttributeValue>> read(final String tableName, final List<Map<String, AttributeValue>> keys,
+                                                  final List<String> attributeNames) {
+        val names = new LinkedHashMap<String, String>();
+        attributeNames.forEach(name -> names.put("#a" + names.size(), name));
+        val items = new ArrayList<Map<String, AttributeValue>>();
+        for (var i = 0; i < keys.size(); i += MAX_BATCH_GET_ITEMS) {
+            val batch = new ArrayList<>(keys.subList(i, Math.min(keys.size(), i + MAX_BATCH_GET_ITEMS)));
+            var requestItems = Map.of(tableName, new KeysAndAttributes()
+                .withKeys(batch)
+                .withProjectionExpression(String.join(",", names.keySet()))
+                .withExpressionAttributeNames(names));
+            var backoff = initialBackoff.toMillis();
+            var attempts = 0;
+            while (attempts < maxAttempts) {
+                attempts++;
+                val batchRequest = new BatchGetItemRequest(requestItems);
+                LOGGER.debug("Submitting batch get request [{}]", batchRequest);
+                val result = amazonDynamoDBClient.batchGetItem(batchRequest);
+                val responses = result.getResponses();
+                if (responses != null && responses.containsKey(tableName)) {
+                    items.addAll(responses.get(tableName));
+                }
+                requestItems = result.getUnprocessedKeys();
+                if (requestItems == null || requestItems.isEmpty()) {
+                    break;
+                }
+                if (attempts == maxAttempts || !sleep(backoff)) {
+                    LOGGER.error("Unable to read [{}] item(s) from table [{}] after [{}] attempt(s)",
+                        requestItems.values().stream().mapToInt(k -> k.getKeys().size()).sum(), tableName, attempts);
+                    break;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+        return items;
+    }
+
+    private int writeBatch(final String tableName, final List<WriteRequest> batch) {
+        var items = Map.of(tableName, batch);
+        var backoff = initialBackoff.toMillis();
+        var attempts = 0;
+        while (attempts < maxAttempts) {
+            attempts++;
+            val batchRequest = new BatchWriteItemRequest(items);
+            LOGGER.debug("Submitting batch write request [{}]", batchRequest);
+            items = amazonDynamoDBClient.batchWriteItem(batchRequest).getUnprocessedItems();
+            if (items == null || items.isEmpty()) {
+                return 0;
+            }
+            LOGGER.debug("Batch write request completed with unprocessed items [{}] after [{}] attempt(s)", items, attempts);
+            if (attempts < maxAttempts && !sleep(backoff)) {
+                break;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+        val unprocessed = items.values().stream().mapToInt(List::size).sum();
+        LOGGER.error("Unable to write [{}] item(s) to table [{}] after [{}] attempt(s)", unprocessed, tableName, attempts);
+        return unprocessed;
+    }
+
+    private static boolean sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.apereo.cas.dynamodb;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.DeleteRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link DynamoDbBatchWriterTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public class DynamoDbBatchWriterTests {
+    private static final String TABLE_NAME = "tickets";
+
+    private static List<WriteRequest> getWriteRequests(final int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new WriteRequest(new DeleteRequest(Map.of("id", new AttributeValue("ticket-" + i)))))
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void verifyUnprocessedItemsAreRetried() {
+        val client = mock(AmazonDynamoDB.class);
+        val requests = getWriteRequests(30);
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class)))
+            .thenReturn(new BatchWriteItemResult().withUnprocessedItems(Map.of(TABLE_NAME, requests.subList(0, 2))))
+            .thenReturn(new BatchWriteItemResult().withUnprocessedItems(Map.of()));
+        val writer = new DynamoDbBatchWriter(client, 3, Duration.ZERO);
+        assertEquals(30, writer.write(TABLE_NAME, requests));
+        verify(client, times(3)).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+
+    @Test
+    public void verifyAttemptsAreLimited() {
+        val client = mock(AmazonDynamoDB.class);
+        val requests = getWriteRequests(5);
+        when(client.batchWriteItem(any(BatchWriteItemRequest.class)))
+            .thenReturn(new BatchWriteItemResult().withUnprocessedItems(Map.of(TABLE_NAME, requests.subList(0, 2))));
+        val writer = new DynamoDbBatchWriter(client, 3, Duration.ZERO);
+        assertEquals(3, writer.write(TABLE_NAME, requests));
+        verify(client, times(3)).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+}
@@ -1,6 +1,9 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
 import org.apereo.cas.util.crypto.CipherExecutor;
 
 import lombok.extern.slf4j.Slf4j;
@@ -8,6 +11,7 @@ import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.function.Predicate;
 
 /**
@@ -68,6 +72,44 @@ public class DynamoDbTicketRegistry extends AbstractTicketRegistry {
         return ticket;
     }
 
+    @Override
+    public int deleteTicket(final Ticket ticket) {
+        if (ticket instanceof TicketGrantingTicket && !(ticket instanceof ProxyGrantingTicket)) {
+            val tgt = (TicketGrantingTicket) ticket;
+            if (tgt.getProxyGrantingTickets().isEmpty()) {
+                LOGGER.debug("Removing ticket [{}] and its children from the registry in batches", ticket.getId());
+                val tickets = new LinkedHashMap<String, String>();
+                if (tgt.getServices() != null) {
+                    tgt.getServices().keySet().forEach(id -> tickets.put(id, encodeTicketId(id)));
+                }
+                tickets.put(tgt.getId(), encodeTicketId(tgt.getId()));
+                return this.dbTableService.delete(tickets);
+            }
+        }
+        return super.deleteTicket(ticket);
+    }
+
+    @Override
+    protected int deleteChildren(final TicketGrantingTicket ticket) {
+        val services = ticket.getServices();
+        if (services == null || services.isEmpty()) {
+            return 0;
+        }
+        val tickets = new LinkedHashMap<String, String>();
+        services.keySet().forEach(id -> tickets.put(id, encodeTicketId(id)));
+        return this.dbTableService.delete(tickets);
+    }
+
+    @Override
+    public long sessionCount() {
+        return this.dbTableService.count(TicketGrantingTicket.class);
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return this.dbTableService.count(ServiceTicket.class);
+    }
+
     @Override
     public boolean deleteSingleTicket(final String ticketIdToDelete) {
         val ticketId = encodeTicketId(ticketIdToDelete);
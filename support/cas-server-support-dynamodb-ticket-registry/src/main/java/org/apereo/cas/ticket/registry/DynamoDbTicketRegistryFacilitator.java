@@ -1,54 +1,197 @@
 package org.apereo.cas.ticket.registry;
 
 import org.apereo.cas.configuration.model.support.dynamodb.DynamoDbTicketRegistryProperties;
+import org.apereo.cas.dynamodb.DynamoDbBatchWriter;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketState;
+import org.apereo.cas.ticket.expiration.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.TicketGrantingTicketExpirationPolicy;
+import org.apereo.cas.ticket.expiration.TimeoutExpirationPolicy;
 import org.apereo.cas.util.CollectionUtils;
 
+import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.model.AttributeDefinition;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
 import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteRequest;
 import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
 import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
+import com.amazonaws.services.dynamodbv2.model.DescribeTimeToLiveRequest;
 import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndex;
 import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
 import com.amazonaws.services.dynamodbv2.model.KeyType;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
 import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
 import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
 import com.amazonaws.services.dynamodbv2.model.ScalarAttributeType;
 import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.Select;
+import com.amazonaws.services.dynamodbv2.model.TimeToLiveSpecification;
+import com.amazonaws.services.dynamodbv2.model.TimeToLiveStatus;
+import com.amazonaws.services.dynamodbv2.model.UpdateTimeToLiveRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 import com.amazonaws.services.dynamodbv2.util.TableUtils;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.SerializationUtils;
 import org.jooq.lambda.Unchecked;
+import org.springframework.beans.factory.DisposableBean;
 
 import java.io.ByteArrayInputStream;
 import java.nio.ByteBuffer;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * This is {@link DynamoDbTicketRegistryFacilitator}.
+ * <p>
+ * Ticket items whose expiration policy is known to this class carry their expiration time
+ * as epoch seconds, which is registered as the table's native time-to-live attribute
+ * so expired items are removed by DynamoDB itself; items with any other policy are left
+ * to the registry cleaner. Tables are scanned
+ * in parallel segments on a dedicated pool of threads, each paging through its results, and each table
+ * carries a global secondary index keyed by the ticket prefix that
+ * allows tickets of a given type to be counted without scanning the table.
+ * Since DynamoDB only removes expired items some time after they expire,
+ * counts leave out items whose expiration time has passed; indexes of tables
+ * created before the expiration time was projected into them cannot tell,
+ * and count expired items until they are removed.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
  */
 @Slf4j
 @Getter
-@RequiredArgsConstructor
-public class DynamoDbTicketRegistryFacilitator {
+public class DynamoDbTicketRegistryFacilitator implements DisposableBean {
+    /**
+     * Name of the global secondary index keyed by ticket prefix.
+     */
+    public static final String PREFIX_INDEX_NAME = "prefixIndex";
+
+    private static final String NOT_EXPIRED_CONDITION = "(attribute_not_exists(#expiresAt) OR #expiresAt > :now)";
+
     private final TicketCatalog ticketCatalog;
     private final DynamoDbTicketRegistryProperties dynamoDbProperties;
     private final AmazonDynamoDB amazonDynamoDBClient;
+    @Getter(AccessLevel.NONE)
+    private final ExecutorService scanExecutor;
+
+    public DynamoDbTicketRegistryFacilitator(final TicketCatalog ticketCatalog,
+                                             final DynamoDbTicketRegistryProperties dynamoDbProperties,
+                                             final AmazonDynamoDB amazonDynamoDBClient) {
+        this.ticketCatalog = ticketCatalog;
+        this.dynamoDbProperties = dynamoDbProperties;
+        this.amazonDynamoDBClient = amazonDynamoDBClient;
+        val threads = new AtomicInteger();
+        this.scanExecutor = Executors.newFixedThreadPool(Math.max(1, dynamoDbProperties.getScanSegments()), r -> {
+            val thread = new Thread(r, getClass().getSimpleName() + "-scan-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Calculate the instant, as epoch seconds, at which the ticket expires based on its current state.
+     * Only expiration policies whose meaning of time-to-live and time-to-idle is known are considered;
+     * tickets with any other policy, or whose policy never expires, are given no expiration time at all
+     * and are left to the registry cleaner.
+     *
+     * @param ticket the ticket
+     * @return the expiration time, or null
+     */
+    private static Long getExpirationTime(final Ticket ticket) {
+        if (ticket.isExpired()) {
+            return ZonedDateTime.now(ZoneOffset.UTC).toEpochSecond();
+        }
+        val policy = ticket.getExpirationPolicy();
+        if (policy == null || !(ticket instanceof TicketState) || ticket.getCreationTime() == null) {
+            return null;
+        }
+        val state = (TicketState) ticket;
+        val creationTime = ticket.getCreationTime();
+        val lastTimeUsed = Objects.requireNonNullElse(state.getLastTimeUsed(), creationTime);
+        val policyType = policy.getClass();
+
+        ZonedDateTime expirationTime = null;
+        if (policyType == HardTimeoutExpirationPolicy.class) {
+            expirationTime = plusBoundedDuration(creationTime, policy.getTimeToLive());
+        } else if (policyType == TimeoutExpirationPolicy.class) {
+            expirationTime = plusBoundedDuration(lastTimeUsed, policy.getTimeToIdle());
+        } else if (policyType == MultiTimeUseOrTimeoutExpirationPolicy.class
+            || policyType == MultiTimeUseOrTimeoutExpirationPolicy.ServiceTicketExpirationPolicy.class
+            || policyType == MultiTimeUseOrTimeoutExpirationPolicy.ProxyTicketExpirationPolicy.class) {
+            expirationTime = plusBoundedDuration(lastTimeUsed, policy.getTimeToLive());
+        } else if (policyType == TicketGrantingTicketExpirationPolicy.class) {
+            val hardExpirationTime = plusBoundedDuration(creationTime, policy.getTimeToLive());
+            val idleExpirationTime = plusBoundedDuration(lastTimeUsed, policy.getTimeToIdle());
+            expirationTime = hardExpirationTime == null || (idleExpirationTime != null && idleExpirationTime.isBefore(hardExpirationTime))
+                ? idleExpirationTime
+                : hardExpirationTime;
+        } else {
+            LOGGER.trace("Expiration policy [{}] of ticket [{}] is not recognized; ticket is given no expiration time",
+                policyType.getName(), ticket.getId());
+        }
+        return expirationTime == null ? null : expirationTime.toEpochSecond();
+    }
+
+    private static ZonedDateTime plusBoundedDuration(final ZonedDateTime time, final Long seconds) {
+        return isBoundedDuration(seconds) ? time.plusSeconds(seconds) : null;
+    }
+
+    private static boolean isBoundedDuration(final Long seconds) {
+        return seconds != null && seconds > 0 && seconds < Integer.MAX_VALUE;
+    }
+
+    private static List<ScanResult> scanSegment(final AmazonDynamoDB client, final ScanRequest request) {
+        val results = new ArrayList<ScanResult>();
+        Map<String, AttributeValue> lastEvaluatedKey = null;
+        do {
+            val result = client.scan(request.withExclusiveStartKey(lastEvaluatedKey));
+            LOGGER.trace("Scanned segment [{}] of table [{}] with [{}] item(s)", request.getSegment(), request.getTableName(), result.getCount());
+            results.add(result);
+            lastEvaluatedKey = result.getLastEvaluatedKey();
+        } while (lastEvaluatedKey != null && !lastEvaluatedKey.isEmpty());
+        return results;
+    }
+
+    private static List<ScanResult> getScanResults(final CompletableFuture<List<ScanResult>> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
 
     private static Ticket deserializeTicket(final Map<String, AttributeValue> returnItem) {
         val bb = returnItem.get(ColumnNames.ENCODED.getColumnName()).getB();
@@ -72,30 +215,68 @@ public class DynamoDbTicketRegistryFacilitator {
         val metadata = this.ticketCatalog.find(ticketId);
         if (metadata != null) {
             val del = new DeleteItemRequest().withTableName(metadata.getProperties().getStorageName())
-                .withKey(CollectionUtils.wrap(ColumnNames.ID.getColumnName(), new AttributeValue(encodedTicketId)));
+                .withKey(CollectionUtils.wrap(ColumnNames.ID.getColumnName(), new AttributeValue(encodedTicketId)))
+                .withReturnValues(ReturnValue.ALL_OLD);
             LOGGER.debug("Submitting delete request [{}] for ticket [{}]", del, ticketId);
             val res = amazonDynamoDBClient.deleteItem(del);
             LOGGER.debug("Delete request came back with result [{}]", res);
-            return res != null;
+            return res != null && res.getAttributes() != null && !res.getAttributes().isEmpty();
         }
         return false;
     }
 
+    /**
+     * Delete tickets in batches, grouped by the table that holds them.
+     * Batch deletes do not report whether an item existed, so the tickets
+     * are first looked up in batches, and only those found are deleted.
+     *
+     * @param tickets the ticket ids mapped to their encoded ticket ids
+     * @return the number of tickets deleted
+     */
+    public int delete(final Map<String, String> tickets) {
+        val keys = new LinkedHashMap<String, List<Map<String, AttributeValue>>>();
+        tickets.forEach((ticketId, encodedTicketId) -> {
+            val metadata = this.ticketCatalog.find(ticketId);
+            if (metadata != null) {
+                keys.computeIfAbsent(metadata.getProperties().getStorageName(), k -> new ArrayList<>())
+                    .add(CollectionUtils.wrap(ColumnNames.ID.getColumnName(), new AttributeValue(encodedTicketId)));
+            } else {
+                LOGGER.warn("No ticket definition could be found in the catalog to match [{}]", ticketId);
+            }
+        });
+        val writer = new DynamoDbBatchWriter(amazonDynamoDBClient);
+        return keys.entrySet()
+            .stream()
+            .mapToInt(entry -> {
+                val tableName = entry.getKey();
+                val writes = writer.read(tableName, entry.getValue(), List.of(ColumnNames.ID.getColumnName()))
+                    .stream()
+                    .map(key -> new WriteRequest(new DeleteRequest(key)))
+                    .collect(Collectors.toList());
+                LOGGER.debug("Deleting [{}] of [{}] ticket(s) found in table [{}]", writes.size(), entry.getValue().size(), tableName);
+                return writes.isEmpty() ? 0 : writer.write(tableName, writes);
+            })
+            .sum();
+    }
+
     /**
      * Delete all.
      *
      * @return the int
      */
     public int deleteAll() {
-        val count = new AtomicInteger();
-        val metadata = this.ticketCatalog.findAll();
-        metadata.forEach(r -> {
-            val scan = new ScanRequest(r.getProperties().getStorageName());
-            LOGGER.debug("Submitting scan request [{}] to table [{}]", scan, r.getProperties().getStorageName());
-            count.addAndGet(this.amazonDynamoDBClient.scan(scan).getCount());
-        });
+        val count = this.ticketCatalog.findAll()
+            .stream()
+            .mapToLong(r -> {
+                val tableName = r.getProperties().getStorageName();
+                LOGGER.debug("Counting items in table [{}]", tableName);
+                return scan(() -> new ScanRequest(tableName).withSelect(Select.COUNT))
+                    .mapToLong(ScanResult::getCount)
+                    .sum();
+            })
+            .sum();
         createTicketTables(true);
-        return count.get();
+        return (int) count;
     }
 
     /**
@@ -104,16 +285,31 @@ public class DynamoDbTicketRegistryFacilitator {
      * @return the all
      */
     public Collection<Ticket> getAll() {
-        val tickets = new ArrayList<Ticket>();
-        val metadata = this.ticketCatalog.findAll();
-        metadata.forEach(r -> {
-            val scan = new ScanRequest(r.getProperties().getStorageName());
-            LOGGER.debug("Scanning table with request [{}]", scan);
-            val result = this.amazonDynamoDBClient.scan(scan);
-            LOGGER.debug("Scanned table with result [{}]", scan);
-            tickets.addAll(result.getItems().stream().map(DynamoDbTicketRegistryFacilitator::deserializeTicket).collect(Collectors.toList()));
-        });
-        return tickets;
+        return this.ticketCatalog.findAll()
+            .stream()
+            .flatMap(r -> {
+                val tableName = r.getProperties().getStorageName();
+                LOGGER.debug("Scanning table [{}]", tableName);
+                return scan(() -> new ScanRequest(tableName));
+            })
+            .flatMap(result -> result.getItems().stream())
+            .map(DynamoDbTicketRegistryFacilitator::deserializeTicket)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Count tickets of the given type, using the index keyed by ticket prefix.
+     * Tables created without the index are scanned instead.
+     *
+     * @param ticketClass the ticket class
+     * @return the count
+     */
+    public long count(final Class<? extends Ticket> ticketClass) {
+        return this.ticketCatalog.find(ticketClass)
+            .stream()
+            .mapToLong(this::count)
+            .sum();
     }
 
     /**
@@ -160,7 +356,6 @@ public class DynamoDbTicketRegistryFacilitator {
         LOGGER.debug("Submitting put request [{}] for ticket id [{}]", putItemRequest, encodedTicket.getId());
         val putItemResult = amazonDynamoDBClient.putItem(putItemRequest);
         LOGGER.debug("Ticket added with result [{}]", putItemResult);
-        getAll();
     }
 
     /**
@@ -171,11 +366,19 @@ public class DynamoDbTicketRegistryFacilitator {
     public void createTicketTables(final boolean deleteTables) {
         val metadata = this.ticketCatalog.findAll();
         metadata.forEach(Unchecked.consumer(r -> {
+            val throughput = new ProvisionedThroughput(dynamoDbProperties.getReadCapacity(), dynamoDbProperties.getWriteCapacity());
+            val prefixIndex = new GlobalSecondaryIndex()
+                .withIndexName(PREFIX_INDEX_NAME)
+                .withKeySchema(new KeySchemaElement(ColumnNames.PREFIX.getColumnName(), KeyType.HASH))
+                .withProjection(new Projection().withProjectionType(ProjectionType.INCLUDE)
+                    .withNonKeyAttributes(ColumnNames.EXPIRES_AT.getColumnName()))
+                .withProvisionedThroughput(throughput);
             val request = new CreateTableRequest()
-                .withAttributeDefinitions(new AttributeDefinition(ColumnNames.ID.getColumnName(), ScalarAttributeType.S))
+                .withAttributeDefinitions(new AttributeDefinition(ColumnNames.ID.getColumnName(), ScalarAttributeType.S),
+                    new AttributeDefinition(ColumnNames.PREFIX.getColumnName(), ScalarAttributeType.S))
                 .withKeySchema(new KeySchemaElement(ColumnNames.ID.getColumnName(), KeyType.HASH))
-                .withProvisionedThroughput(new ProvisionedThroughput(dynamoDbProperties.getReadCapacity(),
-                    dynamoDbProperties.getWriteCapacity())).withTableName(r.getProperties().getStorageName());
+                .withGlobalSecondaryIndexes(prefixIndex)
+                .withProvisionedThroughput(throughput).withTableName(r.getProperties().getStorageName());
             if (deleteTables) {
                 val delete = new DeleteTableRequest(r.getProperties().getStorageName());
                 LOGGER.debug("Sending delete request [{}] to remove table if necessary", delete);
@@ -189,6 +392,7 @@ public class DynamoDbTicketRegistryFacilitator {
             LOGGER.debug("Sending request [{}] to obtain table description...", describeTableRequest);
             val tableDescription = amazonDynamoDBClient.describeTable(describeTableRequest).getTable();
             LOGGER.debug("Located newly created table with description: [{}]", tableDescription);
+            enableTimeToLive(request.getTableName());
         }));
     }
 
@@ -207,11 +411,96 @@ public class DynamoDbTicketRegistryFacilitator {
         values.put(ColumnNames.COUNT_OF_USES.getColumnName(), new AttributeValue().withN(Integer.toString(ticket.getCountOfUses())));
         values.put(ColumnNames.TIME_TO_LIVE.getColumnName(), new AttributeValue().withN(Long.toString(ticket.getExpirationPolicy().getTimeToLive())));
         values.put(ColumnNames.TIME_TO_IDLE.getColumnName(), new AttributeValue().withN(Long.toString(ticket.getExpirationPolicy().getTimeToIdle())));
+        val expirationTime = getExpirationTime(ticket);
+        if (expirationTime != null) {
+            values.put(ColumnNames.EXPIRES_AT.getColumnName(), new AttributeValue().withN(Long.toString(expirationTime)));
+        }
         values.put(ColumnNames.ENCODED.getColumnName(), new AttributeValue().withB(ByteBuffer.wrap(SerializationUtils.serialize(encTicket))));
         LOGGER.debug("Created attribute values [{}] based on provided ticket [{}]", values, encTicket.getId());
         return values;
     }
 
+    @Override
+    public void destroy() {
+        this.scanExecutor.shutdownNow();
+    }
+
+    private Stream<ScanResult> scan(final Supplier<ScanRequest> request) {
+        val segments = Math.max(1, dynamoDbProperties.getScanSegments());
+        val futures = IntStream.range(0, segments)
+            .mapToObj(segment -> CompletableFuture.supplyAsync(
+                () -> scanSegment(amazonDynamoDBClient, request.get().withSegment(segment).withTotalSegments(segments)), scanExecutor))
+            .collect(Collectors.toList());
+        return futures.stream()
+            .map(DynamoDbTicketRegistryFacilitator::getScanResults)
+            .flatMap(List::stream)
+            .collect(Collectors.toList())
+            .stream();
+    }
+
+    private boolean isPrefixIndexMissing(final String tableName) {
+        val table = amazonDynamoDBClient.describeTable(new DescribeTableRequest().withTableName(tableName)).getTable();
+        val indexes = table.getGlobalSecondaryIndexes();
+        return indexes == null || indexes.stream().noneMatch(index -> PREFIX_INDEX_NAME.equals(index.getIndexName()));
+    }
+
+    private long count(final TicketDefinition definition) {
+        val tableName = definition.getProperties().getStorageName();
+        val names = Map.of("#prefix", ColumnNames.PREFIX.getColumnName(), "#expiresAt", ColumnNames.EXPIRES_AT.getColumnName());
+        val values = Map.of(":prefix", new AttributeValue(definition.getPrefix()),
+            ":now", new AttributeValue().withN(Long.toString(ZonedDateTime.now(ZoneOffset.UTC).toEpochSecond())));
+        try {
+            var count = 0L;
+            Map<String, AttributeValue> lastEvaluatedKey = null;
+            do {
+                val request = new QueryRequest(tableName)
+                    .withIndexName(PREFIX_INDEX_NAME)
+                    .withSelect(Select.COUNT)
+                    .withKeyConditionExpression("#prefix = :prefix")
+                    .withFilterExpression(NOT_EXPIRED_CONDITION)
+                    .withExpressionAttributeNames(names)
+                    .withExpressionAttributeValues(values)
+                    .withExclusiveStartKey(lastEvaluatedKey);
+                val result = amazonDynamoDBClient.query(request);
+                count += result.getCount();
+                lastEvaluatedKey = result.getLastEvaluatedKey();
+            } while (lastEvaluatedKey != null && !lastEvaluatedKey.isEmpty());
+            return count;
+        } catch (final AmazonServiceException e) {
+            if (!isPrefixIndexMissing(tableName)) {
+                throw e;
+            }
+            LOGGER.debug("Unable to query index [{}] of table [{}]; scanning the table instead: [{}]", PREFIX_INDEX_NAME, tableName, e.getMessage());
+            return scan(() -> new ScanRequest(tableName)
+                .withSelect(Select.COUNT)
+                .withFilterExpression("#prefix = :prefix AND " + NOT_EXPIRED_CONDITION)
+                .withExpressionAttributeNames(names)
+                .withExpressionAttributeValues(values))
+                .mapToLong(ScanResult::getCount)
+                .sum();
+        }
+    }
+
+    private void enableTimeToLive(final String tableName) {
+        try {
+            val description = amazonDynamoDBClient.describeTimeToLive(new DescribeTimeToLiveRequest().withTableName(tableName))
+                .getTimeToLiveDescription();
+            if (description != null && TimeToLiveStatus.ENABLED.toString().equals(description.getTimeToLiveStatus())) {
+                LOGGER.trace("Time-to-live is already enabled for table [{}]", tableName);
+                return;
+            }
+            val request = new UpdateTimeToLiveRequest()
+                .withTableName(tableName)
+                .withTimeToLiveSpecification(new TimeToLiveSpecification()
+                    .withAttributeName(ColumnNames.EXPIRES_AT.getColumnName())
+                    .withEnabled(Boolean.TRUE));
+            LOGGER.debug("Sending request [{}] to enable time-to-live for table [{}]", request, tableName);
+            amazonDynamoDBClient.updateTimeToLive(request);
+        } catch (final AmazonServiceException e) {
+            LOGGER.warn("Unable to enable time-to-live for table [{}]; expired tickets are left to the registry cleaner: [{}]", tableName, e.getMessage());
+        }
+    }
+
     /**
      * Column names for tables holding tickets.
      */
@@ -245,7 +534,11 @@ public class DynamoDbTicketRegistryFacilitator {
         /**
          * encoded column.
          */
-        ENCODED("encoded");
+        ENCODED("encoded"),
+        /**
+         * expiresAt column, as epoch seconds.
+         */
+        EXPIRES_AT("expiresAt");
 
         private final String columnName;
 
@@ -22,6 +22,9 @@ import org.apereo.cas.config.DynamoDbTicketRegistryTicketCatalogConfiguration;
 import org.apereo.cas.config.support.CasWebApplicationServiceFactoryConfiguration;
 import org.apereo.cas.logout.config.CasCoreLogoutConfiguration;
 import org.apereo.cas.mock.MockTicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.expiration.ThrottledUseAndTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.TimeoutExpirationPolicy;
 import org.apereo.cas.util.CollectionUtils;
 import org.apereo.cas.util.junit.EnabledIfContinuousIntegration;
 import org.apereo.cas.util.junit.EnabledIfPortOpen;
@@ -35,7 +38,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 import org.springframework.test.context.TestPropertySource;
 
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.Arrays;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -108,4 +114,75 @@ public class DynamoDbTicketRegistryFacilitatorTests {
         assertTrue(dynamoDbTicketRegistryFacilitator.deleteAll() > 0);
 
     }
+
+    @Test
+    public void verifyExpirationTime() {
+        val ticket = new MockTicketGrantingTicket("casuser");
+        val map = dynamoDbTicketRegistryFacilitator.buildTableAttributeValuesMapFromTicket(ticket, ticket);
+        val expiresAt = Long.parseLong(map.get(DynamoDbTicketRegistryFacilitator.ColumnNames.EXPIRES_AT.getColumnName()).getN());
+        assertEquals(ticket.getCreationTime().plusSeconds(100).toEpochSecond(), expiresAt);
+        assertTrue(expiresAt > ZonedDateTime.now(ZoneOffset.UTC).toEpochSecond());
+    }
+
+    @Test
+    public void verifyExpirationTimeFollowsLastUse() {
+        val ticket = new MockTicketGrantingTicket("casuser");
+        ticket.setExpirationPolicy(new TimeoutExpirationPolicy(60));
+        val map = dynamoDbTicketRegistryFacilitator.buildTableAttributeValuesMapFromTicket(ticket, ticket);
+        val expiresAt = Long.parseLong(map.get(DynamoDbTicketRegistryFacilitator.ColumnNames.EXPIRES_AT.getColumnName()).getN());
+        assertEquals(ticket.getLastTimeUsed().plusSeconds(60).toEpochSecond(), expiresAt);
+    }
+
+    @Test
+    public void verifyThrottledTicketsHaveNoExpirationTime() {
+        val ticket = new MockTicketGrantingTicket("casuser");
+        ticket.setExpirationPolicy(new ThrottledUseAndTimeoutExpirationPolicy(28800, 5));
+        val map = dynamoDbTicketRegistryFacilitator.buildTableAttributeValuesMapFromTicket(ticket, ticket);
+        assertFalse(map.containsKey(DynamoDbTicketRegistryFacilitator.ColumnNames.EXPIRES_AT.getColumnName()));
+    }
+
+    @Test
+    public void verifyThrottledTicketsAreCounted() {
+        dynamoDbTicketRegistryFacilitator.createTicketTables(true);
+        val ticket = new MockTicketGrantingTicket("casuser");
+        ticket.setExpirationPolicy(new ThrottledUseAndTimeoutExpirationPolicy(28800, 5));
+        dynamoDbTicketRegistryFacilitator.put(ticket, ticket);
+        assertEquals(1, dynamoDbTicketRegistryFacilitator.count(TicketGrantingTicket.class));
+    }
+
+    @Test
+    public void verifyBatchDeleteAndCount() {
+        dynamoDbTicketRegistryFacilitator.createTicketTables(true);
+        val ticket1 = new MockTicketGrantingTicket("casuser");
+        val ticket2 = new MockTicketGrantingTicket("casuser");
+        dynamoDbTicketRegistryFacilitator.put(ticket1, ticket1);
+        dynamoDbTicketRegistryFacilitator.put(ticket2, ticket2);
+        assertEquals(2, dynamoDbTicketRegistryFacilitator.count(TicketGrantingTicket.class));
+        assertEquals(2, dynamoDbTicketRegistryFacilitator.getAll().size());
+
+        assertEquals(2, dynamoDbTicketRegistryFacilitator.delete(Map.of(ticket1.getId(), ticket1.getId(), ticket2.getId(), ticket2.getId())));
+        assertEquals(0, dynamoDbTicketRegistryFacilitator.count(TicketGrantingTicket.class));
+        assertNull(dynamoDbTicketRegistryFacilitator.get(ticket1.getId(), ticket1.getId()));
+        assertEquals(0, dynamoDbTicketRegistryFacilitator.delete(Map.of(ticket1.getId(), ticket1.getId())));
+    }
+
+    @Test
+    public void verifyDeleteReportsMissingTickets() {
+        dynamoDbTicketRegistryFacilitator.createTicketTables(true);
+        val ticket = new MockTicketGrantingTicket("casuser");
+        dynamoDbTicketRegistryFacilitator.put(ticket, ticket);
+        assertTrue(dynamoDbTicketRegistryFacilitator.delete(ticket.getId(), ticket.getId()));
+        assertFalse(dynamoDbTicketRegistryFacilitator.delete(ticket.getId(), ticket.getId()));
+    }
+
+    @Test
+    public void verifyExpiredTicketsAreNotCounted() {
+        dynamoDbTicketRegistryFacilitator.createTicketTables(true);
+        val ticket = new MockTicketGrantingTicket("casuser");
+        val expired = new MockTicketGrantingTicket("casuser");
+        expired.markTicketExpired();
+        dynamoDbTicketRegistryFacilitator.put(ticket, ticket);
+        dynamoDbTicketRegistryFacilitator.put(expired, expired);
+        assertEquals(1, dynamoDbTicketRegistryFacilitator.count(TicketGrantingTicket.class));
+    }
 }
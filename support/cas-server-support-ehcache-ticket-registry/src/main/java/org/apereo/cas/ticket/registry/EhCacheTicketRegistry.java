@@ -1,8 +1,10 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.util.crypto.CipherExecutor;
 
 import com.google.common.base.Predicates;
@@ -18,6 +20,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -162,6 +165,31 @@ public class EhCacheTicketRegistry extends AbstractTicketRegistry {
         return ticket;
     }
 
+    @Override
+    public long sessionCount() {
+        return countTickets(TicketGrantingTicket.PREFIX).orElseGet(super::sessionCount);
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return countTickets(ServiceTicket.PREFIX).orElseGet(super::serviceTicketCount);
+    }
+
+    /**
+     * Count tickets by the keys of the caches that hold them, without reading or decoding them.
+     *
+     * @param prefix the ticket prefix
+     * @return the count, if the caches hold no other tickets
+     */
+    private Optional<Long> countTickets(final String prefix) {
+        return getTicketStorageNames(this.ticketCatalog, prefix)
+            .map(names -> names.stream()
+                .map(this.cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .mapToLong(cache -> cache.getKeysWithExpiryCheck().size())
+                .sum());
+    }
+
     private Ehcache getTicketCacheFor(final TicketDefinition metadata) {
         val mapName = metadata.getProperties().getStorageName();
         LOGGER.debug("Locating cache name [{}] for ticket definition [{}]", mapName, metadata);
@@ -0,0 +1,142 @@
+package org.apereo.cas.api;
+
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.util.DateTimeUtils;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * This is {@link AuthenticationRiskProfile}. It aggregates the recent authentication history
+ * of a principal, by counting authentication events per client address, user agent, geolocation
+ * and hour of day, so that risk calculators may score requests without examining each event.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@RequiredArgsConstructor
+@ToString(of = {"principal", "count"})
+public class AuthenticationRiskProfile {
+    private static final int HOURS_IN_DAY = 24;
+
+    @Getter
+    private final String principal;
+
+    private final Map<String, Long> clientIpAddresses = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> userAgents = new ConcurrentHashMap<>();
+
+    private final Map<GeoLocationRequest, Long> geoLocations = new ConcurrentHashMap<>();
+
+    private final AtomicLongArray hours = new AtomicLongArray(HOURS_IN_DAY);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private static GeoLocationRequest getGeoLocationKey(final GeoLocationRequest location) {
+        val key = new GeoLocationRequest();
+        if (location != null) {
+            key.setLatitude(location.getLatitude());
+            key.setLongitude(location.getLongitude());
+        }
+        return key;
+    }
+
+    private static void increment(final Map<String, Long> counts, final String value) {
+        if (value != null) {
+            counts.merge(value.toLowerCase(), 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Record an authentication event.
+     *
+     * @param event the event
+     */
+    public void record(final CasEvent event) {
+        record(event.getClientIpAddress(), event.getAgent(), event.getGeoLocation(),
+            DateTimeUtils.convertToZonedDateTime(event.getCreationTime()));
+    }
+
+    /**
+     * Record an authentication event.
+     *
+     * @param clientIpAddress the client ip address
+     * @param userAgent       the user agent
+     * @param geoLocation     the geo location
+     * @param creationTime    the creation time
+     */
+    public void record(final String clientIpAddress, final String userAgent,
+                       final GeoLocationRequest geoLocation, final ZonedDateTime creationTime) {
+        increment(this.clientIpAddresses, clientIpAddress);
+        increment(this.userAgents, userAgent);
+        this.geoLocations.merge(getGeoLocationKey(geoLocation), 1L, Long::sum);
+        if (creationTime != null) {
+            this.hours.incrementAndGet(creationTime.withZoneSameInstant(ZoneOffset.UTC).getHour());
+        }
+        this.count.incrementAndGet();
+    }
+
+    /**
+     * Total number of authentication events.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Number of authentication events from the client address, ignoring case.
+     *
+     * @param clientIpAddress the client ip address
+     * @return the count
+     */
+    public long getClientIpAddressCount(final String clientIpAddress) {
+        return StringUtils.isBlank(clientIpAddress) ? 0 : this.clientIpAddresses.getOrDefault(clientIpAddress.toLowerCase(), 0L);
+    }
+
+    /**
+     * Number of authentication events from the user agent, ignoring case.
+     *
+     * @param userAgent the user agent
+     * @return the count
+     */
+    public long getUserAgentCount(final String userAgent) {
+        return StringUtils.isBlank(userAgent) ? 0 : this.userAgents.getOrDefault(userAgent.toLowerCase(), 0L);
+    }
+
+    /**
+     * Number of authentication events from the geolocation, matched by latitude and longitude.
+     *
+     * @param geoLocation the geo location
+     * @return the count
+     */
+    public long getGeoLocationCount(final GeoLocationRequest geoLocation) {
+        return this.geoLocations.getOrDefault(getGeoLocationKey(geoLocation), 0L);
+    }
+
+    /**
+     * Number of authentication events whose hour of day, in UTC, falls within the given hours, inclusive.
+     *
+     * @param fromHour the first hour
+     * @param toHour   the last hour
+     * @return the count
+     */
+    public long getHourOfDayCount(final int fromHour, final int toHour) {
+        return IntStream.rangeClosed(Math.max(0, fromHour), Math.min(HOURS_IN_DAY - 1, toHour))
+            .mapToLong(this.hours::get)
+            .sum();
+    }
+}
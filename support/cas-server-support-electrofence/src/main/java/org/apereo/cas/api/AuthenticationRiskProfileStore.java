@@ -0,0 +1,28 @@
+package org.apereo.cas.api;
+
+import org.apereo.cas.support.events.dao.CasEvent;
+
+/**
+ * This is {@link AuthenticationRiskProfileStore}. It keeps the {@link AuthenticationRiskProfile}
+ * of principals up to date as authentication events arrive.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public interface AuthenticationRiskProfileStore {
+
+    /**
+     * Gets the risk profile of the principal.
+     *
+     * @param principal the principal
+     * @return the profile
+     */
+    AuthenticationRiskProfile getProfile(String principal);
+
+    /**
+     * Record an authentication event into the profile of its principal.
+     *
+     * @param event the event
+     */
+    void record(CasEvent event);
+}
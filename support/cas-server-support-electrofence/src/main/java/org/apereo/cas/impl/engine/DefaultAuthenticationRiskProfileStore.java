@@ -0,0 +1,93 @@
+package org.apereo.cas.impl.engine;
+
+import org.apereo.cas.api.AuthenticationRiskProfile;
+import org.apereo.cas.api.AuthenticationRiskProfileStore;
+import org.apereo.cas.support.events.CasEventRepository;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketCreatedEvent;
+import org.apereo.cas.web.support.WebUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apereo.inspektr.common.web.ClientInfoHolder;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * This is {@link DefaultAuthenticationRiskProfileStore}. Profiles are built from the
+ * ticket-granting ticket creation events found in the {@link CasEventRepository} for the
+ * recent history, once per principal, and are then updated in memory as tickets are created.
+ * Profiles are kept in a bounded cache and are rebuilt from the repository once they expire,
+ * so that older events age out of the profile and events recorded by other nodes are observed.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Slf4j
+public class DefaultAuthenticationRiskProfileStore implements AuthenticationRiskProfileStore {
+    private final CasEventRepository casEventRepository;
+
+    private final long daysInRecentHistory;
+
+    private final Cache<String, AuthenticationRiskProfile> profiles;
+
+    public DefaultAuthenticationRiskProfileStore(final CasEventRepository casEventRepository,
+                                                 final long daysInRecentHistory,
+                                                 final long maximumSize,
+                                                 final Duration expiration) {
+        this.casEventRepository = casEventRepository;
+        this.daysInRecentHistory = daysInRecentHistory;
+        this.profiles = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expiration)
+            .build();
+    }
+
+    @Override
+    public AuthenticationRiskProfile getProfile(final String principal) {
+        return this.profiles.get(principal, this::loadProfile);
+    }
+
+    @Override
+    public void record(final CasEvent event) {
+        val profile = this.profiles.getIfPresent(event.getPrincipalId());
+        if (profile != null) {
+            profile.record(event);
+        }
+    }
+
+    /**
+     * Record the ticket-granting ticket creation into the profile of its principal,
+     * if the profile is already loaded. Profiles that are not loaded yet will find the
+     * event in the repository.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleCasTicketGrantingTicketCreatedEvent(final CasTicketGrantingTicketCreatedEvent event) {
+        val ticketGrantingTicket = event.getTicketGrantingTicket();
+        val profile = this.profiles.getIfPresent(ticketGrantingTicket.getAuthentication().getPrincipal().getId());
+        if (profile != null) {
+            val clientInfo = ClientInfoHolder.getClientInfo();
+            profile.record(clientInfo == null ? null : clientInfo.getClientIpAddress(),
+                WebUtils.getHttpServletRequestUserAgentFromRequestContext(),
+                WebUtils.getHttpServletRequestGeoLocationFromRequestContext(),
+                ticketGrantingTicket.getCreationTime());
+        }
+    }
+
+    private AuthenticationRiskProfile loadProfile(final String principal) {
+        val type = CasTicketGrantingTicketCreatedEvent.class.getName();
+        LOGGER.debug("Building authentication risk profile for [{}] from events of type [{}]", principal, type);
+        val date = ZonedDateTime.now(ZoneOffset.UTC).minusDays(this.daysInRecentHistory);
+        val profile = new AuthenticationRiskProfile(principal);
+        this.casEventRepository.getEventsOfTypeForPrincipal(type, principal, date).forEach(profile::record);
+        LOGGER.debug("Built authentication risk profile [{}]", profile);
+        return profile;
+    }
+}
@@ -4,6 +4,7 @@ import org.apereo.cas.impl.calcs.DateTimeAuthenticationRequestRiskCalculatorTest
 import org.apereo.cas.impl.calcs.GeoLocationAuthenticationRequestRiskCalculatorTests;
 import org.apereo.cas.impl.calcs.IpAddressAuthenticationRequestRiskCalculatorTests;
 import org.apereo.cas.impl.calcs.UserAgentAuthenticationRequestRiskCalculatorTests;
+import org.apereo.cas.impl.engine.DefaultAuthenticationRiskProfileStoreTests;
 import org.apereo.cas.impl.notify.AuthenticationRiskEmailNotifierTests;
 import org.apereo.cas.impl.notify.AuthenticationRiskSmsNotifierTests;
 
@@ -23,7 +24,8 @@ import org.junit.runner.RunWith;
     IpAddressAuthenticationRequestRiskCalculatorTests.class,
     UserAgentAuthenticationRequestRiskCalculatorTests.class,
     AuthenticationRiskEmailNotifierTests.class,
-    AuthenticationRiskSmsNotifierTests.class
+    AuthenticationRiskSmsNotifierTests.class,
+    DefaultAuthenticationRiskProfileStoreTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class AllTestsSuite {
@@ -0,0 +1,80 @@
+package org.apereo.cas.impl.engine;
+
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
+import org.apereo.cas.support.events.CasEventRepository;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketCreatedEvent;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link DefaultAuthenticationRiskProfileStoreTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public class DefaultAuthenticationRiskProfileStoreTests {
+
+    private static CasEvent getEvent(final String ip, final String agent, final String latitude, final int hour) {
+        val event = new CasEvent();
+        event.setType(CasTicketGrantingTicketCreatedEvent.class.getName());
+        event.setPrincipalId("casuser");
+        event.setCreationTime(ZonedDateTime.now(ZoneOffset.UTC).minusDays(1).withHour(hour).toString());
+        event.putClientIpAddress(ip);
+        event.putAgent(agent);
+        val location = new GeoLocationRequest();
+        location.setLatitude(latitude);
+        location.setLongitude("-74.005");
+        location.setAccuracy("50");
+        event.putGeoLocation(location);
+        return event;
+    }
+
+    @Test
+    public void verifyProfileIsBuiltOnceAndUpdated() {
+        val repository = mock(CasEventRepository.class);
+        doReturn(List.of(
+            getEvent("107.181.69.221", "Firefox", "40.71", 3),
+            getEvent("107.181.69.221", "firefox", "40.71", 4),
+            getEvent("85.90.227.224", "Chrome", "48.85", 22)))
+            .when(repository).getEventsOfTypeForPrincipal(anyString(), anyString(), any(ZonedDateTime.class));
+
+        val store = new DefaultAuthenticationRiskProfileStore(repository, 30, 100, Duration.ofMinutes(5));
+        val profile = store.getProfile("casuser");
+        assertEquals(3, profile.getCount());
+        assertEquals(2, profile.getClientIpAddressCount("107.181.69.221"));
+        assertEquals(0, profile.getClientIpAddressCount("1.2.3.4"));
+        assertEquals(2, profile.getUserAgentCount("FIREFOX"));
+        assertEquals(2, profile.getGeoLocationCount(new GeoLocationRequest(40.71, -74.005)));
+        assertEquals(2, profile.getHourOfDayCount(2, 5));
+        assertEquals(1, profile.getHourOfDayCount(20, 23));
+        assertEquals(0, profile.getHourOfDayCount(23, 2));
+
+        store.record(getEvent("85.90.227.224", "Chrome", "48.85", 22));
+        val updated = store.getProfile("casuser");
+        assertSame(profile, updated);
+        assertEquals(4, updated.getCount());
+        assertEquals(2, updated.getClientIpAddressCount("85.90.227.224"));
+        verify(repository, times(1)).getEventsOfTypeForPrincipal(anyString(), eq("casuser"), any(ZonedDateTime.class));
+    }
+
+    @Test
+    public void verifyEmptyProfile() {
+        val repository = mock(CasEventRepository.class);
+        doReturn(List.of()).when(repository).getEventsOfTypeForPrincipal(anyString(), anyString(), any(ZonedDateTime.class));
+        val store = new DefaultAuthenticationRiskProfileStore(repository, 30, 100, Duration.ofMinutes(5));
+        store.record(getEvent("85.90.227.224", "Chrome", "48.85", 1));
+        assertEquals(0, store.getProfile("casuser").getCount());
+        assertEquals(0, store.getProfile("casuser").getUserAgentCount(null));
+    }
+}
@@ -42,7 +42,7 @@ public class EventCouchDbRepository extends CouchDbRepositorySupport<CouchDbCasE
     @View(name = "by_type_and_local_date_time", map = "function(doc) { emit([doc.type, doc.creationTime], doc) }")
     public List<CouchDbCasEvent> findByTypeSince(final String type, final LocalDateTime localDateTime) {
         val view = createQuery("by_type_and_local_date_time").startKey(ComplexKey.of(type, localDateTime))
-            .endKey(ComplexKey.of(type, LocalDateTime.now()));
+            .endKey(ComplexKey.of(type, ComplexKey.emptyObject()));
         return db.queryView(view, CouchDbCasEvent.class);
     }
 
@@ -65,10 +65,10 @@ public class EventCouchDbRepository extends CouchDbRepositorySupport<CouchDbCasE
      * @param localDateTime time to search after
      * @return events of requested type and principal since given time
      */
-    @View(name = "by_type_for_principal_id_since", map = "function(doc) { emit([doc.type, doc.principal, doc.creationTime], doc) }")
+    @View(name = "by_type_for_principal_id_and_creation_time", map = "function(doc) { emit([doc.type, doc.principalId, doc.creationTime], doc) }")
     public Collection<CouchDbCasEvent> findByTypeForPrincipalSince(final String type, final String principalId, final LocalDateTime localDateTime) {
-        val view = createQuery("by_type_for_principal_id_since").startKey(ComplexKey.of(type, principalId, localDateTime))
-            .endKey(ComplexKey.of(type, principalId, LocalDateTime.now()));
+        val view = createQuery("by_type_for_principal_id_and_creation_time").startKey(ComplexKey.of(type, principalId, localDateTime))
+            .endKey(ComplexKey.of(type, principalId, ComplexKey.emptyObject()));
         return db.queryView(view, CouchDbCasEvent.class);
     }
 
@@ -91,7 +91,18 @@ public class EventCouchDbRepository extends CouchDbRepositorySupport<CouchDbCasE
     @View(name = "by_principal_id_since", map = "function(doc) { emit([doc.principalId, doc.creationTime], doc) }")
     public Collection<CouchDbCasEvent> findByPrincipalSince(final String principalId, final LocalDateTime creationTime) {
         val view = createQuery("by_principal_id_since").startKey(ComplexKey.of(principalId, creationTime))
-            .endKey(ComplexKey.of(principalId, LocalDateTime.now()));
+            .endKey(ComplexKey.of(principalId, ComplexKey.emptyObject()));
+        return db.queryView(view, CouchDbCasEvent.class);
+    }
+
+    /**
+     * Find events since a given date.
+     * @param creationTime time to search after
+     * @return events after the given time
+     */
+    @View(name = "by_creation_time", map = "function(doc) { emit(doc.creationTime, doc) }")
+    public Collection<CouchDbCasEvent> findSince(final LocalDateTime creationTime) {
+        val view = createQuery("by_creation_time").startKey(creationTime);
         return db.queryView(view, CouchDbCasEvent.class);
     }
 }
@@ -46,6 +46,11 @@ public class CouchDbCasEventRepository extends AbstractCasEventRepository {
         return couchDb.getAll();
     }
 
+    @Override
+    public Collection<CasEvent> load(final ZonedDateTime dateTime) {
+        return castEvents(couchDb.findSince(dateTime.toLocalDateTime()));
+    }
+
     @Override
     public Collection<CasEvent> getEventsOfType(final String type) {
         return castEvents(couchDb.findByType(type));
@@ -13,6 +13,7 @@ import org.springframework.beans.factory.DisposableBean;
 import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Modifier;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
@@ -20,6 +21,10 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * This is {@link InfluxDbCasEventRepository}.
+ * Events are written as points whose time is the event creation time, with the event type
+ * and principal recorded as tags, so that queries by type, principal and date are answered
+ * by the database from its indexes. Points written before type and principal were tags
+ * carry them as fields instead; queries match either, and both are read back alike.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
@@ -29,30 +34,23 @@ import java.util.concurrent.TimeUnit;
 public class InfluxDbCasEventRepository extends AbstractCasEventRepository implements DisposableBean {
     private static final String MEASUREMENT = "InfluxDbCasEventRepositoryCasEvents";
 
-    private final InfluxDbConnectionFactory influxDbConnectionFactory;
+    private static final String TYPE_CONDITION = "(\"type\"::tag = $type OR \"type\"::field = $type)";
 
-    @Override
-    public void save(final CasEvent event) {
-        val builder = Point.measurement(MEASUREMENT);
-        ReflectionUtils.doWithFields(CasEvent.class, field -> {
-            if (!Modifier.isStatic(field.getModifiers())) {
-                field.setAccessible(true);
-                if (field.getType().equals(Map.class)) {
-                    builder.fields((Map) field.get(event));
-                } else {
-                    builder.field(field.getName(), field.get(event));
-                }
-            }
-        });
+    private static final String PRINCIPAL_ID_CONDITION = "(\"principalId\"::tag = $principalId OR \"principalId\"::field = $principalId)";
 
-        val point = builder.time(System.currentTimeMillis(), TimeUnit.MILLISECONDS).build();
-        influxDbConnectionFactory.writeBatch(point);
+    /**
+     * Suffix given to a column whose name is shared by a tag and a field.
+     */
+    private static final String DUPLICATE_COLUMN_SUFFIX = "_1";
+
+    private final InfluxDbConnectionFactory influxDbConnectionFactory;
+
+    private static String getTimeCondition(final ZonedDateTime dateTime) {
+        return "time >= " + TimeUnit.MILLISECONDS.toNanos(dateTime.toInstant().toEpochMilli());
     }
 
-    @Override
-    public Collection<? extends CasEvent> load() {
+    private static Collection<CasEvent> toEvents(final QueryResult results) {
         val events = new ArrayList<CasEvent>();
-        val results = influxDbConnectionFactory.query(MEASUREMENT);
         results.getResults()
             .stream()
             .filter(r -> r.getSeries() != null)
@@ -76,10 +74,12 @@ public class InfluxDbCasEventRepository extends AbstractCasEventRepository imple
                                     case "eventId":
                                         event.putEventId(value);
                                         break;
-                                    case "type":
+                                    case TYPE_PARAM:
+                                    case TYPE_PARAM + DUPLICATE_COLUMN_SUFFIX:
                                         event.setType(value);
                                         break;
-                                    case "principalId":
+                                    case PRINCIPAL_ID_PARAM:
+                                    case PRINCIPAL_ID_PARAM + DUPLICATE_COLUMN_SUFFIX:
                                         event.setPrincipalId(value);
                                         break;
                                     case "creationTime":
@@ -102,6 +102,72 @@ public class InfluxDbCasEventRepository extends AbstractCasEventRepository imple
         return events;
     }
 
+    @Override
+    public void save(final CasEvent event) {
+        val builder = Point.measurement(MEASUREMENT);
+        ReflectionUtils.doWithFields(CasEvent.class, field -> {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                field.setAccessible(true);
+                if (field.getType().equals(Map.class)) {
+                    builder.fields((Map) field.get(event));
+                } else if (TYPE_PARAM.equals(field.getName()) || PRINCIPAL_ID_PARAM.equals(field.getName())) {
+                    val value = field.get(event);
+                    if (value != null) {
+                        builder.tag(field.getName(), value.toString());
+                    }
+                } else {
+                    builder.field(field.getName(), field.get(event));
+                }
+            }
+        });
+
+        val creationTime = convertEventCreationTime(event);
+        val time = creationTime == null ? System.currentTimeMillis() : creationTime.toInstant().toEpochMilli();
+        val point = builder.time(time, TimeUnit.MILLISECONDS).build();
+        influxDbConnectionFactory.writeBatch(point);
+    }
+
+    @Override
+    public Collection<? extends CasEvent> load() {
+        return toEvents(influxDbConnectionFactory.query(MEASUREMENT));
+    }
+
+    @Override
+    public Collection<? extends CasEvent> load(final ZonedDateTime dateTime) {
+        return query(getTimeCondition(dateTime), Map.of());
+    }
+
+    @Override
+    public Collection<? extends CasEvent> getEventsOfType(final String type) {
+        return query(TYPE_CONDITION, Map.of(TYPE_PARAM, type));
+    }
+
+    @Override
+    public Collection<? extends CasEvent> getEventsOfType(final String type, final ZonedDateTime dateTime) {
+        return query(TYPE_CONDITION + " AND " + getTimeCondition(dateTime), Map.of(TYPE_PARAM, type));
+    }
+
+    @Override
+    public Collection<? extends CasEvent> getEventsOfTypeForPrincipal(final String type, final String principal) {
+        return query(TYPE_CONDITION + " AND " + PRINCIPAL_ID_CONDITION,
+            Map.of(TYPE_PARAM, type, PRINCIPAL_ID_PARAM, principal));
+    }
+
+    @Override
+    public Collection<? extends CasEvent> getEventsOfTypeForPrincipal(final String type, final String principal, final ZonedDateTime dateTime) {
+        return query(TYPE_CONDITION + " AND " + PRINCIPAL_ID_CONDITION + " AND " + getTimeCondition(dateTime),
+            Map.of(TYPE_PARAM, type, PRINCIPAL_ID_PARAM, principal));
+    }
+
+    @Override
+    public Collection<? extends CasEvent> getEventsForPrincipal(final String id) {
+        return query(PRINCIPAL_ID_CONDITION, Map.of(PRINCIPAL_ID_PARAM, id));
+    }
+
+    @Override
+    public Collection<? extends CasEvent> getEventsForPrincipal(final String id, final ZonedDateTime dateTime) {
+        return query(PRINCIPAL_ID_CONDITION + " AND " + getTimeCondition(dateTime), Map.of(PRINCIPAL_ID_PARAM, id));
+    }
 
     /**
      * Stops the database client.
@@ -111,4 +177,8 @@ public class InfluxDbCasEventRepository extends AbstractCasEventRepository imple
     public void destroy() {
         this.influxDbConnectionFactory.close();
     }
+
+    private Collection<? extends CasEvent> query(final String condition, final Map<String, Object> parameters) {
+        return toEvents(influxDbConnectionFactory.query("*", MEASUREMENT, condition, parameters));
+    }
 }
@@ -1,39 +1,251 @@
 package org.apereo.cas.support.events.dao;
 
-import com.github.benmanes.caffeine.cache.LoadingCache;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
 
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.Collection;
-import java.util.UUID;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * This is {@link InMemoryCasEventRepository}.
+ * This is {@link InMemoryCasEventRepository} that stores events in memory.
+ * <p>
+ * Events are kept in buckets of an hour, ordered by event creation time, and are
+ * indexed by principal within each bucket, so that date-bounded and per-principal
+ * queries only visit matching buckets and principals. Buckets that fall out of the
+ * retention period are evicted as a whole. Once the maximum number of events is exceeded,
+ * only as many events as needed are evicted, starting with the oldest bucket and, within a
+ * bucket, with the events saved first. A bucket that is evicted or left empty no longer accepts
+ * events, so that events saved while it is evicted go to a new bucket and are counted once.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
  */
-@RequiredArgsConstructor
+@Slf4j
 public class InMemoryCasEventRepository extends AbstractCasEventRepository {
-    private final LoadingCache<String, CasEvent> cache;
+    private static final long BUCKET_DURATION_MILLIS = Duration.ofHours(1).toMillis();
+
+    private final NavigableMap<Long, EventBucket> buckets = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong size = new AtomicLong();
+
+    private final Lock evictionLock = new ReentrantLock();
+
+    private final Duration retention;
+
+    private final long maximumSize;
+
+    public InMemoryCasEventRepository(final Duration retention, final long maximumSize) {
+        this.retention = retention;
+        this.maximumSize = maximumSize;
+    }
+
+    private static long getBucketKey(final ZonedDateTime dateTime) {
+        return dateTime.toInstant().toEpochMilli() / BUCKET_DURATION_MILLIS;
+    }
+
+    private static String getPrincipalKey(final String principal) {
+        return StringUtils.defaultString(principal).toLowerCase();
+    }
 
     @Override
     public void save(final CasEvent event) {
-        cache.put(UUID.randomUUID().toString(), event);
+        val creationTime = convertEventCreationTime(event);
+        val dateTime = creationTime == null ? ZonedDateTime.now(ZoneOffset.UTC) : creationTime;
+        if (dateTime.isBefore(getRetentionStart())) {
+            LOGGER.debug("Event [{}] created at [{}] is past the retention period and will not be stored", event.getEventId(), dateTime);
+            return;
+        }
+        val key = getBucketKey(dateTime);
+        var bucket = this.buckets.computeIfAbsent(key, k -> new EventBucket());
+        while (!bucket.add(event)) {
+            this.buckets.remove(key, bucket);
+            bucket = this.buckets.computeIfAbsent(key, k -> new EventBucket());
+        }
+        this.size.incrementAndGet();
+        evict();
     }
 
     @Override
     public Collection<? extends CasEvent> load() {
-        return cache.asMap().values();
+        return this.buckets.values()
+            .stream()
+            .flatMap(EventBucket::stream)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public Collection<? extends CasEvent> load(final ZonedDateTime dateTime) {
+        return getBucketsSince(dateTime)
+            .flatMap(EventBucket::stream)
+            .filter(e -> isCreatedOnOrAfter(e, dateTime))
+            .collect(Collectors.toList());
     }
 
     @Override
     public Collection<? extends CasEvent> getEventsForPrincipal(final String id) {
-        return cache
-            .asMap()
-            .values()
+        val principal = getPrincipalKey(id);
+        return this.buckets.values()
             .stream()
-            .filter(e -> e.getPrincipalId().equalsIgnoreCase(id))
-            .collect(Collectors.toSet());
+            .flatMap(bucket -> bucket.stream(principal))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public Collection<? extends CasEvent> getEventsForPrincipal(final String id, final ZonedDateTime dateTime) {
+        val principal = getPrincipalKey(id);
+        return getBucketsSince(dateTime)
+            .flatMap(bucket -> bucket.stream(principal))
+            .filter(e -> isCreatedOnOrAfter(e, dateTime))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Number of stored events.
+     *
+     * @return the size
+     */
+    public long size() {
+        return this.size.get();
+    }
+
+    private Stream<EventBucket> getBucketsSince(final ZonedDateTime dateTime) {
+        return this.buckets.tailMap(getBucketKey(dateTime), true).values().stream();
+    }
+
+    private ZonedDateTime getRetentionStart() {
+        return ZonedDateTime.now(ZoneOffset.UTC).minus(this.retention);
+    }
+
+    private void evict() {
+        this.evictionLock.lock();
+        try {
+            this.buckets.headMap(getBucketKey(getRetentionStart()), false).forEach((key, bucket) -> {
+                if (this.buckets.remove(key, bucket)) {
+                    this.size.addAndGet(-bucket.evict());
+                }
+            });
+
+            while (this.size.get() > this.maximumSize) {
+                val oldest = this.buckets.firstEntry();
+                if (oldest == null) {
+                    break;
+                }
+                val bucket = oldest.getValue();
+                val evicted = bucket.evictOldest(this.size.get() - this.maximumSize);
+                LOGGER.debug("Evicted [{}] events to stay within the maximum of [{}] events", evicted, this.maximumSize);
+                this.size.addAndGet(-evicted);
+                if (bucket.isEvicted()) {
+                    this.buckets.remove(oldest.getKey(), bucket);
+                }
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Events created within the same period, indexed by principal.
+     * Events are added concurrently, while eviction waits for pending additions to complete.
+     */
+    private static class EventBucket {
+        private final Map<String, Queue<CasEvent>> events = new ConcurrentHashMap<>();
+
+        private final Queue<CasEvent> saved = new ConcurrentLinkedQueue<>();
+
+        private final AtomicLong size = new AtomicLong();
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private boolean evicted;
+
+        boolean add(final CasEvent event) {
+            this.lock.readLock().lock();
+            try {
+                if (this.evicted) {
+                    return false;
+                }
+                this.events.computeIfAbsent(getPrincipalKey(event.getPrincipalId()), k -> new ConcurrentLinkedQueue<>()).add(event);
+                this.saved.add(event);
+                this.size.incrementAndGet();
+                return true;
+            } finally {
+                this.lock.readLock().unlock();
+            }
+        }
+
+        long evict() {
+            this.lock.writeLock().lock();
+            try {
+                this.evicted = true;
+                return this.size.get();
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Evict up to the given number of events, in the order they were saved.
+         * The bucket is evicted as a whole once no events are left.
+         */
+        long evictOldest(final long count) {
+            this.lock.writeLock().lock();
+            try {
+                var evictedCount = 0L;
+                while (evictedCount < count) {
+                    val event = this.saved.poll();
+                    if (event == null) {
+                        break;
+                    }
+                    val principal = getPrincipalKey(event.getPrincipalId());
+                    val principalEvents = this.events.get(principal);
+                    if (principalEvents != null) {
+                        principalEvents.remove(event);
+                        if (principalEvents.isEmpty()) {
+                            this.events.remove(principal);
+                        }
+                    }
+                    evictedCount++;
+                }
+                this.size.addAndGet(-evictedCount);
+                this.evicted = this.saved.isEmpty();
+                return evictedCount;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+
+        boolean isEvicted() {
+            this.lock.readLock().lock();
+            try {
+                return this.evicted;
+            } finally {
+                this.lock.readLock().unlock();
+            }
+        }
+
+        Stream<CasEvent> stream() {
+            return this.events.values().stream().flatMap(Collection::stream);
+        }
+
+        Stream<CasEvent> stream(final String principal) {
+            val found = this.events.get(principal);
+            return found == null ? Stream.empty() : found.stream();
+        }
     }
 }
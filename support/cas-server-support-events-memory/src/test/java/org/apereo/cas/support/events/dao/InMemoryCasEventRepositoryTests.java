@@ -5,11 +5,23 @@ import org.apereo.cas.support.events.CasEventRepository;
 import org.apereo.cas.support.events.config.CasEventsInMemoryRepositoryConfiguration;
 
 import lombok.Getter;
+import lombok.val;
+import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 /**
  * This is {@link InMemoryCasEventRepositoryTests}.
  *
@@ -25,4 +37,97 @@ public class InMemoryCasEventRepositoryTests extends AbstractCasEventRepositoryT
     @Autowired
     @Qualifier("casEventRepository")
     private CasEventRepository eventRepository;
+
+    private static CasEvent getCasEvent(final String type, final String principal, final ZonedDateTime creationTime) {
+        val event = new CasEvent();
+        event.setType(type);
+        event.setPrincipalId(principal);
+        event.setCreationTime(creationTime.toString());
+        return event;
+    }
+
+    @Test
+    public void verifyQueriesByPrincipalTypeAndDate() {
+        val repository = new InMemoryCasEventRepository(Duration.ofDays(30), 100);
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        repository.save(getCasEvent("login", "casuser", now.minusDays(10)));
+        repository.save(getCasEvent("login", "CASUSER", now.minusHours(2)));
+        repository.save(getCasEvent("logout", "casuser", now.minusMinutes(5)));
+        repository.save(getCasEvent("login", "other", now.minusMinutes(1)));
+        repository.save(getCasEvent("login", "casuser", now.minusDays(40)));
+
+        assertEquals(4, repository.size());
+        assertEquals(4, repository.load().size());
+        assertEquals(3, repository.load(now.minusHours(3)).size());
+        assertEquals(3, repository.getEventsForPrincipal("casuser").size());
+        assertEquals(2, repository.getEventsForPrincipal("casuser", now.minusHours(3)).size());
+        assertEquals(3, repository.getEventsOfType("login").size());
+        assertEquals(2, repository.getEventsOfType("login", now.minusHours(3)).size());
+        assertEquals(2, repository.getEventsOfTypeForPrincipal("login", "casuser").size());
+        assertEquals(1, repository.getEventsOfTypeForPrincipal("login", "casuser", now.minusHours(3)).size());
+    }
+
+    @Test
+    public void verifyOldestEventsEvicted() {
+        val repository = new InMemoryCasEventRepository(Duration.ofDays(30), 2);
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        val oldest = getCasEvent("login", "casuser", now.minusDays(3));
+        repository.save(oldest);
+        repository.save(getCasEvent("login", "casuser", now.minusDays(2)));
+        repository.save(getCasEvent("login", "casuser", now.minusDays(1)));
+        assertEquals(2, repository.size());
+        assertFalse(repository.load().contains(oldest));
+    }
+
+    @Test
+    public void verifyOldestEventsEvictedWithinBucket() {
+        val repository = new InMemoryCasEventRepository(Duration.ofDays(30), 2);
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        val first = getCasEvent("login", "casuser", now);
+        val second = getCasEvent("login", "other", now);
+        val third = getCasEvent("login", "casuser", now);
+        repository.save(first);
+        repository.save(second);
+        repository.save(third);
+        assertEquals(2, repository.size());
+        val events = repository.load();
+        assertFalse(events.contains(first));
+        assertTrue(events.contains(second));
+        assertTrue(events.contains(third));
+        assertEquals(1, repository.getEventsForPrincipal("casuser").size());
+
+        val fourth = getCasEvent("login", "casuser", now);
+        repository.save(fourth);
+        assertEquals(2, repository.size());
+        assertTrue(repository.load().contains(fourth));
+    }
+
+    @Test
+    public void verifyEventWithoutPrincipal() {
+        val repository = new InMemoryCasEventRepository(Duration.ofDays(30), 100);
+        repository.save(getCasEvent("login", null, ZonedDateTime.now(ZoneOffset.UTC)));
+        assertEquals(1, repository.size());
+        assertEquals(1, repository.getEventsOfType("login").size());
+        assertTrue(repository.getEventsForPrincipal("casuser").isEmpty());
+    }
+
+    @Test
+    public void verifySizeWithConcurrentEviction() throws Exception {
+        val repository = new InMemoryCasEventRepository(Duration.ofDays(30), 50);
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        val executor = Executors.newFixedThreadPool(4);
+        try {
+            val tasks = IntStream.range(0, 400)
+                .mapToObj(i -> (Callable<Object>) () -> {
+                    repository.save(getCasEvent("login", "casuser" + i, now.minusHours(i % 10)));
+                    return null;
+                })
+                .collect(Collectors.toList());
+            executor.invokeAll(tasks);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(repository.load().size(), repository.size());
+        assertTrue(repository.size() <= 50);
+    }
 }
@@ -3,10 +3,12 @@ package org.apereo.cas.support.events.mongo;
 import org.apereo.cas.support.events.dao.AbstractCasEventRepository;
 import org.apereo.cas.support.events.dao.CasEvent;
 
-import lombok.RequiredArgsConstructor;
 import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 
@@ -20,12 +22,18 @@ import java.util.Collection;
  * @since 5.0.0
  */
 @ToString
-@RequiredArgsConstructor
+@Slf4j
 public class MongoDbCasEventRepository extends AbstractCasEventRepository {
 
     private final MongoOperations mongoTemplate;
     private final String collectionName;
 
+    public MongoDbCasEventRepository(final MongoOperations mongoTemplate, final String collectionName) {
+        this.mongoTemplate = mongoTemplate;
+        this.collectionName = collectionName;
+        createIndexes();
+    }
+
     @Override
     public void save(final CasEvent event) {
         this.mongoTemplate.save(event, this.collectionName);
@@ -84,4 +92,21 @@ public class MongoDbCasEventRepository extends AbstractCasEventRepository {
         query.addCriteria(Criteria.where(PRINCIPAL_ID_PARAM).is(principal).and(CREATION_TIME_PARAM).gte(dateTime.toString()));
         return this.mongoTemplate.find(query, CasEvent.class, this.collectionName);
     }
+
+    /**
+     * Create indexes that back the queries of this repository, so that events
+     * are looked up by principal, type and creation time without scanning the collection.
+     */
+    private void createIndexes() {
+        LOGGER.trace("Creating indices on collection [{}] to query events by principal, type and creation time", this.collectionName);
+        val indexOps = this.mongoTemplate.indexOps(this.collectionName);
+        indexOps.ensureIndex(new Index()
+            .on(PRINCIPAL_ID_PARAM, Sort.Direction.ASC)
+            .on(CREATION_TIME_PARAM, Sort.Direction.ASC));
+        indexOps.ensureIndex(new Index()
+            .on(TYPE_PARAM, Sort.Direction.ASC)
+            .on(PRINCIPAL_ID_PARAM, Sort.Direction.ASC)
+            .on(CREATION_TIME_PARAM, Sort.Direction.ASC));
+        indexOps.ensureIndex(new Index().on(CREATION_TIME_PARAM, Sort.Direction.ASC));
+    }
 }
@@ -3,6 +3,7 @@ package org.apereo.cas.support.geo.config;
 import org.apereo.cas.authentication.adaptive.geo.GeoLocationService;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.support.geo.CachingGeoLocationService;
 import org.apereo.cas.support.geo.google.GoogleMapsGeoLocationService;
 
 import com.google.maps.GaeRequestHandler;
@@ -49,6 +50,7 @@ public class GoogleMapsGeoCodingConfiguration {
 
         val svc = new GoogleMapsGeoLocationService(builder.build());
         svc.setIpStackAccessKey(properties.getIpStackApiAccessKey());
-        return svc;
+        return new CachingGeoLocationService(svc, properties.getCacheMaximumSize(),
+            Beans.newDuration(properties.getCacheExpiration()), Beans.newDuration(properties.getCacheMissExpiration()));
     }
 }
@@ -15,6 +15,8 @@ import java.util.Arrays;
 
 /**
  * This is {@link GoogleMapsGeoLocationService}.
+ * Locations that cannot be reverse-geocoded because of an error produce no response,
+ * so that the failure is not remembered as a result when lookups are cached.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -53,6 +55,7 @@ public class GoogleMapsGeoLocationService extends AbstractGeoLocationService {
             }
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
+            return null;
         }
         return r;
     }
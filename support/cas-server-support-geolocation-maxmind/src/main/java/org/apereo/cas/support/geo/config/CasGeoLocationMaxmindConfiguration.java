@@ -2,9 +2,11 @@ package org.apereo.cas.support.geo.config;
 
 import org.apereo.cas.authentication.adaptive.geo.GeoLocationService;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.support.geo.CachingGeoLocationService;
 import org.apereo.cas.support.geo.maxmind.MaxmindDatabaseGeoLocationService;
+import org.apereo.cas.util.ResourceUtils;
 
-import com.maxmind.db.CHMCache;
 import com.maxmind.geoip2.DatabaseReader;
 import lombok.SneakyThrows;
 import lombok.val;
@@ -43,12 +45,19 @@ public class CasGeoLocationMaxmindConfiguration {
 
         val svc = new MaxmindDatabaseGeoLocationService(cityDatabase, countryDatabase);
         svc.setIpStackAccessKey(properties.getIpStackApiAccessKey());
-        return svc;
+        if (cityDatabase != null && ResourceUtils.isFile(properties.getCityDatabase())) {
+            svc.watchCityDatabase(properties.getCityDatabase().getFile());
+        }
+        if (countryDatabase != null && ResourceUtils.isFile(properties.getCountryDatabase())) {
+            svc.watchCountryDatabase(properties.getCountryDatabase().getFile());
+        }
+        return new CachingGeoLocationService(svc, properties.getCacheMaximumSize(),
+            Beans.newDuration(properties.getCacheExpiration()), Beans.newDuration(properties.getCacheMissExpiration()));
     }
 
     private static DatabaseReader readDatabase(final Resource maxmindDatabase) throws IOException {
         if (maxmindDatabase != null && maxmindDatabase.exists()) {
-            return new DatabaseReader.Builder(maxmindDatabase.getFile()).withCache(new CHMCache()).build();
+            return MaxmindDatabaseGeoLocationService.readDatabase(maxmindDatabase.getFile());
         }
         return null;
     }
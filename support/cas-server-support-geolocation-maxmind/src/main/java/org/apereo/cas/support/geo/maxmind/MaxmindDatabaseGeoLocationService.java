@@ -2,35 +2,100 @@ package org.apereo.cas.support.geo.maxmind;
 
 import org.apereo.cas.authentication.adaptive.geo.GeoLocationResponse;
 import org.apereo.cas.support.geo.AbstractGeoLocationService;
+import org.apereo.cas.support.geo.CachingGeoLocationService;
+import org.apereo.cas.util.io.PathWatcherService;
 
+import com.maxmind.db.CHMCache;
+import com.maxmind.db.Reader;
 import com.maxmind.geoip2.DatabaseReader;
 import com.maxmind.geoip2.exception.AddressNotFoundException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.apache.commons.io.IOUtils;
+import org.springframework.beans.factory.DisposableBean;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * This is {@link MaxmindDatabaseGeoLocationService} that reads geo data
  * from a maxmind database and constructs a geo location based on the ip address.
  * Default caching of the databases is enabled by default.
+ * Databases are memory-mapped, and may be watched so that they are reloaded
+ * once the database file is replaced.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
  */
 @Slf4j
-@RequiredArgsConstructor
-public class MaxmindDatabaseGeoLocationService extends AbstractGeoLocationService {
-    private final DatabaseReader cityDatabaseReader;
-    private final DatabaseReader countryDatabaseReader;
+public class MaxmindDatabaseGeoLocationService extends AbstractGeoLocationService implements DisposableBean {
+    private final AtomicReference<DatabaseReader> cityDatabaseReader;
+
+    private final AtomicReference<DatabaseReader> countryDatabaseReader;
+
+    private final List<PathWatcherService> watchers = new ArrayList<>();
+
+    public MaxmindDatabaseGeoLocationService(final DatabaseReader cityDatabaseReader, final DatabaseReader countryDatabaseReader) {
+        this.cityDatabaseReader = new AtomicReference<>(cityDatabaseReader);
+        this.countryDatabaseReader = new AtomicReference<>(countryDatabaseReader);
+    }
+
+    /**
+     * Open the database file in memory-mapped mode.
+     *
+     * @param file the database file
+     * @return the database reader
+     * @throws IOException if the database cannot be read
+     */
+    public static DatabaseReader readDatabase(final File file) throws IOException {
+        return new DatabaseReader.Builder(file)
+            .fileMode(Reader.FileMode.MEMORY_MAPPED)
+            .withCache(new CHMCache())
+            .build();
+    }
+
+    private static void reload(final File file, final AtomicReference<DatabaseReader> reader) {
+        try {
+            LOGGER.info("Reloading Maxmind database [{}]", file);
+            val previous = reader.getAndSet(readDatabase(file));
+            IOUtils.closeQuietly(previous);
+        } catch (final Exception e) {
+            LOGGER.error("Unable to reload Maxmind database [{}]; continuing with the database previously loaded: [{}]", file, e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Watch the city database file, and reload the database once the file is created or modified.
+     *
+     * @param file the file
+     */
+    public void watchCityDatabase(final File file) {
+        watch(file, this.cityDatabaseReader);
+    }
+
+    /**
+     * Watch the country database file, and reload the database once the file is created or modified.
+     *
+     * @param file the file
+     */
+    public void watchCountryDatabase(final File file) {
+        watch(file, this.countryDatabaseReader);
+    }
 
     @Override
     public GeoLocationResponse locate(final InetAddress address) {
         try {
             val location = new GeoLocationResponse();
-            if (this.cityDatabaseReader != null) {
-                val response = this.cityDatabaseReader.city(address);
+            val cityReader = this.cityDatabaseReader.get();
+            var countryName = (String) null;
+            if (cityReader != null) {
+                val response = cityReader.city(address);
                 location.addAddress(response.getCity().getName());
                 val loc = response.getLocation();
                 if (loc != null) {
@@ -41,11 +106,13 @@ public class MaxmindDatabaseGeoLocationService extends AbstractGeoLocationServic
                         location.setLongitude(loc.getLongitude());
                     }
                 }
+                countryName = response.getCountry().getName();
             }
-            if (this.countryDatabaseReader != null) {
-                val response = this.countryDatabaseReader.country(address);
-                location.addAddress(response.getCountry().getName());
+            val countryReader = this.countryDatabaseReader.get();
+            if (countryName == null && countryReader != null) {
+                countryName = countryReader.country(address).getCountry().getName();
             }
+            location.addAddress(countryName);
             LOGGER.debug("Geo location for [{}] is calculated as [{}]", address, location);
             return location;
         } catch (final AddressNotFoundException e) {
@@ -58,12 +125,12 @@ public class MaxmindDatabaseGeoLocationService extends AbstractGeoLocationServic
 
     @Override
     public GeoLocationResponse locate(final String address) {
-        try {
-            return locate(InetAddress.getByName(address));
-        } catch (final Exception e) {
-            LOGGER.error(e.getMessage(), e);
+        val inetAddress = CachingGeoLocationService.toInetAddress(address);
+        if (inetAddress.isEmpty()) {
+            LOGGER.warn("[{}] is not a literal IP address and cannot be geo-located", address);
+            return null;
         }
-        return null;
+        return locate(inetAddress.get());
     }
 
     @Override
@@ -71,4 +138,24 @@ public class MaxmindDatabaseGeoLocationService extends AbstractGeoLocationServic
         LOGGER.warn("Geo-locating an address by latitude/longitude [{}]/[{}] is not supported", latitude, longitude);
         return null;
     }
+
+    @Override
+    public void destroy() {
+        this.watchers.forEach(PathWatcherService::close);
+        IOUtils.closeQuietly(this.cityDatabaseReader.getAndSet(null));
+        IOUtils.closeQuietly(this.countryDatabaseReader.getAndSet(null));
+    }
+
+    private void watch(final File file, final AtomicReference<DatabaseReader> reader) {
+        val path = file.getAbsoluteFile();
+        final Consumer<File> reload = changed -> {
+            if (changed.getAbsoluteFile().equals(path)) {
+                reload(path, reader);
+            }
+        };
+        val watcher = new PathWatcherService(path.getParentFile().toPath(), reload, reload, changed -> {
+        });
+        watcher.start(getClass().getSimpleName() + '-' + file.getName());
+        this.watchers.add(watcher);
+    }
 }
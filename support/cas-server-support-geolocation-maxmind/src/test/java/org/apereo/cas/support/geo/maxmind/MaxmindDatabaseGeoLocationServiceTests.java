@@ -1,5 +1,7 @@
 package org.apereo.cas.support.geo.maxmind;
 
+import org.apereo.cas.support.geo.CachingGeoLocationService;
+
 import com.maxmind.geoip2.DatabaseReader;
 import com.maxmind.geoip2.model.CityResponse;
 import com.maxmind.geoip2.model.CountryResponse;
@@ -14,8 +16,11 @@ import com.maxmind.geoip2.record.Traits;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.net.InetAddress;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,19 +33,28 @@ import static org.mockito.Mockito.*;
  */
 public class MaxmindDatabaseGeoLocationServiceTests {
 
-    @Test
-    public void verifyOperation() throws Exception {
+    private static DatabaseReader getCityDatabaseReader() throws Exception {
         val city = mock(DatabaseReader.class);
         val cityResponse = new CityResponse(new City(), new Continent(), new Country(),
             new Location(), new MaxMind(), new Postal(),
             new Country(), new RepresentedCountry(), new ArrayList<>(), new Traits());
         when(city.city(any(InetAddress.class))).thenReturn(cityResponse);
+        return city;
+    }
 
+    private static DatabaseReader getCountryDatabaseReader() throws Exception {
         val country = mock(DatabaseReader.class);
         val countryResponse = new CountryResponse(new Continent(), new Country(),
             new MaxMind(), new Country(),
             new RepresentedCountry(), new Traits());
         when(country.country(any(InetAddress.class))).thenReturn(countryResponse);
+        return country;
+    }
+
+    @Test
+    public void verifyOperation() throws Exception {
+        val city = getCityDatabaseReader();
+        val country = getCountryDatabaseReader();
 
         val service = new MaxmindDatabaseGeoLocationService(city, country);
         val response = service.locate("127.0.0.1");
@@ -48,4 +62,52 @@ public class MaxmindDatabaseGeoLocationServiceTests {
         val response2 = service.locate(100D, 100D);
         assertNull(response2);
     }
+
+    @Test
+    public void verifyHostNamesAreNotResolved() throws Exception {
+        val city = getCityDatabaseReader();
+        val service = new MaxmindDatabaseGeoLocationService(city, null);
+        assertNull(service.locate("localhost"));
+        assertNull(service.locate("127.0.0.1.example.org"));
+        verify(city, never()).city(any(InetAddress.class));
+        assertNotNull(service.locate("::1"));
+    }
+
+    @Test
+    public void verifyCachedLookups() throws Exception {
+        val city = getCityDatabaseReader();
+        val country = getCountryDatabaseReader();
+        val service = new CachingGeoLocationService(new MaxmindDatabaseGeoLocationService(city, country),
+            100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        assertNotNull(service.locate("127.0.0.1"));
+        assertNotNull(service.locate(" 127.0.0.1 "));
+        assertNotNull(service.locate(InetAddress.getByName("127.0.0.1")));
+        assertNull(service.locate(100D, 100D));
+        assertNull(service.locate(100.00001D, 100D));
+        verify(city, times(1)).city(any(InetAddress.class));
+        verify(country, times(1)).country(any(InetAddress.class));
+        service.destroy();
+    }
+
+    @Test
+    public void verifyMissesExpireSooner() throws Exception {
+        val city = getCityDatabaseReader();
+        val cityResponse = city.city(InetAddress.getByName("127.0.0.1"));
+        reset(city);
+        when(city.city(any(InetAddress.class)))
+            .thenThrow(new IOException("Database is being replaced"))
+            .thenReturn(cityResponse);
+        val time = new AtomicLong();
+        val service = new CachingGeoLocationService(new MaxmindDatabaseGeoLocationService(city, null),
+            100, Duration.ofHours(1), Duration.ofMinutes(1), time::get);
+        assertNull(service.locate("127.0.0.1"));
+        time.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertNull(service.locate("127.0.0.1"));
+        time.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertNotNull(service.locate("127.0.0.1"));
+        time.addAndGet(Duration.ofMinutes(59).toNanos());
+        assertNotNull(service.locate("127.0.0.1"));
+        verify(city, times(2)).city(any(InetAddress.class));
+        service.destroy();
+    }
 }
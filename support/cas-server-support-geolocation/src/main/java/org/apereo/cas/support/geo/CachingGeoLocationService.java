@@ -0,0 +1,155 @@
+package org.apereo.cas.support.geo;
+
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationResponse;
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationService;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.google.common.net.InetAddresses;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * This is {@link CachingGeoLocationService} that remembers the results of another
+ * {@link GeoLocationService} for a while, so that repeated lookups for the same address or
+ * location are answered from memory. Addresses are keyed by their normalized form and
+ * only accepted as literal IP addresses, so a lookup never triggers a DNS resolution.
+ * Locations are keyed by their coordinates rounded to four decimal places, roughly 11 meters.
+ * Lookups that produce no result are cached for a much shorter period, since the delegate
+ * cannot tell an unknown address apart from a transient failure such as an unavailable
+ * geo location provider or a database that is being replaced.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Slf4j
+public class CachingGeoLocationService implements GeoLocationService, DisposableBean {
+    private final GeoLocationService delegate;
+
+    private final Cache<String, Optional<GeoLocationResponse>> cache;
+
+    public CachingGeoLocationService(final GeoLocationService delegate, final long maximumSize,
+                                     final Duration expiration, final Duration missExpiration) {
+        this(delegate, maximumSize, expiration, missExpiration, Ticker.systemTicker());
+    }
+
+    public CachingGeoLocationService(final GeoLocationService delegate, final long maximumSize,
+                                     final Duration expiration, final Duration missExpiration, final Ticker ticker) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .ticker(ticker)
+            .expireAfter(new ResultExpiry(expiration.toNanos(), Math.min(expiration.toNanos(), missExpiration.toNanos())))
+            .build();
+    }
+
+    /**
+     * Parse the address as a literal IPv4 or IPv6 address, without resolving host names.
+     *
+     * @param address the address
+     * @return the address, or empty if the value is not a literal IP address
+     */
+    public static Optional<InetAddress> toInetAddress(final String address) {
+        if (StringUtils.isBlank(address) || !InetAddresses.isInetAddress(address.trim())) {
+            return Optional.empty();
+        }
+        return Optional.of(InetAddresses.forString(address.trim()));
+    }
+
+    private static String getLocationKey(final double latitude, final double longitude) {
+        return String.format(Locale.ROOT, "%.4f,%.4f", latitude, longitude);
+    }
+
+    @Override
+    public GeoLocationResponse locate(final InetAddress address) {
+        return lookup(InetAddresses.toAddrString(address), () -> delegate.locate(address));
+    }
+
+    @Override
+    public GeoLocationResponse locate(final String ipAddress) {
+        val address = toInetAddress(ipAddress);
+        if (address.isEmpty()) {
+            LOGGER.debug("[{}] is not a literal IP address and cannot be geo-located", ipAddress);
+            return null;
+        }
+        return locate(address.get());
+    }
+
+    @Override
+    public GeoLocationResponse locate(final Double latitude, final Double longitude) {
+        if (latitude == null || longitude == null) {
+            return delegate.locate(latitude, longitude);
+        }
+        return lookup(getLocationKey(latitude, longitude), () -> delegate.locate(latitude, longitude));
+    }
+
+    @Override
+    public GeoLocationResponse locate(final String ip, final GeoLocationRequest request) {
+        val loc = locate(ip);
+        if (loc == null && request != null
+            && StringUtils.isNotBlank(request.getLatitude()) && StringUtils.isNotBlank(request.getLongitude())) {
+            return locate(request);
+        }
+        return loc;
+    }
+
+    @Override
+    public GeoLocationResponse locate(final GeoLocationRequest request) {
+        return locate(Double.valueOf(request.getLatitude()), Double.valueOf(request.getLongitude()));
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        this.cache.invalidateAll();
+        if (this.delegate instanceof DisposableBean) {
+            ((DisposableBean) this.delegate).destroy();
+        }
+    }
+
+    private GeoLocationResponse lookup(final String key, final Supplier<GeoLocationResponse> lookup) {
+        return this.cache.get(key, k -> {
+            LOGGER.trace("Geo location for [{}] is not cached; looking it up", k);
+            return Optional.ofNullable(lookup.get());
+        }).orElse(null);
+    }
+
+    /**
+     * Expires results after the configured expiration, and missing results
+     * after the (shorter) miss expiration.
+     */
+    @RequiredArgsConstructor
+    private static class ResultExpiry implements Expiry<String, Optional<GeoLocationResponse>> {
+        private final long expirationNanos;
+
+        private final long missExpirationNanos;
+
+        @Override
+        public long expireAfterCreate(final String key, final Optional<GeoLocationResponse> value, final long currentTime) {
+            return value.isPresent() ? expirationNanos : missExpirationNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(final String key, final Optional<GeoLocationResponse> value,
+                                      final long currentTime, final long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final String key, final Optional<GeoLocationResponse> value,
+                                    final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
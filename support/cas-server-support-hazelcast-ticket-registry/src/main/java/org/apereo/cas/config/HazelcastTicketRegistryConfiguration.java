@@ -3,13 +3,14 @@ package org.apereo.cas.config;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.hz.HazelcastConfigurationFactory;
 import org.apereo.cas.ticket.TicketCatalog;
-import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.registry.HazelcastTicketRegistry;
 import org.apereo.cas.ticket.registry.NoOpTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
 import org.apereo.cas.util.CoreTicketUtils;
 
+import com.hazelcast.config.MapIndexConfig;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import lombok.extern.slf4j.Slf4j;
@@ -55,9 +56,15 @@ public class HazelcastTicketRegistryConfiguration {
         var catalog = ticketCatalog.getObject();
         catalog.findAll()
             .stream()
-            .map(TicketDefinition::getProperties)
-            .peek(p -> LOGGER.debug("Created Hazelcast map configuration for [{}]", p))
-            .map(p -> factory.buildMapConfig(hz, p.getStorageName(), p.getStorageTimeout()))
+            .peek(defn -> LOGGER.debug("Created Hazelcast map configuration for [{}]", defn.getProperties()))
+            .map(defn -> {
+                val p = defn.getProperties();
+                val mapConfig = factory.buildMapConfig(hz, p.getStorageName(), p.getStorageTimeout());
+                if (TicketGrantingTicket.class.isAssignableFrom(defn.getImplementationClass())) {
+                    mapConfig.addMapIndexConfig(new MapIndexConfig(HazelcastTicketRegistry.PRINCIPAL_ID_ATTRIBUTE, false));
+                }
+                return mapConfig;
+            })
             .forEach(m -> hazelcastInstance.getConfig().addMapConfig(m));
         val r = new HazelcastTicketRegistry(hazelcastInstance,
             catalog,
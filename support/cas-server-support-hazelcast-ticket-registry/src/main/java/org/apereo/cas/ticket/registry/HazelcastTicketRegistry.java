@@ -1,11 +1,14 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
+import com.hazelcast.query.Predicates;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -15,9 +18,12 @@ import org.springframework.beans.factory.DisposableBean;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Hazelcast-based implementation of a {@link TicketRegistry}.
@@ -25,6 +31,8 @@ import java.util.stream.Collectors;
  * which is an extension of the standard Java's {@code ConcurrentMap}.</p>
  * <p>The heavy lifting of distributed data partitioning, network cluster discovery and
  * join, data replication, etc. is done by Hazelcast's Map implementation.</p>
+ * <p>Ticket-granting tickets are looked up by principal via a query on the
+ * {@value #PRINCIPAL_ID_ATTRIBUTE} attribute, which should be indexed in the map configuration.</p>
  *
  * @author Dmitriy Kopylenko
  * @author Jonathan Johnson
@@ -33,6 +41,11 @@ import java.util.stream.Collectors;
 @Slf4j
 @RequiredArgsConstructor
 public class HazelcastTicketRegistry extends AbstractTicketRegistry implements AutoCloseable, DisposableBean {
+    /**
+     * Attribute of ticket-granting tickets that holds the principal index key.
+     */
+    public static final String PRINCIPAL_ID_ATTRIBUTE = "principalId";
+
     private final HazelcastInstance hazelcastInstance;
     private final TicketCatalog ticketCatalog;
     private final long pageSize;
@@ -86,6 +99,28 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements A
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The ticket entry is locked across the cluster while it is consumed,
+     * so that only one node is able to consume a given use of the ticket.
+     */
+    @Override
+    public <T extends Ticket> T consumeTicket(final String ticketId, final Class<T> clazz, final Consumer<T> validator) {
+        val encTicketId = encodeTicketId(ticketId);
+        val metadata = this.ticketCatalog.find(ticketId);
+        if (StringUtils.isBlank(encTicketId) || metadata == null) {
+            return super.consumeTicket(ticketId, clazz, validator);
+        }
+        val map = getTicketMapInstanceByMetadata(metadata);
+        map.lock(encTicketId);
+        try {
+            return super.consumeTicket(ticketId, clazz, validator);
+        } finally {
+            map.unlock(encTicketId);
+        }
+    }
+
     @Override
     public boolean deleteSingleTicket(final String ticketIdToDelete) {
         val encTicketId = encodeTicketId(ticketIdToDelete);
@@ -124,6 +159,28 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements A
             .collect(Collectors.toSet());
     }
 
+    @Override
+    public Stream<? extends TicketGrantingTicket> getSessionsFor(final String principalId) {
+        val predicate = Predicates.equal(PRINCIPAL_ID_ATTRIBUTE, getPrincipalIndexKey(principalId));
+        return this.ticketCatalog.find(TicketGrantingTicket.class)
+            .stream()
+            .map(metadata -> getTicketMapInstanceByMetadata(metadata).values(predicate))
+            .flatMap(Collection::stream)
+            .map(this::decodeTicket)
+            .filter(ticket -> isSessionFor(ticket, principalId))
+            .map(TicketGrantingTicket.class::cast);
+    }
+
+    @Override
+    public long sessionCount() {
+        return countTickets(TicketGrantingTicket.PREFIX).orElseGet(super::sessionCount);
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return countTickets(ServiceTicket.PREFIX).orElseGet(super::serviceTicketCount);
+    }
+
     /**
      * Make sure we shutdown HazelCast when the context is destroyed.
      */
@@ -146,6 +203,21 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements A
         shutdown();
     }
 
+    /**
+     * Count tickets by the size of the maps that hold them, without reading or decoding them.
+     *
+     * @param prefix the ticket prefix
+     * @return the count, if the maps hold no other tickets
+     */
+    private Optional<Long> countTickets(final String prefix) {
+        return getTicketStorageNames(this.ticketCatalog, prefix)
+            .map(names -> names.stream()
+                .map(this::getTicketMapInstance)
+                .filter(Objects::nonNull)
+                .mapToLong(IMap::size)
+                .sum());
+    }
+
     private IMap<String, Ticket> getTicketMapInstance(final String mapName) {
         try {
             val inst = hazelcastInstance.<String, Ticket>getMap(mapName);
@@ -2,9 +2,11 @@ package org.apereo.cas.ticket.registry;
 
 import org.apereo.cas.configuration.model.support.ignite.IgniteProperties;
 import org.apereo.cas.ticket.ExpirationPolicy;
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +15,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteCache;
 import org.apache.ignite.IgniteState;
+import org.apache.ignite.cache.CachePeekMode;
 import org.apache.ignite.Ignition;
 import org.apache.ignite.cache.query.ScanQuery;
 import org.apache.ignite.configuration.IgniteConfiguration;
@@ -23,6 +26,7 @@ import javax.cache.expiry.Duration;
 import javax.cache.expiry.ExpiryPolicy;
 import java.util.Collection;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -137,6 +141,16 @@ public class IgniteTicketRegistry extends AbstractTicketRegistry implements Disp
         return ticket;
     }
 
+    @Override
+    public long sessionCount() {
+        return countTickets(TicketGrantingTicket.PREFIX).orElseGet(super::sessionCount);
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return countTickets(ServiceTicket.PREFIX).orElseGet(super::serviceTicketCount);
+    }
+
     /**
      * Make sure we shutdown Ignite when the context is destroyed.
      */
@@ -169,6 +183,20 @@ public class IgniteTicketRegistry extends AbstractTicketRegistry implements Disp
         return getIgniteCacheInstanceByName(mapName);
     }
 
+    /**
+     * Count tickets by the size of the caches that hold them, without reading or decoding them.
+     *
+     * @param prefix the ticket prefix
+     * @return the count, if the caches hold no other tickets
+     */
+    private Optional<Long> countTickets(final String prefix) {
+        return getTicketStorageNames(this.ticketCatalog, prefix)
+            .map(names -> names.stream()
+                .map(this::getIgniteCacheInstanceByName)
+                .mapToLong(cache -> cache.sizeLong(CachePeekMode.PRIMARY))
+                .sum());
+    }
+
     private IgniteCache<String, Ticket> getIgniteCacheInstanceByName(final String name) {
         LOGGER.trace("Attempting to get/create cache [{}]", name);
         return this.ignite.getOrCreateCache(name);
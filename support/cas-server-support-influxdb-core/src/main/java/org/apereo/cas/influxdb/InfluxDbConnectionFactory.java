@@ -10,11 +10,13 @@ import org.apache.commons.lang3.StringUtils;
 import org.influxdb.InfluxDB;
 import org.influxdb.InfluxDBFactory;
 import org.influxdb.dto.BatchPoints;
+import org.influxdb.dto.BoundParameterQuery;
 import org.influxdb.dto.Point;
 import org.influxdb.dto.Query;
 import org.influxdb.dto.QueryResult;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -160,6 +162,23 @@ public class InfluxDbConnectionFactory implements AutoCloseable {
         return this.influxDb.query(query);
     }
 
+    /**
+     * Query result, filtered by the given condition whose parameters are bound to the query.
+     *
+     * @param fields      the fields
+     * @param measurement the measurement
+     * @param condition   the where clause, referring to parameters as {@code $name}
+     * @param parameters  the parameters to bind
+     * @return the query result
+     */
+    public QueryResult query(final String fields, final String measurement,
+                             final String condition, final Map<String, Object> parameters) {
+        val filter = String.format("SELECT %s FROM %s WHERE %s", fields, measurement, condition);
+        val builder = BoundParameterQuery.QueryBuilder.newQuery(filter).forDatabase(influxDbProperties.getDatabase());
+        parameters.forEach(builder::bind);
+        return this.influxDb.query(builder.create());
+    }
+
     @Override
     public void close() {
         this.influxDb.close();
@@ -2,11 +2,13 @@ package org.apereo.cas.config;
 
 import org.apereo.cas.StringBean;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.ticket.registry.JmsTicketRegistry;
 import org.apereo.cas.ticket.registry.JmsTicketRegistryReceiver;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.util.CoreTicketUtils;
 
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,11 +17,14 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
 import org.springframework.jms.config.JmsListenerContainerFactory;
 import org.springframework.jms.core.JmsTemplate;
 
 import javax.jms.ConnectionFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This is {@link JmsTicketRegistryConfiguration}.
@@ -28,6 +33,7 @@ import javax.jms.ConnectionFactory;
  * @since 5.2.0
  */
 @Configuration("jmsTicketRegistryConfiguration")
+@Slf4j
 @EnableConfigurationProperties(CasConfigurationProperties.class)
 public class JmsTicketRegistryConfiguration {
     @Autowired
@@ -36,6 +42,8 @@ public class JmsTicketRegistryConfiguration {
     @Autowired
     private ObjectProvider<JmsTemplate> jmsTemplate;
 
+    private final AtomicBoolean bootstrapped = new AtomicBoolean();
+
     @Bean
     public StringBean messageQueueTicketRegistryIdentifier() {
         return new StringBean();
@@ -43,7 +51,7 @@ public class JmsTicketRegistryConfiguration {
 
     @Bean
     public JmsTicketRegistryReceiver messageQueueTicketRegistryReceiver() {
-        return new JmsTicketRegistryReceiver(ticketRegistry(), messageQueueTicketRegistryIdentifier());
+        return new JmsTicketRegistryReceiver((JmsTicketRegistry) ticketRegistry(), messageQueueTicketRegistryIdentifier());
     }
 
     @Lazy
@@ -51,7 +59,26 @@ public class JmsTicketRegistryConfiguration {
     public TicketRegistry ticketRegistry() {
         val jms = casProperties.getTicket().getRegistry().getJms();
         val cipher = CoreTicketUtils.newTicketRegistryCipherExecutor(jms.getCrypto(), "jms");
-        return new JmsTicketRegistry(this.jmsTemplate.getIfAvailable(), messageQueueTicketRegistryIdentifier(), cipher);
+        return new JmsTicketRegistry(this.jmsTemplate.getIfAvailable(), messageQueueTicketRegistryIdentifier(), cipher,
+            Beans.newDuration(jms.getFlushInterval()), jms.getBatchSize());
+    }
+
+    /**
+     * Load a snapshot of tickets from a peer once the application context is refreshed,
+     * which is after message listeners are started and before the web server accepts requests.
+     *
+     * @param event the event
+     * @throws Exception the exception
+     */
+    @EventListener
+    public void bootstrapTicketRegistry(final ContextRefreshedEvent event) throws Exception {
+        val jms = casProperties.getTicket().getRegistry().getJms();
+        if (jms.isBootstrapEnabled() && bootstrapped.compareAndSet(false, true)) {
+            val registry = (JmsTicketRegistry) ticketRegistry();
+            registry.bootstrap(Beans.newDuration(jms.getBootstrapTimeout()));
+        } else {
+            LOGGER.trace("Ticket registry is not bootstrapped from a snapshot of its peers");
+        }
     }
 
     @Autowired
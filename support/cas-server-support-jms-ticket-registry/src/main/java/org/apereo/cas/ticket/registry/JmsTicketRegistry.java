@@ -4,68 +4,382 @@ import org.apereo.cas.StringBean;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.registry.queue.AddTicketMessageQueueCommand;
 import org.apereo.cas.ticket.registry.queue.BaseMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.BatchMessageQueueCommand;
 import org.apereo.cas.ticket.registry.queue.DeleteTicketMessageQueueCommand;
 import org.apereo.cas.ticket.registry.queue.DeleteTicketsMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.SnapshotAcceptMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.SnapshotMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.SnapshotOfferMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.SnapshotRequestMessageQueueCommand;
 import org.apereo.cas.ticket.registry.queue.UpdateTicketMessageQueueCommand;
 import org.apereo.cas.util.crypto.CipherExecutor;
 
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.jms.core.JmsTemplate;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
 /**
  * This is {@link JmsTicketRegistry}.
+ * <p>
+ * Changes made to this registry are replicated to its peers as queue commands.
+ * When a flush interval is defined, commands are queued and coalesced per ticket,
+ * so that only the latest change to a ticket is replicated, and are then sent
+ * in batches on a background thread; otherwise every change is sent as it is made.
+ * Commands received from peers are applied locally and are not replicated again.
+ * A registry may also ask its peers for a snapshot of their tickets once it starts;
+ * peers offer to send one, and only the first peer whose offer is accepted sends its tickets.
+ * Tickets changed while the registry waits for the snapshot are not overwritten by it.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
  */
 @Slf4j
-public class JmsTicketRegistry extends DefaultTicketRegistry {
+public class JmsTicketRegistry extends DefaultTicketRegistry implements DisposableBean {
     /**
      * Queue destination name.
      */
     public static final String QUEUE_DESTINATION = "CasJmsTicketRegistry";
 
+    private static final String DELETE_ALL_KEY = "*";
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final ThreadLocal<Boolean> replicationSuppressed = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final Map<String, BaseMessageQueueCommand> pendingCommands = new LinkedHashMap<>();
+
+    private final CountDownLatch snapshotLatch = new CountDownLatch(1);
+
+    private final Set<String> bootstrapChanges = new HashSet<>();
+
     private final JmsTemplate jmsTemplate;
+
     private final StringBean id;
 
+    private final int batchSize;
+
+    private final ScheduledExecutorService scheduler;
+
+    private StringBean snapshotSource;
+
+    private volatile boolean bootstrapping;
+
     public JmsTicketRegistry(final JmsTemplate jmsTemplate, final StringBean id) {
         this(jmsTemplate, id, CipherExecutor.noOp());
     }
 
     public JmsTicketRegistry(final JmsTemplate jmsTemplate, final StringBean id, final CipherExecutor cipherExecutor) {
+        this(jmsTemplate, id, cipherExecutor, Duration.ZERO, DEFAULT_BATCH_SIZE);
+    }
+
+    public JmsTicketRegistry(final JmsTemplate jmsTemplate, final StringBean id, final CipherExecutor cipherExecutor,
+                             final Duration flushInterval, final int batchSize) {
         super(cipherExecutor);
         this.jmsTemplate = jmsTemplate;
         this.id = id;
+        this.batchSize = Math.max(1, batchSize);
+        if (flushInterval.isZero() || flushInterval.isNegative()) {
+            this.scheduler = null;
+        } else {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                val thread = new Thread(r, getClass().getSimpleName() + '-' + id.getId());
+                thread.setDaemon(true);
+                return thread;
+            });
+            val interval = flushInterval.toMillis();
+            this.scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
     public void addTicket(final Ticket ticket) {
+        recordBootstrapChange(ticket.getId());
         super.addTicket(ticket);
-        publishMessageToQueue(new AddTicketMessageQueueCommand(id, ticket));
+        replicate(ticket.getId(), new AddTicketMessageQueueCommand(id, ticket));
+    }
+
+    @Override
+    public int deleteTicket(final String ticketId) {
+        recordBootstrapChange(ticketId);
+        return super.deleteTicket(ticketId);
     }
 
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
+        recordBootstrapChange(ticketId);
         val result = super.deleteSingleTicket(ticketId);
-        publishMessageToQueue(new DeleteTicketMessageQueueCommand(id, ticketId));
+        replicate(ticketId, new DeleteTicketMessageQueueCommand(id, ticketId));
         return result;
     }
 
     @Override
     public long deleteAll() {
+        recordBootstrapChange(DELETE_ALL_KEY);
         val result = super.deleteAll();
-        publishMessageToQueue(new DeleteTicketsMessageQueueCommand(id));
+        replicate(DELETE_ALL_KEY, new DeleteTicketsMessageQueueCommand(id));
         return result;
     }
 
     @Override
     public Ticket updateTicket(final Ticket ticket) {
-        val result = super.updateTicket(ticket);
-        publishMessageToQueue(new UpdateTicketMessageQueueCommand(id, ticket));
+        recordBootstrapChange(ticket.getId());
+        val result = withoutReplication(() -> super.updateTicket(ticket));
+        replicate(ticket.getId(), new UpdateTicketMessageQueueCommand(id, ticket));
         return result;
     }
 
+    /**
+     * Apply a command received from a peer to this registry.
+     * Changes made by the command are not replicated back to the peers.
+     *
+     * @param command the command
+     */
+    public void apply(final BaseMessageQueueCommand command) {
+        withoutReplication(() -> {
+            command.execute(this);
+            return null;
+        });
+    }
+
+    /**
+     * Send the pending commands to the peers, in batches.
+     * Commands that cannot be sent are queued again in their original order, ahead of the commands
+     * queued in the meantime, unless a newer command for the same ticket, or a newer deletion
+     * of all tickets, was queued in the meantime.
+     */
+    public void flush() {
+        val commands = drainPendingCommands();
+        for (var i = 0; i < commands.size(); i += batchSize) {
+            val batch = commands.subList(i, Math.min(i + batchSize, commands.size()));
+            try {
+                val queued = batch.stream().map(Map.Entry::getValue).collect(Collectors.toList());
+                publishMessageToQueue(queued.size() == 1 ? queued.get(0) : new BatchMessageQueueCommand(id, queued));
+            } catch (final Exception e) {
+                LOGGER.warn("Unable to send [{}] queue command(s) from ticket registry id [{}]; they will be retried: [{}]",
+                    batch.size(), id.getId(), e.getMessage());
+                LOGGER.debug(e.getMessage(), e);
+                requeue(commands.subList(i, commands.size()));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Ask the peers for a snapshot of their tickets, and wait for the first one to arrive.
+     * Tickets added, updated or deleted while waiting keep their state, and are not loaded from the snapshot.
+     *
+     * @param timeout the amount of time to wait for a snapshot
+     * @return true if a snapshot was loaded before the timeout expired
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean bootstrap(final Duration timeout) throws InterruptedException {
+        LOGGER.debug("Requesting a snapshot of tickets for ticket registry id [{}]", id.getId());
+        synchronized (snapshotLatch) {
+            bootstrapping = true;
+        }
+        try {
+            publishMessageToQueue(new SnapshotRequestMessageQueueCommand(id));
+            val loaded = snapshotLatch.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (loaded) {
+                LOGGER.info("Loaded a snapshot of tickets for ticket registry id [{}] from ticket registry id [{}]", id.getId(), snapshotSource.getId());
+            } else {
+                LOGGER.info("No snapshot of tickets was received by ticket registry id [{}] within [{}]; "
+                    + "the registry starts with the tickets replicated to it so far", id.getId(), timeout);
+            }
+            return loaded;
+        } finally {
+            synchronized (snapshotLatch) {
+                bootstrapping = false;
+                bootstrapChanges.clear();
+            }
+        }
+    }
+
+    /**
+     * Offer to send a snapshot of the tickets held by this registry to the registry with the given id.
+     * Registries that are still waiting for a snapshot of their own do not offer one.
+     *
+     * @param target the registry id that requested a snapshot
+     */
+    public void offerSnapshot(final StringBean target) {
+        if (bootstrapping) {
+            LOGGER.trace("Ticket registry id [{}] is not offering a snapshot while waiting for one", id.getId());
+            return;
+        }
+        publishMessageToQueue(new SnapshotOfferMessageQueueCommand(id, target));
+    }
+
+    /**
+     * Accept the offer of a snapshot made by a peer, if no other offer was accepted before.
+     * Only the peer whose offer is accepted sends its tickets.
+     *
+     * @param source the registry id that offered the snapshot
+     */
+    public void acceptSnapshotOffer(final StringBean source) {
+        synchronized (snapshotLatch) {
+            if (!bootstrapping || snapshotSource != null) {
+                LOGGER.trace("Declining snapshot offered by ticket registry id [{}]", source.getId());
+                return;
+            }
+            snapshotSource = source;
+        }
+        LOGGER.debug("Accepting snapshot offered by ticket registry id [{}]", source.getId());
+        publishMessageToQueue(new SnapshotAcceptMessageQueueCommand(id, source));
+    }
+
+    /**
+     * Send a snapshot of the tickets held by this registry to the registry with the given id.
+     *
+     * @param target the registry id that requested the snapshot
+     */
+    public void publishSnapshot(final StringBean target) {
+        flush();
+        val tickets = getTickets().stream()
+            .filter(ticket -> !ticket.isExpired())
+            .collect(Collectors.toList());
+        LOGGER.debug("Sending a snapshot of [{}] ticket(s) to ticket registry id [{}]", tickets.size(), target.getId());
+        var i = 0;
+        do {
+            val chunk = tickets.subList(i, Math.min(i + batchSize, tickets.size()));
+            i += batchSize;
+            publishMessageToQueue(new SnapshotMessageQueueCommand(id, target, chunk, i >= tickets.size()));
+        } while (i < tickets.size());
+    }
+
+    /**
+     * Load tickets sent as part of a snapshot by a peer.
+     * Only the snapshot of the peer whose offer was accepted is loaded, while the registry waits for it.
+     * Tickets that are already present, or that were changed since the snapshot was requested,
+     * are newer than the snapshot and are left alone.
+     *
+     * @param source  the registry id that sent the snapshot
+     * @param tickets the tickets
+     * @param last    whether this is the last portion of the snapshot
+     */
+    public void loadSnapshot(final StringBean source, final Collection<Ticket> tickets, final boolean last) {
+        synchronized (snapshotLatch) {
+            if (!bootstrapping || !source.equals(snapshotSource) || snapshotLatch.getCount() == 0) {
+                LOGGER.trace("Ignoring snapshot from ticket registry id [{}]", source.getId());
+                return;
+            }
+            if (bootstrapChanges.contains(DELETE_ALL_KEY)) {
+                LOGGER.debug("Ignoring tickets in snapshot since all tickets were deleted after the snapshot was requested");
+            } else {
+                tickets.stream()
+                    .filter(ticket -> !bootstrapChanges.contains(ticket.getId()))
+                    .filter(ticket -> getTicket(ticket.getId(), found -> true) == null)
+                    .forEach(super::addTicket);
+            }
+            if (last) {
+                snapshotLatch.countDown();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        flush();
+    }
+
+    private void replicate(final String key, final BaseMessageQueueCommand command) {
+        if (replicationSuppressed.get()) {
+            LOGGER.trace("Change to [{}] is not replicated", key);
+            return;
+        }
+        if (scheduler == null) {
+            publishMessageToQueue(command);
+            return;
+        }
+        synchronized (pendingCommands) {
+            if (DELETE_ALL_KEY.equals(key)) {
+                pendingCommands.clear();
+            }
+            val previous = pendingCommands.remove(key);
+            if (previous instanceof AddTicketMessageQueueCommand && command instanceof UpdateTicketMessageQueueCommand) {
+                pendingCommands.put(key, new AddTicketMessageQueueCommand(id, ((UpdateTicketMessageQueueCommand) command).getTicket()));
+            } else {
+                pendingCommands.put(key, command);
+            }
+            if (pendingCommands.size() >= batchSize) {
+                scheduler.execute(this::flush);
+            }
+        }
+    }
+
+    private void requeue(final List<Map.Entry<String, BaseMessageQueueCommand>> commands) {
+        synchronized (pendingCommands) {
+            if (pendingCommands.containsKey(DELETE_ALL_KEY)) {
+                LOGGER.trace("Dropping [{}] queue command(s) superseded by the deletion of all tickets", commands.size());
+                return;
+            }
+            val requeued = new LinkedHashMap<String, BaseMessageQueueCommand>();
+            commands.stream()
+                .filter(entry -> !pendingCommands.containsKey(entry.getKey()))
+                .forEach(entry -> requeued.put(entry.getKey(), entry.getValue()));
+            pendingCommands.forEach((key, command) -> {
+                val previous = commands.stream().filter(entry -> entry.getKey().equals(key)).map(Map.Entry::getValue).findFirst();
+                if (previous.isPresent() && previous.get() instanceof AddTicketMessageQueueCommand && command instanceof UpdateTicketMessageQueueCommand) {
+                    requeued.put(key, new AddTicketMessageQueueCommand(id, ((UpdateTicketMessageQueueCommand) command).getTicket()));
+                } else {
+                    requeued.put(key, command);
+                }
+            });
+            pendingCommands.clear();
+            pendingCommands.putAll(requeued);
+        }
+    }
+
+    private void recordBootstrapChange(final String key) {
+        if (bootstrapping) {
+            synchronized (snapshotLatch) {
+                if (bootstrapping) {
+                    bootstrapChanges.add(key);
+                }
+            }
+        }
+    }
+
+    private <T> T withoutReplication(final Supplier<T> operation) {
+        if (replicationSuppressed.get()) {
+            return operation.get();
+        }
+        replicationSuppressed.set(Boolean.TRUE);
+        try {
+            return operation.get();
+        } finally {
+            replicationSuppressed.remove();
+        }
+    }
+
+    private List<Map.Entry<String, BaseMessageQueueCommand>> drainPendingCommands() {
+        synchronized (pendingCommands) {
+            val commands = pendingCommands.entrySet()
+                .stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+            pendingCommands.clear();
+            return commands;
+        }
+    }
+
     private void publishMessageToQueue(final BaseMessageQueueCommand cmd) {
         jmsTemplate.convertAndSend(QUEUE_DESTINATION, cmd,
             message -> {
@@ -16,7 +16,7 @@ import org.springframework.jms.annotation.JmsListener;
 @Slf4j
 @RequiredArgsConstructor
 public class JmsTicketRegistryReceiver {
-    private final TicketRegistry ticketRegistry;
+    private final JmsTicketRegistry ticketRegistry;
     private final StringBean ticketRegistryId;
 
     /**
@@ -26,10 +26,10 @@ public class JmsTicketRegistryReceiver {
      */
     @JmsListener(destination = JmsTicketRegistry.QUEUE_DESTINATION, containerFactory = "messageQueueTicketRegistryFactory")
     public void receive(final BaseMessageQueueCommand command) {
-        if (!command.getId().equals(this.ticketRegistryId)) {
+        if (command.isAddressedTo(this.ticketRegistryId)) {
             LOGGER.debug("Received message from ticket registry id [{}]. Executing command [{}]",
                 command.getId(), command.getClass().getSimpleName());
-            command.execute(this.ticketRegistry);
+            this.ticketRegistry.apply(command);
         } else {
             LOGGER.trace("Ignoring inbound command on ticket registry with id [{}]", this.ticketRegistryId);
         }
@@ -1,6 +1,7 @@
 package org.apereo.cas.ticket.registry.queue;
 
 import org.apereo.cas.StringBean;
+import org.apereo.cas.ticket.registry.JmsTicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
@@ -33,4 +34,25 @@ public abstract class BaseMessageQueueCommand implements Serializable {
      */
     public void execute(final TicketRegistry registry) {
     }
+
+    /**
+     * Execute the command on a JMS ticket registry.
+     * Commands that need to reply to their sender should override this method.
+     *
+     * @param registry the registry
+     */
+    public void execute(final JmsTicketRegistry registry) {
+        execute((TicketRegistry) registry);
+    }
+
+    /**
+     * Whether the command should be executed by the ticket registry with the given id.
+     * Commands are executed by every ticket registry other than the one that sent them.
+     *
+     * @param registryId the ticket registry id
+     * @return true/false
+     */
+    public boolean isAddressedTo(final StringBean registryId) {
+        return !this.id.equals(registryId);
+    }
 }
@@ -0,0 +1,50 @@
+package org.apereo.cas.ticket.registry.queue;
+
+import org.apereo.cas.StringBean;
+import org.apereo.cas.ticket.registry.JmsTicketRegistry;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This is {@link BatchMessageQueueCommand} that carries several commands,
+ * executed in the order in which they were issued.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS)
+@Slf4j
+@Getter
+public class BatchMessageQueueCommand extends BaseMessageQueueCommand {
+    private static final long serialVersionUID = 3527096127491416376L;
+
+    @JsonProperty
+    private ArrayList<BaseMessageQueueCommand> commands;
+
+    @JsonCreator
+    public BatchMessageQueueCommand(@JsonProperty("id") final StringBean id,
+                                    @JsonProperty("commands") final List<BaseMessageQueueCommand> commands) {
+        super(id);
+        this.commands = new ArrayList<>(commands);
+    }
+
+    @Override
+    public void execute(final TicketRegistry registry) {
+        LOGGER.debug("Executing [{}] queue command(s) on ticket registry id [{}]", commands.size(), getId().getId());
+        commands.forEach(command -> command.execute(registry));
+    }
+
+    @Override
+    public void execute(final JmsTicketRegistry registry) {
+        LOGGER.debug("Executing [{}] queue command(s) on ticket registry id [{}]", commands.size(), getId().getId());
+        commands.forEach(command -> command.execute(registry));
+    }
+}
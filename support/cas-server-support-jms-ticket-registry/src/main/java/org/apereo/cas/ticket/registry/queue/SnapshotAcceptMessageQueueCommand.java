@@ -0,0 +1,45 @@
+package org.apereo.cas.ticket.registry.queue;
+
+import org.apereo.cas.StringBean;
+import org.apereo.cas.ticket.registry.JmsTicketRegistry;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This is {@link SnapshotAcceptMessageQueueCommand} that is sent by a ticket registry to the one peer
+ * whose offer of a snapshot it accepted, asking it to send its tickets.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS)
+@Slf4j
+@Getter
+public class SnapshotAcceptMessageQueueCommand extends BaseMessageQueueCommand {
+    private static final long serialVersionUID = 6442817209557306718L;
+
+    @JsonProperty
+    private StringBean target;
+
+    @JsonCreator
+    public SnapshotAcceptMessageQueueCommand(@JsonProperty("id") final StringBean id,
+                                             @JsonProperty("target") final StringBean target) {
+        super(id);
+        this.target = target;
+    }
+
+    @Override
+    public boolean isAddressedTo(final StringBean registryId) {
+        return this.target.equals(registryId);
+    }
+
+    @Override
+    public void execute(final JmsTicketRegistry registry) {
+        LOGGER.debug("Executing queue command to send a snapshot of tickets to ticket registry id [{}]", getId().getId());
+        registry.publishSnapshot(getId());
+    }
+}
@@ -0,0 +1,67 @@
+package org.apereo.cas.ticket.registry.queue;
+
+import org.apereo.cas.StringBean;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.registry.JmsTicketRegistry;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * This is {@link SnapshotMessageQueueCommand} that carries a portion of the tickets
+ * held by a ticket registry to the registry that requested a snapshot.
+ * A snapshot may be split across several commands, the last of which is marked as such.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS)
+@Slf4j
+@Getter
+public class SnapshotMessageQueueCommand extends BaseMessageQueueCommand {
+    private static final long serialVersionUID = 5047297395458931925L;
+
+    @JsonProperty
+    private StringBean target;
+
+    @JsonProperty
+    private ArrayList<Ticket> tickets;
+
+    @JsonProperty
+    private boolean last;
+
+    @JsonCreator
+    public SnapshotMessageQueueCommand(@JsonProperty("id") final StringBean id,
+                                       @JsonProperty("target") final StringBean target,
+                                       @JsonProperty("tickets") final Collection<Ticket> tickets,
+                                       @JsonProperty("last") final boolean last) {
+        super(id);
+        this.target = target;
+        this.tickets = new ArrayList<>(tickets);
+        this.last = last;
+    }
+
+    @Override
+    public boolean isAddressedTo(final StringBean registryId) {
+        return this.target.equals(registryId);
+    }
+
+    @Override
+    public void execute(final TicketRegistry registry) {
+        LOGGER.debug("Executing queue command on ticket registry id [{}] to add [{}] ticket(s)", getId().getId(), tickets.size());
+        tickets.forEach(registry::addTicket);
+    }
+
+    @Override
+    public void execute(final JmsTicketRegistry registry) {
+        LOGGER.debug("Executing queue command on ticket registry id [{}] to load [{}] ticket(s) from a snapshot", getId().getId(), tickets.size());
+        registry.loadSnapshot(getId(), tickets, last);
+    }
+}
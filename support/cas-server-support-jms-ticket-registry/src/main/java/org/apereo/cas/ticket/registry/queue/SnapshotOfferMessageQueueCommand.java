@@ -0,0 +1,45 @@
+package org.apereo.cas.ticket.registry.queue;
+
+import org.apereo.cas.StringBean;
+import org.apereo.cas.ticket.registry.JmsTicketRegistry;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This is {@link SnapshotOfferMessageQueueCommand} that is sent by a ticket registry in reply to
+ * a snapshot request, offering to send a snapshot of its tickets to the registry that requested it.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS)
+@Slf4j
+@Getter
+public class SnapshotOfferMessageQueueCommand extends BaseMessageQueueCommand {
+    private static final long serialVersionUID = -3016284939712385427L;
+
+    @JsonProperty
+    private StringBean target;
+
+    @JsonCreator
+    public SnapshotOfferMessageQueueCommand(@JsonProperty("id") final StringBean id,
+                                            @JsonProperty("target") final StringBean target) {
+        super(id);
+        this.target = target;
+    }
+
+    @Override
+    public boolean isAddressedTo(final StringBean registryId) {
+        return this.target.equals(registryId);
+    }
+
+    @Override
+    public void execute(final JmsTicketRegistry registry) {
+        LOGGER.debug("Executing queue command to consider the snapshot offered by ticket registry id [{}]", getId().getId());
+        registry.acceptSnapshotOffer(getId());
+    }
+}
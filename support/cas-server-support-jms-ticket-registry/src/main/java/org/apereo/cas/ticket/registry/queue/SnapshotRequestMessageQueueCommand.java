@@ -0,0 +1,33 @@
+package org.apereo.cas.ticket.registry.queue;
+
+import org.apereo.cas.StringBean;
+import org.apereo.cas.ticket.registry.JmsTicketRegistry;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This is {@link SnapshotRequestMessageQueueCommand} that is sent by a ticket registry
+ * once it starts, asking its peers to offer it a snapshot of their tickets.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS)
+@Slf4j
+public class SnapshotRequestMessageQueueCommand extends BaseMessageQueueCommand {
+    private static final long serialVersionUID = -1570234817632593013L;
+
+    @JsonCreator
+    public SnapshotRequestMessageQueueCommand(@JsonProperty("id") final StringBean id) {
+        super(id);
+    }
+
+    @Override
+    public void execute(final JmsTicketRegistry registry) {
+        LOGGER.debug("Executing queue command to offer a snapshot of tickets to ticket registry id [{}]", getId().getId());
+        registry.offerSnapshot(getId());
+    }
+}
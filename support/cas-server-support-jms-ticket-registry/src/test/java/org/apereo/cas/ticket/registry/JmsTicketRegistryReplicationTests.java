@@ -0,0 +1,272 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.StringBean;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
+import org.apereo.cas.ticket.registry.queue.AddTicketMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.BaseMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.BatchMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.DeleteTicketMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.DeleteTicketsMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.SnapshotAcceptMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.SnapshotMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.SnapshotOfferMessageQueueCommand;
+import org.apereo.cas.ticket.registry.queue.SnapshotRequestMessageQueueCommand;
+import org.apereo.cas.util.crypto.CipherExecutor;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessagePostProcessor;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link JmsTicketRegistryReplicationTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public class JmsTicketRegistryReplicationTests {
+    private static TicketGrantingTicket getTicket(final String id) {
+        return new TicketGrantingTicketImpl(id, CoreAuthenticationTestUtils.getAuthentication(),
+            NeverExpiresExpirationPolicy.INSTANCE);
+    }
+
+    private static ArgumentCaptor<BaseMessageQueueCommand> getSentCommands(final JmsTemplate jmsTemplate, final int count) {
+        val captor = ArgumentCaptor.forClass(BaseMessageQueueCommand.class);
+        verify(jmsTemplate, times(count)).convertAndSend(eq(JmsTicketRegistry.QUEUE_DESTINATION), captor.capture(), any(MessagePostProcessor.class));
+        return captor;
+    }
+
+    private static void connect(final JmsTemplate jmsTemplate, final Map<StringBean, JmsTicketRegistry> network) {
+        doAnswer(invocation -> {
+            val command = (BaseMessageQueueCommand) invocation.getArgument(1);
+            network.forEach((id, registry) -> {
+                if (command.isAddressedTo(id)) {
+                    registry.apply(command);
+                }
+            });
+            return null;
+        }).when(jmsTemplate).convertAndSend(eq(JmsTicketRegistry.QUEUE_DESTINATION), any(BaseMessageQueueCommand.class), any(MessagePostProcessor.class));
+    }
+
+    private static JmsTicketRegistry getTicketRegistry(final JmsTemplate jmsTemplate, final int batchSize) {
+        return new JmsTicketRegistry(jmsTemplate, new StringBean(), CipherExecutor.noOp(), Duration.ofMinutes(1), batchSize);
+    }
+
+    @Test
+    public void verifyChangesAreCoalesced() {
+        val jmsTemplate = mock(JmsTemplate.class);
+        val registry = getTicketRegistry(jmsTemplate, 100);
+        val ticket = getTicket("TGT-1");
+        registry.addTicket(ticket);
+        ticket.grantServiceTicket("ST-1", CoreAuthenticationTestUtils.getService(), NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        registry.updateTicket(ticket);
+        registry.updateTicket(ticket);
+        getSentCommands(jmsTemplate, 0);
+
+        registry.flush();
+        val command = getSentCommands(jmsTemplate, 1).getValue();
+        assertTrue(command instanceof AddTicketMessageQueueCommand);
+        val sent = (TicketGrantingTicket) ((AddTicketMessageQueueCommand) command).getTicket();
+        assertEquals(1, sent.getServices().size());
+
+        registry.flush();
+        getSentCommands(jmsTemplate, 1);
+        registry.destroy();
+    }
+
+    @Test
+    public void verifyChangesAreBatched() {
+        val jmsTemplate = mock(JmsTemplate.class);
+        val registry = getTicketRegistry(jmsTemplate, 2);
+        registry.addTicket(getTicket("TGT-1"));
+        registry.addTicket(getTicket("TGT-2"));
+        registry.addTicket(getTicket("TGT-3"));
+        registry.deleteSingleTicket("TGT-2");
+        registry.flush();
+
+        val commands = getSentCommands(jmsTemplate, 2).getAllValues();
+        assertTrue(commands.get(0) instanceof BatchMessageQueueCommand);
+        assertEquals(2, ((BatchMessageQueueCommand) commands.get(0)).getCommands().size());
+        assertTrue(commands.get(1) instanceof DeleteTicketMessageQueueCommand);
+
+        val peer = new JmsTicketRegistry(mock(JmsTemplate.class), new StringBean());
+        commands.forEach(peer::apply);
+        assertNotNull(peer.getTicket("TGT-1"));
+        assertNull(peer.getTicket("TGT-2"));
+        assertNotNull(peer.getTicket("TGT-3"));
+        registry.destroy();
+    }
+
+    @Test
+    public void verifyFailedCommandsAreRetriedAheadOfNewerOnes() {
+        val jmsTemplate = mock(JmsTemplate.class);
+        val registry = getTicketRegistry(jmsTemplate, 100);
+        registry.deleteAll();
+        registry.addTicket(getTicket("TGT-1"));
+        doAnswer(invocation -> {
+            registry.addTicket(getTicket("TGT-2"));
+            throw new IllegalStateException("Unable to send");
+        }).doNothing()
+            .when(jmsTemplate).convertAndSend(eq(JmsTicketRegistry.QUEUE_DESTINATION), any(BaseMessageQueueCommand.class), any(MessagePostProcessor.class));
+        registry.flush();
+        registry.flush();
+
+        val command = getSentCommands(jmsTemplate, 2).getValue();
+        assertTrue(command instanceof BatchMessageQueueCommand);
+        val commands = ((BatchMessageQueueCommand) command).getCommands();
+        assertEquals(3, commands.size());
+        assertTrue(commands.get(0) instanceof DeleteTicketsMessageQueueCommand);
+        assertEquals("TGT-1", ((AddTicketMessageQueueCommand) commands.get(1)).getTicket().getId());
+        assertEquals("TGT-2", ((AddTicketMessageQueueCommand) commands.get(2)).getTicket().getId());
+
+        val peer = new JmsTicketRegistry(mock(JmsTemplate.class), new StringBean());
+        peer.addTicket(getTicket("TGT-0"));
+        peer.apply(command);
+        assertNull(peer.getTicket("TGT-0"));
+        assertNotNull(peer.getTicket("TGT-1"));
+        assertNotNull(peer.getTicket("TGT-2"));
+        registry.destroy();
+    }
+
+    @Test
+    public void verifyAppliedCommandsAreNotReplicated() {
+        val jmsTemplate = mock(JmsTemplate.class);
+        val registry = new JmsTicketRegistry(jmsTemplate, new StringBean());
+        val command = new AddTicketMessageQueueCommand(new StringBean(), getTicket("TGT-1"));
+        assertTrue(command.isAddressedTo(new StringBean()));
+        registry.apply(command);
+        assertNotNull(registry.getTicket("TGT-1"));
+        getSentCommands(jmsTemplate, 0);
+
+        registry.deleteSingleTicket("TGT-1");
+        getSentCommands(jmsTemplate, 1);
+    }
+
+    @Test
+    public void verifyBootstrapFromSnapshot() throws Exception {
+        val peerTemplate = mock(JmsTemplate.class);
+        val peerId = new StringBean();
+        val peer = new JmsTicketRegistry(peerTemplate, peerId, CipherExecutor.noOp(), Duration.ofMinutes(1), 2);
+        peer.addTicket(getTicket("TGT-1"));
+        peer.addTicket(getTicket("TGT-2"));
+        peer.addTicket(getTicket("TGT-3"));
+        peer.flush();
+        clearInvocations(peerTemplate);
+
+        val registryTemplate = mock(JmsTemplate.class);
+        val id = new StringBean();
+        val registry = new JmsTicketRegistry(registryTemplate, id);
+        val network = new LinkedHashMap<StringBean, JmsTicketRegistry>();
+        network.put(peerId, peer);
+        network.put(id, registry);
+        connect(peerTemplate, network);
+        connect(registryTemplate, network);
+
+        assertTrue(registry.bootstrap(Duration.ofSeconds(1)));
+        assertEquals(3, registry.getTickets().size());
+
+        val sent = getSentCommands(registryTemplate, 2).getAllValues();
+        assertTrue(sent.get(0) instanceof SnapshotRequestMessageQueueCommand);
+        assertTrue(sent.get(1) instanceof SnapshotAcceptMessageQueueCommand);
+
+        val replies = getSentCommands(peerTemplate, 3).getAllValues();
+        assertTrue(replies.get(0) instanceof SnapshotOfferMessageQueueCommand);
+        assertTrue(replies.get(0).isAddressedTo(id));
+        assertFalse(replies.get(0).isAddressedTo(new StringBean()));
+        assertTrue(replies.get(2) instanceof SnapshotMessageQueueCommand);
+        assertTrue(((SnapshotMessageQueueCommand) replies.get(2)).isLast());
+        peer.destroy();
+    }
+
+    @Test
+    public void verifyOnlyAcceptedPeerSendsSnapshot() throws Exception {
+        val firstTemplate = mock(JmsTemplate.class);
+        val firstId = new StringBean();
+        val first = new JmsTicketRegistry(firstTemplate, firstId);
+        first.addTicket(getTicket("TGT-1"));
+
+        val secondTemplate = mock(JmsTemplate.class);
+        val secondId = new StringBean();
+        val second = new JmsTicketRegistry(secondTemplate, secondId);
+        second.addTicket(getTicket("TGT-2"));
+        clearInvocations(firstTemplate, secondTemplate);
+
+        val registryTemplate = mock(JmsTemplate.class);
+        val id = new StringBean();
+        val registry = new JmsTicketRegistry(registryTemplate, id);
+        val network = new LinkedHashMap<StringBean, JmsTicketRegistry>();
+        network.put(firstId, first);
+        network.put(secondId, second);
+        network.put(id, registry);
+        connect(firstTemplate, network);
+        connect(secondTemplate, network);
+        connect(registryTemplate, network);
+
+        assertTrue(registry.bootstrap(Duration.ofSeconds(1)));
+        assertNotNull(registry.getTicket("TGT-1"));
+        assertNull(registry.getTicket("TGT-2"));
+        getSentCommands(registryTemplate, 2);
+        getSentCommands(firstTemplate, 2);
+        assertTrue(getSentCommands(secondTemplate, 1).getValue() instanceof SnapshotOfferMessageQueueCommand);
+    }
+
+    @Test
+    public void verifySnapshotDoesNotOverwriteChangesMadeDuringBootstrap() throws Exception {
+        val peerTemplate = mock(JmsTemplate.class);
+        val peerId = new StringBean();
+        val peer = new JmsTicketRegistry(peerTemplate, peerId);
+        peer.addTicket(getTicket("TGT-1"));
+        peer.addTicket(getTicket("TGT-2"));
+        peer.addTicket(getTicket("TGT-3"));
+        clearInvocations(peerTemplate);
+
+        val registryTemplate = mock(JmsTemplate.class);
+        val id = new StringBean();
+        val registry = new JmsTicketRegistry(registryTemplate, id);
+        val network = new LinkedHashMap<StringBean, JmsTicketRegistry>();
+        network.put(peerId, peer);
+        network.put(id, registry);
+        connect(peerTemplate, network);
+
+        val updated = getTicket("TGT-1");
+        updated.grantServiceTicket("ST-1", CoreAuthenticationTestUtils.getService(), NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        doAnswer(invocation -> {
+            val command = (BaseMessageQueueCommand) invocation.getArgument(1);
+            if (command instanceof SnapshotRequestMessageQueueCommand) {
+                registry.apply(new AddTicketMessageQueueCommand(peerId, updated));
+                registry.apply(new DeleteTicketMessageQueueCommand(peerId, "TGT-2"));
+            }
+            peer.apply(command);
+            return null;
+        }).when(registryTemplate).convertAndSend(eq(JmsTicketRegistry.QUEUE_DESTINATION), any(BaseMessageQueueCommand.class), any(MessagePostProcessor.class));
+
+        assertTrue(registry.bootstrap(Duration.ofSeconds(1)));
+        assertEquals(1, ((TicketGrantingTicket) registry.getTicket("TGT-1")).getServices().size());
+        assertNull(registry.getTicket("TGT-2"));
+        assertNotNull(registry.getTicket("TGT-3"));
+    }
+
+    @Test
+    public void verifyBootstrapWithoutPeers() throws Exception {
+        val id = new StringBean();
+        val registry = new JmsTicketRegistry(mock(JmsTemplate.class), id);
+        assertFalse(registry.bootstrap(Duration.ofMillis(100)));
+        val peerId = new StringBean();
+        registry.apply(new SnapshotOfferMessageQueueCommand(peerId, id));
+        registry.apply(new SnapshotMessageQueueCommand(peerId, id, List.of(getTicket("TGT-1")), true));
+        assertNull(registry.getTicket("TGT-1"));
+    }
+}
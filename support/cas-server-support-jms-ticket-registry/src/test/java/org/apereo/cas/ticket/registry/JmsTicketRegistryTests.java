@@ -57,7 +57,12 @@ import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
     CasPersonDirectoryConfiguration.class,
     RefreshAutoConfiguration.class
 },
-    properties = {"spring.activemq.pool.enabled=false", "spring.activemq.packages.trust-all=true"})
+    properties = {
+        "spring.activemq.pool.enabled=false",
+        "spring.activemq.packages.trust-all=true",
+        "cas.ticket.registry.jms.bootstrapEnabled=true",
+        "cas.ticket.registry.jms.bootstrapTimeout=PT1S"
+    })
 public class JmsTicketRegistryTests extends BaseTicketRegistryTests {
     @Autowired
     @Qualifier("ticketRegistry")
@@ -11,7 +11,9 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -62,6 +64,9 @@ public class JpaServiceRegistry extends AbstractServiceRegistry {
     public RegisteredService save(final RegisteredService registeredService) {
         val isNew = registeredService.getId() == RegisteredService.INITIAL_IDENTIFIER_VALUE;
         invokeServiceRegistryListenerPreSave(registeredService);
+        if (registeredService instanceof AbstractRegisteredService) {
+            AbstractRegisteredService.class.cast(registeredService).setLastModified(nextServiceVersion());
+        }
         val r = this.entityManager.merge(registeredService);
         if (!isNew) {
             this.entityManager.persist(r);
@@ -74,6 +79,16 @@ public class JpaServiceRegistry extends AbstractServiceRegistry {
         return this.entityManager.find(AbstractRegisteredService.class, id);
     }
 
+    @Override
+    public Optional<Map<Long, Long>> getServiceVersions() {
+        val query = String.format("SELECT r.id, r.lastModified from %s r", ENTITY_NAME);
+        val results = this.entityManager.createQuery(query, Object[].class).getResultList();
+        return Optional.of(results
+            .stream()
+            .collect(Collectors.toMap(row -> ((Number) row[0]).longValue(),
+                row -> row[1] == null ? 0L : ((Number) row[1]).longValue())));
+    }
+
     @Override
     public long size() {
         val query = String.format("SELECT count(r) from %s r", ENTITY_NAME);
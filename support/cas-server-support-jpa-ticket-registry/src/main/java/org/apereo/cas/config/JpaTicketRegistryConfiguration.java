@@ -5,16 +5,20 @@ import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.support.jpa.JpaConfigDataHolder;
 import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.configuration.support.JpaBeans;
+import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.ticket.AbstractTicket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.registry.JpaTicketRegistry;
-import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.registry.JpaTicketRegistryCleaner;
+import org.apereo.cas.ticket.registry.NoOpTicketRegistryCleaner;
+import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.support.JpaLockingStrategy;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
 import org.apereo.cas.util.CoreTicketUtils;
 import org.apereo.cas.util.InetAddressUtils;
 import org.apereo.cas.util.spring.ApplicationContextProvider;
 
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 import org.reflections.Reflections;
@@ -51,6 +55,7 @@ import java.util.stream.Collectors;
 @EnableConfigurationProperties(CasConfigurationProperties.class)
 @EnableTransactionManagement(proxyTargetClass = true)
 @AutoConfigureBefore(CasCoreTicketsConfiguration.class)
+@Slf4j
 public class JpaTicketRegistryConfiguration {
 
     @Autowired
@@ -101,13 +106,29 @@ public class JpaTicketRegistryConfiguration {
     @Autowired
     @Bean
     @RefreshScope
-    public TicketRegistry ticketRegistry(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog) {
+    public JpaTicketRegistry ticketRegistry(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog) {
         val jpa = casProperties.getTicket().getRegistry().getJpa();
         val bean = new JpaTicketRegistry(jpa.getTicketLockType(), ticketCatalog);
         bean.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(jpa.getCrypto(), "jpa"));
         return bean;
     }
 
+    @Autowired
+    @Bean
+    public TicketRegistryCleaner ticketRegistryCleaner(@Qualifier("lockingStrategy") final LockingStrategy lockingStrategy,
+                                                       @Qualifier("logoutManager") final LogoutManager logoutManager,
+                                                       @Qualifier("ticketRegistry") final JpaTicketRegistry ticketRegistry) {
+        val registry = casProperties.getTicket().getRegistry();
+        if (registry.getCleaner().getSchedule().isEnabled()) {
+            LOGGER.debug("Ticket registry cleaner for JPA is enabled.");
+            return new JpaTicketRegistryCleaner(lockingStrategy, logoutManager, ticketRegistry, registry.getJpa().getCleanerBatchSize());
+        }
+        LOGGER.debug("Ticket registry cleaner for JPA is not enabled. "
+            + "Expired tickets are not forcefully collected and cleaned by CAS. It is up to the ticket registry itself to "
+            + "clean up tickets based on expiration and eviction policies.");
+        return NoOpTicketRegistryCleaner.getInstance();
+    }
+
     @Bean
     public LockingStrategy lockingStrategy() {
         val registry = casProperties.getTicket().getRegistry();
@@ -1,10 +1,13 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.ticket.AbstractTicket;
+import org.apereo.cas.ticket.AbstractTicketException;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
 import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketState;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +15,7 @@ import lombok.val;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.LockOptions;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
@@ -22,8 +26,16 @@ import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -41,8 +53,20 @@ import java.util.stream.Stream;
 @Slf4j
 @RequiredArgsConstructor
 public class JpaTicketRegistry extends AbstractTicketRegistry {
+    /**
+     * Expiration time recorded for tickets whose policy never expires, so that
+     * they can be told apart from tickets whose expiration time is not yet recorded.
+     */
+    public static final ZonedDateTime NEVER_EXPIRES = ZonedDateTime.of(9999, 12, 31, 0, 0, 0, 0, ZoneOffset.UTC);
+
     private static final int STREAM_BATCH_SIZE = 100;
 
+    /**
+     * How long to postpone the next expiration check of a ticket whose policy
+     * does not define a usable time-to-live or time-to-idle.
+     */
+    private static final Duration DEFAULT_EXPIRATION_RECHECK = Duration.ofMinutes(5);
+
     private final LockModeType lockType;
     private final TicketCatalog ticketCatalog;
 
@@ -53,10 +77,67 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return ((Number) result).longValue();
     }
 
+    /**
+     * Estimate the instant at which the ticket expires, based on its current state.
+     * Tickets that are already expired are stamped with the current time,
+     * and tickets whose policy never expires are given {@link #NEVER_EXPIRES}.
+     * The estimate is only used to select cleanup candidates; the ticket's own
+     * expiration policy always has the final say.
+     *
+     * @param ticket the ticket
+     * @return the expiration time
+     */
+    private static ZonedDateTime getExpirationTime(final Ticket ticket) {
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        if (ticket.isExpired()) {
+            return now;
+        }
+        val policy = ticket.getExpirationPolicy();
+        if (policy == null) {
+            return NEVER_EXPIRES;
+        }
+        val timeToLive = ticket instanceof TicketState
+            ? policy.getTimeToLive((TicketState) ticket)
+            : policy.getTimeToLive();
+        val timeToIdle = policy.getTimeToIdle();
+
+        ZonedDateTime expirationTime = null;
+        if (isBoundedDuration(timeToLive) && ticket.getCreationTime() != null) {
+            expirationTime = ticket.getCreationTime().plusSeconds(timeToLive);
+        }
+        if (isBoundedDuration(timeToIdle) && ticket instanceof TicketState) {
+            val lastTimeUsed = ((TicketState) ticket).getLastTimeUsed();
+            val idleExpirationTime = Objects.requireNonNullElse(lastTimeUsed, now).plusSeconds(timeToIdle);
+            expirationTime = expirationTime == null || idleExpirationTime.isBefore(expirationTime) ? idleExpirationTime : expirationTime;
+        }
+        if (expirationTime != null && !expirationTime.isAfter(now)) {
+            val recheck = Stream.of(timeToLive, timeToIdle)
+                .filter(JpaTicketRegistry::isBoundedDuration)
+                .map(Duration::ofSeconds)
+                .min(Duration::compareTo)
+                .orElse(DEFAULT_EXPIRATION_RECHECK);
+            return now.plus(recheck);
+        }
+        return Objects.requireNonNullElse(expirationTime, NEVER_EXPIRES);
+    }
+
+    private static boolean isBoundedDuration(final Long seconds) {
+        return seconds != null && seconds > 0 && seconds < Integer.MAX_VALUE;
+    }
+
+    private static void setExpirationTime(final Ticket entity, final ZonedDateTime expirationTime) {
+        if (entity instanceof EncodedTicket) {
+            ((EncodedTicket) entity).setExpirationTime(expirationTime);
+        } else if (entity instanceof AbstractTicket) {
+            ((AbstractTicket) entity).setExpirationTime(expirationTime);
+        }
+    }
+
     @Override
     public Ticket updateTicket(final Ticket ticket) {
         LOGGER.trace("Updating ticket [{}]", ticket);
         val encodeTicket = this.encodeTicket(ticket);
+        setExpirationTime(encodeTicket, getExpirationTime(ticket));
         this.entityManager.merge(encodeTicket);
         LOGGER.debug("Updated ticket [{}].", encodeTicket);
         return encodeTicket;
@@ -65,6 +146,7 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
     @Override
     public void addTicket(final Ticket ticket) {
         val encodeTicket = encodeTicket(ticket);
+        setExpirationTime(encodeTicket, getExpirationTime(ticket));
         this.entityManager.persist(encodeTicket);
         LOGGER.debug("Added ticket [{}] to registry.", encodeTicket);
     }
@@ -106,6 +188,40 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The ticket row is locked for the remainder of the transaction before the ticket
+     * is consumed, so that concurrent attempts from this or any other node to consume the same
+     * ticket wait and then observe the outcome of the first.
+     * Tickets rejected by the validator do not roll back the transaction, so that
+     * tickets that expired as they were validated are still removed.
+     */
+    @Override
+    @Transactional(transactionManager = "ticketTransactionManager", noRollbackFor = AbstractTicketException.class)
+    public <T extends Ticket> T consumeTicket(final String ticketId, final Class<T> clazz, final Consumer<T> validator) {
+        val encTicketId = encodeTicketId(ticketId);
+        if (StringUtils.isBlank(encTicketId)) {
+            return null;
+        }
+        val tkt = ticketCatalog.find(ticketId);
+        if (tkt == null) {
+            LOGGER.debug("Ticket [{}] does not match any ticket definition", ticketId);
+            return null;
+        }
+        try {
+            val sql = String.format("SELECT t FROM %s t WHERE t.id = :id", getTicketEntityName(tkt));
+            entityManager.createQuery(sql, getTicketImplementationClass(tkt))
+                .setParameter("id", encTicketId)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getSingleResult();
+        } catch (final NoResultException e) {
+            LOGGER.debug("No record could be found for ticket [{}]", ticketId);
+            return null;
+        }
+        return super.consumeTicket(ticketId, clazz, validator);
+    }
+
     @Override
     public Collection<? extends Ticket> getTickets() {
         if (isCipherExecutorEnabled()) {
@@ -165,27 +281,59 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
             .map(this::decodeTicket);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Ticket-granting tickets are looked up by their indexed principal id column,
+     * which holds a digest of the principal id when tickets are encrypted.
+     */
     @Override
-    public long sessionCount() {
-        if (isCipherExecutorEnabled()) {
-            return getTicketsStream()
-                .filter(ticket -> ticket instanceof TicketGrantingTicket)
-                .count();
-        }
+    public Stream<? extends TicketGrantingTicket> getSessionsFor(final String principalId) {
         val md = this.ticketCatalog.find(TicketGrantingTicket.PREFIX);
-        val sql = String.format("SELECT COUNT(t) FROM %s t", getTicketEntityName(md));
-        val query = this.entityManager.createQuery(sql);
-        return countToLong(query.getSingleResult());
+        val sql = String.format("SELECT t FROM %s t WHERE t.principalId = :principalId", getTicketEntityName(md));
+        return entityManager.createQuery(sql, getTicketImplementationClass(md))
+            .setParameter("principalId", getPrincipalIndexKey(principalId))
+            .setLockMode(this.lockType)
+            .getResultList()
+            .stream()
+            .map(this::decodeTicket)
+            .filter(ticket -> isSessionFor(ticket, principalId))
+            .map(TicketGrantingTicket.class::cast);
+    }
+
+    @Override
+    public long sessionCount() {
+        return countTicketsByPrefix(TicketGrantingTicket.PREFIX);
     }
 
     @Override
     public long serviceTicketCount() {
+        return countTicketsByPrefix(ServiceTicket.PREFIX);
+    }
+
+    /**
+     * Count tickets stored for the ticket definition identified by the prefix, including
+     * all tickets whose type is a subtype of the definition's implementation class.
+     * Encoded tickets are counted via their recorded prefix, without decoding them;
+     * encoded tickets stored without a prefix are not counted until their prefix is recorded.
+     *
+     * @param prefix the ticket prefix
+     * @return the count
+     * @see #recordMissingPrefixes(String, int)
+     */
+    private long countTicketsByPrefix(final String prefix) {
+        val md = this.ticketCatalog.find(prefix);
         if (isCipherExecutorEnabled()) {
-            return getTicketsStream()
-                .filter(ticket -> ticket instanceof ServiceTicket)
-                .count();
+            val prefixes = this.ticketCatalog.findAll()
+                .stream()
+                .filter(defn -> md.getImplementationClass().isAssignableFrom(defn.getImplementationClass()))
+                .map(TicketDefinition::getPrefix)
+                .collect(Collectors.toList());
+            val sql = String.format("SELECT COUNT(t) FROM %s t WHERE t.prefix IN :prefixes", EncodedTicket.class.getSimpleName());
+            val query = this.entityManager.createQuery(sql);
+            query.setParameter("prefixes", prefixes);
+            return countToLong(query.getSingleResult());
         }
-        val md = this.ticketCatalog.find(ServiceTicket.PREFIX);
         val sql = String.format("SELECT COUNT(t) FROM %s t", getTicketEntityName(md));
         val query = this.entityManager.createQuery(sql);
         return countToLong(query.getSingleResult());
@@ -215,6 +363,132 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return totalCount != 0;
     }
 
+    /**
+     * Gets a batch of tickets whose recorded expiration time has passed.
+     * These are only candidates for removal: callers are expected to verify each
+     * with its own expiration policy, and to update those that have not yet expired
+     * so that their expiration time is recalculated.
+     *
+     * @param expirationTime the expiration time
+     * @param batchSize      the batch size
+     * @return the tickets
+     */
+    public List<Ticket> getExpiredTickets(final ZonedDateTime expirationTime, final int batchSize) {
+        val tickets = new ArrayList<Ticket>(batchSize);
+        for (val definition : getTicketEntityDefinitions()) {
+            if (tickets.size() >= batchSize) {
+                break;
+            }
+            val sql = String.format("SELECT t FROM %s t WHERE t.expirationTime <= :time", getTicketEntityName(definition));
+            entityManager.createQuery(sql, getTicketImplementationClass(definition))
+                .setParameter("time", expirationTime)
+                .setMaxResults(batchSize - tickets.size())
+                .getResultStream()
+                .map(this::decodeTicket)
+                .forEach(tickets::add);
+        }
+        return tickets;
+    }
+
+    /**
+     * Delete the given tickets in bulk, one statement per ticket entity,
+     * without any further processing such as removing their children.
+     *
+     * @param tickets the tickets
+     * @return the number of deleted tickets
+     */
+    public int deleteTickets(final Collection<? extends Ticket> tickets) {
+        return tickets.stream()
+            .collect(Collectors.groupingBy(ticket -> getTicketEntityName(this.ticketCatalog.find(ticket)),
+                Collectors.mapping(ticket -> encodeTicketId(ticket.getId()), Collectors.toList())))
+            .entrySet()
+            .stream()
+            .mapToInt(entry -> {
+                val sql = String.format("DELETE FROM %s t WHERE t.id IN :ids", entry.getKey());
+                val deleted = entityManager.createQuery(sql)
+                    .setParameter("ids", entry.getValue())
+                    .executeUpdate();
+                LOGGER.debug("Deleted [{}] expired [{}] entities", deleted, entry.getKey());
+                return deleted;
+            })
+            .sum();
+    }
+
+    /**
+     * Record the expiration time of a batch of tickets stored without one, such as tickets
+     * stored before expiration times were recorded, so that they can be selected for removal.
+     * Tickets are walked in the order of their id; each batch is committed in its own transaction
+     * and then detached, so that walking a large table neither holds a long transaction
+     * nor accumulates entities in the persistence context.
+     *
+     * @param definition the ticket definition of the ticket entity to walk
+     * @param afterId    the id of the last ticket of the previous batch, or blank to start
+     * @param batchSize  the batch size
+     * @return the id of the last ticket of this batch, or null once all tickets are visited
+     */
+    @Transactional(transactionManager = "ticketTransactionManager", propagation = Propagation.REQUIRES_NEW)
+    public String recordMissingExpirationTimes(final TicketDefinition definition, final String afterId, final int batchSize) {
+        val sql = String.format("SELECT t FROM %s t WHERE t.expirationTime IS NULL AND t.id > :id ORDER BY t.id",
+            getTicketEntityName(definition));
+        val entities = entityManager.createQuery(sql, getTicketImplementationClass(definition))
+            .setParameter("id", StringUtils.defaultString(afterId))
+            .setMaxResults(batchSize)
+            .getResultList();
+        if (entities.isEmpty()) {
+            return null;
+        }
+        entities.forEach(entity -> setExpirationTime(entity, getExpirationTime(decodeTicket(entity))));
+        val lastId = entities.get(entities.size() - 1).getId();
+        entityManager.flush();
+        entityManager.clear();
+        LOGGER.debug("Recorded the expiration time of [{}] [{}] entities", entities.size(), getTicketEntityName(definition));
+        return entities.size() < batchSize ? null : lastId;
+    }
+
+    /**
+     * Record the prefix of a batch of encoded tickets stored without one, such as tickets
+     * stored before prefixes were recorded, so that they can be counted without being decoded.
+     * Tickets are walked in the order of their id; each batch is committed in its own transaction
+     * and then detached.
+     *
+     * @param afterId   the id of the last ticket of the previous batch, or blank to start
+     * @param batchSize the batch size
+     * @return the id of the last ticket of this batch, or null once all tickets are visited
+     */
+    @Transactional(transactionManager = "ticketTransactionManager", propagation = Propagation.REQUIRES_NEW)
+    public String recordMissingPrefixes(final String afterId, final int batchSize) {
+        if (!isCipherExecutorEnabled()) {
+            return null;
+        }
+        val sql = String.format("SELECT t FROM %s t WHERE t.prefix IS NULL AND t.id > :id ORDER BY t.id", EncodedTicket.class.getSimpleName());
+        val entities = entityManager.createQuery(sql, EncodedTicket.class)
+            .setParameter("id", StringUtils.defaultString(afterId))
+            .setMaxResults(batchSize)
+            .getResultList();
+        if (entities.isEmpty()) {
+            return null;
+        }
+        entities.forEach(entity -> entity.setPrefix(decodeTicket(entity).getPrefix()));
+        val lastId = entities.get(entities.size() - 1).getId();
+        entityManager.flush();
+        entityManager.clear();
+        LOGGER.debug("Recorded the prefix of [{}] encoded tickets", entities.size());
+        return entities.size() < batchSize ? null : lastId;
+    }
+
+    /**
+     * Gets one ticket definition per ticket entity; all tickets are stored
+     * as a single entity when tickets are encrypted.
+     *
+     * @return the ticket definitions
+     */
+    public List<TicketDefinition> getTicketEntityDefinitions() {
+        return new ArrayList<>(this.ticketCatalog.findAll()
+            .stream()
+            .collect(Collectors.toMap(this::getTicketEntityName, Function.identity(), (first, second) -> first, LinkedHashMap::new))
+            .values());
+    }
+
     /**
      * Delete ticket granting tickets.
      *
@@ -0,0 +1,125 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.logout.LogoutManager;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.registry.support.LockingStrategy;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This is {@link JpaTicketRegistryCleaner}. Rather than loading every ticket
+ * from the database to check its expiration status, this cleaner relies on the
+ * indexed expiration time recorded by {@link JpaTicketRegistry} to select candidates
+ * in bounded batches. Each candidate is verified with its own expiration policy;
+ * expired tickets are removed in bulk, except for ticket-granting tickets for which
+ * logout is carried out, and the expiration time of the others is recalculated.
+ * Tickets stored without an expiration time, and encoded tickets stored without a prefix,
+ * are completed once, when the cleaner starts or else on its first run, in batches that
+ * are each committed on their own.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Transactional(transactionManager = "ticketTransactionManager")
+@Slf4j
+public class JpaTicketRegistryCleaner extends DefaultTicketRegistryCleaner implements InitializingBean {
+    private static final long serialVersionUID = 2385024478596178963L;
+
+    private final transient LockingStrategy lockingStrategy;
+
+    private final transient JpaTicketRegistry ticketRegistry;
+
+    private final int batchSize;
+
+    private final AtomicBoolean missingDetailsRecorded = new AtomicBoolean();
+
+    public JpaTicketRegistryCleaner(final LockingStrategy lockingStrategy, final LogoutManager logoutManager,
+                                    final JpaTicketRegistry ticketRegistry, final int batchSize) {
+        super(lockingStrategy, logoutManager, ticketRegistry);
+        this.lockingStrategy = lockingStrategy;
+        this.ticketRegistry = ticketRegistry;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Record the expiration time and prefix of tickets stored without them at startup, while the cleanup
+     * lock is held and before any cleanup runs. If the lock cannot be obtained, this is left to the first run.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            if (lockingStrategy.acquire()) {
+                try {
+                    recordMissingDetails();
+                } finally {
+                    lockingStrategy.release();
+                }
+            }
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to record the expiration time and prefix of tickets stored without them: [{}]", e.getMessage());
+            LOGGER.trace(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected int cleanInternal() {
+        if (!missingDetailsRecorded.get()) {
+            recordMissingDetails();
+        }
+        val now = ZonedDateTime.now(ZoneOffset.UTC);
+        var ticketsDeleted = 0;
+        var candidates = ticketRegistry.getExpiredTickets(now, batchSize);
+        while (!candidates.isEmpty()) {
+            var processed = 0;
+            val expired = new ArrayList<Ticket>();
+            for (val ticket : candidates) {
+                if (!ticket.isExpired()) {
+                    LOGGER.trace("Ticket [{}] has not yet expired; its expiration time will be recalculated", ticket.getId());
+                    ticketRegistry.updateTicket(ticket);
+                    processed++;
+                } else if (ticket instanceof TicketGrantingTicket) {
+                    val count = cleanTicket(ticket);
+                    ticketsDeleted += count;
+                    processed += count > 0 ? 1 : 0;
+                } else {
+                    expired.add(ticket);
+                }
+            }
+            if (!expired.isEmpty()) {
+                val count = ticketRegistry.deleteTickets(expired);
+                ticketsDeleted += count;
+                processed += count;
+            }
+            if (candidates.size() < batchSize || processed == 0) {
+                break;
+            }
+            candidates = ticketRegistry.getExpiredTickets(now, batchSize);
+        }
+        LOGGER.info("[{}] expired tickets removed.", ticketsDeleted);
+        return ticketsDeleted;
+    }
+
+    private void recordMissingDetails() {
+        for (val definition : ticketRegistry.getTicketEntityDefinitions()) {
+            var lastId = ticketRegistry.recordMissingExpirationTimes(definition, null, batchSize);
+            while (lastId != null) {
+                lastId = ticketRegistry.recordMissingExpirationTimes(definition, lastId, batchSize);
+            }
+        }
+        var lastId = ticketRegistry.recordMissingPrefixes(null, batchSize);
+        while (lastId != null) {
+            lastId = ticketRegistry.recordMissingPrefixes(lastId, batchSize);
+        }
+        missingDetailsRecorded.set(true);
+        LOGGER.debug("Recorded the expiration time and prefix of tickets stored without them");
+    }
+}
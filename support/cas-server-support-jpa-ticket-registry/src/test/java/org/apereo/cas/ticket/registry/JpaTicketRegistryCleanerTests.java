@@ -23,13 +23,18 @@ import org.apereo.cas.config.JpaTicketRegistryConfiguration;
 import org.apereo.cas.config.JpaTicketRegistryTicketCatalogConfiguration;
 import org.apereo.cas.config.support.CasWebApplicationServiceFactoryConfiguration;
 import org.apereo.cas.config.support.EnvironmentConversionServiceInitializer;
+import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.logout.config.CasCoreLogoutConfiguration;
 import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.AbstractTicket;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.ServiceTicketFactory;
 import org.apereo.cas.ticket.TicketFactory;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.TicketGrantingTicketFactory;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
+import org.apereo.cas.ticket.registry.support.LockingStrategy;
 
 import lombok.val;
 import org.junit.jupiter.api.BeforeEach;
@@ -41,11 +46,19 @@ import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.AopTestUtils;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 /**
  * This is {@link JpaTicketRegistryCleanerTests}.
@@ -96,6 +109,9 @@ public class JpaTicketRegistryCleanerTests {
     @Qualifier("ticketRegistryCleaner")
     private TicketRegistryCleaner ticketRegistryCleaner;
 
+    @PersistenceContext(unitName = "ticketEntityManagerFactory")
+    private EntityManager entityManager;
+
     @BeforeEach
     public void cleanup() {
         ticketRegistry.deleteAll();
@@ -127,4 +143,94 @@ public class JpaTicketRegistryCleanerTests {
         assertEquals(0, ticketRegistry.sessionCount());
         assertEquals(0, ticketRegistry.serviceTicketCount());
     }
+
+    @Test
+    public void verifyUnexpiredTicketsRemain() {
+        val tgtFactory = (TicketGrantingTicketFactory) ticketFactory.get(TicketGrantingTicket.class);
+        val tgt = tgtFactory.create(RegisteredServiceTestUtils.getAuthentication(), TicketGrantingTicket.class);
+        ticketRegistry.addTicket(tgt);
+
+        val stFactory = (ServiceTicketFactory) ticketFactory.get(ServiceTicket.class);
+        val st = stFactory.create(tgt, RegisteredServiceTestUtils.getService(), true, ServiceTicket.class);
+        ticketRegistry.addTicket(st);
+        ticketRegistry.updateTicket(tgt);
+
+        assertNotNull(((AbstractTicket) ticketRegistry.getTicket(tgt.getId())).getExpirationTime());
+        assertEquals(0, ticketRegistryCleaner.clean());
+        assertEquals(1, ticketRegistry.sessionCount());
+        assertEquals(1, ticketRegistry.serviceTicketCount());
+    }
+
+    @Test
+    public void verifyExpirationPolicyHasFinalSay() {
+        val tgtFactory = (TicketGrantingTicketFactory) ticketFactory.get(TicketGrantingTicket.class);
+        val tgt = tgtFactory.create(RegisteredServiceTestUtils.getAuthentication(), TicketGrantingTicket.class);
+        ticketRegistry.addTicket(tgt);
+
+        val stFactory = (ServiceTicketFactory) ticketFactory.get(ServiceTicket.class);
+        val st = stFactory.create(tgt, RegisteredServiceTestUtils.getService(), true, ServiceTicket.class);
+        ticketRegistry.addTicket(st);
+        ticketRegistry.updateTicket(tgt);
+
+        val past = ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(1);
+        entityManager.createQuery(String.format("UPDATE %s t SET t.expirationTime = :time", st.getClass().getSimpleName()))
+            .setParameter("time", past)
+            .executeUpdate();
+        entityManager.clear();
+
+        assertEquals(0, ticketRegistryCleaner.clean());
+        assertEquals(1, ticketRegistry.serviceTicketCount());
+        assertTrue(((AbstractTicket) ticketRegistry.getTicket(st.getId())).getExpirationTime().isAfter(past));
+    }
+
+    @Test
+    public void verifyTicketsWithoutExpirationTime() {
+        val tgtFactory = (TicketGrantingTicketFactory) ticketFactory.get(TicketGrantingTicket.class);
+        val tgt = tgtFactory.create(RegisteredServiceTestUtils.getAuthentication(), TicketGrantingTicket.class);
+        ticketRegistry.addTicket(tgt);
+
+        val stFactory = (ServiceTicketFactory) ticketFactory.get(ServiceTicket.class);
+        val st = stFactory.create(tgt, RegisteredServiceTestUtils.getService(), true, ServiceTicket.class);
+        ticketRegistry.addTicket(st);
+        ticketRegistry.updateTicket(tgt);
+        st.markTicketExpired();
+        ticketRegistry.updateTicket(st);
+
+        entityManager.createQuery(String.format("UPDATE %s t SET t.expirationTime = NULL", st.getClass().getSimpleName())).executeUpdate();
+        entityManager.createQuery(String.format("UPDATE %s t SET t.expirationTime = NULL", tgt.getClass().getSimpleName())).executeUpdate();
+        entityManager.clear();
+
+        val lockingStrategy = mock(LockingStrategy.class);
+        when(lockingStrategy.acquire()).thenReturn(Boolean.TRUE);
+        val cleaner = new JpaTicketRegistryCleaner(lockingStrategy, mock(LogoutManager.class),
+            (JpaTicketRegistry) AopTestUtils.getUltimateTargetObject(ticketRegistry), 10);
+        assertEquals(1, cleaner.clean());
+        assertEquals(0, ticketRegistry.serviceTicketCount());
+        assertEquals(1, ticketRegistry.sessionCount());
+        assertNotNull(((AbstractTicket) ticketRegistry.getTicket(tgt.getId())).getExpirationTime());
+    }
+
+    @Test
+    public void verifyTicketsThatNeverExpire() {
+        val tgt = new TicketGrantingTicketImpl("TGT-never-expires", RegisteredServiceTestUtils.getAuthentication(),
+            NeverExpiresExpirationPolicy.INSTANCE);
+        ticketRegistry.addTicket(tgt);
+        assertTrue(JpaTicketRegistry.NEVER_EXPIRES.isEqual(((AbstractTicket) ticketRegistry.getTicket(tgt.getId())).getExpirationTime()));
+
+        entityManager.createQuery(String.format("UPDATE %s t SET t.expirationTime = NULL", tgt.getClass().getSimpleName())).executeUpdate();
+        entityManager.clear();
+
+        val registry = (JpaTicketRegistry) AopTestUtils.getUltimateTargetObject(ticketRegistry);
+        val definitions = registry.getTicketEntityDefinitions();
+        definitions.forEach(definition -> assertNull(registry.recordMissingExpirationTimes(definition, null, 10)));
+        assertTrue(JpaTicketRegistry.NEVER_EXPIRES.isEqual(((AbstractTicket) ticketRegistry.getTicket(tgt.getId())).getExpirationTime()));
+
+        val lockingStrategy = mock(LockingStrategy.class);
+        when(lockingStrategy.acquire()).thenReturn(Boolean.TRUE);
+        val cleaner = new JpaTicketRegistryCleaner(lockingStrategy, mock(LogoutManager.class), registry, 10);
+        cleaner.afterPropertiesSet();
+        verify(lockingStrategy).release();
+        assertEquals(0, cleaner.clean());
+        assertEquals(1, ticketRegistry.sessionCount());
+    }
 }
@@ -22,8 +22,13 @@ import org.apereo.cas.config.JpaTicketRegistryConfiguration;
 import org.apereo.cas.config.JpaTicketRegistryTicketCatalogConfiguration;
 import org.apereo.cas.config.support.CasWebApplicationServiceFactoryConfiguration;
 import org.apereo.cas.logout.config.CasCoreLogoutConfiguration;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
 import org.apereo.cas.ticket.DefaultSecurityTokenTicketFactory;
+import org.apereo.cas.ticket.InvalidTicketException;
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.TicketState;
+import org.apereo.cas.ticket.expiration.MultiTimeUseOrTimeoutExpirationPolicy;
 import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
 import org.apereo.cas.util.DefaultUniqueTicketIdGenerator;
 
@@ -36,10 +41,14 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.test.util.AopTestUtils;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -83,6 +92,9 @@ public class JpaTicketRegistryTests extends BaseTicketRegistryTests {
     @Qualifier("ticketRegistry")
     private TicketRegistry ticketRegistry;
 
+    @PersistenceContext(unitName = "ticketEntityManagerFactory")
+    private EntityManager entityManager;
+
     @AfterEach
     public void cleanup() {
         ticketRegistry.deleteAll();
@@ -111,4 +123,44 @@ public class JpaTicketRegistryTests extends BaseTicketRegistryTests {
         this.ticketRegistry.deleteTicket(token);
         assertNull(this.ticketRegistry.getTicket(token.getId()));
     }
+
+    @RepeatedTest(2)
+    public void verifyConsumeUnknownTicket() {
+        assertNull(this.ticketRegistry.consumeTicket("FOO-1", ServiceTicket.class, ticket -> fail("Ticket must not be found")));
+    }
+
+    @RepeatedTest(2)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void verifyConsumeRejectedExpiredServiceTicket() {
+        val tgt = new TicketGrantingTicketImpl(ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        this.ticketRegistry.addTicket(tgt);
+        val st = tgt.grantServiceTicket(serviceTicketId, RegisteredServiceTestUtils.getService("TGT_EXPIRED_TEST"),
+            new MultiTimeUseOrTimeoutExpirationPolicy(1, 60), false, true);
+        this.ticketRegistry.addTicket(st);
+        this.ticketRegistry.updateTicket(tgt);
+
+        assertThrows(InvalidTicketException.class, () -> this.ticketRegistry.consumeTicket(serviceTicketId, ServiceTicket.class, ticket -> {
+            ((TicketState) ticket).update();
+            throw new InvalidTicketException(ticket.getId());
+        }));
+        assertNull(this.ticketRegistry.getTicket(serviceTicketId));
+    }
+
+    @RepeatedTest(2)
+    public void verifyCountEncodedTicketsWithoutPrefix() {
+        val tgt = new TicketGrantingTicketImpl(ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication(), NeverExpiresExpirationPolicy.INSTANCE);
+        this.ticketRegistry.addTicket(tgt);
+        if (useEncryption) {
+            entityManager.createQuery(String.format("UPDATE %s t SET t.prefix = NULL", EncodedTicket.class.getSimpleName())).executeUpdate();
+            entityManager.clear();
+            assertEquals(0, this.ticketRegistry.sessionCount());
+            val registry = (JpaTicketRegistry) AopTestUtils.getUltimateTargetObject(this.ticketRegistry);
+            assertNull(registry.recordMissingPrefixes(null, 10));
+        }
+        assertEquals(1, this.ticketRegistry.sessionCount());
+        assertEquals(0, this.ticketRegistry.serviceTicketCount());
+        assertEquals(1, this.ticketRegistry.sessionCount());
+    }
 }
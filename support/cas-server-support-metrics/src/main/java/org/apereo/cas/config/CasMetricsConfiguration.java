@@ -1,12 +1,26 @@
 package org.apereo.cas.config;
 
+import org.apereo.cas.audit.AuditTrailExecutionPlan;
+import org.apereo.cas.audit.spi.AbstractAuditTrailManager;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.util.scripting.CompiledGroovyScriptCache;
 
 import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.val;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is {@link CasMetricsConfiguration} that attempts to create Spring-managed beans
@@ -18,8 +32,56 @@ import org.springframework.context.annotation.Configuration;
 @Configuration("casMetricsConfiguration")
 @EnableConfigurationProperties(CasConfigurationProperties.class)
 public class CasMetricsConfiguration {
+    private static final String GROOVY_SCRIPT_METER_NAME = "cas.groovy.script.executions";
+
+    @Autowired
+    @Qualifier("auditTrailExecutionPlan")
+    private ObjectProvider<AuditTrailExecutionPlan> auditTrailExecutionPlan;
+
     @Bean
     public TimedAspect timedAspect(final MeterRegistry registry) {
         return new TimedAspect(registry);
     }
+
+    @Bean
+    public MeterBinder auditTrailManagerMeterBinder() {
+        return registry -> auditTrailExecutionPlan.ifAvailable(plan -> plan.getAuditTrailManagers()
+            .stream()
+            .filter(AbstractAuditTrailManager.class::isInstance)
+            .map(AbstractAuditTrailManager.class::cast)
+            .forEach(manager -> {
+                val name = ClassUtils.getUserClass(manager).getSimpleName();
+                Gauge.builder("cas.audit.queue.depth", manager, AbstractAuditTrailManager::getQueueDepth)
+                    .description("Number of audit records waiting to be saved")
+                    .tag("manager", name)
+                    .register(registry);
+                FunctionCounter.builder("cas.audit.queue.dropped", manager, AbstractAuditTrailManager::getDroppedRecordCount)
+                    .description("Number of audit records discarded because the queue was full")
+                    .tag("manager", name)
+                    .register(registry);
+            }));
+    }
+
+    @Bean
+    public MeterBinder groovyScriptMeterBinder() {
+        return registry -> CompiledGroovyScriptCache.getInstance().addStatisticsListener(new CompiledGroovyScriptCache.StatisticsListener() {
+            @Override
+            public void scriptCached(final String digest, final CompiledGroovyScriptCache.ExecutionStatistics statistics) {
+                FunctionTimer.builder(GROOVY_SCRIPT_METER_NAME, statistics,
+                    CompiledGroovyScriptCache.ExecutionStatistics::getCount,
+                    CompiledGroovyScriptCache.ExecutionStatistics::getTotalNanos, TimeUnit.NANOSECONDS)
+                    .description("Executions of cached inline groovy scripts")
+                    .tag("script", digest)
+                    .register(registry);
+            }
+
+            @Override
+            public void scriptRemoved(final String digest) {
+                val timer = registry.find(GROOVY_SCRIPT_METER_NAME).tag("script", digest).functionTimer();
+                if (timer != null) {
+                    registry.remove(timer);
+                }
+            }
+        });
+    }
 }
@@ -5,13 +5,16 @@ import org.apereo.cas.support.events.service.CasRegisteredServiceLoadedEvent;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.bson.Document;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -82,11 +85,28 @@ public class MongoDbServiceRegistry extends AbstractServiceRegistry {
             svc.setId(svc.hashCode());
         }
         invokeServiceRegistryListenerPreSave(svc);
+        if (svc instanceof AbstractRegisteredService) {
+            AbstractRegisteredService.class.cast(svc).setLastModified(nextServiceVersion());
+        }
         this.mongoTemplate.save(svc, this.collectionName);
         LOGGER.debug("Saved registered service: [{}]", svc);
         return this.findServiceById(svc.getId());
     }
 
+    @Override
+    public Optional<Map<Long, Long>> getServiceVersions() {
+        val query = new Query();
+        query.fields().include("id").include("lastModified");
+        val results = this.mongoTemplate.find(query, Document.class, this.collectionName);
+        return Optional.of(results
+            .stream()
+            .collect(Collectors.toMap(doc -> ((Number) doc.get("_id")).longValue(),
+                doc -> {
+                    val version = doc.get("lastModified");
+                    return version == null ? 0L : ((Number) version).longValue();
+                })));
+    }
+
     @Override
     public long size() {
         return this.mongoTemplate.count(new Query(), RegisteredService.class, this.collectionName);
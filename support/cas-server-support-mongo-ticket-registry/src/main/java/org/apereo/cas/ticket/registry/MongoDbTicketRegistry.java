@@ -30,6 +30,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -79,7 +80,8 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
                 return null;
             }
             val query = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(holder.getTicketId()));
-            val update = Update.update(TicketHolder.FIELD_NAME_JSON, holder.getJson());
+            val update = Update.update(TicketHolder.FIELD_NAME_JSON, holder.getJson())
+                .set(TicketHolder.FIELD_NAME_PRINCIPAL_ID, holder.getPrincipalId());
             this.mongoTemplate.upsert(query, update, collectionName);
             LOGGER.debug("Updated ticket [{}]", ticket);
         } catch (final Exception e) {
@@ -144,6 +146,68 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The outcome is written back with a conditional update (or delete) that only matches the
+     * ticket document if it still holds the state that was consumed. If another node consumes the
+     * ticket first, the condition fails and no ticket is returned.
+     */
+    @Override
+    public <T extends Ticket> T consumeTicket(final String ticketId, final Class<T> clazz, final Consumer<T> validator) {
+        val encTicketId = encodeTicketId(ticketId);
+        val metadata = this.ticketCatalog.find(ticketId);
+        if (encTicketId == null || metadata == null) {
+            LOGGER.debug("Ticket [{}] could not be found", ticketId);
+            return null;
+        }
+        val collectionName = getTicketCollectionInstanceByMetadata(metadata);
+        val holder = this.mongoTemplate.findOne(new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(encTicketId)),
+            TicketHolder.class, collectionName);
+        val ticket = holder == null ? null : decodeTicket(deserializeTicketFromMongoDocument(holder));
+        if (ticket == null || ticket.isExpired()) {
+            if (ticket != null) {
+                LOGGER.debug("Ticket [{}] has expired and is now removed from the ticket registry", ticketId);
+                deleteSingleTicket(ticketId);
+            }
+            return null;
+        }
+        if (!clazz.isAssignableFrom(ticket.getClass())) {
+            throw new ClassCastException("Ticket [" + ticket.getId() + " is of type " + ticket.getClass() + " when we were expecting " + clazz);
+        }
+        val result = clazz.cast(ticket);
+        try {
+            validator.accept(result);
+        } catch (final RuntimeException e) {
+            if (ticket.isExpired()) {
+                deleteSingleTicket(ticketId);
+            }
+            throw e;
+        }
+        TicketState.class.cast(ticket).update();
+
+        val query = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(encTicketId)
+            .and(TicketHolder.FIELD_NAME_JSON).is(holder.getJson()));
+        if (ticket.isExpired()) {
+            if (this.mongoTemplate.findAndRemove(query, TicketHolder.class, collectionName) == null) {
+                LOGGER.debug("Ticket [{}] was modified concurrently and could not be consumed", ticketId);
+                return null;
+            }
+            if (ticket instanceof TicketGrantingTicket) {
+                deleteTicket(ticket);
+            }
+            return result;
+        }
+        val updated = buildTicketAsDocument(ticket);
+        val update = Update.update(TicketHolder.FIELD_NAME_JSON, updated.getJson())
+            .set(TicketHolder.FIELD_NAME_EXPIRE_AT, updated.getExpireAt());
+        if (this.mongoTemplate.findAndModify(query, update, TicketHolder.class, collectionName) == null) {
+            LOGGER.debug("Ticket [{}] was modified concurrently and could not be consumed", ticketId);
+            return null;
+        }
+        return result;
+    }
+
     @Override
     public Collection<? extends Ticket> getTickets() {
         return this.ticketCatalog.findAll().stream()
@@ -194,6 +258,18 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
             .map(ticket -> decodeTicket(deserializeTicketFromMongoDocument(ticket)));
     }
 
+    @Override
+    public Stream<? extends TicketGrantingTicket> getSessionsFor(final String principalId) {
+        val query = new Query(Criteria.where(TicketHolder.FIELD_NAME_PRINCIPAL_ID).is(getPrincipalIndexKey(principalId)));
+        return ticketCatalog.find(TicketGrantingTicket.class).stream()
+            .map(this::getTicketCollectionInstanceByMetadata)
+            .map(map -> mongoTemplate.find(query, TicketHolder.class, map))
+            .flatMap(List::stream)
+            .map(ticket -> decodeTicket(deserializeTicketFromMongoDocument(ticket)))
+            .filter(ticket -> isSessionFor(ticket, principalId))
+            .map(TicketGrantingTicket.class::cast);
+    }
+
     @Override
     public long serviceTicketCount() {
         return countTicketsByTicketType(ServiceTicket.class);
@@ -204,11 +280,18 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         return countTicketsByTicketType(TicketGrantingTicket.class);
     }
 
+    /**
+     * Count tickets using collection metadata, which avoids scanning documents and
+     * works the same way whether or not tickets are encrypted.
+     *
+     * @param ticketType the ticket type
+     * @return the count
+     */
     private long countTicketsByTicketType(final Class<? extends Ticket> ticketType) {
         val ticketDefinitions = ticketCatalog.find(ticketType);
         return ticketDefinitions.stream()
             .map(this::getTicketCollectionInstanceByMetadata)
-            .mapToLong(map -> mongoTemplate.count(new Query(), map))
+            .mapToLong(map -> mongoTemplate.getCollection(map).estimatedDocumentCount())
             .sum();
     }
 
@@ -218,7 +301,9 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         if (StringUtils.isNotBlank(json)) {
             LOGGER.trace("Serialized ticket into a JSON document as \n [{}]", JsonValue.readJSON(json).toString(Stringify.FORMATTED));
             val expireAt = getExpireAt(ticket);
-            return new TicketHolder(json, encTicket.getId(), encTicket.getClass().getName(), expireAt);
+            val principalId = getPrincipalId(ticket);
+            return new TicketHolder(json, encTicket.getId(), encTicket.getClass().getName(), expireAt,
+                principalId == null ? null : getPrincipalIndexKey(principalId));
         }
         throw new IllegalArgumentException("Ticket " + ticket.getId() + " cannot be serialized to JSON");
     }
@@ -284,6 +369,10 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         val index = new Index().on(TicketHolder.FIELD_NAME_EXPIRE_AT, Sort.Direction.ASC).expire(ticket.getProperties().getStorageTimeout());
         removeDifferingIndexIfAny(collection, index);
         mongoTemplate.indexOps(collectionName).ensureIndex(index);
+        if (TicketGrantingTicket.class.isAssignableFrom(ticket.getImplementationClass())) {
+            LOGGER.trace("Creating index on collection [{}] to look up tickets by principal...", collectionName);
+            mongoTemplate.indexOps(collectionName).ensureIndex(new Index().on(TicketHolder.FIELD_NAME_PRINCIPAL_ID, Sort.Direction.ASC));
+        }
         return collection;
     }
 
@@ -38,6 +38,11 @@ public class TicketHolder implements Serializable {
      */
     public static final String FIELD_NAME_ID = "ticketId";
 
+    /**
+     * Field name to hold the principal index key of ticket-granting tickets.
+     */
+    public static final String FIELD_NAME_PRINCIPAL_ID = "principalId";
+
     private static final long serialVersionUID = -4843440028617071224L;
 
     @JsonProperty
@@ -50,4 +55,6 @@ public class TicketHolder implements Serializable {
     private final String type;
 
     private final Date expireAt;
+
+    private final String principalId;
 }
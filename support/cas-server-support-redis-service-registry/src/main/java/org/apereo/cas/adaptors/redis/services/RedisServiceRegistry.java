@@ -11,11 +11,16 @@ import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -31,6 +36,11 @@ public class RedisServiceRegistry extends AbstractServiceRegistry {
 
     private static final String CAS_SERVICE_PREFIX = RegisteredService.class.getSimpleName() + ':';
 
+    /**
+     * Sorted set of service ids, scored by the version of each service definition.
+     */
+    private static final String CAS_SERVICE_VERSIONS = RegisteredService.class.getSimpleName() + "Versions";
+
     private final RedisTemplate<String, RegisteredService> template;
 
     public RedisServiceRegistry(final ApplicationEventPublisher eventPublisher,
@@ -47,6 +57,7 @@ public class RedisServiceRegistry extends AbstractServiceRegistry {
             val redisKey = getRegisteredServiceRedisKey(rs);
             invokeServiceRegistryListenerPreSave(rs);
             this.template.boundValueOps(redisKey).set(rs);
+            updateServiceVersion(rs.getId());
             LOGGER.trace("Saved registered service [{}]", rs);
             publishEvent(new CasRegisteredServiceSavedEvent(this, rs));
         } catch (final Exception e) {
@@ -61,6 +72,8 @@ public class RedisServiceRegistry extends AbstractServiceRegistry {
             LOGGER.trace("Deleting registered service [{}]", registeredService);
             val redisKey = getRegisteredServiceRedisKey(registeredService);
             this.template.delete(redisKey);
+            this.template.execute((RedisCallback<Long>) connection ->
+                connection.zRem(toBytes(CAS_SERVICE_VERSIONS), toBytes(String.valueOf(registeredService.getId()))));
             LOGGER.trace("Deleted registered service [{}]", registeredService);
             publishEvent(new CasRegisteredServiceDeletedEvent(this, registeredService));
             return true;
@@ -91,6 +104,11 @@ public class RedisServiceRegistry extends AbstractServiceRegistry {
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
             LOGGER.trace("Loaded registered services [{}]", list);
+            val versions = getServiceVersions().orElseGet(Map::of);
+            list.stream()
+                .map(RegisteredService::getId)
+                .filter(id -> !versions.containsKey(id))
+                .forEach(this::updateServiceVersion);
             list.forEach(s -> publishEvent(new CasRegisteredServiceLoadedEvent(this, s)));
             return list;
         } catch (final Exception e) {
@@ -113,6 +131,33 @@ public class RedisServiceRegistry extends AbstractServiceRegistry {
         return null;
     }
 
+    @Override
+    public Optional<Map<Long, Long>> getServiceVersions() {
+        try {
+            val entries = this.template.execute((RedisCallback<Set<RedisZSetCommands.Tuple>>) connection ->
+                connection.zRangeWithScores(toBytes(CAS_SERVICE_VERSIONS), 0, -1));
+            val versions = Objects.requireNonNull(entries)
+                .stream()
+                .collect(Collectors.toMap(
+                    entry -> Long.parseLong(RedisSerializer.string().deserialize(entry.getValue())),
+                    entry -> Objects.requireNonNull(entry.getScore()).longValue()));
+            return Optional.of(versions);
+        } catch (final Exception e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+        return Optional.empty();
+    }
+
+    private void updateServiceVersion(final long id) {
+        val version = nextServiceVersion();
+        this.template.execute((RedisCallback<Boolean>) connection ->
+            connection.zAdd(toBytes(CAS_SERVICE_VERSIONS), version, toBytes(String.valueOf(id))));
+    }
+
+    private static byte[] toBytes(final String value) {
+        return RedisSerializer.string().serialize(value);
+    }
+
     private static String getRegisteredServiceRedisKey(final RegisteredService registeredService) {
         return getRegisteredServiceRedisKey(registeredService.getId());
     }
@@ -47,6 +47,9 @@ public class RedisTicketRegistryConfiguration {
         val redis = casProperties.getTicket().getRegistry().getRedis();
         val r = new RedisTicketRegistry(ticketRedisTemplate());
         r.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(redis.getCrypto(), "redis"));
+        r.setIndexEnabled(redis.isIndexEnabled());
+        r.setBatchSize(redis.getBatchSize());
+        r.setGrantedTicketsEnabled(redis.isGrantedTicketsEnabled());
         return r;
     }
 }
@@ -1,19 +1,42 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketState;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyTicket;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -21,18 +44,68 @@ import java.util.stream.StreamSupport;
 
 /**
  * Key-value ticket registry implementation that stores tickets in redis keyed on the ticket ID.
+ * <p>
+ * When indexing is enabled, the registry also maintains a sorted-set index per ticket type
+ * whose members are the ticket keys, scored by the ticket expiration instant. Listing, counting
+ * and bulk deletes then operate on the indexes in batches rather than scanning the entire keyspace
+ * and fetching tickets one round trip at a time.
+ * <p>
+ * When granted tickets are recorded separately, granting a ticket adds a small record to a hash
+ * kept next to the ticket-granting ticket, instead of rewriting the ticket-granting ticket.
+ * Records are applied onto the ticket-granting ticket when it is retrieved; once that ticket-granting
+ * ticket is stored again, the records it was built from are removed in the same transaction, while
+ * records added concurrently in the meantime are kept and applied on the next retrieval.
+ * <p>
+ * When indexing is enabled, the keys of ticket-granting tickets are also added to a set
+ * per principal, which expires along with the longest-lived ticket-granting ticket of the principal.
+ * Members whose tickets are gone are pruned from the set as the sessions of the principal are looked up.
  *
  * @author serv
  * @since 5.1.0
  */
 @Slf4j
 @RequiredArgsConstructor
+@Setter
 public class RedisTicketRegistry extends AbstractTicketRegistry {
     private static final String CAS_TICKET_PREFIX = "CAS_TICKET:";
+    private static final String CAS_TICKET_INDEX_PREFIX = "CAS_TICKET_INDEX:";
+    private static final String CAS_TICKET_INDEXES = "CAS_TICKET_INDEXES";
+    private static final String CAS_GRANTED_TICKETS_PREFIX = "CAS_GRANTED_TICKETS:";
+    private static final String CAS_PRINCIPAL_SESSIONS_PREFIX = "CAS_PRINCIPAL_SESSIONS:";
     private static final long SCAN_COUNT = 100L;
 
+    /**
+     * Extend the expiration of a key to the given number of milliseconds, unless it already expires later.
+     */
+    private static final byte[] EXTEND_EXPIRATION_SCRIPT = toBytes(
+        "local ttl = redis.call('pttl', KEYS[1]) "
+            + "if ttl >= 0 and ttl >= tonumber(ARGV[1]) then return 0 end "
+            + "return redis.call('pexpire', KEYS[1], ARGV[1])");
+
     private final RedisTemplate<String, Ticket> client;
 
+    /**
+     * Fields of the granted ticket records applied onto ticket-granting tickets as they were retrieved,
+     * keyed by ticket instance, so that only those records are removed once the ticket is stored.
+     */
+    private final Cache<Ticket, Set<String>> foldedGrantedTickets = Caffeine.newBuilder().weakKeys().build();
+
+    /**
+     * Whether per-ticket-type sorted-set indexes should be maintained and used.
+     */
+    private boolean indexEnabled;
+
+    /**
+     * Number of keys to fetch or delete per batch.
+     */
+    private long batchSize = SCAN_COUNT;
+
+    /**
+     * Whether tickets granted by a ticket-granting ticket should be recorded
+     * in a hash next to the ticket-granting ticket, rather than by updating the ticket-granting ticket.
+     */
+    private boolean grantedTicketsEnabled;
+
     /**
      * If not time out value is specified, expire the ticket immediately.
      *
@@ -57,23 +130,71 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         return CAS_TICKET_PREFIX + '*';
     }
 
+    private static String getGrantedTicketsRedisKey(final String ticketId) {
+        return CAS_GRANTED_TICKETS_PREFIX + ticketId;
+    }
+
+    private static String getTicketIndexRedisKey(final String prefix) {
+        return CAS_TICKET_INDEX_PREFIX + prefix;
+    }
+
+    private static String getPrincipalSessionsRedisKey(final String principalKey) {
+        return CAS_PRINCIPAL_SESSIONS_PREFIX + principalKey;
+    }
+
+    private static byte[] toBytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Extend the expiration of the key, so that a key shared by several tickets
+     * never expires before the longest-lived of them.
+     *
+     * @param connection the connection
+     * @param key        the key
+     * @param timeout    the timeout in seconds
+     */
+    private static void extendExpiration(final RedisConnection connection, final byte[] key, final long timeout) {
+        connection.eval(EXTEND_EXPIRATION_SCRIPT, ReturnType.INTEGER, 1, key,
+            toBytes(String.valueOf(TimeUnit.SECONDS.toMillis(timeout))));
+    }
+
     @Override
     public long deleteAll() {
-        val redisKeys = this.client.keys(getPatternTicketRedisKey());
-        if (redisKeys == null) {
-            LOGGER.warn("Unable to locate tickets via redis key");
-            return 0;
+        if (this.indexEnabled) {
+            val indexes = getTicketIndexes();
+            val count = indexes.stream()
+                .mapToLong(index -> {
+                    val members = this.client.execute((RedisCallback<Set<byte[]>>) connection ->
+                        connection.zRange(toBytes(index), 0, -1));
+                    val keys = members == null
+                        ? List.<String>of()
+                        : members.stream().map(m -> new String(m, StandardCharsets.UTF_8)).collect(Collectors.toList());
+                    return deleteKeysInBatches(keys);
+                })
+                .sum();
+            val indexKeys = new ArrayList<String>(indexes);
+            indexKeys.add(CAS_TICKET_INDEXES);
+            this.client.delete(indexKeys);
+            deleteGrantedTickets();
+            deleteKeysMatching(CAS_PRINCIPAL_SESSIONS_PREFIX + '*');
+            return count;
+        }
+        try (val keys = getKeysStream()) {
+            val count = deleteKeysInBatches(keys.collect(Collectors.toList()));
+            deleteGrantedTickets();
+            return count;
         }
-        val size = redisKeys.size();
-        this.client.delete(redisKeys);
-        return size;
     }
 
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
         try {
-            val redisKey = getTicketRedisKey(encodeTicketId(ticketId));
-            this.client.delete(redisKey);
+            val encTicketId = encodeTicketId(ticketId);
+            deleteKeys(List.of(getTicketRedisKey(encTicketId)));
+            if (this.grantedTicketsEnabled) {
+                this.client.delete(getGrantedTicketsRedisKey(encTicketId));
+            }
             return true;
         } catch (final Exception e) {
             LOGGER.error("Ticket not found or is already removed. Failed deleting [{}]", ticketId, e);
@@ -85,10 +206,7 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
     public void addTicket(final Ticket ticket) {
         try {
             LOGGER.debug("Adding ticket [{}]", ticket);
-            val redisKey = getTicketRedisKey(encodeTicketId(ticket.getId()));
-            val encodeTicket = encodeTicket(ticket);
-            val timeout = getTimeout(ticket);
-            this.client.boundValueOps(redisKey).set(encodeTicket, timeout, TimeUnit.SECONDS);
+            storeTicket(ticket);
         } catch (final Exception e) {
             LOGGER.error("Failed to add [{}]", ticket, e);
         }
@@ -100,7 +218,7 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
             val redisKey = getTicketRedisKey(encodeTicketId(ticketId));
             val t = this.client.boundValueOps(redisKey).get();
             if (t != null) {
-                val result = decodeTicket(t);
+                val result = applyGrantedTickets(decodeTicket(t));
                 if (predicate.test(result)) {
                     return result;
                 }
@@ -123,6 +241,14 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public Stream<? extends Ticket> getTicketsStream() {
+        if (this.indexEnabled) {
+            return getTicketIndexes()
+                .stream()
+                .flatMap(this::getIndexedKeyBatches)
+                .flatMap(this::getTicketsInBatch)
+                .map(this::decodeTicket)
+                .map(this::applyGrantedTickets);
+        }
         return getKeysStream()
             .map(redisKey -> {
                 val ticket = this.client.boundValueOps(redisKey).get();
@@ -133,25 +259,396 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
                 return ticket;
             })
             .filter(Objects::nonNull)
-            .map(this::decodeTicket);
-
+            .map(this::decodeTicket)
+            .map(this::applyGrantedTickets);
     }
 
     @Override
     public Ticket updateTicket(final Ticket ticket) {
         try {
             LOGGER.debug("Updating ticket [{}]", ticket);
-            val encodeTicket = this.encodeTicket(ticket);
-            val redisKey = getTicketRedisKey(encodeTicketId(ticket.getId()));
-            LOGGER.debug("Fetched redis key [{}] for ticket [{}]", redisKey, ticket);
+            return storeTicket(ticket);
+        } catch (final Exception e) {
+            LOGGER.error("Failed to update [{}]", ticket, e);
+        }
+        return null;
+    }
+
+    @Override
+    public void addGrantedTicket(final TicketGrantingTicket ticketGrantingTicket, final Ticket grantedTicket,
+                                 final Collection<String> untrackedTicketIds) {
+        if (!this.grantedTicketsEnabled) {
+            super.addGrantedTicket(ticketGrantingTicket, grantedTicket, untrackedTicketIds);
+            return;
+        }
+        try {
+            val encTicketId = encodeTicketId(ticketGrantingTicket.getId());
+            val ticketKey = toBytes(getTicketRedisKey(encTicketId));
+            val grantedKey = toBytes(getGrantedTicketsRedisKey(encTicketId));
+            val field = toBytes(encodeTicketId(grantedTicket.getId()));
+            val value = encodeGrantedTicketRecord(GrantedTicketRecord.of(ticketGrantingTicket, grantedTicket, untrackedTicketIds));
+            val timeout = getTimeout(ticketGrantingTicket);
+            val expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout);
+            val principalId = getPrincipalId(ticketGrantingTicket);
+            this.client.executePipelined((RedisCallback<Object>) connection -> {
+                connection.hSet(grantedKey, field, value);
+                connection.expire(grantedKey, timeout);
+                connection.expire(ticketKey, timeout);
+                if (this.indexEnabled) {
+                    connection.zAdd(toBytes(getTicketIndexRedisKey(ticketGrantingTicket.getPrefix())), expiresAt, ticketKey);
+                    if (principalId != null) {
+                        val sessionsKey = toBytes(getPrincipalSessionsRedisKey(getPrincipalIndexKey(principalId)));
+                        connection.sAdd(sessionsKey, ticketKey);
+                        extendExpiration(connection, sessionsKey, timeout);
+                    }
+                }
+                return null;
+            });
+            LOGGER.debug("Recorded ticket [{}] granted by [{}]", grantedTicket.getId(), ticketGrantingTicket.getId());
+        } catch (final Exception e) {
+            LOGGER.error("Failed to record ticket [{}] granted by [{}]", grantedTicket.getId(), ticketGrantingTicket.getId(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The ticket key is watched while the ticket is consumed, and the outcome is written back
+     * in a transaction that is discarded if the key was modified in the meantime. If another
+     * node consumes the ticket first, no ticket is returned.
+     */
+    @Override
+    public <T extends Ticket> T consumeTicket(final String ticketId, final Class<T> clazz, final Consumer<T> validator) {
+        val redisKey = getTicketRedisKey(encodeTicketId(ticketId));
+        return this.client.execute((RedisCallback<T>) connection -> consumeTicket(connection, toBytes(redisKey), clazz, validator));
+    }
+
+    @Override
+    public Stream<? extends TicketGrantingTicket> getSessionsFor(final String principalId) {
+        if (!this.indexEnabled) {
+            return super.getSessionsFor(principalId);
+        }
+        val sessionsKey = toBytes(getPrincipalSessionsRedisKey(getPrincipalIndexKey(principalId)));
+        val members = this.client.execute((RedisCallback<Set<byte[]>>) connection -> connection.sMembers(sessionsKey));
+        if (members == null || members.isEmpty()) {
+            return Stream.empty();
+        }
+        val keys = new ArrayList<byte[]>(members);
+        val values = this.client.execute((RedisCallback<List<byte[]>>) connection -> connection.mGet(keys.toArray(byte[][]::new)));
+        if (values == null) {
+            return Stream.empty();
+        }
+        val stale = new ArrayList<byte[]>();
+        val tickets = new ArrayList<Ticket>(values.size());
+        for (var i = 0; i < values.size(); i++) {
+            val value = values.get(i);
+            if (value == null) {
+                stale.add(keys.get(i));
+            } else {
+                tickets.add(getValueSerializer().deserialize(value));
+            }
+        }
+        if (!stale.isEmpty()) {
+            LOGGER.trace("Removing [{}] stale member(s) from the sessions of [{}]", stale.size(), principalId);
+            this.client.execute((RedisCallback<Long>) connection -> connection.sRem(sessionsKey, stale.toArray(byte[][]::new)));
+        }
+        return tickets.stream()
+            .filter(Objects::nonNull)
+            .map(this::decodeTicket)
+            .map(this::applyGrantedTickets)
+            .filter(ticket -> isSessionFor(ticket, principalId))
+            .map(TicketGrantingTicket.class::cast);
+    }
+
+    @Override
+    public long sessionCount() {
+        if (this.indexEnabled) {
+            return countIndexedTickets(TicketGrantingTicket.PREFIX, ProxyGrantingTicket.PROXY_GRANTING_TICKET_PREFIX);
+        }
+        return super.sessionCount();
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        if (this.indexEnabled) {
+            return countIndexedTickets(ServiceTicket.PREFIX, ProxyTicket.PROXY_TICKET_PREFIX);
+        }
+        return super.serviceTicketCount();
+    }
 
+    @Override
+    protected int deleteChildren(final TicketGrantingTicket ticket) {
+        val services = ticket.getServices();
+        if (services == null || services.isEmpty()) {
+            return 0;
+        }
+        val keys = services.keySet()
+            .stream()
+            .map(ticketId -> getTicketRedisKey(encodeTicketId(ticketId)))
+            .collect(Collectors.toList());
+        try {
+            val count = deleteKeys(keys);
+            LOGGER.debug("Removed [{}] of [{}] children of ticket [{}]", count, keys.size(), ticket.getId());
+            return (int) count;
+        } catch (final Exception e) {
+            LOGGER.error("Unable to remove children of ticket [{}]", ticket.getId(), e);
+        }
+        return 0;
+    }
+
+    private <T extends Ticket> T consumeTicket(final RedisConnection connection, final byte[] key,
+                                               final Class<T> clazz, final Consumer<T> validator) {
+        connection.watch(key);
+        val value = connection.get(key);
+        val ticket = value == null ? null : decodeTicket(getValueSerializer().deserialize(value));
+        if (ticket == null || ticket.isExpired()) {
+            connection.unwatch();
+            if (ticket != null) {
+                LOGGER.debug("Ticket [{}] has expired and is now removed from the ticket registry", ticket.getId());
+                deleteSingleTicket(ticket.getId());
+            }
+            return null;
+        }
+        if (!clazz.isAssignableFrom(ticket.getClass())) {
+            connection.unwatch();
+            throw new ClassCastException("Ticket [" + ticket.getId() + " is of type " + ticket.getClass() + " when we were expecting " + clazz);
+        }
+        val result = clazz.cast(ticket);
+        try {
+            validator.accept(result);
+        } catch (final RuntimeException e) {
+            connection.unwatch();
+            if (ticket.isExpired()) {
+                deleteSingleTicket(ticket.getId());
+            }
+            throw e;
+        }
+        TicketState.class.cast(ticket).update();
+
+        val expired = ticket.isExpired();
+        val index = toBytes(getTicketIndexRedisKey(ticket.getPrefix()));
+        connection.multi();
+        if (expired) {
+            connection.del(key);
+            if (this.indexEnabled) {
+                connection.zRem(index, key);
+            }
+        } else {
             val timeout = getTimeout(ticket);
+            connection.set(key, getValueSerializer().serialize(encodeTicket(ticket)),
+                Expiration.seconds(timeout), RedisStringCommands.SetOption.upsert());
+            if (this.indexEnabled) {
+                connection.zAdd(index, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout), key);
+            }
+        }
+        val results = connection.exec();
+        if (results == null || results.isEmpty()) {
+            LOGGER.debug("Ticket [{}] was modified concurrently and could not be consumed", ticket.getId());
+            return null;
+        }
+        if (expired && ticket instanceof TicketGrantingTicket) {
+            deleteTicket(ticket);
+        }
+        return result;
+    }
+
+    private Ticket storeTicket(final Ticket ticket) {
+        val encodeTicket = encodeTicket(ticket);
+        val redisKey = getTicketRedisKey(encodeTicketId(ticket.getId()));
+        LOGGER.debug("Fetched redis key [{}] for ticket [{}]", redisKey, ticket);
+        val timeout = getTimeout(ticket);
+
+        if (this.grantedTicketsEnabled && ticket instanceof TicketGrantingTicket) {
+            val folded = this.foldedGrantedTickets.asMap().remove(ticket);
+            if (folded != null && !folded.isEmpty()) {
+                val grantedKey = toBytes(getGrantedTicketsRedisKey(encodeTicketId(ticket.getId())));
+                val fields = folded.stream().map(RedisTicketRegistry::toBytes).toArray(byte[][]::new);
+                val value = getValueSerializer().serialize(encodeTicket);
+                this.client.execute((RedisCallback<Object>) connection -> {
+                    connection.multi();
+                    writeTicket(connection, toBytes(redisKey), value, ticket, timeout);
+                    connection.hDel(grantedKey, fields);
+                    return connection.exec();
+                });
+                LOGGER.trace("Removed [{}] granted ticket record(s) folded into [{}]", fields.length, ticket.getId());
+                return encodeTicket;
+            }
+        }
+        if (!this.indexEnabled) {
             this.client.boundValueOps(redisKey).set(encodeTicket, timeout, TimeUnit.SECONDS);
             return encodeTicket;
+        }
+        val value = getValueSerializer().serialize(encodeTicket);
+        this.client.executePipelined((RedisCallback<Object>) connection -> {
+            writeTicket(connection, toBytes(redisKey), value, ticket, timeout);
+            return null;
+        });
+        return encodeTicket;
+    }
+
+    /**
+     * Write the ticket and, if indexing is enabled, record it in the ticket indexes.
+     * The commands are issued on the given connection, which may be pipelined or in a transaction.
+     *
+     * @param connection the connection
+     * @param key        the ticket key
+     * @param value      the serialized ticket
+     * @param ticket     the ticket
+     * @param timeout    the timeout in seconds
+     */
+    private void writeTicket(final RedisConnection connection, final byte[] key, final byte[] value,
+                             final Ticket ticket, final long timeout) {
+        connection.set(key, value, Expiration.seconds(timeout), RedisStringCommands.SetOption.upsert());
+        if (!this.indexEnabled) {
+            return;
+        }
+        val index = toBytes(getTicketIndexRedisKey(ticket.getPrefix()));
+        connection.zAdd(index, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout), key);
+        connection.sAdd(toBytes(CAS_TICKET_INDEXES), index);
+        val principalId = getPrincipalId(ticket);
+        if (principalId != null) {
+            val sessionsKey = toBytes(getPrincipalSessionsRedisKey(getPrincipalIndexKey(principalId)));
+            connection.sAdd(sessionsKey, key);
+            extendExpiration(connection, sessionsKey, timeout);
+        }
+    }
+
+    /**
+     * Delete the given keys and, if indexing is enabled, remove them from all ticket indexes
+     * in a single pipelined round trip.
+     *
+     * @param keys the keys
+     * @return the number of deleted keys
+     */
+    private long deleteKeys(final Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        if (!this.indexEnabled) {
+            val count = this.client.delete(keys);
+            return count == null ? 0 : count;
+        }
+        val indexes = getTicketIndexes();
+        val rawKeys = keys.stream().map(RedisTicketRegistry::toBytes).toArray(byte[][]::new);
+        val results = this.client.executePipelined((RedisCallback<Object>) connection -> {
+            connection.del(rawKeys);
+            indexes.forEach(index -> connection.zRem(toBytes(index), rawKeys));
+            return null;
+        });
+        return results.isEmpty() || results.get(0) == null ? 0 : ((Number) results.get(0)).longValue();
+    }
+
+    private long deleteKeysInBatches(final List<String> keys) {
+        val size = (int) this.batchSize;
+        var count = 0L;
+        for (var i = 0; i < keys.size(); i += size) {
+            count += deleteKeys(keys.subList(i, Math.min(keys.size(), i + size)));
+        }
+        return count;
+    }
+
+    private long countIndexedTickets(final String... prefixes) {
+        try {
+            val now = System.currentTimeMillis();
+            return Stream.of(prefixes)
+                .map(RedisTicketRegistry::getTicketIndexRedisKey)
+                .mapToLong(index -> {
+                    val count = this.client.execute((RedisCallback<Long>) connection -> {
+                        val key = toBytes(index);
+                        connection.zRemRangeByScore(key, Double.NEGATIVE_INFINITY, now);
+                        return connection.zCard(key);
+                    });
+                    return count == null ? 0 : count;
+                })
+                .sum();
         } catch (final Exception e) {
-            LOGGER.error("Failed to update [{}]", ticket, e);
+            LOGGER.error("Unable to count tickets via index", e);
+            return Long.MIN_VALUE;
         }
-        return null;
+    }
+
+    private Set<String> getTicketIndexes() {
+        val indexes = this.client.execute((RedisCallback<Set<byte[]>>) connection -> connection.sMembers(toBytes(CAS_TICKET_INDEXES)));
+        if (indexes == null) {
+            return Collections.emptySet();
+        }
+        return indexes.stream().map(index -> new String(index, StandardCharsets.UTF_8)).collect(Collectors.toSet());
+    }
+
+    /**
+     * Remove expired members from the index and stream the remaining ticket keys in batches.
+     * Batches are read by score, starting after the last member seen, so that members removed
+     * while the stream is consumed do not cause others to be skipped.
+     *
+     * @param index the index key
+     * @return stream of key batches
+     */
+    private Stream<List<byte[]>> getIndexedKeyBatches(final String index) {
+        val key = toBytes(index);
+        val now = System.currentTimeMillis();
+        this.client.execute((RedisCallback<Long>) connection -> connection.zRemRangeByScore(key, Double.NEGATIVE_INFINITY, now));
+        val cursor = new IndexedKeyCursor(key, now);
+        return Stream.iterate(cursor.next(), batch -> !batch.isEmpty(), batch -> cursor.next());
+    }
+
+    private Stream<Ticket> getTicketsInBatch(final List<byte[]> keys) {
+        val values = this.client.execute((RedisCallback<List<byte[]>>) connection -> connection.mGet(keys.toArray(byte[][]::new)));
+        if (values == null) {
+            return Stream.empty();
+        }
+        val serializer = getValueSerializer();
+        return values.stream()
+            .filter(Objects::nonNull)
+            .map(serializer::deserialize)
+            .filter(Objects::nonNull);
+    }
+
+    /**
+     * Apply the records of tickets granted by the given ticket-granting ticket, if any.
+     *
+     * @param ticket the ticket
+     * @return the ticket
+     */
+    private Ticket applyGrantedTickets(final Ticket ticket) {
+        if (!this.grantedTicketsEnabled || !(ticket instanceof TicketGrantingTicket)) {
+            return ticket;
+        }
+        val grantedKey = toBytes(getGrantedTicketsRedisKey(encodeTicketId(ticket.getId())));
+        val entries = this.client.execute((RedisCallback<Map<byte[], byte[]>>) connection -> connection.hGetAll(grantedKey));
+        if (entries != null && !entries.isEmpty()) {
+            val records = entries.values().stream().map(this::decodeGrantedTicketRecord).collect(Collectors.toList());
+            GrantedTicketRecord.apply((TicketGrantingTicket) ticket, records);
+            val fields = entries.keySet().stream().map(field -> new String(field, StandardCharsets.UTF_8)).collect(Collectors.toSet());
+            this.foldedGrantedTickets.put(ticket, fields);
+            LOGGER.trace("Applied [{}] granted ticket record(s) to [{}]", records.size(), ticket.getId());
+        }
+        return ticket;
+    }
+
+    private void deleteGrantedTickets() {
+        if (this.grantedTicketsEnabled) {
+            deleteKeysMatching(CAS_GRANTED_TICKETS_PREFIX + '*');
+        }
+    }
+
+    private void deleteKeysMatching(final String pattern) {
+        val cursor = this.client.getConnectionFactory().getConnection()
+            .scan(ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build());
+        try (cursor) {
+            val keys = new ArrayList<String>();
+            cursor.forEachRemaining(key -> keys.add(new String(key, StandardCharsets.UTF_8)));
+            val size = (int) this.batchSize;
+            for (var i = 0; i < keys.size(); i += size) {
+                this.client.delete(keys.subList(i, Math.min(keys.size(), i + size)));
+            }
+        } catch (final IOException e) {
+            LOGGER.error("Could not close Redis connection", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Ticket> getValueSerializer() {
+        return (RedisSerializer<Ticket>) this.client.getValueSerializer();
     }
 
     /**
@@ -177,4 +674,49 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
                 }
             });
     }
+
+    /**
+     * Reads the members of a ticket index in batches ordered by score. Each batch starts at the
+     * score of the last member seen, skipping the members already seen with that score.
+     */
+    private class IndexedKeyCursor {
+        private final byte[] key;
+
+        private final Set<String> visitedAtLastScore = new HashSet<>();
+
+        private double lastScore;
+
+        IndexedKeyCursor(final byte[] key, final double minScore) {
+            this.key = key;
+            this.lastScore = minScore;
+        }
+
+        List<byte[]> next() {
+            val count = batchSize + this.visitedAtLastScore.size();
+            val range = RedisZSetCommands.Range.range().gte(this.lastScore);
+            val limit = RedisZSetCommands.Limit.limit().count((int) Math.min(count, Integer.MAX_VALUE));
+            val tuples = client.execute((RedisCallback<Set<RedisZSetCommands.Tuple>>) connection ->
+                connection.zRangeByScoreWithScores(this.key, range, limit));
+            val batch = new ArrayList<byte[]>();
+            if (tuples == null) {
+                return batch;
+            }
+            for (val tuple : tuples) {
+                if (batch.size() >= batchSize) {
+                    break;
+                }
+                val member = new String(tuple.getValue(), StandardCharsets.UTF_8);
+                val score = tuple.getScore();
+                if (Double.compare(score, this.lastScore) != 0) {
+                    this.visitedAtLastScore.clear();
+                    this.lastScore = score;
+                } else if (this.visitedAtLastScore.contains(member)) {
+                    continue;
+                }
+                this.visitedAtLastScore.add(member);
+                batch.add(tuple.getValue());
+            }
+            return batch;
+        }
+    }
 }
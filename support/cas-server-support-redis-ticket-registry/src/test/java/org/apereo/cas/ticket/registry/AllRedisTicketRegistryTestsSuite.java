@@ -12,6 +12,7 @@ import org.junit.runner.RunWith;
  */
 @SelectClasses({
     RedisEmbeddedTicketRegistryTests.class,
+    RedisEmbeddedIndexedTicketRegistryTests.class,
     SentinelEmbeddedTicketRegistryTests.class,
     RedisServerTicketRegistryTests.class,
     SentinelServerTicketRegistryTests.class
@@ -0,0 +1,157 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.expiration.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.expiration.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.junit.DisabledIfContinuousIntegration;
+
+import lombok.val;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.RepeatedTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+import redis.embedded.RedisServer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link RedisTicketRegistry} with ticket indexes and granted ticket records enabled.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@TestPropertySource(properties = {
+    "cas.ticket.registry.redis.host=localhost",
+    "cas.ticket.registry.redis.port=6377",
+    "cas.ticket.registry.redis.pool.max-active=20",
+    "cas.ticket.registry.redis.index-enabled=true",
+    "cas.ticket.registry.redis.batch-size=5",
+    "cas.ticket.registry.redis.granted-tickets-enabled=true"
+})
+@DisabledIfContinuousIntegration
+public class RedisEmbeddedIndexedTicketRegistryTests extends BaseRedisSentinelTicketRegistryTests {
+
+    private static RedisServer REDIS_SERVER;
+
+    @Autowired
+    @Qualifier("ticketRedisTemplate")
+    private RedisTemplate<String, Ticket> ticketRedisTemplate;
+
+    @BeforeAll
+    public static void startRedis() throws Exception {
+        REDIS_SERVER = new RedisServer(6377);
+        REDIS_SERVER.start();
+    }
+
+    @AfterAll
+    public static void stopRedis() {
+        REDIS_SERVER.stop();
+    }
+
+    @RepeatedTest(2)
+    public void verifyPrincipalSessionsOutliveShorterTickets() {
+        val registry = getNewTicketRegistry();
+        registry.addTicket(new TicketGrantingTicketImpl(ticketGrantingTicketId + "-1",
+            CoreAuthenticationTestUtils.getAuthentication("casuser"), NeverExpiresExpirationPolicy.INSTANCE));
+        registry.addTicket(new TicketGrantingTicketImpl(ticketGrantingTicketId + "-2",
+            CoreAuthenticationTestUtils.getAuthentication("casuser"), new HardTimeoutExpirationPolicy(5)));
+
+        val keys = ticketRedisTemplate.keys("CAS_PRINCIPAL_SESSIONS:*");
+        assertNotNull(keys);
+        assertEquals(1, keys.size());
+        val ttl = ticketRedisTemplate.getExpire(keys.iterator().next(), TimeUnit.SECONDS);
+        assertNotNull(ttl);
+        assertTrue(ttl > TimeUnit.DAYS.toSeconds(1));
+        try (val sessions = registry.getSessionsFor("casuser")) {
+            assertEquals(2, sessions.count());
+        }
+    }
+
+    @RepeatedTest(2)
+    public void verifyGrantedTicketExtendsIndexedTicketGrantingTicket() {
+        val registry = getNewTicketRegistry();
+        val tgt = new TicketGrantingTicketImpl(ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication("casuser"), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(tgt);
+
+        ticketRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            val index = "CAS_TICKET_INDEX:TGT".getBytes(StandardCharsets.UTF_8);
+            val members = connection.zRange(index, 0, -1);
+            assertNotNull(members);
+            members.forEach(member -> connection.zAdd(index, 1, member));
+            return null;
+        });
+
+        val st = tgt.grantServiceTicket(serviceTicketId, RegisteredServiceTestUtils.getService("TGT_INDEX_TEST"),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        registry.addTicket(st);
+        registry.addGrantedTicket(tgt, st, List.of());
+
+        assertEquals(1, registry.sessionCount());
+        assertTrue(registry.getTickets().stream()
+            .anyMatch(ticket -> ticket instanceof TicketGrantingTicket && ticket.getId().equals(ticketGrantingTicketId)));
+        try (val sessions = registry.getSessionsFor("casuser")) {
+            assertEquals(Set.of(ticketGrantingTicketId), sessions.map(Ticket::getId).collect(Collectors.toSet()));
+        }
+    }
+
+    @RepeatedTest(2)
+    public void verifyConcurrentlyGrantedTicketSurvivesUpdate() {
+        val registry = getNewTicketRegistry();
+        val tgt = new TicketGrantingTicketImpl(ticketGrantingTicketId,
+            CoreAuthenticationTestUtils.getAuthentication("casuser"), NeverExpiresExpirationPolicy.INSTANCE);
+        registry.addTicket(tgt);
+        val first = tgt.grantServiceTicket(serviceTicketId, RegisteredServiceTestUtils.getService("GRANTED_TEST"),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        registry.addTicket(first);
+        registry.addGrantedTicket(tgt, first, List.of());
+
+        val retrieved = (TicketGrantingTicket) registry.getTicket(ticketGrantingTicketId);
+        val concurrent = (TicketGrantingTicket) registry.getTicket(ticketGrantingTicketId);
+        val second = concurrent.grantServiceTicket(serviceTicketId + "-2", RegisteredServiceTestUtils.getService("GRANTED_TEST"),
+            NeverExpiresExpirationPolicy.INSTANCE, false, true);
+        registry.addTicket(second);
+        registry.addGrantedTicket(concurrent, second, List.of());
+        registry.updateTicket(retrieved);
+
+        val result = (TicketGrantingTicket) registry.getTicket(ticketGrantingTicketId);
+        assertNotNull(result);
+        assertEquals(Set.of(first.getId(), second.getId()), result.getServices().keySet());
+    }
+
+    @RepeatedTest(2)
+    public void verifyTicketsDeletedWhileStreamedAreAllVisited() {
+        val registry = getNewTicketRegistry();
+        val ids = IntStream.range(0, 12)
+            .mapToObj(i -> ticketGrantingTicketId + '-' + i)
+            .collect(Collectors.toSet());
+        ids.forEach(id -> registry.addTicket(new TicketGrantingTicketImpl(id,
+            CoreAuthenticationTestUtils.getAuthentication("casuser"), NeverExpiresExpirationPolicy.INSTANCE)));
+
+        val visited = new HashSet<String>();
+        try (val tickets = registry.getTicketsStream()) {
+            tickets.forEach(ticket -> {
+                visited.add(ticket.getId());
+                registry.deleteSingleTicket(ticket.getId());
+            });
+        }
+        assertEquals(ids, visited);
+        assertEquals(0, registry.sessionCount());
+    }
+}
@@ -4,6 +4,7 @@ import org.apereo.cas.CentralAuthenticationService;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.util.DateTimeUtils;
 import org.apereo.cas.util.ISOStandardDateFormat;
 import org.apereo.cas.web.BaseCasActuatorEndpoint;
@@ -24,6 +25,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * SSO Report web controller that produces JSON data for the view.
@@ -43,10 +45,14 @@ public class SingleSignOnSessionsEndpoint extends BaseCasActuatorEndpoint {
     private static final String TICKET_GRANTING_TICKET = "ticketGrantingTicket";
     private final CentralAuthenticationService centralAuthenticationService;
 
+    private final TicketRegistry ticketRegistry;
+
     public SingleSignOnSessionsEndpoint(final CentralAuthenticationService centralAuthenticationService,
+                                        final TicketRegistry ticketRegistry,
                                         final CasConfigurationProperties casProperties) {
         super(casProperties);
         this.centralAuthenticationService = centralAuthenticationService;
+        this.ticketRegistry = ticketRegistry;
     }
 
     /**
@@ -56,9 +62,21 @@ public class SingleSignOnSessionsEndpoint extends BaseCasActuatorEndpoint {
      * @return the sso sessions
      */
     private Collection<Map<String, Object>> getActiveSsoSessions(final SsoSessionReportOptions option) {
+        return getActiveSsoSessions(getNonExpiredTicketGrantingTickets().stream().map(TicketGrantingTicket.class::cast), option);
+    }
+
+    /**
+     * Gets sso sessions from the given ticket-granting tickets.
+     *
+     * @param tickets the ticket-granting tickets
+     * @param option  the option
+     * @return the sso sessions
+     */
+    private static Collection<Map<String, Object>> getActiveSsoSessions(final Stream<? extends TicketGrantingTicket> tickets,
+                                                                        final SsoSessionReportOptions option) {
         val activeSessions = new ArrayList<Map<String, Object>>();
         val dateFormat = new ISOStandardDateFormat();
-        getNonExpiredTicketGrantingTickets().stream().map(TicketGrantingTicket.class::cast)
+        tickets
             .filter(tgt -> !(option == SsoSessionReportOptions.DIRECT && tgt.getProxiedBy() != null))
             .forEach(tgt -> {
                 val authentication = tgt.getAuthentication();
@@ -103,9 +121,27 @@ public class SingleSignOnSessionsEndpoint extends BaseCasActuatorEndpoint {
      */
     @ReadOperation
     public Map<String, Object> getSsoSessions(final String type) {
-        val sessionsMap = new HashMap<String, Object>(1);
         val option = SsoSessionReportOptions.valueOf(type);
-        val activeSsoSessions = getActiveSsoSessions(option);
+        return getSsoSessionsReport(getActiveSsoSessions(option));
+    }
+
+    /**
+     * Endpoint for getting the SSO Sessions of a single user in JSON format.
+     * Sessions are found via the principal index of the ticket registry,
+     * rather than by examining all tickets.
+     *
+     * @param username the username
+     * @return the sso sessions
+     */
+    @ReadOperation
+    public Map<String, Object> getSsoSessionsForUser(@Selector final String username) {
+        try (val sessions = this.ticketRegistry.getSessionsFor(username)) {
+            return getSsoSessionsReport(getActiveSsoSessions(sessions, SsoSessionReportOptions.ALL));
+        }
+    }
+
+    private static Map<String, Object> getSsoSessionsReport(final Collection<Map<String, Object>> activeSsoSessions) {
+        val sessionsMap = new HashMap<String, Object>();
         sessionsMap.put("activeSsoSessions", activeSsoSessions);
         val totalTicketGrantingTickets = new AtomicLong();
         val totalProxyGrantingTickets = new AtomicLong();
@@ -2,17 +2,37 @@ package org.apereo.cas.support.saml.services.idp.metadata.cache;
 
 import org.apereo.cas.support.saml.services.SamlRegisteredService;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
 import org.opensaml.saml.metadata.resolver.MetadataResolver;
 
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * An adaptation of metadata resolver which handles the resolution of metadata resources
  * inside a cache. It basically is a fancy wrapper around a cache, and constructs the cache
  * semantics before processing the resolution of metadata for a SAML service.
+ * <p>
+ * Resolvers are cached per metadata location, and as such are shared by all services
+ * that point at the same metadata location. Once a cached resolver has lived past the configured
+ * refresh ratio of its expiration duration, it is reloaded in the background while the
+ * existing resolver continues to be served, so that requests do not block on the re-download
+ * and re-parse of metadata unless the resolver has expired entirely. When a refresh fails,
+ * the next attempt is pushed out by an eighth of the expiration duration, doubling after every
+ * failure, so that an unreachable metadata source is not hit on every request.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -22,16 +42,46 @@ public class SamlRegisteredServiceDefaultCachingMetadataResolver implements Saml
 
     private static final int MAX_CACHE_SIZE = 10_000;
 
+    private static final double DEFAULT_REFRESH_RATIO = 0.75;
+
+    private static final int REFRESH_BACKOFF_DIVISOR = 8;
+
+    private static final int MAX_REFRESH_BACKOFF_SHIFT = 16;
+
+    private static final long MAX_REFRESH_BACKOFF_NANOS = Duration.ofMinutes(15).toNanos();
+
     private final SamlRegisteredServiceMetadataResolverCacheLoader chainingMetadataResolverCacheLoader;
-    private final LoadingCache<SamlRegisteredServiceCacheKey, MetadataResolver> cache;
+    private final SamlRegisteredServiceMetadataExpirationPolicy expirationPolicy;
+    private final double refreshRatio;
+    private final Ticker ticker;
+    private final LoadingCache<SamlRegisteredServiceCacheKey, CachedMetadataResolver> cache;
 
     public SamlRegisteredServiceDefaultCachingMetadataResolver(final long metadataCacheExpirationMinutes,
                                                                final SamlRegisteredServiceMetadataResolverCacheLoader loader) {
+        this(metadataCacheExpirationMinutes, loader, DEFAULT_REFRESH_RATIO);
+    }
+
+    public SamlRegisteredServiceDefaultCachingMetadataResolver(final long metadataCacheExpirationMinutes,
+                                                               final SamlRegisteredServiceMetadataResolverCacheLoader loader,
+                                                               final double refreshRatio) {
+        this(metadataCacheExpirationMinutes, loader, refreshRatio, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    public SamlRegisteredServiceDefaultCachingMetadataResolver(final long metadataCacheExpirationMinutes,
+                                                               final SamlRegisteredServiceMetadataResolverCacheLoader loader,
+                                                               final double refreshRatio,
+                                                               final Ticker ticker,
+                                                               final Executor executor) {
         this.chainingMetadataResolverCacheLoader = loader;
+        this.expirationPolicy = new SamlRegisteredServiceMetadataExpirationPolicy(metadataCacheExpirationMinutes);
+        this.refreshRatio = refreshRatio;
+        this.ticker = ticker;
         this.cache = Caffeine.newBuilder()
             .maximumSize(MAX_CACHE_SIZE)
-            .expireAfter(new SamlRegisteredServiceMetadataExpirationPolicy(metadataCacheExpirationMinutes))
-            .build(this.chainingMetadataResolverCacheLoader);
+            .ticker(ticker)
+            .executor(executor)
+            .expireAfter(new CachedMetadataResolverExpiry())
+            .build(new CachedMetadataResolverLoader());
     }
 
     @Override
@@ -39,10 +89,15 @@ public class SamlRegisteredServiceDefaultCachingMetadataResolver implements Saml
         LOGGER.debug("Resolving metadata for [{}] at [{}].", service.getName(), service.getMetadataLocation());
         val cacheKey = new SamlRegisteredServiceCacheKey(service, criteriaSet);
         LOGGER.trace("Locating cached metadata resolver using key [{}] for service [{}]", cacheKey.getId(), service.getName());
-        val resolver = this.cache.get(cacheKey);
-        if (resolver == null) {
+        val cachedResolver = this.cache.get(cacheKey);
+        if (cachedResolver == null) {
             throw new IllegalArgumentException("Unable to determine and load metadata resolver");
         }
+        if (cachedResolver.isRefreshDue(this.ticker.read()) && cachedResolver.getRefreshing().compareAndSet(false, true)) {
+            LOGGER.debug("Refreshing SAML metadata from [{}] in the background", service.getMetadataLocation());
+            this.cache.refresh(cacheKey);
+        }
+        val resolver = cachedResolver.getMetadataResolver();
         LOGGER.debug("Loaded and cached SAML metadata [{}] from [{}]", resolver.getId(), service.getMetadataLocation());
         return resolver;
     }
@@ -59,4 +114,81 @@ public class SamlRegisteredServiceDefaultCachingMetadataResolver implements Saml
         val k = new SamlRegisteredServiceCacheKey(service, criteriaSet);
         this.cache.invalidate(k);
     }
+
+    @Getter
+    private static class CachedMetadataResolver {
+        private final MetadataResolver metadataResolver;
+
+        private final long expiration;
+
+        private final AtomicLong nextRefresh;
+
+        private final AtomicInteger failedRefreshes = new AtomicInteger();
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        CachedMetadataResolver(final MetadataResolver metadataResolver, final long expiration,
+                               final long loadedAt, final double refreshRatio) {
+            this.metadataResolver = metadataResolver;
+            this.expiration = expiration;
+            this.nextRefresh = new AtomicLong(loadedAt + (long) (expiration * refreshRatio));
+        }
+
+        boolean isRefreshDue(final long now) {
+            return now - this.nextRefresh.get() >= 0;
+        }
+
+        void refreshFailed(final long now) {
+            val shift = Math.min(this.failedRefreshes.getAndIncrement(), MAX_REFRESH_BACKOFF_SHIFT);
+            val backoff = Math.min((this.expiration / REFRESH_BACKOFF_DIVISOR) << shift, MAX_REFRESH_BACKOFF_NANOS);
+            this.nextRefresh.set(now + Math.max(1, backoff));
+            this.refreshing.set(false);
+        }
+    }
+
+    private class CachedMetadataResolverLoader implements CacheLoader<SamlRegisteredServiceCacheKey, CachedMetadataResolver> {
+        @Override
+        public CachedMetadataResolver load(@Nonnull final SamlRegisteredServiceCacheKey key) {
+            val resolver = chainingMetadataResolverCacheLoader.load(key);
+            val now = ticker.read();
+            val expiration = expirationPolicy.expireAfterCreate(key, resolver, now);
+            return new CachedMetadataResolver(resolver, expiration, now, refreshRatio);
+        }
+
+        @Override
+        public CachedMetadataResolver reload(@Nonnull final SamlRegisteredServiceCacheKey key,
+                                             @Nonnull final CachedMetadataResolver oldValue) {
+            try {
+                return load(key);
+            } catch (final Exception e) {
+                LOGGER.warn("Unable to refresh SAML metadata from [{}]: [{}]",
+                    key.getRegisteredService().getMetadataLocation(), e.getMessage());
+                oldValue.refreshFailed(ticker.read());
+                throw e;
+            }
+        }
+    }
+
+    private static class CachedMetadataResolverExpiry implements Expiry<SamlRegisteredServiceCacheKey, CachedMetadataResolver> {
+        @Override
+        public long expireAfterCreate(@Nonnull final SamlRegisteredServiceCacheKey key,
+                                      @Nonnull final CachedMetadataResolver value,
+                                      final long currentTime) {
+            return value.getExpiration();
+        }
+
+        @Override
+        public long expireAfterUpdate(@Nonnull final SamlRegisteredServiceCacheKey key,
+                                      @Nonnull final CachedMetadataResolver value,
+                                      final long currentTime, final long currentDuration) {
+            return value.getExpiration();
+        }
+
+        @Override
+        public long expireAfterRead(@Nonnull final SamlRegisteredServiceCacheKey key,
+                                    @Nonnull final CachedMetadataResolver value,
+                                    final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,102 @@
+package org.apereo.cas.support.saml.services.idp.metadata.cache;
+
+import org.apereo.cas.support.saml.services.SamlRegisteredService;
+
+import lombok.val;
+import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
+import org.junit.jupiter.api.Test;
+import org.opensaml.saml.metadata.resolver.ChainingMetadataResolver;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link SamlRegisteredServiceDefaultCachingMetadataResolverTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public class SamlRegisteredServiceDefaultCachingMetadataResolverTests {
+
+    private static SamlRegisteredService getSamlRegisteredService(final String name, final String location) {
+        val service = new SamlRegisteredService();
+        service.setName(name);
+        service.setServiceId("https://" + name + ".example.org");
+        service.setMetadataLocation(location);
+        service.setMetadataExpirationDuration("PT1S");
+        return service;
+    }
+
+    @Test
+    public void verifyResolverIsSharedByMetadataLocation() {
+        val loader = mock(SamlRegisteredServiceMetadataResolverCacheLoader.class);
+        when(loader.load(any())).thenAnswer(args -> mock(ChainingMetadataResolver.class));
+        val resolver = new SamlRegisteredServiceDefaultCachingMetadataResolver(30, loader);
+
+        val first = resolver.resolve(getSamlRegisteredService("first", "classpath:sample-sp.xml"), new CriteriaSet());
+        val second = resolver.resolve(getSamlRegisteredService("second", "classpath:sample-sp.xml"), new CriteriaSet());
+        assertSame(first, second);
+        verify(loader, times(1)).load(any());
+
+        val other = resolver.resolve(getSamlRegisteredService("other", "https://example.org/saml/metadata.xml"), new CriteriaSet());
+        assertNotSame(first, other);
+        verify(loader, times(2)).load(any());
+    }
+
+    @Test
+    public void verifyResolverIsRefreshedAheadOfExpiration() {
+        val loader = mock(SamlRegisteredServiceMetadataResolverCacheLoader.class);
+        when(loader.load(any())).thenAnswer(args -> mock(ChainingMetadataResolver.class));
+        val time = new AtomicLong();
+        val resolver = new SamlRegisteredServiceDefaultCachingMetadataResolver(30, loader, 0.25, time::get, Runnable::run);
+        val service = getSamlRegisteredService("refresh", "classpath:sample-sp.xml");
+
+        val original = resolver.resolve(service, new CriteriaSet());
+        time.set(TimeUnit.MILLISECONDS.toNanos(200));
+        assertSame(original, resolver.resolve(service, new CriteriaSet()));
+        verify(loader, times(1)).load(any());
+
+        time.set(TimeUnit.MILLISECONDS.toNanos(400));
+        assertSame(original, resolver.resolve(service, new CriteriaSet()));
+        verify(loader, times(2)).load(any());
+
+        val refreshed = resolver.resolve(service, new CriteriaSet());
+        assertNotSame(original, refreshed);
+        verify(loader, times(2)).load(any());
+    }
+
+    @Test
+    public void verifyFailedRefreshIsRetriedWithBackoff() {
+        val loader = mock(SamlRegisteredServiceMetadataResolverCacheLoader.class);
+        val original = mock(ChainingMetadataResolver.class);
+        when(loader.load(any())).thenReturn(original).thenThrow(new IllegalArgumentException("Unreachable"));
+        val time = new AtomicLong();
+        val resolver = new SamlRegisteredServiceDefaultCachingMetadataResolver(30, loader, 0.25, time::get, Runnable::run);
+        val service = getSamlRegisteredService("failure", "classpath:sample-sp.xml");
+
+        assertSame(original, resolver.resolve(service, new CriteriaSet()));
+        time.set(TimeUnit.MILLISECONDS.toNanos(400));
+        assertSame(original, resolver.resolve(service, new CriteriaSet()));
+        verify(loader, times(2)).load(any());
+
+        time.set(TimeUnit.MILLISECONDS.toNanos(500));
+        assertSame(original, resolver.resolve(service, new CriteriaSet()));
+        verify(loader, times(2)).load(any());
+
+        time.set(TimeUnit.MILLISECONDS.toNanos(530));
+        assertSame(original, resolver.resolve(service, new CriteriaSet()));
+        verify(loader, times(3)).load(any());
+
+        time.set(TimeUnit.MILLISECONDS.toNanos(700));
+        assertSame(original, resolver.resolve(service, new CriteriaSet()));
+        verify(loader, times(3)).load(any());
+
+        time.set(TimeUnit.MILLISECONDS.toNanos(790));
+        assertSame(original, resolver.resolve(service, new CriteriaSet()));
+        verify(loader, times(4)).load(any());
+    }
+}
@@ -16,6 +16,7 @@ import javax.persistence.Column;
 import javax.persistence.DiscriminatorColumn;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
@@ -27,7 +28,7 @@ import javax.persistence.Table;
  * @since 5.2.0
  */
 @Entity
-@Table(name = "SAML2_ARTIFACTS")
+@Table(name = "SAML2_ARTIFACTS", indexes = @Index(name = "IDX_SAML2_ARTIFACTS_EXPIRATION", columnList = "EXPIRATION_TIME"))
 @DiscriminatorColumn(name = "TYPE")
 @DiscriminatorValue(SamlArtifactTicket.PREFIX)
 @Getter
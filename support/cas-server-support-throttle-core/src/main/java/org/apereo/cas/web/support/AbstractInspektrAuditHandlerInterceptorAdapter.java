@@ -1,21 +1,100 @@
 package org.apereo.cas.web.support;
 
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.common.web.ClientInfoHolder;
+
 import javax.servlet.http.HttpServletRequest;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * This is {@link AbstractInspektrAuditHandlerInterceptorAdapter}.
+ * <p>
+ * Failures are looked up in the audit store on every request, unless a
+ * {@link ThrottledSubmissionFailureCounter} is available in the configuration context.
+ * In that case, failures are tracked in memory and the counter is reconciled with the
+ * audit store whenever the throttler is asked to {@link #decrement()}.
  *
  * @author Misagh Moayyed
  * @since 5.3.0
  */
+@Slf4j
 public abstract class AbstractInspektrAuditHandlerInterceptorAdapter extends AbstractThrottledSubmissionHandlerInterceptorAdapter {
     public AbstractInspektrAuditHandlerInterceptorAdapter(final ThrottledSubmissionHandlerConfigurationContext configurationContext) {
         super(configurationContext);
     }
 
+    private static String getFailureCounterKey(final String remoteAddress, final String username) {
+        return StringUtils.lowerCase(StringUtils.defaultString(remoteAddress) + ';' + StringUtils.defaultString(username));
+    }
+
+    @Override
+    public boolean exceedsThreshold(final HttpServletRequest request) {
+        val failureCounter = getConfigurationContext().getFailureCounter();
+        if (failureCounter != null) {
+            val key = getFailureCounterKey(ClientInfoHolder.getClientInfo().getClientIpAddress(), getUsernameParameterFromRequest(request));
+            return calculateFailureThresholdRateAndCompare(failureCounter.getFailures(key));
+        }
+        return calculateFailureThresholdRateAndCompare(getFailuresInRange(request));
+    }
+
+    @Override
+    public void recordSubmissionFailure(final HttpServletRequest request) {
+        val failureCounter = getConfigurationContext().getFailureCounter();
+        if (failureCounter != null) {
+            val key = getFailureCounterKey(ClientInfoHolder.getClientInfo().getClientIpAddress(), getUsernameParameterFromRequest(request));
+            failureCounter.record(key, new Date());
+        }
+    }
+
+    @Override
+    public void decrement() {
+        val failureCounter = getConfigurationContext().getFailureCounter();
+        if (failureCounter == null) {
+            super.decrement();
+            return;
+        }
+        try {
+            val failures = getFailuresInRange()
+                .stream()
+                .sorted(Comparator.comparing(AuditActionContext::getWhenActionWasPerformed).reversed())
+                .collect(Collectors.groupingBy(
+                    audit -> getFailureCounterKey(audit.getClientIpAddress(), audit.getPrincipal()),
+                    Collectors.mapping(AuditActionContext::getWhenActionWasPerformed, Collectors.toList())));
+            failureCounter.reconcile(failures);
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to reconcile throttled submission failures with the audit store: [{}]", e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+        }
+    }
+
     @Override
     protected void recordThrottle(final HttpServletRequest request) {
         super.recordThrottle(request);
         recordAuditAction(request, ACTION_THROTTLED_LOGIN_ATTEMPT);
     }
+
+    /**
+     * Gets authentication failures recorded in the audit store for the client address
+     * and username of the given request, that fall within the failure range, most recent first.
+     *
+     * @param request the request
+     * @return the failures
+     */
+    protected abstract List<Date> getFailuresInRange(HttpServletRequest request);
+
+    /**
+     * Gets all authentication failures recorded in the audit store that fall within the failure range.
+     * Only the principal, client address and date of each record are required.
+     * Used to reconcile the failure counter.
+     *
+     * @return the failures
+     */
+    protected abstract Collection<AuditActionContext> getFailuresInRange();
 }
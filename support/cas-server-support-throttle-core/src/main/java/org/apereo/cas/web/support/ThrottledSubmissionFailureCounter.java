@@ -0,0 +1,152 @@
+package org.apereo.cas.web.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link ThrottledSubmissionFailureCounter}. It keeps a sliding window of recent
+ * authentication failures per key in memory, so that throttling decisions can be made without
+ * querying the shared audit store on every request. Windows are held in a bounded cache whose entries
+ * are evicted once the failure range has passed without activity; each window is guarded by its own
+ * lock, so concurrent requests only contend when they share the same key.
+ * <p>
+ * The counter is periodically reconciled with the failures found in the shared store, which
+ * allows failures recorded by other nodes to be taken into account and lets the
+ * cluster-wide view converge. Failures recorded locally that are not yet found in the
+ * shared store, since audit records may be written asynchronously, are kept until they are.
+ * Only the most recent failures are tracked per key, as the submission rate is calculated
+ * from the last two failures.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Slf4j
+public class ThrottledSubmissionFailureCounter {
+    private static final int MAX_TRACKED_FAILURES = 2;
+
+    /**
+     * Maximum difference between the time of a failure recorded locally and the time
+     * of the audit record of the same failure in the shared store.
+     */
+    private static final long MATCHING_FAILURE_TOLERANCE_MILLIS = 1_000;
+
+    private final Cache<String, FailureWindow> windows;
+
+    private final long failureRangeInMillis;
+
+    public ThrottledSubmissionFailureCounter(final long maximumSize, final int failureRangeInSeconds) {
+        this.failureRangeInMillis = TimeUnit.SECONDS.toMillis(Math.max(1, failureRangeInSeconds));
+        this.windows = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterAccess(Duration.ofMillis(this.failureRangeInMillis))
+            .build();
+    }
+
+    /**
+     * Record a failure for the given key.
+     *
+     * @param key  the key
+     * @param when the time of failure
+     */
+    public void record(final String key, final Date when) {
+        this.windows.get(key, k -> new FailureWindow()).record(when.getTime());
+    }
+
+    /**
+     * Gets failures for the given key that fall within the failure range, most recent first.
+     *
+     * @param key the key
+     * @return the failures
+     */
+    public List<Date> getFailures(final String key) {
+        val window = this.windows.getIfPresent(key);
+        if (window == null) {
+            return new ArrayList<>(0);
+        }
+        return window.getFailuresSince(System.currentTimeMillis() - this.failureRangeInMillis);
+    }
+
+    /**
+     * Reconcile local windows with failures found in the shared store.
+     * Failures recorded locally that match a failure in the shared store are replaced by the shared view;
+     * those that do not, such as failures whose audit records are yet to be written, are kept.
+     *
+     * @param failures failures from the shared store, grouped by key
+     */
+    public void reconcile(final Map<String, List<Date>> failures) {
+        val cutoff = System.currentTimeMillis() - this.failureRangeInMillis;
+        failures.forEach((key, dates) -> this.windows.get(key, k -> new FailureWindow()).reconcile(dates));
+        val local = this.windows.asMap();
+        local.forEach((key, window) -> {
+            if (!failures.containsKey(key)) {
+                window.reconcile(new ArrayList<>(0));
+            }
+        });
+        local.entrySet().removeIf(entry -> entry.getValue().getFailuresSince(cutoff).isEmpty());
+        LOGGER.debug("Reconciled [{}] throttled submission failure window(s) with the shared store", local.size());
+    }
+
+    /**
+     * Number of tracked windows.
+     *
+     * @return the size
+     */
+    public long size() {
+        this.windows.cleanUp();
+        return this.windows.estimatedSize();
+    }
+
+    private static class FailureWindow {
+        private long[] shared = new long[0];
+
+        private long[] local = new long[0];
+
+        synchronized void record(final long when) {
+            if (!isShared(when)) {
+                this.local = mostRecent(this.local, new long[]{when});
+            }
+        }
+
+        synchronized void reconcile(final List<Date> dates) {
+            this.shared = mostRecent(dates.stream().mapToLong(Date::getTime).toArray(), new long[0]);
+            this.local = Arrays.stream(this.local).filter(failure -> !isShared(failure)).toArray();
+        }
+
+        private boolean isShared(final long failure) {
+            return Arrays.stream(this.shared).anyMatch(time -> Math.abs(time - failure) <= MATCHING_FAILURE_TOLERANCE_MILLIS);
+        }
+
+        synchronized List<Date> getFailuresSince(final long cutoff) {
+            val failures = new ArrayList<Date>(MAX_TRACKED_FAILURES);
+            for (val failure : mostRecent(this.shared, this.local)) {
+                if (failure >= cutoff) {
+                    failures.add(new Date(failure));
+                }
+            }
+            return failures;
+        }
+
+        private static long[] mostRecent(final long[] first, final long[] second) {
+            val all = new long[first.length + second.length];
+            System.arraycopy(first, 0, all, 0, first.length);
+            System.arraycopy(second, 0, all, first.length, second.length);
+            Arrays.sort(all);
+            val count = Math.min(MAX_TRACKED_FAILURES, all.length);
+            val result = new long[count];
+            for (var i = 0; i < count; i++) {
+                result[i] = all[all.length - 1 - i];
+            }
+            return result;
+        }
+    }
+}
@@ -34,4 +34,6 @@ public class ThrottledSubmissionHandlerConfigurationContext {
     private final ThrottledRequestResponseHandler throttledRequestResponseHandler;
 
     private final ThrottledRequestExecutor throttledRequestExecutor;
+
+    private final ThrottledSubmissionFailureCounter failureCounter;
 }
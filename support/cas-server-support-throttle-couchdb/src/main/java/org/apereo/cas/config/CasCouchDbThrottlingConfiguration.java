@@ -6,6 +6,7 @@ import org.apereo.cas.couchdb.audit.AuditActionContextCouchDbRepository;
 import org.apereo.cas.throttle.ThrottledRequestExecutor;
 import org.apereo.cas.throttle.ThrottledRequestResponseHandler;
 import org.apereo.cas.web.support.CouchDbThrottledSubmissionHandlerInterceptorAdapter;
+import org.apereo.cas.web.support.ThrottledSubmissionFailureCounter;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerConfigurationContext;
 
 import lombok.extern.slf4j.Slf4j;
@@ -64,6 +65,9 @@ public class CasCouchDbThrottlingConfiguration {
             .applicationCode(throttle.getAppCode())
             .throttledRequestResponseHandler(throttledRequestResponseHandler.getIfAvailable())
             .throttledRequestExecutor(throttledRequestExecutor.getIfAvailable())
+            .failureCounter(throttle.getLocal().isEnabled()
+                ? new ThrottledSubmissionFailureCounter(throttle.getLocal().getMaximumSize(), failure.getRangeSeconds())
+                : null)
             .build();
 
         return new CouchDbThrottledSubmissionHandlerInterceptorAdapter(context, couchDbRepository.getIfAvailable());
@@ -9,6 +9,9 @@ import org.apereo.inspektr.common.web.ClientInfoHolder;
 import javax.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -30,18 +33,29 @@ public class CouchDbThrottledSubmissionHandlerInterceptorAdapter extends Abstrac
     }
 
     @Override
-    public boolean exceedsThreshold(final HttpServletRequest request) {
+    protected List<Date> getFailuresInRange(final HttpServletRequest request) {
         val clientInfo = ClientInfoHolder.getClientInfo();
         val remoteAddress = clientInfo.getClientIpAddress();
 
-        val failures = repository.findByThrottleParams(remoteAddress,
+        return repository.findByThrottleParams(remoteAddress,
             getUsernameParameterFromRequest(request),
             getConfigurationContext().getAuthenticationFailureCode(),
             getConfigurationContext().getApplicationCode(),
             LocalDateTime.now(ZoneOffset.UTC).minusSeconds(getConfigurationContext().getFailureRangeInSeconds()))
             .stream().map(AuditActionContext::getWhenActionWasPerformed).collect(Collectors.toList());
+    }
 
-        return calculateFailureThresholdRateAndCompare(failures);
+    @Override
+    protected Collection<AuditActionContext> getFailuresInRange() {
+        val cutoff = getFailureInRangeCutOffDate();
+        val since = LocalDateTime.now(ZoneOffset.UTC).minusSeconds(getConfigurationContext().getFailureRangeInSeconds()).toLocalDate();
+        return repository.findAuditRecordsSince(since)
+            .stream()
+            .filter(audit -> getConfigurationContext().getAuthenticationFailureCode().equalsIgnoreCase(audit.getActionPerformed())
+                && getConfigurationContext().getApplicationCode().equalsIgnoreCase(audit.getApplicationCode())
+                && audit.getWhenActionWasPerformed().compareTo(cutoff) >= 0)
+            .map(AuditActionContext.class::cast)
+            .collect(Collectors.toList());
     }
 
     @Override
@@ -6,6 +6,7 @@ import org.apereo.cas.configuration.support.JpaBeans;
 import org.apereo.cas.throttle.ThrottledRequestExecutor;
 import org.apereo.cas.throttle.ThrottledRequestResponseHandler;
 import org.apereo.cas.web.support.JdbcThrottledSubmissionHandlerInterceptorAdapter;
+import org.apereo.cas.web.support.ThrottledSubmissionFailureCounter;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerConfigurationContext;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerInterceptor;
 
@@ -68,9 +69,12 @@ public class CasJdbcThrottlingConfiguration {
             .applicationCode(throttle.getAppCode())
             .throttledRequestResponseHandler(throttledRequestResponseHandler.getIfAvailable())
             .throttledRequestExecutor(throttledRequestExecutor.getIfAvailable())
+            .failureCounter(throttle.getLocal().isEnabled()
+                ? new ThrottledSubmissionFailureCounter(throttle.getLocal().getMaximumSize(), failure.getRangeSeconds())
+                : null)
             .build();
 
         return new JdbcThrottledSubmissionHandlerInterceptorAdapter(context, inspektrThrottleDataSource(),
-            throttle.getJdbc().getAuditQuery());
+            throttle.getJdbc().getAuditQuery(), throttle.getJdbc().getFailuresQuery());
     }
 }
@@ -1,13 +1,16 @@
 package org.apereo.cas.web.support;
 
 import lombok.val;
+import org.apereo.inspektr.audit.AuditActionContext;
 import org.apereo.inspektr.common.web.ClientInfoHolder;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.sql.DataSource;
 import java.sql.Types;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -24,19 +27,21 @@ import java.util.stream.Collectors;
  */
 public class JdbcThrottledSubmissionHandlerInterceptorAdapter extends AbstractInspektrAuditHandlerInterceptorAdapter {
     private final String sqlQueryAudit;
+    private final String sqlQueryFailures;
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcThrottledSubmissionHandlerInterceptorAdapter(final ThrottledSubmissionHandlerConfigurationContext configurationContext,
                                                             final DataSource dataSource,
-                                                            final String sqlQueryAudit) {
+                                                            final String sqlQueryAudit,
+                                                            final String sqlQueryFailures) {
         super(configurationContext);
         this.sqlQueryAudit = sqlQueryAudit;
+        this.sqlQueryFailures = sqlQueryFailures;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
-
     @Override
-    public boolean exceedsThreshold(final HttpServletRequest request) {
+    protected List<Date> getFailuresInRange(final HttpServletRequest request) {
         val clientInfo = ClientInfoHolder.getClientInfo();
         val remoteAddress = clientInfo.getClientIpAddress();
 
@@ -51,8 +56,23 @@ public class JdbcThrottledSubmissionHandlerInterceptorAdapter extends AbstractIn
             new int[]{Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP},
             (resultSet, i) -> resultSet.getTimestamp(1));
 
-        val failures = failuresInAudits.stream().map(t -> new Date(t.getTime())).collect(Collectors.toList());
-        return calculateFailureThresholdRateAndCompare(failures);
+        return failuresInAudits.stream().map(t -> new Date(t.getTime())).collect(Collectors.toList());
+    }
+
+    @Override
+    protected Collection<AuditActionContext> getFailuresInRange() {
+        return this.jdbcTemplate.query(
+            this.sqlQueryFailures,
+            new Object[]{
+                getConfigurationContext().getAuthenticationFailureCode(),
+                getConfigurationContext().getApplicationCode(),
+                getFailureInRangeCutOffDate()},
+            new int[]{Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP},
+            (resultSet, i) -> new AuditActionContext(resultSet.getString(2), null,
+                getConfigurationContext().getAuthenticationFailureCode(),
+                getConfigurationContext().getApplicationCode(),
+                new Date(resultSet.getTimestamp(3).getTime()),
+                resultSet.getString(1), null));
     }
 
     @Override
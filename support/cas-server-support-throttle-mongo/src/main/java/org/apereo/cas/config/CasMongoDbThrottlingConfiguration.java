@@ -6,6 +6,7 @@ import org.apereo.cas.mongo.MongoDbConnectionFactory;
 import org.apereo.cas.throttle.ThrottledRequestExecutor;
 import org.apereo.cas.throttle.ThrottledRequestResponseHandler;
 import org.apereo.cas.web.support.MongoDbThrottledSubmissionHandlerInterceptorAdapter;
+import org.apereo.cas.web.support.ThrottledSubmissionFailureCounter;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerConfigurationContext;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerInterceptor;
 
@@ -61,6 +62,9 @@ public class CasMongoDbThrottlingConfiguration {
             .applicationCode(throttle.getAppCode())
             .throttledRequestResponseHandler(throttledRequestResponseHandler.getIfAvailable())
             .throttledRequestExecutor(throttledRequestExecutor.getIfAvailable())
+            .failureCounter(throttle.getLocal().isEnabled()
+                ? new ThrottledSubmissionFailureCounter(throttle.getLocal().getMaximumSize(), failure.getRangeSeconds())
+                : null)
             .build();
 
         return new MongoDbThrottledSubmissionHandlerInterceptorAdapter(context, mongoTemplate, mongo.getCollection());
@@ -10,6 +10,9 @@ import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -32,7 +35,7 @@ public class MongoDbThrottledSubmissionHandlerInterceptorAdapter extends Abstrac
     }
 
     @Override
-    public boolean exceedsThreshold(final HttpServletRequest request) {
+    protected List<Date> getFailuresInRange(final HttpServletRequest request) {
         val clientInfo = ClientInfoHolder.getClientInfo();
         val remoteAddress = clientInfo.getClientIpAddress();
 
@@ -47,11 +50,21 @@ public class MongoDbThrottledSubmissionHandlerInterceptorAdapter extends Abstrac
         query.fields().include("whenActionWasPerformed");
 
         LOGGER.debug("Executing MongoDb throttling query [{}]", query.toString());
-        val failures = this.mongoTemplate.find(query, AuditActionContext.class, this.collectionName)
+        return this.mongoTemplate.find(query, AuditActionContext.class, this.collectionName)
             .stream()
             .map(AuditActionContext::getWhenActionWasPerformed)
             .collect(Collectors.toList());
-        return calculateFailureThresholdRateAndCompare(failures);
+    }
+
+    @Override
+    protected Collection<AuditActionContext> getFailuresInRange() {
+        val query = new Query()
+            .addCriteria(Criteria.where("actionPerformed").is(getConfigurationContext().getAuthenticationFailureCode())
+                .and("applicationCode").is(getConfigurationContext().getApplicationCode())
+                .and("whenActionWasPerformed").gte(getFailureInRangeCutOffDate()));
+        query.fields().include("principal").include("clientIpAddress").include("whenActionWasPerformed");
+        LOGGER.debug("Executing MongoDb throttling query [{}]", query.toString());
+        return this.mongoTemplate.find(query, AuditActionContext.class, this.collectionName);
     }
 
     @Override
@@ -6,6 +6,7 @@ import org.apereo.cas.redis.core.RedisObjectFactory;
 import org.apereo.cas.throttle.ThrottledRequestExecutor;
 import org.apereo.cas.throttle.ThrottledRequestResponseHandler;
 import org.apereo.cas.web.support.RedisThrottledSubmissionHandlerInterceptorAdapter;
+import org.apereo.cas.web.support.ThrottledSubmissionFailureCounter;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerConfigurationContext;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerInterceptor;
 
@@ -72,6 +73,9 @@ public class CasRedisThrottlingConfiguration {
             .applicationCode(throttle.getAppCode())
             .throttledRequestResponseHandler(throttledRequestResponseHandler.getIfAvailable())
             .throttledRequestExecutor(throttledRequestExecutor.getIfAvailable())
+            .failureCounter(throttle.getLocal().isEnabled()
+                ? new ThrottledSubmissionFailureCounter(throttle.getLocal().getMaximumSize(), failure.getRangeSeconds())
+                : null)
             .build();
         return new RedisThrottledSubmissionHandlerInterceptorAdapter(context, throttleRedisTemplate());
     }
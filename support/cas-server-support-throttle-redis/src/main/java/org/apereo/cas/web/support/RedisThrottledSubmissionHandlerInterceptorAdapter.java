@@ -10,7 +10,10 @@ import org.springframework.data.redis.core.BoundValueOperations;
 import org.springframework.data.redis.core.RedisTemplate;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
@@ -34,26 +37,35 @@ public class RedisThrottledSubmissionHandlerInterceptorAdapter extends AbstractI
     }
 
     @Override
-    public boolean exceedsThreshold(final HttpServletRequest request) {
+    protected List<Date> getFailuresInRange(final HttpServletRequest request) {
         val clientInfo = ClientInfoHolder.getClientInfo();
         val remoteAddress = clientInfo.getClientIpAddress();
+        val username = getUsernameParameterFromRequest(request);
 
-        val keys = (Set<String>) this.redisTemplate.keys(RedisAuditTrailManager.CAS_AUDIT_CONTEXT_PREFIX + '*');
-        val failures = Objects.requireNonNull(keys)
+        return getFailuresInRange()
             .stream()
-            .map((Function<String, BoundValueOperations>) this.redisTemplate::boundValueOps)
-            .map(AuditActionContext.class::cast)
-            .filter(audit ->
-                audit.getPrincipal().equalsIgnoreCase(getUsernameParameterFromRequest(request))
-                    && audit.getClientIpAddress().equalsIgnoreCase(remoteAddress)
-                    && audit.getActionPerformed().equalsIgnoreCase(getConfigurationContext().getAuthenticationFailureCode())
-                    && audit.getApplicationCode().equalsIgnoreCase(getConfigurationContext().getApplicationCode())
-                    && audit.getWhenActionWasPerformed().compareTo(getFailureInRangeCutOffDate()) >= 0)
+            .filter(audit -> audit.getPrincipal().equalsIgnoreCase(username)
+                && audit.getClientIpAddress().equalsIgnoreCase(remoteAddress))
             .sorted(Comparator.comparing(AuditActionContext::getWhenActionWasPerformed).reversed())
             .limit(2)
             .map(AuditActionContext::getWhenActionWasPerformed)
             .collect(Collectors.toList());
-        return calculateFailureThresholdRateAndCompare(failures);
+    }
+
+    @Override
+    protected Collection<AuditActionContext> getFailuresInRange() {
+        val keys = (Set<String>) this.redisTemplate.keys(RedisAuditTrailManager.CAS_AUDIT_CONTEXT_PREFIX + '*');
+        val cutoff = getFailureInRangeCutOffDate();
+        return Objects.requireNonNull(keys)
+            .stream()
+            .map((Function<String, BoundValueOperations>) this.redisTemplate::boundValueOps)
+            .map(BoundValueOperations::get)
+            .filter(Objects::nonNull)
+            .map(AuditActionContext.class::cast)
+            .filter(audit -> audit.getActionPerformed().equalsIgnoreCase(getConfigurationContext().getAuthenticationFailureCode())
+                && audit.getApplicationCode().equalsIgnoreCase(getConfigurationContext().getApplicationCode())
+                && audit.getWhenActionWasPerformed().compareTo(cutoff) >= 0)
+            .collect(Collectors.toList());
     }
 
     @Override
@@ -0,0 +1,64 @@
+package org.apereo.cas.web.support;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link ThrottledSubmissionFailureCounterTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public class ThrottledSubmissionFailureCounterTests {
+
+    @Test
+    public void verifyMostRecentFailuresAreTracked() {
+        val counter = new ThrottledSubmissionFailureCounter(100, 60);
+        val now = System.currentTimeMillis();
+        counter.record("key", new Date(now - 3000));
+        counter.record("key", new Date(now - 1000));
+        counter.record("key", new Date(now - 2000));
+        val failures = counter.getFailures("key");
+        assertEquals(List.of(new Date(now - 1000), new Date(now - 2000)), failures);
+        assertTrue(counter.getFailures("unknown").isEmpty());
+    }
+
+    @Test
+    public void verifyFailuresOutsideRangeAreIgnored() {
+        val counter = new ThrottledSubmissionFailureCounter(100, 5);
+        val now = System.currentTimeMillis();
+        counter.record("key", new Date(now - 10_000));
+        counter.record("key", new Date(now));
+        assertEquals(List.of(new Date(now)), counter.getFailures("key"));
+    }
+
+    @Test
+    public void verifyReconcileWithSharedFailures() {
+        val counter = new ThrottledSubmissionFailureCounter(100, 60);
+        val now = System.currentTimeMillis();
+        counter.record("local", new Date(now - 5000));
+        counter.record("shared", new Date(now - 4010));
+        counter.record("pending", new Date(now - 1000));
+
+        counter.reconcile(Map.of(
+            "shared", List.of(new Date(now - 4000), new Date(now - 3000)),
+            "pending", List.of(new Date(now - 6000))));
+        assertEquals(List.of(new Date(now - 5000)), counter.getFailures("local"));
+        assertEquals(List.of(new Date(now - 3000), new Date(now - 4000)), counter.getFailures("shared"));
+        assertEquals(List.of(new Date(now - 1000), new Date(now - 6000)), counter.getFailures("pending"));
+        assertEquals(3, counter.size());
+
+        val later = new Date(System.currentTimeMillis() + 1000);
+        counter.record("shared", later);
+        assertEquals(List.of(later, new Date(now - 3000)), counter.getFailures("shared"));
+
+        counter.reconcile(Map.of("pending", List.of(new Date(now - 990), new Date(now - 6000))));
+        assertEquals(List.of(new Date(now - 990), new Date(now - 6000)), counter.getFailures("pending"));
+    }
+}
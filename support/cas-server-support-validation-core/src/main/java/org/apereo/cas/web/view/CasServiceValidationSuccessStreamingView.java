@@ -0,0 +1,213 @@
+package org.apereo.cas.web.view;
+
+import org.apereo.cas.CasProtocolConstants;
+import org.apereo.cas.CasViewConstants;
+import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.util.CollectionUtils;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.apache.commons.text.StringEscapeUtils;
+import org.springframework.web.servlet.View;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * This is {@link CasServiceValidationSuccessStreamingView} that writes the CAS protocol
+ * service validation success response straight to the response stream, instead of
+ * rendering the {@code casServiceValidationSuccess} template. The response carries
+ * the same bytes as the templates that ship with CAS for the v2 and v3 protocols.
+ * <p>
+ * The response is written as the sequence of tags and text the template produces,
+ * including the whitespace around elements that {@code th:if}, {@code th:each} and {@code th:remove}
+ * leave behind. That whitespace is then filtered the same way the CAS web application
+ * filters template output, which only writes whitespace that directly follows a tag.
+ * <p>
+ * Attributes are written from the encoded attributes in the model, rather than from
+ * attributes pre-rendered by a {@link org.apereo.cas.validation.CasProtocolAttributesRenderer};
+ * they are either written as elements named after the attribute, or inlined as the
+ * {@code name} and {@code value} of {@code cas:attribute} elements.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Getter
+@RequiredArgsConstructor
+public class CasServiceValidationSuccessStreamingView implements View {
+    private static final String SUCCESS_INDENT = "\n    ";
+
+    private static final String ELEMENT_INDENT = "\n        ";
+
+    private static final String CHILD_INDENT = "\n            ";
+
+    private static final String ATTRIBUTE_INDENT = "\n                ";
+
+    private final String contentType;
+
+    /**
+     * Whether the response follows the v3 template, which carries attributes,
+     * or the v2 template, which does not.
+     */
+    private final boolean attributesReleased;
+
+    private final boolean inlineAttributes;
+
+    /**
+     * Escape text the same way as templates do for {@code th:text}.
+     *
+     * @param value the value
+     * @return the escaped value
+     */
+    private static String escapeText(final String value) {
+        if (value == null) {
+            return "";
+        }
+        val builder = new StringBuilder(value.length());
+        for (var i = 0; i < value.length(); i++) {
+            val c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    builder.append("&amp;");
+                    break;
+                case '<':
+                    builder.append("&lt;");
+                    break;
+                case '>':
+                    builder.append("&gt;");
+                    break;
+                case '"':
+                    builder.append("&quot;");
+                    break;
+                case '\'':
+                    builder.append("&#39;");
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public void render(final Map<String, ?> model, final HttpServletRequest request, final HttpServletResponse response) throws Exception {
+        response.setContentType(this.contentType);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        val writer = new TemplateOutputWriter(new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8)));
+        writer.tag("<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas'>");
+        writer.text(SUCCESS_INDENT);
+        writer.tag("<cas:authenticationSuccess>");
+        writer.text(ELEMENT_INDENT);
+
+        val principal = (Principal) model.get(CasViewConstants.MODEL_ATTRIBUTE_NAME_PRINCIPAL);
+        writer.element("cas:user", escapeText(principal.getId()));
+        writer.text(ELEMENT_INDENT);
+
+        val pgtIou = (String) model.get(CasViewConstants.MODEL_ATTRIBUTE_NAME_PROXY_GRANTING_TICKET_IOU);
+        if (pgtIou != null) {
+            writer.element("cas:proxyGrantingTicket", escapeText(pgtIou));
+        }
+        writer.text(ELEMENT_INDENT);
+
+        val proxies = (Collection<Authentication>) model.get(CasViewConstants.MODEL_ATTRIBUTE_NAME_CHAINED_AUTHENTICATIONS);
+        if (proxies != null && !proxies.isEmpty()) {
+            writer.tag("<cas:proxies>");
+            for (val proxy : proxies) {
+                writer.text(CHILD_INDENT);
+                writer.element("cas:proxy", escapeText(proxy.getPrincipal().getId()));
+            }
+            writer.text(ELEMENT_INDENT);
+            writer.tag("</cas:proxies>");
+        }
+
+        if (this.attributesReleased) {
+            writer.text(ELEMENT_INDENT);
+            val attributes = (Map<String, Object>) model.get(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_ATTRIBUTES);
+            if (attributes != null) {
+                writeAttributes(writer, attributes);
+            }
+        }
+
+        writer.text(SUCCESS_INDENT);
+        writer.tag("</cas:authenticationSuccess>");
+        writer.text("\n");
+        writer.tag("</cas:serviceResponse>");
+        writer.text("\n");
+        writer.flush();
+    }
+
+    private void writeAttributes(final TemplateOutputWriter writer, final Map<String, Object> attributes) throws IOException {
+        var empty = true;
+        for (val entry : attributes.entrySet()) {
+            for (val value : CollectionUtils.toCollection(entry.getValue())) {
+                if (empty) {
+                    writer.tag("<cas:attributes>");
+                    empty = false;
+                }
+                writer.text(CHILD_INDENT);
+                writer.text(ATTRIBUTE_INDENT);
+                writeAttribute(writer, entry.getKey(), value);
+                writer.text(CHILD_INDENT);
+            }
+        }
+        if (!empty) {
+            writer.text(ELEMENT_INDENT);
+            writer.tag("</cas:attributes>");
+        }
+    }
+
+    private void writeAttribute(final TemplateOutputWriter writer, final String name, final Object value) throws IOException {
+        val encodedValue = StringEscapeUtils.escapeXml10(value.toString().trim());
+        if (this.inlineAttributes) {
+            writer.tag("<cas:attribute name=\"" + name + "\" value=\"" + encodedValue + "\">");
+            writer.tag("</cas:attribute>");
+        } else {
+            writer.element("cas:" + name, encodedValue);
+        }
+    }
+
+    /**
+     * Writes tags and text, dropping whitespace-only text unless it directly follows a tag.
+     */
+    @RequiredArgsConstructor
+    private static class TemplateOutputWriter {
+        private final Writer writer;
+
+        private boolean writeWhitespace;
+
+        void tag(final String tag) throws IOException {
+            this.writer.write(tag);
+            this.writeWhitespace = true;
+        }
+
+        void text(final String text) throws IOException {
+            if (!text.isEmpty() && text.trim().isEmpty()) {
+                if (!this.writeWhitespace) {
+                    return;
+                }
+                this.writeWhitespace = false;
+            }
+            this.writer.write(text);
+        }
+
+        void element(final String name, final String text) throws IOException {
+            tag('<' + name + '>');
+            text(text);
+            tag("</" + name + '>');
+        }
+
+        void flush() throws IOException {
+            this.writer.flush();
+        }
+    }
+}
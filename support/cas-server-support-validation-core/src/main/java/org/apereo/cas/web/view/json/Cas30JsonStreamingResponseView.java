@@ -0,0 +1,118 @@
+package org.apereo.cas.web.view.json;
+
+import org.apereo.cas.CasViewConstants;
+import org.apereo.cas.authentication.AuthenticationServiceSelectionPlan;
+import org.apereo.cas.authentication.ProtocolAttributeEncoder;
+import org.apereo.cas.services.ServicesManager;
+import org.apereo.cas.validation.AuthenticationAttributeReleasePolicy;
+import org.apereo.cas.validation.CasProtocolAttributesRenderer;
+import org.apereo.cas.web.view.Cas30ResponseView;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * This is {@link Cas30JsonStreamingResponseView} that writes the CAS protocol
+ * validation response in JSON format straight to the response stream using a
+ * {@link JsonGenerator}, instead of building the {@link CasJsonServiceResponse}
+ * for a delegated view to serialize. The response carries the same fields,
+ * in the same order and formatting, as {@link Cas30JsonResponseView}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Slf4j
+public class Cas30JsonStreamingResponseView extends Cas30ResponseView {
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build()
+        .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .findAndRegisterModules();
+
+    public Cas30JsonStreamingResponseView(final boolean successResponse,
+                                          final ProtocolAttributeEncoder protocolAttributeEncoder,
+                                          final ServicesManager servicesManager,
+                                          final AuthenticationAttributeReleasePolicy authenticationAttributeReleasePolicy,
+                                          final AuthenticationServiceSelectionPlan serviceSelectionStrategy,
+                                          final CasProtocolAttributesRenderer attributesRenderer) {
+        super(successResponse, protocolAttributeEncoder, servicesManager, null,
+            authenticationAttributeReleasePolicy, serviceSelectionStrategy, attributesRenderer);
+        setContentType(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    @Override
+    protected void renderMergedOutputModel(final Map<String, Object> model, final HttpServletRequest request,
+                                           final HttpServletResponse response) throws Exception {
+        var success = false;
+        try {
+            if (getAssertionFrom(model) != null) {
+                super.prepareMergedOutputModel(model, request, response);
+                success = true;
+            }
+        } catch (final Exception e) {
+            LOGGER.debug("Unable to prepare the validation response model: [{}]", e.getMessage());
+            LOGGER.trace(e.getMessage(), e);
+        }
+        response.setContentType(getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try (val generator = MAPPER.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8)) {
+            MAPPER.getSerializationConfig().initialize(generator);
+            generator.writeStartObject();
+            generator.writeObjectFieldStart(Cas30JsonResponseView.ATTRIBUTE_NAME_MODEL_SERVICE_RESPONSE);
+            if (success) {
+                writeAuthenticationSuccess(generator, model);
+            } else {
+                writeAuthenticationFailure(generator, model);
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeAuthenticationSuccess(final JsonGenerator generator, final Map<String, Object> model) throws IOException {
+        generator.writeObjectFieldStart("authenticationSuccess");
+        generator.writeStringField("user", getPrincipal(model).getId());
+        val pgtIou = getProxyGrantingTicketIou(model);
+        if (pgtIou != null) {
+            generator.writeStringField("proxyGrantingTicket", pgtIou);
+        }
+        val chainedAuthentications = getChainedAuthentications(model);
+        if (chainedAuthentications != null && !chainedAuthentications.isEmpty()) {
+            generator.writeArrayFieldStart("proxies");
+            for (val authn : chainedAuthentications) {
+                generator.writeString(authn.getPrincipal().getId());
+            }
+            generator.writeEndArray();
+        }
+        val attributes = getModelAttributes(model);
+        if (attributes != null) {
+            generator.writeObjectField("attributes", attributes);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeAuthenticationFailure(final JsonGenerator generator, final Map<String, Object> model) throws IOException {
+        generator.writeObjectFieldStart("authenticationFailure");
+        val code = model.get(CasViewConstants.MODEL_ATTRIBUTE_NAME_ERROR_CODE);
+        if (code != null) {
+            generator.writeStringField("code", code.toString());
+        }
+        val description = model.get(CasViewConstants.MODEL_ATTRIBUTE_NAME_ERROR_DESCRIPTION);
+        if (description != null) {
+            generator.writeStringField("description", description.toString());
+        }
+        generator.writeEndObject();
+    }
+}
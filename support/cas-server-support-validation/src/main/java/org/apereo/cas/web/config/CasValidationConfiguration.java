@@ -7,6 +7,7 @@ import org.apereo.cas.authentication.ProtocolAttributeEncoder;
 import org.apereo.cas.authentication.principal.ServiceFactory;
 import org.apereo.cas.authentication.principal.WebApplicationService;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.core.web.view.Cas30ViewProperties;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.ticket.proxy.ProxyHandler;
 import org.apereo.cas.util.CollectionUtils;
@@ -30,11 +31,13 @@ import org.apereo.cas.web.v3.V3ServiceValidateController;
 import org.apereo.cas.web.view.Cas10ResponseView;
 import org.apereo.cas.web.view.Cas20ResponseView;
 import org.apereo.cas.web.view.Cas30ResponseView;
+import org.apereo.cas.web.view.CasServiceValidationSuccessStreamingView;
 import org.apereo.cas.web.view.attributes.AttributeValuesPerLineProtocolAttributesRenderer;
 import org.apereo.cas.web.view.attributes.DefaultCas30ProtocolAttributesRenderer;
 import org.apereo.cas.web.view.attributes.InlinedCas30ProtocolAttributesRenderer;
 import org.apereo.cas.web.view.attributes.NoOpProtocolAttributesRenderer;
 import org.apereo.cas.web.view.json.Cas30JsonResponseView;
+import org.apereo.cas.web.view.json.Cas30JsonStreamingResponseView;
 
 import lombok.val;
 import org.apache.commons.lang3.tuple.Pair;
@@ -48,6 +51,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.http.MediaType;
 import org.springframework.web.servlet.View;
 
 import java.util.ArrayList;
@@ -177,10 +181,13 @@ public class CasValidationConfiguration {
     @Bean
     @ConditionalOnMissingBean(name = "cas2ServiceSuccessView")
     public View cas2ServiceSuccessView() {
+        val view = casProperties.getView().isValidationResponseStreamingEnabled()
+            ? new CasServiceValidationSuccessStreamingView(MediaType.APPLICATION_XML_VALUE, false, false)
+            : cas2SuccessView.getIfAvailable();
         return new Cas20ResponseView(true,
             protocolAttributeEncoder.getIfAvailable(),
             servicesManager.getIfAvailable(),
-            cas2SuccessView.getIfAvailable(),
+            view,
             authenticationAttributeReleasePolicy.getIfAvailable(),
             authenticationServiceSelectionPlan.getIfAvailable(),
             NoOpProtocolAttributesRenderer.INSTANCE);
@@ -189,6 +196,14 @@ public class CasValidationConfiguration {
     @Bean
     @ConditionalOnMissingBean(name = "cas3ServiceJsonView")
     public View cas3ServiceJsonView() {
+        if (casProperties.getView().isValidationResponseStreamingEnabled()) {
+            return new Cas30JsonStreamingResponseView(true,
+                protocolAttributeEncoder.getIfAvailable(),
+                servicesManager.getIfAvailable(),
+                authenticationAttributeReleasePolicy.getIfAvailable(),
+                authenticationServiceSelectionPlan.getIfAvailable(),
+                NoOpProtocolAttributesRenderer.INSTANCE);
+        }
         return new Cas30JsonResponseView(true,
             protocolAttributeEncoder.getIfAvailable(),
             servicesManager.getIfAvailable(),
@@ -224,6 +239,16 @@ public class CasValidationConfiguration {
     @Bean
     @ConditionalOnMissingBean(name = "cas3ServiceSuccessView")
     public View cas3ServiceSuccessView() {
+        if (casProperties.getView().isValidationResponseStreamingEnabled()) {
+            val inline = casProperties.getView().getCas3().getAttributeRendererType() == Cas30ViewProperties.ValidationAttributesRendererTypes.INLINE;
+            return new Cas30ResponseView(true,
+                protocolAttributeEncoder.getIfAvailable(),
+                servicesManager.getIfAvailable(),
+                new CasServiceValidationSuccessStreamingView(MediaType.TEXT_HTML_VALUE, true, inline),
+                authenticationAttributeReleasePolicy.getIfAvailable(),
+                authenticationServiceSelectionPlan.getIfAvailable(),
+                NoOpProtocolAttributesRenderer.INSTANCE);
+        }
         return new Cas30ResponseView(true,
             protocolAttributeEncoder.getIfAvailable(),
             servicesManager.getIfAvailable(),
@@ -4,7 +4,9 @@ import org.apereo.cas.web.ProxyControllerTests;
 import org.apereo.cas.web.view.Cas10ResponseViewTests;
 import org.apereo.cas.web.view.Cas20ResponseViewTests;
 import org.apereo.cas.web.view.Cas30JsonResponseViewTests;
+import org.apereo.cas.web.view.Cas30JsonStreamingResponseViewTests;
 import org.apereo.cas.web.view.Cas30ResponseViewTests;
+import org.apereo.cas.web.view.CasServiceValidationSuccessStreamingViewTests;
 import org.apereo.cas.web.view.attributes.AttributeValuesPerLineProtocolAttributesRendererTests;
 import org.apereo.cas.web.view.attributes.DefaultCas30ProtocolAttributesRendererTests;
 import org.apereo.cas.web.view.attributes.InlinedCas30ProtocolAttributesRendererTests;
@@ -28,7 +30,9 @@ import org.junit.runner.RunWith;
     Cas30JsonResponseViewTests.class,
     DefaultCas30ProtocolAttributesRendererTests.class,
     InlinedCas30ProtocolAttributesRendererTests.class,
-    AttributeValuesPerLineProtocolAttributesRendererTests.class
+    AttributeValuesPerLineProtocolAttributesRendererTests.class,
+    CasServiceValidationSuccessStreamingViewTests.class,
+    Cas30JsonStreamingResponseViewTests.class
 })
 @RunWith(JUnitPlatform.class)
 public class AllTestsSuite {
@@ -0,0 +1,107 @@
+package org.apereo.cas.web.view;
+
+import org.apereo.cas.CasProtocolConstants;
+import org.apereo.cas.CasViewConstants;
+import org.apereo.cas.authentication.DefaultAuthenticationAttributeReleasePolicy;
+import org.apereo.cas.authentication.DefaultAuthenticationServiceSelectionPlan;
+import org.apereo.cas.authentication.DefaultAuthenticationServiceSelectionStrategy;
+import org.apereo.cas.authentication.ProtocolAttributeEncoder;
+import org.apereo.cas.authentication.support.DefaultCasProtocolAttributeEncoder;
+import org.apereo.cas.authentication.support.NoOpProtocolAttributeEncoder;
+import org.apereo.cas.services.web.view.AbstractCasView;
+import org.apereo.cas.util.crypto.CipherExecutor;
+import org.apereo.cas.web.view.attributes.DefaultCas30ProtocolAttributesRenderer;
+import org.apereo.cas.web.view.json.Cas30JsonResponseView;
+import org.apereo.cas.web.view.json.Cas30JsonStreamingResponseView;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.support.RequestContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link Cas30JsonStreamingResponseView}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@DirtiesContext
+public class Cas30JsonStreamingResponseViewTests extends Cas30ResponseViewTests {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static MockHttpServletResponse render(final View view, final Map<String, Object> model) throws Exception {
+        val request = new MockHttpServletRequest(new MockServletContext());
+        request.setAttribute(RequestContext.WEB_APPLICATION_CONTEXT_ATTRIBUTE, new GenericWebApplicationContext(request.getServletContext()));
+        val response = new MockHttpServletResponse();
+        view.render(new HashMap<>(model), request, response);
+        return response;
+    }
+
+    private Cas30JsonResponseView getJsonResponseView(final ProtocolAttributeEncoder encoder) {
+        return new Cas30JsonResponseView(true,
+            encoder,
+            servicesManager,
+            new DefaultAuthenticationAttributeReleasePolicy("attribute"),
+            new DefaultAuthenticationServiceSelectionPlan(new DefaultAuthenticationServiceSelectionStrategy()),
+            new DefaultCas30ProtocolAttributesRenderer());
+    }
+
+    @Override
+    protected AbstractCasView getCasViewToRender(final ProtocolAttributeEncoder encoder, final View viewDelegated) {
+        return new Cas30JsonStreamingResponseView(true,
+            encoder,
+            servicesManager,
+            new DefaultAuthenticationAttributeReleasePolicy("attribute"),
+            new DefaultAuthenticationServiceSelectionPlan(new DefaultAuthenticationServiceSelectionStrategy()),
+            new DefaultCas30ProtocolAttributesRenderer());
+    }
+
+    @Override
+    protected Map<?, ?> renderView() throws Exception {
+        val modelAndView = getModelAndViewUponServiceValidationWithSecurePgtUrl();
+        val encoder = new DefaultCasProtocolAttributeEncoder(this.servicesManager, CipherExecutor.noOpOfStringToString());
+        val response = render(getCasViewToRender(encoder, null), modelAndView.getModel());
+        assertTrue(response.getContentType().startsWith(MediaType.APPLICATION_JSON_VALUE));
+
+        val serviceResponse = (Map) MAPPER.readValue(response.getContentAsString(), Map.class)
+            .get(Cas30JsonResponseView.ATTRIBUTE_NAME_MODEL_SERVICE_RESPONSE);
+        assertNotNull(serviceResponse, "Response cannot be null");
+        val success = (Map) serviceResponse.get("authenticationSuccess");
+        assertNotNull(success, "Authentication success cannot be null");
+        return (Map) success.get("attributes");
+    }
+
+    @Test
+    public void verifySuccessMatchesJsonResponseView() throws Exception {
+        val model = getModelAndViewUponServiceValidationWithSecurePgtUrl().getModel();
+        val encoder = new NoOpProtocolAttributeEncoder();
+        val expected = render(getJsonResponseView(encoder), model).getContentAsString();
+        val output = render(getCasViewToRender(encoder, null), model).getContentAsString();
+        assertTrue(output.contains("\"authenticationSuccess\""));
+        assertEquals(expected, output);
+    }
+
+    @Test
+    public void verifyFailureMatchesJsonResponseView() throws Exception {
+        val model = new HashMap<String, Object>();
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_ERROR_CODE, CasProtocolConstants.ERROR_CODE_INVALID_TICKET);
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_ERROR_DESCRIPTION, "Ticket 'ST-1' not recognized");
+        val encoder = new NoOpProtocolAttributeEncoder();
+        val expected = render(getJsonResponseView(encoder), model).getContentAsString();
+        val output = render(getCasViewToRender(encoder, null), model).getContentAsString();
+        assertTrue(output.contains("\"authenticationFailure\""));
+        assertEquals(expected, output);
+    }
+}
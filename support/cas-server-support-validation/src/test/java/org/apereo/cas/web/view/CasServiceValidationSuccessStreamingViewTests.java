@@ -0,0 +1,189 @@
+package org.apereo.cas.web.view;
+
+import org.apereo.cas.CasProtocolConstants;
+import org.apereo.cas.CasViewConstants;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.web.CasThymeleafOutputTemplateHandler;
+import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.validation.CasProtocolAttributesRenderer;
+import org.apereo.cas.web.view.attributes.DefaultCas30ProtocolAttributesRenderer;
+import org.apereo.cas.web.view.attributes.InlinedCas30ProtocolAttributesRenderer;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.dialect.IPostProcessorDialect;
+import org.thymeleaf.postprocessor.IPostProcessor;
+import org.thymeleaf.postprocessor.PostProcessor;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.FileTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This is {@link CasServiceValidationSuccessStreamingViewTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public class CasServiceValidationSuccessStreamingViewTests {
+    private static final String TEMPLATES_DIRECTORY = "../../webapp/cas-server-webapp-resources/src/main/resources/templates/";
+
+    private static final String CAS2_SUCCESS_TEMPLATE = "protocol/2.0/casServiceValidationSuccess";
+
+    private static final String CAS3_SUCCESS_TEMPLATE = "protocol/3.0/casServiceValidationSuccess";
+
+    private static final SpringTemplateEngine TEMPLATE_ENGINE = getTemplateEngine();
+
+    private static SpringTemplateEngine getTemplateEngine() {
+        val resolver = new FileTemplateResolver();
+        resolver.setPrefix(TEMPLATES_DIRECTORY);
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        val engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        engine.addDialect(new IPostProcessorDialect() {
+            @Override
+            public int getDialectPostProcessorPrecedence() {
+                return Integer.MAX_VALUE;
+            }
+
+            @Override
+            public Set<IPostProcessor> getPostProcessors() {
+                return CollectionUtils.wrapSet(new PostProcessor(TemplateMode.HTML,
+                    CasThymeleafOutputTemplateHandler.class, Integer.MAX_VALUE));
+            }
+
+            @Override
+            public String getName() {
+                return CasThymeleafOutputTemplateHandler.class.getSimpleName();
+            }
+        });
+        return engine;
+    }
+
+    private static Map<String, Object> getAttributes() {
+        val attributes = new LinkedHashMap<String, Object>();
+        attributes.put("uid", List.of("casuser"));
+        attributes.put("name", "  O'Brien & co ");
+        attributes.put("memberOf", List.of("staff", "faculty"));
+        return attributes;
+    }
+
+    private static Map<String, Object> getModel(final Map<String, Object> attributes) {
+        val model = new HashMap<String, Object>();
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_PRINCIPAL, CoreAuthenticationTestUtils.getPrincipal("casuser"));
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_PROXY_GRANTING_TICKET_IOU, "PGTIOU-1");
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_CHAINED_AUTHENTICATIONS,
+            List.of(CoreAuthenticationTestUtils.getAuthentication("<proxy>"), CoreAuthenticationTestUtils.getAuthentication("O'Proxy")));
+        if (attributes != null) {
+            model.put(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_ATTRIBUTES, attributes);
+        }
+        return model;
+    }
+
+    private static Map<String, Object> getModelWithoutProxies() {
+        val model = getModel(null);
+        model.remove(CasViewConstants.MODEL_ATTRIBUTE_NAME_PROXY_GRANTING_TICKET_IOU);
+        model.put(CasViewConstants.MODEL_ATTRIBUTE_NAME_CHAINED_AUTHENTICATIONS, CollectionUtils.wrapList());
+        return model;
+    }
+
+    private static String render(final CasServiceValidationSuccessStreamingView view, final Map<String, Object> model) throws Exception {
+        val response = new MockHttpServletResponse();
+        view.render(model, new MockHttpServletRequest(), response);
+        assertTrue(response.getContentType().startsWith(view.getContentType()));
+        return response.getContentAsString();
+    }
+
+    private static String renderTemplate(final String template, final Map<String, Object> model,
+                                         final CasProtocolAttributesRenderer renderer) {
+        val templateModel = new HashMap<String, Object>(model);
+        val attributes = (Map<String, Object>) model.get(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_ATTRIBUTES);
+        templateModel.put(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_FORMATTED_ATTRIBUTES,
+            attributes == null ? CollectionUtils.wrapList() : renderer.render(attributes));
+        return TEMPLATE_ENGINE.process(template, new Context(Locale.ENGLISH, templateModel));
+    }
+
+    @Test
+    public void verifyResponse() throws Exception {
+        val view = new CasServiceValidationSuccessStreamingView(MediaType.TEXT_HTML_VALUE, true, false);
+        val expected = "<cas:serviceResponse xmlns:cas='http://www.yale.edu/tp/cas'>\n"
+            + "    <cas:authenticationSuccess>\n"
+            + "        <cas:user>casuser</cas:user>\n"
+            + "        <cas:proxyGrantingTicket>PGTIOU-1</cas:proxyGrantingTicket>\n"
+            + "        <cas:proxies>\n"
+            + "            <cas:proxy>&lt;proxy&gt;</cas:proxy>\n"
+            + "            <cas:proxy>O&#39;Proxy</cas:proxy>\n"
+            + "        </cas:proxies>\n"
+            + "        <cas:attributes>\n"
+            + "            <cas:uid>casuser</cas:uid>\n"
+            + "            <cas:name>O&apos;Brien &amp; co</cas:name>\n"
+            + "            <cas:memberOf>staff</cas:memberOf>\n"
+            + "            <cas:memberOf>faculty</cas:memberOf>\n"
+            + "            </cas:attributes>\n"
+            + "    </cas:authenticationSuccess>\n"
+            + "</cas:serviceResponse>\n";
+        assertEquals(expected, render(view, getModel(getAttributes())));
+    }
+
+    @Test
+    public void verifyResponseMatchesCas3Template() throws Exception {
+        val view = new CasServiceValidationSuccessStreamingView(MediaType.TEXT_HTML_VALUE, true, false);
+        val model = getModel(getAttributes());
+        assertEquals(renderTemplate(CAS3_SUCCESS_TEMPLATE, model, new DefaultCas30ProtocolAttributesRenderer()), render(view, model));
+    }
+
+    @Test
+    public void verifyInlinedResponseMatchesCas3Template() throws Exception {
+        val view = new CasServiceValidationSuccessStreamingView(MediaType.TEXT_HTML_VALUE, true, true);
+        val model = getModel(getAttributes());
+        assertEquals(renderTemplate(CAS3_SUCCESS_TEMPLATE, model, new InlinedCas30ProtocolAttributesRenderer()), render(view, model));
+    }
+
+    @Test
+    public void verifyResponseWithoutProxiesMatchesCas3Template() throws Exception {
+        val view = new CasServiceValidationSuccessStreamingView(MediaType.TEXT_HTML_VALUE, true, false);
+        val model = getModelWithoutProxies();
+        assertEquals(renderTemplate(CAS3_SUCCESS_TEMPLATE, model, new DefaultCas30ProtocolAttributesRenderer()), render(view, model));
+
+        model.put(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_ATTRIBUTES, getAttributes());
+        assertEquals(renderTemplate(CAS3_SUCCESS_TEMPLATE, model, new DefaultCas30ProtocolAttributesRenderer()), render(view, model));
+    }
+
+    @Test
+    public void verifyResponseMatchesCas2Template() throws Exception {
+        val view = new CasServiceValidationSuccessStreamingView(MediaType.APPLICATION_XML_VALUE, false, false);
+        val model = getModel(null);
+        assertEquals(renderTemplate(CAS2_SUCCESS_TEMPLATE, model, new DefaultCas30ProtocolAttributesRenderer()), render(view, model));
+
+        val minimal = getModelWithoutProxies();
+        assertEquals(renderTemplate(CAS2_SUCCESS_TEMPLATE, minimal, new DefaultCas30ProtocolAttributesRenderer()), render(view, minimal));
+    }
+
+    @Test
+    public void verifyResponseWithoutAttributes() throws Exception {
+        val view = new CasServiceValidationSuccessStreamingView(MediaType.APPLICATION_XML_VALUE, true, false);
+        val model = getModelWithoutProxies();
+        model.put(CasProtocolConstants.VALIDATION_CAS_MODEL_ATTRIBUTE_NAME_ATTRIBUTES, Map.of("empty", CollectionUtils.wrapList()));
+        val output = render(view, model);
+        assertTrue(output.contains("<cas:user>casuser</cas:user>"));
+        assertFalse(output.contains("cas:proxyGrantingTicket"));
+        assertFalse(output.contains("cas:proxies"));
+        assertFalse(output.contains("cas:attributes"));
+    }
+}
@@ -13,6 +13,7 @@ import javax.persistence.Column;
 import javax.persistence.DiscriminatorColumn;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 
@@ -23,7 +24,7 @@ import javax.persistence.Table;
  * @since 5.1.0
  */
 @Entity
-@Table(name = "SECURITYTOKENTICKET")
+@Table(name = "SECURITYTOKENTICKET", indexes = @Index(name = "IDX_SECURITYTOKEN_EXPIRATION", columnList = "EXPIRATION_TIME"))
 @DiscriminatorColumn(name = "TYPE")
 @DiscriminatorValue(SecurityTokenTicket.PREFIX)
 @NoArgsConstructor
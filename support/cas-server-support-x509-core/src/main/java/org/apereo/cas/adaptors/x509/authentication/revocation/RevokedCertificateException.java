@@ -6,11 +6,14 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.apache.commons.lang3.StringUtils;
 
 import java.math.BigInteger;
 import java.security.GeneralSecurityException;
+import java.security.cert.CRLReason;
 import java.security.cert.X509CRLEntry;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.Optional;
 
 
@@ -73,6 +76,10 @@ public class RevokedCertificateException extends GeneralSecurityException {
      * @return reason or null
      */
     private static Reason getReasonFromX509Entry(final X509CRLEntry entry) {
+        val revocationReason = entry.getRevocationReason();
+        if (revocationReason != null) {
+            return Reason.fromCRLReason(revocationReason);
+        }
         if (entry.hasExtensions()) {
             try {
                 val code = Integer.parseInt(
@@ -176,5 +183,19 @@ public class RevokedCertificateException extends GeneralSecurityException {
             }
             throw new IllegalArgumentException("Unknown CRL reason code.");
         }
+
+        /**
+         * Convert the given {@link CRLReason} into a reason.
+         *
+         * @param crlReason the crl reason
+         * @return the reason or null
+         */
+        public static Reason fromCRLReason(final CRLReason crlReason) {
+            val name = crlReason.name().replace("_", StringUtils.EMPTY);
+            return Arrays.stream(Reason.values())
+                .filter(reason -> reason.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(null);
+        }
     }
 }
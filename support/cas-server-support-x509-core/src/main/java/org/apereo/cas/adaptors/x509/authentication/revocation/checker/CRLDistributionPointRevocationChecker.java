@@ -6,6 +6,9 @@ import org.apereo.cas.adaptors.x509.authentication.revocation.policy.RevocationP
 import org.apereo.cas.util.CollectionUtils;
 import org.apereo.cas.util.crypto.CertUtils;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -16,6 +19,7 @@ import org.bouncycastle.asn1.DERIA5String;
 import org.bouncycastle.asn1.x509.DistributionPoint;
 import org.bouncycastle.asn1.x509.GeneralName;
 import org.cryptacular.x509.ExtensionReader;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.io.ByteArrayResource;
 
 import java.net.MalformedURLException;
@@ -27,7 +31,14 @@ import java.security.cert.X509CRL;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
 /**
@@ -37,18 +48,44 @@ import java.util.stream.IntStream;
  * expects the name to define an absolute URL, which is the most common
  * implementation.  This implementation caches CRL resources fetched from remote
  * URLs to improve performance by avoiding CRL fetching on every revocation
- * check.
+ * check. Cached CRLs are parsed once into an {@link IndexedX509CRL}, so that
+ * revocation checks do not parse CRL data and look up revoked serial numbers
+ * by binary search. CRLs are refreshed in the background before their next update,
+ * one at a time on a dedicated thread owned by this checker.
  *
  * @author Marvin S. Addison
  * @since 3.4.6
  */
 @Slf4j
-public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocationChecker {
+public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocationChecker implements DisposableBean {
+
+    /**
+     * Default portion of the validity period of a CRL after which it is refreshed.
+     */
+    public static final double DEFAULT_REFRESH_RATIO = 0.8;
+
+    private static final long REFRESH_RETRY_INTERVAL = TimeUnit.MINUTES.toMillis(1);
 
     private final Cache crlCache;
     private final CRLFetcher fetcher;
     private final boolean throwOnFetchFailure;
 
+    private final Map<Object, CachedCRL> indexedCrls = new ConcurrentHashMap<>();
+    private final Set<URI> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+        val thread = new Thread(r, "CRLRefreshThread");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Portion of the validity period of a CRL, between its this and next update,
+     * after which a fresh copy is fetched in the background.
+     */
+    @Setter
+    private double refreshRatio = DEFAULT_REFRESH_RATIO;
+
     /**
      * Creates a new instance that uses the given cache instance for CRL caching.
      *
@@ -175,8 +212,7 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
 
             if (item != null) {
                 LOGGER.debug("Found CRL in cache for [{}]", CertUtils.toString(cert));
-                val encodedCrl = (byte[]) item.getObjectValue();
-                val crlFetched = this.fetcher.fetch(new ByteArrayResource(encodedCrl));
+                val crlFetched = getIndexedCRL(url, item);
 
                 if (crlFetched != null) {
                     listOfLocations.add(crlFetched);
@@ -185,12 +221,13 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
                 }
             } else {
                 LOGGER.debug("CRL for [{}] is not cached. Fetching and caching...", CertUtils.toString(cert));
+                this.indexedCrls.remove(url);
                 try {
                     val crl = this.fetcher.fetch(url);
                     if (crl != null) {
                         LOGGER.info("Success. Caching fetched CRL at [{}].", url);
                         addCRL(url, crl);
-                        listOfLocations.add(crl);
+                        listOfLocations.add(IndexedX509CRL.of(crl));
                     }
                 } catch (final Exception e) {
                     LOGGER.error("Error fetching CRL at [{}]", url, e);
@@ -216,11 +253,92 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
     protected boolean addCRL(final Object id, final X509CRL crl) {
         if (crl == null) {
             LOGGER.debug("No CRL was passed. Removing [{}] from cache...", id);
+            this.indexedCrls.remove(id);
             return this.crlCache.remove(id);
         }
 
         this.crlCache.put(new Element(id, crl.getEncoded()));
-        return this.crlCache.get(id) != null;
+        val item = this.crlCache.get(id);
+        if (item == null) {
+            this.indexedCrls.remove(id);
+            return false;
+        }
+        this.indexedCrls.put(id, new CachedCRL(IndexedX509CRL.of(crl), item.getCreationTime(), getRefreshTime(crl)));
+        return true;
+    }
+
+    /**
+     * Gets the indexed CRL for the given cache element. The encoded CRL is only parsed
+     * when the cache element has changed since the CRL was last indexed. Once the CRL
+     * is due for refresh, a fresh copy is fetched in the background while the current
+     * copy continues to be used.
+     *
+     * @param url  the url
+     * @param item the cache element
+     * @return the crl
+     * @throws Exception the exception
+     */
+    private X509CRL getIndexedCRL(final URI url, final Element item) throws Exception {
+        var cached = this.indexedCrls.get(url);
+        if (cached == null || cached.getCreationTime() != item.getCreationTime()) {
+            val encodedCrl = (byte[]) item.getObjectValue();
+            val crl = this.fetcher.fetch(new ByteArrayResource(encodedCrl));
+            if (crl == null) {
+                return null;
+            }
+            cached = new CachedCRL(IndexedX509CRL.of(crl), item.getCreationTime(), getRefreshTime(crl));
+            this.indexedCrls.put(url, cached);
+        }
+        if (System.currentTimeMillis() >= cached.getRefreshTime()) {
+            refreshInBackground(url);
+        }
+        return cached.getCrl();
+    }
+
+    @SuppressWarnings("FutureReturnValueIgnored")
+    private void refreshInBackground(final URI url) {
+        if (this.refreshExecutor.isShutdown() || !this.refreshing.add(url)) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                LOGGER.debug("Refreshing CRL at [{}] ahead of its next update", url);
+                val crl = this.fetcher.fetch(url);
+                if (crl != null) {
+                    addCRL(url, crl);
+                }
+            } catch (final Exception e) {
+                LOGGER.warn("Error refreshing CRL at [{}]: [{}]", url, e.getMessage());
+                LOGGER.debug(e.getMessage(), e);
+                this.indexedCrls.computeIfPresent(url, (key, cached) ->
+                    new CachedCRL(cached.getCrl(), cached.getCreationTime(), System.currentTimeMillis() + REFRESH_RETRY_INTERVAL));
+            } finally {
+                this.refreshing.remove(url);
+            }
+        }, this.refreshExecutor);
+    }
+
+    @Override
+    public void destroy() {
+        this.refreshExecutor.shutdownNow();
+    }
+
+    private long getRefreshTime(final X509CRL crl) {
+        val nextUpdate = crl.getNextUpdate();
+        if (nextUpdate == null) {
+            return Long.MAX_VALUE;
+        }
+        val thisUpdate = crl.getThisUpdate().getTime();
+        return thisUpdate + (long) ((nextUpdate.getTime() - thisUpdate) * this.refreshRatio);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class CachedCRL {
+        private final X509CRL crl;
+
+        private final long creationTime;
 
+        private final long refreshTime;
     }
 }
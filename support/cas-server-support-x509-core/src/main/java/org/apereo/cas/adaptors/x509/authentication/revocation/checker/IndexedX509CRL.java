@@ -0,0 +1,336 @@
+package org.apereo.cas.adaptors.x509.authentication.revocation.checker;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import javax.security.auth.x500.X500Principal;
+import java.math.BigInteger;
+import java.security.Principal;
+import java.security.PublicKey;
+import java.security.cert.CRLException;
+import java.security.cert.CRLReason;
+import java.security.cert.Certificate;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link IndexedX509CRL}. A compact, read-only view of a parsed CRL that keeps the revoked
+ * serial numbers in a sorted array, along with their revocation dates and reasons in primitive arrays,
+ * so that revocation checks are answered by binary search without keeping the parsed CRL entries,
+ * their encodings or extensions around. The extensions of the CRL itself are few and are retained,
+ * so that critical extensions are reported as they are by the CRL that was indexed.
+ * <p>
+ * The encoded form and the signature of the CRL are not retained; the CRL is expected to be
+ * validated and kept in its encoded form by the component that fetched it.
+ * Indirect CRLs, whose entries may belong to other issuers, are not indexed.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Slf4j
+public class IndexedX509CRL extends X509CRL {
+    private static final byte NO_REASON = -1;
+
+    private final X500Principal issuer;
+
+    private final int version;
+
+    private final Date thisUpdate;
+
+    private final Date nextUpdate;
+
+    private final String sigAlgName;
+
+    private final String sigAlgOid;
+
+    private final BigInteger[] serialNumbers;
+
+    private final long[] revocationDates;
+
+    private final byte[] reasons;
+
+    private final boolean unsupportedCriticalExtension;
+
+    private final Set<String> criticalExtensionOids;
+
+    private final Set<String> nonCriticalExtensionOids;
+
+    private final Map<String, byte[]> extensionValues = new HashMap<>();
+
+    private IndexedX509CRL(final X509CRL crl, final X509CRLEntry[] entries) {
+        this.issuer = crl.getIssuerX500Principal();
+        this.version = crl.getVersion();
+        this.thisUpdate = crl.getThisUpdate();
+        this.nextUpdate = crl.getNextUpdate();
+        this.sigAlgName = crl.getSigAlgName();
+        this.sigAlgOid = crl.getSigAlgOID();
+        this.unsupportedCriticalExtension = crl.hasUnsupportedCriticalExtension();
+        this.criticalExtensionOids = copyOf(crl.getCriticalExtensionOIDs());
+        this.nonCriticalExtensionOids = copyOf(crl.getNonCriticalExtensionOIDs());
+        Stream.of(this.criticalExtensionOids, this.nonCriticalExtensionOids)
+            .filter(Objects::nonNull)
+            .flatMap(Set::stream)
+            .forEach(oid -> this.extensionValues.put(oid, crl.getExtensionValue(oid)));
+        Arrays.sort(entries, Comparator.comparing(X509CRLEntry::getSerialNumber));
+        this.serialNumbers = new BigInteger[entries.length];
+        this.revocationDates = new long[entries.length];
+        this.reasons = new byte[entries.length];
+        for (var i = 0; i < entries.length; i++) {
+            val entry = entries[i];
+            this.serialNumbers[i] = entry.getSerialNumber();
+            this.revocationDates[i] = entry.getRevocationDate().getTime();
+            val reason = entry.getRevocationReason();
+            this.reasons[i] = reason == null ? NO_REASON : (byte) reason.ordinal();
+        }
+    }
+
+    /**
+     * Build an index for the given CRL. CRLs that cannot be indexed are returned as they are.
+     *
+     * @param crl the crl
+     * @return the indexed crl, or the given crl
+     */
+    public static X509CRL of(final X509CRL crl) {
+        if (crl == null || crl instanceof IndexedX509CRL) {
+            return crl;
+        }
+        val revoked = crl.getRevokedCertificates();
+        val entries = revoked == null ? new X509CRLEntry[0] : revoked.toArray(X509CRLEntry[]::new);
+        if (Arrays.stream(entries).anyMatch(entry -> entry.getCertificateIssuer() != null)) {
+            LOGGER.debug("CRL issued by [{}] is an indirect CRL and will not be indexed", crl.getIssuerX500Principal());
+            return crl;
+        }
+        return new IndexedX509CRL(crl, entries);
+    }
+
+    private static Set<String> copyOf(final Set<String> oids) {
+        return oids == null ? null : Set.copyOf(oids);
+    }
+
+    /**
+     * Number of revoked entries.
+     *
+     * @return the size
+     */
+    public int size() {
+        return this.serialNumbers.length;
+    }
+
+    @Override
+    public X509CRLEntry getRevokedCertificate(final X509Certificate certificate) {
+        if (!this.issuer.equals(certificate.getIssuerX500Principal())) {
+            return null;
+        }
+        return getRevokedCertificate(certificate.getSerialNumber());
+    }
+
+    @Override
+    public X509CRLEntry getRevokedCertificate(final BigInteger serialNumber) {
+        val index = Arrays.binarySearch(this.serialNumbers, serialNumber);
+        return index < 0 ? null : getEntry(index);
+    }
+
+    @Override
+    public Set<? extends X509CRLEntry> getRevokedCertificates() {
+        if (this.serialNumbers.length == 0) {
+            return null;
+        }
+        val entries = new LinkedHashSet<X509CRLEntry>(this.serialNumbers.length);
+        IntStream.range(0, this.serialNumbers.length).forEach(i -> entries.add(getEntry(i)));
+        return entries;
+    }
+
+    @Override
+    public boolean isRevoked(final Certificate certificate) {
+        return certificate instanceof X509Certificate && getRevokedCertificate((X509Certificate) certificate) != null;
+    }
+
+    @Override
+    public X500Principal getIssuerX500Principal() {
+        return this.issuer;
+    }
+
+    @Override
+    public Principal getIssuerDN() {
+        return this.issuer;
+    }
+
+    @Override
+    public int getVersion() {
+        return this.version;
+    }
+
+    @Override
+    public Date getThisUpdate() {
+        return new Date(this.thisUpdate.getTime());
+    }
+
+    @Override
+    public Date getNextUpdate() {
+        return this.nextUpdate == null ? null : new Date(this.nextUpdate.getTime());
+    }
+
+    @Override
+    public String getSigAlgName() {
+        return this.sigAlgName;
+    }
+
+    @Override
+    public String getSigAlgOID() {
+        return this.sigAlgOid;
+    }
+
+    @Override
+    public byte[] getSigAlgParams() {
+        return null;
+    }
+
+    @Override
+    public byte[] getEncoded() throws CRLException {
+        throw new CRLException("Encoded CRL is not retained by the index");
+    }
+
+    @Override
+    public byte[] getTBSCertList() throws CRLException {
+        throw new CRLException("Encoded CRL is not retained by the index");
+    }
+
+    @Override
+    public byte[] getSignature() {
+        return null;
+    }
+
+    @Override
+    public void verify(final PublicKey key) throws CRLException {
+        throw new CRLException("CRL signature is not retained by the index");
+    }
+
+    @Override
+    public void verify(final PublicKey key, final String sigProvider) throws CRLException {
+        throw new CRLException("CRL signature is not retained by the index");
+    }
+
+    @Override
+    public boolean hasUnsupportedCriticalExtension() {
+        return this.unsupportedCriticalExtension;
+    }
+
+    @Override
+    public Set<String> getCriticalExtensionOIDs() {
+        return this.criticalExtensionOids;
+    }
+
+    @Override
+    public Set<String> getNonCriticalExtensionOIDs() {
+        return this.nonCriticalExtensionOids;
+    }
+
+    @Override
+    public byte[] getExtensionValue(final String oid) {
+        val value = this.extensionValues.get(oid);
+        return value == null ? null : value.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[issuer=%s, thisUpdate=%s, nextUpdate=%s, entries=%s]",
+            getClass().getSimpleName(), this.issuer, this.thisUpdate, this.nextUpdate, this.serialNumbers.length);
+    }
+
+    private X509CRLEntry getEntry(final int index) {
+        return new IndexedX509CRLEntry(this.serialNumbers[index], this.revocationDates[index], this.reasons[index]);
+    }
+
+    private static class IndexedX509CRLEntry extends X509CRLEntry {
+        private final BigInteger serialNumber;
+
+        private final long revocationDate;
+
+        private final byte reason;
+
+        IndexedX509CRLEntry(final BigInteger serialNumber, final long revocationDate, final byte reason) {
+            this.serialNumber = serialNumber;
+            this.revocationDate = revocationDate;
+            this.reason = reason;
+        }
+
+        @Override
+        public BigInteger getSerialNumber() {
+            return this.serialNumber;
+        }
+
+        @Override
+        public Date getRevocationDate() {
+            return new Date(this.revocationDate);
+        }
+
+        @Override
+        public CRLReason getRevocationReason() {
+            return this.reason == NO_REASON ? null : CRLReason.values()[this.reason];
+        }
+
+        @Override
+        public byte[] getEncoded() throws CRLException {
+            throw new CRLException("Encoded CRL entry is not retained by the index");
+        }
+
+        @Override
+        public boolean hasExtensions() {
+            return false;
+        }
+
+        @Override
+        public boolean hasUnsupportedCriticalExtension() {
+            return false;
+        }
+
+        @Override
+        public Set<String> getCriticalExtensionOIDs() {
+            return null;
+        }
+
+        @Override
+        public Set<String> getNonCriticalExtensionOIDs() {
+            return null;
+        }
+
+        @Override
+        public byte[] getExtensionValue(final String oid) {
+            return null;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof IndexedX509CRLEntry)) {
+                return false;
+            }
+            val entry = (IndexedX509CRLEntry) other;
+            return this.serialNumber.equals(entry.serialNumber) && this.revocationDate == entry.revocationDate;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.serialNumber.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[serialNumber=%s, revocationDate=%s, reason=%s]",
+                getClass().getSimpleName(), this.serialNumber, getRevocationDate(), getRevocationReason());
+        }
+    }
+}
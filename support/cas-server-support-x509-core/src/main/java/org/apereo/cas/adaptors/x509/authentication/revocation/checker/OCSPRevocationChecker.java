@@ -0,0 +1,398 @@
+package org.apereo.cas.adaptors.x509.authentication.revocation.checker;
+
+import org.apereo.cas.adaptors.x509.authentication.revocation.RevokedCertificateException;
+import org.apereo.cas.adaptors.x509.authentication.revocation.policy.DenyRevocationPolicy;
+import org.apereo.cas.adaptors.x509.authentication.revocation.policy.RevocationPolicy;
+import org.apereo.cas.util.DateTimeUtils;
+import org.apereo.cas.util.EncodingUtils;
+import org.apereo.cas.util.crypto.CertUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.DERIA5String;
+import org.bouncycastle.asn1.x509.AccessDescription;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPReqBuilder;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.SingleResp;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.cryptacular.x509.ExtensionReader;
+
+import javax.security.auth.x500.X500Principal;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.security.GeneralSecurityException;
+import java.security.cert.CRLReason;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Performs revocation checking by querying the OCSP responder advertised in the
+ * authority information access extension of the certificate, or a responder that is explicitly configured.
+ * <p>
+ * Requests are sent without a nonce, so that responders are free to return pre-signed responses and
+ * verified responses may be cached until their next update. Concurrent lookups for the same certificate
+ * are coalesced into a single request. The issuer of the certificate, required to build requests and to
+ * verify responses, is looked up from the configured issuer certificates, or fetched from the
+ * authority information access extension and verified. When the responder is unavailable, or the
+ * status of the certificate is unknown, the configured {@link RevocationPolicy} is applied.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+@Slf4j
+@Setter
+public class OCSPRevocationChecker implements RevocationChecker {
+    /**
+     * Default timeout when connecting to and reading from responders.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Default maximum number of cached responses.
+     */
+    public static final long DEFAULT_MAXIMUM_CACHE_SIZE = 10_000;
+
+    private static final long ALLOWED_CLOCK_SKEW = TimeUnit.MINUTES.toMillis(5);
+
+    private static final String OCSP_REQUEST_CONTENT_TYPE = "application/ocsp-request";
+
+    private static final String OCSP_RESPONSE_CONTENT_TYPE = "application/ocsp-response";
+
+    private final Map<X500Principal, X509Certificate> issuers;
+
+    private final RevocationPolicy<Void> unavailableOCSPPolicy;
+
+    private final Cache<String, CertificateStatus> responses;
+
+    private final Cache<String, X509Certificate> fetchedIssuers;
+
+    /**
+     * Responder to query instead of the one advertised by certificates.
+     */
+    private String responderUrl;
+
+    /**
+     * Timeout when connecting to and reading from responders.
+     */
+    private Duration timeout = DEFAULT_TIMEOUT;
+
+    public OCSPRevocationChecker(final Collection<X509Certificate> issuers,
+                                 final RevocationPolicy<Void> unavailableOCSPPolicy) {
+        this(issuers, unavailableOCSPPolicy, DEFAULT_MAXIMUM_CACHE_SIZE);
+    }
+
+    public OCSPRevocationChecker(final Collection<X509Certificate> issuers,
+                                 final RevocationPolicy<Void> unavailableOCSPPolicy,
+                                 final long maximumCacheSize) {
+        this.issuers = issuers.stream()
+            .collect(Collectors.toMap(X509Certificate::getSubjectX500Principal, Function.identity(), (first, second) -> first));
+        this.unavailableOCSPPolicy = Objects.requireNonNullElseGet(unavailableOCSPPolicy, DenyRevocationPolicy::new);
+        this.responses = Caffeine.newBuilder()
+            .maximumSize(maximumCacheSize)
+            .expireAfter(new CertificateStatusExpiry())
+            .build();
+        this.fetchedIssuers = Caffeine.newBuilder()
+            .maximumSize(maximumCacheSize)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+    }
+
+    private static List<String> getAccessLocations(final X509Certificate cert, final ASN1ObjectIdentifier accessMethod) {
+        try {
+            val descriptions = new ExtensionReader(cert).readAuthorityInformationAccess();
+            if (descriptions == null) {
+                return List.of();
+            }
+            return descriptions.stream()
+                .filter(description -> accessMethod.equals(description.getAccessMethod()))
+                .map(AccessDescription::getAccessLocation)
+                .filter(location -> location.getTagNo() == GeneralName.uniformResourceIdentifier)
+                .map(location -> DERIA5String.getInstance(location.getName()).getString())
+                .collect(Collectors.toList());
+        } catch (final Exception e) {
+            LOGGER.debug("Unable to read authority information access extension of [{}]: [{}]", CertUtils.toString(cert), e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public void check(final X509Certificate cert) throws GeneralSecurityException {
+        if (cert == null) {
+            throw new IllegalArgumentException("Certificate cannot be null.");
+        }
+        LOGGER.debug("Evaluating certificate revocation status for [{}] via OCSP", CertUtils.toString(cert));
+        val issuer = getIssuerCertificate(cert);
+        if (issuer == null) {
+            LOGGER.warn("Issuer certificate of [{}] cannot be found to query OCSP responder", CertUtils.toString(cert));
+            this.unavailableOCSPPolicy.apply(null);
+            return;
+        }
+        val status = getCertificateStatus(cert, issuer);
+        if (status == null || status.getState() == CertificateStatus.State.UNKNOWN) {
+            LOGGER.warn("OCSP status of [{}] is not available", CertUtils.toString(cert));
+            this.unavailableOCSPPolicy.apply(null);
+            return;
+        }
+        if (status.getState() == CertificateStatus.State.REVOKED) {
+            val reason = status.getReason() == null || status.getReason() >= CRLReason.values().length
+                ? null
+                : RevokedCertificateException.Reason.fromCRLReason(CRLReason.values()[status.getReason()]);
+            throw new RevokedCertificateException(DateTimeUtils.zonedDateTimeOf(status.getRevocationDate()), cert.getSerialNumber(), reason);
+        }
+        LOGGER.debug("OCSP responder reports [{}] as valid", CertUtils.toString(cert));
+    }
+
+    /**
+     * Gets the status of the certificate, from the cache or from the responder.
+     *
+     * @param cert   the cert
+     * @param issuer the issuer
+     * @return the status, or null if unavailable
+     */
+    protected CertificateStatus getCertificateStatus(final X509Certificate cert, final X509Certificate issuer) {
+        try {
+            val certificateId = new CertificateID(new JcaDigestCalculatorProviderBuilder().build().get(CertificateID.HASH_SHA1),
+                new JcaX509CertificateHolder(issuer), cert.getSerialNumber());
+            val key = EncodingUtils.hexEncode(certificateId.getIssuerNameHash())
+                + ':' + EncodingUtils.hexEncode(certificateId.getIssuerKeyHash())
+                + ':' + cert.getSerialNumber().toString(16);
+            return this.responses.get(key, k -> queryResponder(cert, issuer, certificateId));
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to obtain OCSP status of [{}]: [{}]", CertUtils.toString(cert), e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the issuer certificate.
+     *
+     * @param cert the cert
+     * @return the issuer certificate, or null
+     */
+    protected X509Certificate getIssuerCertificate(final X509Certificate cert) {
+        val issuerPrincipal = cert.getIssuerX500Principal();
+        val issuer = this.issuers.get(issuerPrincipal);
+        if (issuer != null) {
+            return issuer;
+        }
+        if (issuerPrincipal.equals(cert.getSubjectX500Principal())) {
+            return cert;
+        }
+        return getAccessLocations(cert, AccessDescription.id_ad_caIssuers)
+            .stream()
+            .map(location -> {
+                try {
+                    return this.fetchedIssuers.get(location, k -> fetchIssuerCertificate(k, cert));
+                } catch (final Exception e) {
+                    LOGGER.warn("Unable to fetch issuer certificate from [{}]: [{}]", location, e.getMessage());
+                    return null;
+                }
+            })
+            .filter(Objects::nonNull)
+            .findFirst()
+            .orElse(null);
+    }
+
+    @SneakyThrows
+    private X509Certificate fetchIssuerCertificate(final String location, final X509Certificate cert) {
+        LOGGER.debug("Fetching issuer certificate of [{}] from [{}]", CertUtils.toString(cert), location);
+        val connection = openConnection(location);
+        try (val in = connection.getInputStream()) {
+            val issuer = CertUtils.readCertificate(in);
+            cert.verify(issuer.getPublicKey());
+            return issuer;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @SneakyThrows
+    private CertificateStatus queryResponder(final X509Certificate cert, final X509Certificate issuer, final CertificateID certificateId) {
+        val url = StringUtils.isNotBlank(this.responderUrl)
+            ? this.responderUrl
+            : getAccessLocations(cert, AccessDescription.id_ad_ocsp).stream().findFirst().orElse(null);
+        if (StringUtils.isBlank(url)) {
+            LOGGER.warn("No OCSP responder is defined for [{}]", CertUtils.toString(cert));
+            return null;
+        }
+        LOGGER.debug("Querying OCSP responder [{}] for [{}]", url, CertUtils.toString(cert));
+        val request = new OCSPReqBuilder().addRequest(certificateId).build();
+        val connection = openConnection(url);
+        try {
+            connection.setDoOutput(true);
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", OCSP_REQUEST_CONTENT_TYPE);
+            connection.setRequestProperty("Accept", OCSP_RESPONSE_CONTENT_TYPE);
+            try (val out = connection.getOutputStream()) {
+                out.write(request.getEncoded());
+            }
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException("OCSP responder " + url + " returned status " + connection.getResponseCode());
+            }
+            try (val in = connection.getInputStream()) {
+                val response = new OCSPResp(in.readAllBytes());
+                return getCertificateStatus(response, issuer, certificateId);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private CertificateStatus getCertificateStatus(final OCSPResp response, final X509Certificate issuer,
+                                                   final CertificateID certificateId) throws Exception {
+        if (response.getStatus() != OCSPResp.SUCCESSFUL) {
+            throw new OCSPException("OCSP responder returned unsuccessful status " + response.getStatus());
+        }
+        val basicResponse = (BasicOCSPResp) response.getResponseObject();
+        verifyResponse(basicResponse, issuer);
+
+        val singleResponse = Arrays.stream(basicResponse.getResponses())
+            .filter(resp -> certificateId.equals(resp.getCertID()))
+            .findFirst()
+            .orElseThrow(() -> new OCSPException("OCSP response does not contain the status of the requested certificate"));
+
+        val now = System.currentTimeMillis();
+        if (singleResponse.getThisUpdate().getTime() > now + ALLOWED_CLOCK_SKEW) {
+            throw new OCSPException("OCSP response is not yet valid");
+        }
+        if (singleResponse.getNextUpdate() != null && singleResponse.getNextUpdate().getTime() < now - ALLOWED_CLOCK_SKEW) {
+            throw new OCSPException("OCSP response has expired");
+        }
+        return CertificateStatus.from(singleResponse);
+    }
+
+    private static void verifyResponse(final BasicOCSPResp response, final X509Certificate issuer) throws Exception {
+        var signerKey = issuer.getPublicKey();
+        val certificates = response.getCerts();
+        if (certificates != null && certificates.length > 0) {
+            val responder = new JcaX509CertificateConverter().getCertificate(certificates[0]);
+            if (!responder.equals(issuer)) {
+                responder.verify(issuer.getPublicKey());
+                responder.checkValidity();
+                val usages = responder.getExtendedKeyUsage();
+                if (usages == null || !usages.contains(KeyPurposeId.id_kp_OCSPSigning.getId())) {
+                    throw new OCSPException("OCSP responder certificate is not authorized to sign OCSP responses");
+                }
+                signerKey = responder.getPublicKey();
+            }
+        }
+        if (!response.isSignatureValid(new JcaContentVerifierProviderBuilder().build(signerKey))) {
+            throw new OCSPException("OCSP response signature is not valid");
+        }
+    }
+
+    private HttpURLConnection openConnection(final String location) throws IOException {
+        val connection = (HttpURLConnection) new URL(location).openConnection();
+        val millis = (int) this.timeout.toMillis();
+        connection.setConnectTimeout(millis);
+        connection.setReadTimeout(millis);
+        return connection;
+    }
+
+    /**
+     * Status of a certificate, as reported by a verified OCSP response.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    protected static class CertificateStatus {
+        private final State state;
+
+        private final Date revocationDate;
+
+        private final Integer reason;
+
+        private final Date nextUpdate;
+
+        /**
+         * Build the status from the single response.
+         *
+         * @param response the response
+         * @return the certificate status
+         */
+        static CertificateStatus from(final SingleResp response) {
+            val status = response.getCertStatus();
+            if (status == org.bouncycastle.cert.ocsp.CertificateStatus.GOOD) {
+                return new CertificateStatus(State.GOOD, null, null, response.getNextUpdate());
+            }
+            if (status instanceof RevokedStatus) {
+                val revoked = (RevokedStatus) status;
+                val reason = revoked.hasRevocationReason() ? revoked.getRevocationReason() : null;
+                return new CertificateStatus(State.REVOKED, revoked.getRevocationTime(), reason, response.getNextUpdate());
+            }
+            return new CertificateStatus(State.UNKNOWN, null, null, response.getNextUpdate());
+        }
+
+        /**
+         * Certificate states.
+         */
+        enum State {
+            /**
+             * Certificate is not revoked.
+             */
+            GOOD,
+            /**
+             * Certificate is revoked.
+             */
+            REVOKED,
+            /**
+             * Certificate is not known to the responder.
+             */
+            UNKNOWN
+        }
+    }
+
+    /**
+     * Keeps statuses until the next update of the response they came from.
+     */
+    private static class CertificateStatusExpiry implements Expiry<String, CertificateStatus> {
+        @Override
+        public long expireAfterCreate(final String key, final CertificateStatus value, final long currentTime) {
+            val nextUpdate = value.getNextUpdate();
+            if (nextUpdate == null) {
+                return 0;
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, nextUpdate.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(final String key, final CertificateStatus value,
+                                      final long currentTime, final long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final String key, final CertificateStatus value,
+                                    final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
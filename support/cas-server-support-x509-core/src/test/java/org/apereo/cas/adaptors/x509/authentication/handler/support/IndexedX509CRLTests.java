@@ -0,0 +1,82 @@
+package org.apereo.cas.adaptors.x509.authentication.handler.support;
+
+import org.apereo.cas.adaptors.x509.authentication.ResourceCRLFetcher;
+import org.apereo.cas.adaptors.x509.authentication.revocation.checker.IndexedX509CRL;
+import org.apereo.cas.util.crypto.CertUtils;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.cert.X509CRL;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link IndexedX509CRLTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public class IndexedX509CRLTests {
+
+    @Test
+    public void verifyRevocationLookup() throws Exception {
+        val crl = new ResourceCRLFetcher().fetch(new ClassPathResource("userCA-valid.crl"));
+        val indexed = IndexedX509CRL.of(crl);
+        assertTrue(indexed instanceof IndexedX509CRL);
+        assertSame(indexed, IndexedX509CRL.of(indexed));
+
+        assertEquals(crl.getIssuerX500Principal(), indexed.getIssuerX500Principal());
+        assertEquals(crl.getThisUpdate(), indexed.getThisUpdate());
+        assertEquals(crl.getNextUpdate(), indexed.getNextUpdate());
+        assertEquals(crl.getRevokedCertificates().size(), ((IndexedX509CRL) indexed).size());
+        assertEquals(crl.getRevokedCertificates().size(), indexed.getRevokedCertificates().size());
+
+        val revoked = CertUtils.readCertificate(new ClassPathResource("user-revoked.crt"));
+        val entry = indexed.getRevokedCertificate(revoked);
+        assertNotNull(entry);
+        assertEquals(crl.getRevokedCertificate(revoked).getSerialNumber(), entry.getSerialNumber());
+        assertEquals(crl.getRevokedCertificate(revoked).getRevocationDate(), entry.getRevocationDate());
+        assertTrue(indexed.isRevoked(revoked));
+
+        val valid = CertUtils.readCertificate(new ClassPathResource("user-valid.crt"));
+        assertNull(indexed.getRevokedCertificate(valid));
+        assertFalse(indexed.isRevoked(valid));
+    }
+
+    @Test
+    public void verifyExtensions() throws Exception {
+        val crl = new ResourceCRLFetcher().fetch(new ClassPathResource("userCA-valid.crl"));
+        val indexed = IndexedX509CRL.of(crl);
+        assertEquals(crl.hasUnsupportedCriticalExtension(), indexed.hasUnsupportedCriticalExtension());
+        assertEquals(crl.getCriticalExtensionOIDs(), indexed.getCriticalExtensionOIDs());
+        assertEquals(crl.getNonCriticalExtensionOIDs(), indexed.getNonCriticalExtensionOIDs());
+    }
+
+    @Test
+    public void verifyUnsupportedCriticalExtension() {
+        val oid = "2.5.29.28";
+        val value = oid.getBytes(StandardCharsets.UTF_8);
+        val crl = mock(X509CRL.class);
+        when(crl.hasUnsupportedCriticalExtension()).thenReturn(true);
+        when(crl.getCriticalExtensionOIDs()).thenReturn(Set.of(oid));
+        when(crl.getExtensionValue(oid)).thenReturn(value);
+
+        val indexed = IndexedX509CRL.of(crl);
+        assertTrue(indexed instanceof IndexedX509CRL);
+        assertTrue(indexed.hasUnsupportedCriticalExtension());
+        assertEquals(Set.of(oid), indexed.getCriticalExtensionOIDs());
+        assertNull(indexed.getNonCriticalExtensionOIDs());
+        assertArrayEquals(value, indexed.getExtensionValue(oid));
+        assertNull(indexed.getExtensionValue("2.5.29.20"));
+    }
+
+    @Test
+    public void verifyNullCrl() {
+        assertNull(IndexedX509CRL.of((X509CRL) null));
+    }
+}
@@ -0,0 +1,143 @@
+package org.apereo.cas.adaptors.x509.authentication.handler.support;
+
+import org.apereo.cas.adaptors.x509.authentication.revocation.RevokedCertificateException;
+import org.apereo.cas.adaptors.x509.authentication.revocation.checker.OCSPRevocationChecker;
+import org.apereo.cas.adaptors.x509.authentication.revocation.policy.AllowRevocationPolicy;
+import org.apereo.cas.adaptors.x509.authentication.revocation.policy.DenyRevocationPolicy;
+import org.apereo.cas.util.MockWebServer;
+
+import lombok.val;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.RespID;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link OCSPRevocationChecker} class, using a local stand-in responder.
+ *
+ * @author Misagh Moayyed
+ * @since 6.1.0
+ */
+public class OCSPRevocationCheckerTests {
+    private static KeyPair CA_KEYS;
+
+    private static X509Certificate CA_CERTIFICATE;
+
+    @BeforeAll
+    public static void initialize() throws Exception {
+        CA_KEYS = generateKeyPair();
+        CA_CERTIFICATE = createCertificate("CN=OCSP Test CA", CA_KEYS, BigInteger.ONE, true);
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        val generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static X509Certificate createCertificate(final String subject, final KeyPair subjectKeys,
+                                                     final BigInteger serial, final boolean ca) throws Exception {
+        val now = System.currentTimeMillis();
+        val builder = new JcaX509v3CertificateBuilder(new X500Name("CN=OCSP Test CA"), serial,
+            new Date(now - TimeUnit.DAYS.toMillis(1)), new Date(now + TimeUnit.DAYS.toMillis(1)),
+            new X500Name(subject), subjectKeys.getPublic());
+        builder.addExtension(Extension.basicConstraints, true, new BasicConstraints(ca));
+        val signer = new JcaContentSignerBuilder("SHA256withRSA").build(CA_KEYS.getPrivate());
+        return new JcaX509CertificateConverter().getCertificate(builder.build(signer));
+    }
+
+    private static byte[] createResponse(final X509Certificate cert, final CertificateStatus status) throws Exception {
+        val certificateId = new CertificateID(new JcaDigestCalculatorProviderBuilder().build().get(CertificateID.HASH_SHA1),
+            new JcaX509CertificateHolder(CA_CERTIFICATE), cert.getSerialNumber());
+        val now = System.currentTimeMillis();
+        val builder = new BasicOCSPRespBuilder(new RespID(new JcaX509CertificateHolder(CA_CERTIFICATE).getSubject()));
+        builder.addResponse(certificateId, status, new Date(now - TimeUnit.MINUTES.toMillis(1)), new Date(now + TimeUnit.HOURS.toMillis(1)));
+        val basic = builder.build(new JcaContentSignerBuilder("SHA256withRSA").build(CA_KEYS.getPrivate()), null, new Date(now));
+        return new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL, basic).getEncoded();
+    }
+
+    private static OCSPRevocationChecker getChecker(final int port, final boolean deny) {
+        val checker = new OCSPRevocationChecker(List.of(CA_CERTIFICATE), deny ? new DenyRevocationPolicy() : new AllowRevocationPolicy());
+        checker.setResponderUrl("http://localhost:" + port);
+        return checker;
+    }
+
+    @Test
+    public void verifyGoodStatusIsCached() throws Exception {
+        val cert = createCertificate("CN=good", generateKeyPair(), BigInteger.valueOf(100), false);
+        val checker = getChecker(8095, true);
+        try (val webServer = new MockWebServer(8095,
+            new ByteArrayResource(createResponse(cert, CertificateStatus.GOOD)), "application/ocsp-response")) {
+            webServer.start();
+            checker.check(cert);
+        }
+        checker.check(cert);
+    }
+
+    @Test
+    public void verifyRevokedStatus() throws Exception {
+        val cert = createCertificate("CN=revoked", generateKeyPair(), BigInteger.valueOf(200), false);
+        val status = new RevokedStatus(new Date(), CRLReason.keyCompromise);
+        val checker = getChecker(8096, false);
+        try (val webServer = new MockWebServer(8096, new ByteArrayResource(createResponse(cert, status)), "application/ocsp-response")) {
+            webServer.start();
+            val ex = assertThrows(RevokedCertificateException.class, () -> checker.check(cert));
+            assertEquals(cert.getSerialNumber(), ex.getSerial());
+            assertEquals(RevokedCertificateException.Reason.KeyCompromise, ex.getReason());
+        }
+    }
+
+    @Test
+    public void verifyResponseSignedByUnknownKeyIsRejected() throws Exception {
+        val cert = createCertificate("CN=forged", generateKeyPair(), BigInteger.valueOf(300), false);
+        val forged = new OCSPRevocationChecker(List.of(createCertificate("CN=OCSP Test CA", generateKeyPair(), BigInteger.TEN, true)),
+            new DenyRevocationPolicy());
+        forged.setResponderUrl("http://localhost:8097");
+        try (val webServer = new MockWebServer(8097,
+            new ByteArrayResource(createResponse(cert, CertificateStatus.GOOD)), "application/ocsp-response")) {
+            webServer.start();
+            assertThrows(GeneralSecurityException.class, () -> forged.check(cert));
+        }
+    }
+
+    @Test
+    public void verifyUnavailableResponder() throws Exception {
+        val cert = createCertificate("CN=unavailable", generateKeyPair(), BigInteger.valueOf(400), false);
+        assertThrows(GeneralSecurityException.class, () -> getChecker(8098, true).check(cert));
+        getChecker(8098, false).check(cert);
+    }
+
+    @Test
+    public void verifyUnknownIssuer() throws Exception {
+        val keys = generateKeyPair();
+        val cert = new JcaX509CertificateConverter().getCertificate(new JcaX509v3CertificateBuilder(
+            new X500Name("CN=Unknown CA"), BigInteger.TWO, new Date(), new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)),
+            new X500Name("CN=orphan"), keys.getPublic()).build(new JcaContentSignerBuilder("SHA256withRSA").build(keys.getPrivate())));
+        assertThrows(GeneralSecurityException.class, () -> getChecker(8099, true).check(cert));
+    }
+}
@@ -13,6 +13,7 @@ import org.apereo.cas.adaptors.x509.authentication.principal.X509SubjectDNPrinci
 import org.apereo.cas.adaptors.x509.authentication.principal.X509SubjectPrincipalResolver;
 import org.apereo.cas.adaptors.x509.authentication.revocation.checker.CRLDistributionPointRevocationChecker;
 import org.apereo.cas.adaptors.x509.authentication.revocation.checker.NoOpRevocationChecker;
+import org.apereo.cas.adaptors.x509.authentication.revocation.checker.OCSPRevocationChecker;
 import org.apereo.cas.adaptors.x509.authentication.revocation.checker.ResourceCRLRevocationChecker;
 import org.apereo.cas.adaptors.x509.authentication.revocation.checker.RevocationChecker;
 import org.apereo.cas.adaptors.x509.authentication.revocation.policy.AllowRevocationPolicy;
@@ -26,9 +27,11 @@ import org.apereo.cas.authentication.principal.PrincipalFactoryUtils;
 import org.apereo.cas.authentication.principal.PrincipalResolver;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.support.x509.X509Properties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.util.LdapUtils;
 import org.apereo.cas.util.RegexUtils;
+import org.apereo.cas.util.crypto.CertUtils;
 
 import lombok.val;
 import net.sf.ehcache.Cache;
@@ -142,6 +145,23 @@ public class X509AuthenticationConfiguration {
             x509CrlResources);
     }
 
+    @Bean
+    @RefreshScope
+    @ConditionalOnMissingBean(name = "ocspRevocationChecker")
+    public RevocationChecker ocspRevocationChecker() {
+        val x509 = casProperties.getAuthn().getX509();
+        val issuers = x509.getOcspIssuerCertificates()
+            .stream()
+            .map(s -> CertUtils.readCertificate(this.resourceLoader.getResource(s)))
+            .collect(Collectors.toList());
+        val checker = new OCSPRevocationChecker(issuers,
+            getRevocationPolicy(x509.getOcspUnavailablePolicy()),
+            x509.getOcspCacheMaxElements());
+        checker.setResponderUrl(x509.getOcspResponderUrl());
+        checker.setTimeout(Beans.newDuration(x509.getOcspTimeout()));
+        return checker;
+    }
+
     @Bean
     @RefreshScope
     @ConditionalOnMissingBean(name = "crlFetcher")
@@ -398,6 +418,9 @@ public class X509AuthenticationConfiguration {
         if ("crl".equalsIgnoreCase(checker)) {
             return crlDistributionPointRevocationChecker();
         }
+        if ("ocsp".equalsIgnoreCase(checker)) {
+            return ocspRevocationChecker();
+        }
         return noOpRevocationChecker();
     }
 